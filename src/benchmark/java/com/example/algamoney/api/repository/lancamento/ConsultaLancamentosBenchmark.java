@@ -0,0 +1,192 @@
+package com.example.algamoney.api.repository.lancamento;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.algamoney.api.AlgamoneyApiApplication;
+import com.example.algamoney.api.BancoTeste;
+import com.example.algamoney.api.cache.CacheResumoLancamentos;
+import com.example.algamoney.api.model.Categoria_;
+import com.example.algamoney.api.model.Lancamento;
+import com.example.algamoney.api.model.Lancamento_;
+import com.example.algamoney.api.model.Pessoa_;
+import com.example.algamoney.api.repository.filter.LancamentoFilter;
+import com.example.algamoney.api.repository.projection.ResumoLancamento;
+
+/**
+ * filtrar e resumir contra o banco de teste: JPQL fixo por máscara do filtro contra a
+ * CriteriaQuery montada a cada chamada, como antes da máscara. Com cachePlanos=false o
+ * Hibernate interpreta o JPQL de novo a cada chamada, o que separa o ganho do
+ * reaproveitamento de plano do resto. O cache de resumos fica desligado, e os dois
+ * caminhos usam o mesmo EntityManager.
+ *
+ * Sobe a aplicação inteira em cada fork (o setup leva uns 40s).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConsultaLancamentosBenchmark {
+
+	@Param({ "true", "false" })
+	public boolean cachePlanos;
+
+	private final Pageable pageable = PageRequest.of(0, 5);
+
+	private ConfigurableApplicationContext contexto;
+	private EntityManager manager;
+	private LancamentoRepositoryImpl repositorio;
+	private LancamentoFilter filtro;
+	private int mascara;
+
+	@Setup(Level.Trial)
+	public void preparar() {
+		contexto = new SpringApplicationBuilder(AlgamoneyApiApplication.class)
+				.profiles("basic-security", "teste")
+				.run("--spring.datasource.url=" + BancoTeste.url(),
+						"--server.port=0",
+						"--algamoney.resumo-cache.habilitado=false",
+						"--spring.jpa.properties.hibernate.query.plan_cache_enabled=" + cachePlanos);
+		manager = contexto.getBean(EntityManagerFactory.class).createEntityManager();
+
+		repositorio = new LancamentoRepositoryImpl();
+		ReflectionTestUtils.setField(repositorio, "manager", manager);
+		ReflectionTestUtils.setField(repositorio, "cacheResumo", contexto.getBean(CacheResumoLancamentos.class));
+
+		// Só os campos que o caminho antigo filtrava
+		filtro = new LancamentoFilter();
+		filtro.setDescricao("a");
+		filtro.setDataVencimentoDe(LocalDate.of(2017, 1, 1));
+		filtro.setDataVencimentoAte(LocalDate.of(2017, 12, 31));
+		mascara = LancamentoRepositoryImpl.mascara(filtro);
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		manager.close();
+		contexto.close();
+	}
+
+	// Sem acumular entidades no contexto de persistência entre chamadas
+	@TearDown(Level.Invocation)
+	public void limpar() {
+		manager.clear();
+	}
+
+	@Benchmark
+	public Object montarJpql() {
+		return manager.createQuery(LancamentoRepositoryImpl.Consulta.LANCAMENTO.jpql(mascara)
+				+ OrdenacaoLancamentos.jpql(pageable.getSort()), Lancamento.class);
+	}
+
+	@Benchmark
+	public Object montarCriteria() {
+		CriteriaBuilder builder = manager.getCriteriaBuilder();
+		CriteriaQuery<Lancamento> criteria = builder.createQuery(Lancamento.class);
+		Root<Lancamento> root = criteria.from(Lancamento.class);
+		root.fetch(Lancamento_.categoria);
+		root.fetch(Lancamento_.pessoa);
+		criteria.where(criarRestricoes(builder, root));
+		return manager.createQuery(criteria);
+	}
+
+	@Benchmark
+	public Page<Lancamento> filtrarJpql() {
+		return repositorio.filtrar(filtro, pageable);
+	}
+
+	@Benchmark
+	public Page<Lancamento> filtrarCriteria() {
+		CriteriaBuilder builder = manager.getCriteriaBuilder();
+		CriteriaQuery<Lancamento> criteria = builder.createQuery(Lancamento.class);
+		Root<Lancamento> root = criteria.from(Lancamento.class);
+		root.fetch(Lancamento_.categoria);
+		root.fetch(Lancamento_.pessoa);
+		criteria.where(criarRestricoes(builder, root));
+
+		TypedQuery<Lancamento> query = manager.createQuery(criteria);
+		paginar(query);
+		return new PageImpl<>(query.getResultList(), pageable, totalCriteria());
+	}
+
+	@Benchmark
+	public Page<ResumoLancamento> resumirJpql() {
+		return repositorio.resumir(filtro, pageable);
+	}
+
+	@Benchmark
+	public Page<ResumoLancamento> resumirCriteria() {
+		CriteriaBuilder builder = manager.getCriteriaBuilder();
+		CriteriaQuery<ResumoLancamento> criteria = builder.createQuery(ResumoLancamento.class);
+		Root<Lancamento> root = criteria.from(Lancamento.class);
+		criteria.select(builder.construct(ResumoLancamento.class
+				, root.get(Lancamento_.codigo), root.get(Lancamento_.descricao)
+				, root.get(Lancamento_.dataVencimento), root.get(Lancamento_.dataPagamento)
+				, root.get(Lancamento_.valor), root.get(Lancamento_.tipo)
+				, root.get(Lancamento_.categoria).get(Categoria_.nome)
+				, root.get(Lancamento_.pessoa).get(Pessoa_.nome)));
+		criteria.where(criarRestricoes(builder, root));
+
+		TypedQuery<ResumoLancamento> query = manager.createQuery(criteria);
+		paginar(query);
+		return new PageImpl<>(query.getResultList(), pageable, totalCriteria());
+	}
+
+	private Long totalCriteria() {
+		CriteriaBuilder builder = manager.getCriteriaBuilder();
+		CriteriaQuery<Long> criteria = builder.createQuery(Long.class);
+		Root<Lancamento> root = criteria.from(Lancamento.class);
+		criteria.where(criarRestricoes(builder, root));
+		criteria.select(builder.count(root));
+		return manager.createQuery(criteria).getSingleResult();
+	}
+
+	// Como era antes da máscara: os valores entram na árvore da consulta
+	private Predicate[] criarRestricoes(CriteriaBuilder builder, Root<Lancamento> root) {
+		List<Predicate> predicates = new ArrayList<>();
+		predicates.add(builder.like(builder.lower(root.get(Lancamento_.descricao)),
+				"%" + filtro.getDescricao().toLowerCase() + "%"));
+		predicates.add(builder.greaterThanOrEqualTo(root.get(Lancamento_.dataVencimento), filtro.getDataVencimentoDe()));
+		predicates.add(builder.lessThanOrEqualTo(root.get(Lancamento_.dataVencimento), filtro.getDataVencimentoAte()));
+		return predicates.toArray(new Predicate[predicates.size()]);
+	}
+
+	private void paginar(TypedQuery<?> query) {
+		query.setFirstResult((int) pageable.getOffset());
+		query.setMaxResults(pageable.getPageSize());
+	}
+
+}
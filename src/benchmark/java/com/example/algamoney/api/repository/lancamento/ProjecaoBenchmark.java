@@ -0,0 +1,55 @@
+package com.example.algamoney.api.repository.lancamento;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+
+import com.example.algamoney.api.repository.filter.LancamentoFilter;
+
+/**
+ * JPQL de um ?fields= por requisição: lido do cache por (máscara, campos, ordenação)
+ * contra montado a cada chamada, como antes do cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProjecaoBenchmark {
+
+	private final CamposLancamento campos = CamposLancamento.de("codigo,descricao,dataVencimento,valor,pessoa.nome");
+	private final Sort sort = Sort.by("dataVencimento", "descricao");
+	private int mascara;
+
+	@Setup
+	public void preparar() {
+		LancamentoFilter filtro = new LancamentoFilter();
+		filtro.setDescricao("luz");
+		filtro.setDataVencimentoDe(LocalDate.of(2017, 1, 1));
+		filtro.setDataVencimentoAte(LocalDate.of(2017, 12, 31));
+		mascara = LancamentoRepositoryImpl.mascara(filtro);
+	}
+
+	@Benchmark
+	public String emCache() {
+		return LancamentoRepositoryImpl.jpqlProjecao(mascara, campos, sort);
+	}
+
+	@Benchmark
+	public String montada() {
+		return new LancamentoRepositoryImpl.Projecao(mascara, campos, OrdenacaoLancamentos.chaves(sort)).criarJpql();
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.example.algamoney.api.security;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.security.access.expression.SecurityExpressionRoot;
+import org.springframework.security.core.Authentication;
+
+import com.example.algamoney.api.model.Permissao;
+import com.example.algamoney.api.repository.PermissaoRepository;
+import com.example.algamoney.api.token.EmissorTokensTeste;
+
+/**
+ * Checagem de um {@link Autorizacao} por requisição: teste de bit da {@link RegraAutorizacao}
+ * contra a expressão SpEL do antigo @PreAuthorize, avaliada com uma raiz nova por chamada
+ * como o Spring Security faz.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RegraAutorizacaoBenchmark {
+
+	private static final String PERMISSAO = "ROLE_PESQUISAR_LANCAMENTO";
+
+	private RegraAutorizacao regra;
+	private PermissoesAuthentication authentication;
+	private Expression expressao;
+
+	@Setup
+	public void preparar() {
+		List<Permissao> permissoes = new ArrayList<>();
+		for (String descricao : EmissorTokensTeste.TODAS_PERMISSOES) {
+			Permissao permissao = new Permissao();
+			permissao.setCodigo((long) permissoes.size() + 1);
+			permissao.setDescricao(descricao);
+			permissoes.add(permissao);
+		}
+		PermissaoRepository repositorio = mock(PermissaoRepository.class);
+		when(repositorio.findAll()).thenReturn(permissoes);
+		CatalogoPermissoes catalogo = new CatalogoPermissoes(repositorio);
+
+		regra = new RegraAutorizacao(PERMISSAO, catalogo.codigo(PERMISSAO), Escopo.mascara(Escopo.READ));
+		authentication = new PermissoesAuthentication("admin@algamoney.com",
+				catalogo.permissoes(EmissorTokensTeste.TODAS_PERMISSOES), Escopo.TODOS, catalogo);
+		expressao = new SpelExpressionParser().parseExpression("hasAuthority('" + PERMISSAO + "') and hasScope('read')");
+	}
+
+	@Benchmark
+	public boolean bitset() {
+		return regra.permite(authentication);
+	}
+
+	@Benchmark
+	public boolean spel() {
+		return expressao.getValue(new StandardEvaluationContext(new Raiz(authentication)), Boolean.class);
+	}
+
+	// Raiz das expressões do @PreAuthorize, com o hasScope que vinha do #oauth2
+	public static class Raiz extends SecurityExpressionRoot {
+
+		Raiz(Authentication authentication) {
+			super(authentication);
+		}
+
+		public boolean hasScope(String escopo) {
+			return ((PermissoesAuthentication) getAuthentication()).possuiEscopos(Escopo.mascara(escopo));
+		}
+
+	}
+
+}
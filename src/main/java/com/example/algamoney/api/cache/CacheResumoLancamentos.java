@@ -0,0 +1,201 @@
+package com.example.algamoney.api.cache;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.repository.filter.LancamentoFilter;
+import com.example.algamoney.api.repository.projection.ResumoLancamento;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache das páginas de GET /lancamentos?resumo, por filtro normalizado + paginação.
+ *
+ * Cada entrada é marcada com o intervalo de dataVencimento do filtro (sem limite quando
+ * o filtro não restringe). Escritas invalidam só as entradas cujo intervalo contém as
+ * datas alteradas. Consultas idênticas simultâneas esperam a primeira em vez de irem
+ * todas ao banco (single-flight); se uma invalidação chega durante a consulta, o
+ * resultado é entregue mas não guardado, pois pode ter sido lido antes do commit.
+ *
+ * O TTL limita o que não passa pelo outbox (alterações feitas direto no banco).
+ *
+ * Métricas: algamoney.cache.resumo (tag resultado = acerto, falta, aguardou), algamoney.cache.resumo.entradas.
+ */
+@Component
+public class CacheResumoLancamentos {
+
+	private final Map<List<Object>, Entrada> entradas = new ConcurrentHashMap<>();
+	private final Map<List<Object>, Carga> emAndamento = new ConcurrentHashMap<>();
+
+	private final AlgamoneyApiProperty.ResumoCache configuracao;
+	private final Counter acertos;
+	private final Counter faltas;
+	private final Counter aguardos;
+
+	public CacheResumoLancamentos(AlgamoneyApiProperty algamoneyApiProperty, MeterRegistry meterRegistry) {
+		this.configuracao = algamoneyApiProperty.getResumoCache();
+		this.acertos = contador(meterRegistry, "acerto");
+		this.faltas = contador(meterRegistry, "falta");
+		this.aguardos = contador(meterRegistry, "aguardou");
+		Gauge.builder("algamoney.cache.resumo.entradas", entradas, Map::size).register(meterRegistry);
+	}
+
+	public Page<ResumoLancamento> obter(LancamentoFilter filtro, Pageable pageable,
+			Supplier<Page<ResumoLancamento>> consulta) {
+		if (!configuracao.isHabilitado()) {
+			return consulta.get();
+		}
+
+		List<Object> chave = chave(filtro, pageable);
+		long agora = System.currentTimeMillis();
+
+		Entrada entrada = entradas.get(chave);
+		if (entrada != null && entrada.expiraEm > agora) {
+			acertos.increment();
+			return entrada.pagina;
+		}
+
+		Carga carga = new Carga(filtro.getDataVencimentoDe(), filtro.getDataVencimentoAte());
+		Carga existente = emAndamento.putIfAbsent(chave, carga);
+		if (existente != null) {
+			aguardos.increment();
+			return aguardar(existente);
+		}
+
+		faltas.increment();
+		try {
+			Page<ResumoLancamento> pagina = consulta.get();
+			if (!carga.invalidada) {
+				Entrada nova = new Entrada(pagina, carga.de, carga.ate, agora + configuracao.getTtlSegundos() * 1000L);
+				guardar(chave, nova);
+				// Invalidação entre o teste acima e o put: invalidar() marca antes de remover
+				if (carga.invalidada) {
+					entradas.remove(chave, nova);
+				}
+			}
+			carga.futuro.complete(pagina);
+			return pagina;
+		} catch (RuntimeException e) {
+			carga.futuro.completeExceptionally(e);
+			throw e;
+		} finally {
+			emAndamento.remove(chave, carga);
+		}
+	}
+
+	/**
+	 * Remove as entradas (e descarta as cargas em andamento) cujo intervalo de vencimento
+	 * cruza [de, ate]. null em qualquer ponta significa sem limite daquele lado.
+	 */
+	public void invalidar(LocalDate de, LocalDate ate) {
+		for (Carga carga : emAndamento.values()) {
+			if (sobrepoe(carga.de, carga.ate, de, ate)) {
+				carga.invalidada = true;
+			}
+		}
+		entradas.values().removeIf(entrada -> sobrepoe(entrada.de, entrada.ate, de, ate));
+	}
+
+	public void invalidarTudo() {
+		invalidar(null, null);
+	}
+
+	private void guardar(List<Object> chave, Entrada entrada) {
+		if (entradas.size() >= configuracao.getMaximoEntradas()) {
+			long agora = System.currentTimeMillis();
+			for (Iterator<Entrada> existentes = entradas.values().iterator(); existentes.hasNext();) {
+				if (existentes.next().expiraEm <= agora) {
+					existentes.remove();
+				}
+			}
+			if (entradas.size() >= configuracao.getMaximoEntradas()) {
+				return;
+			}
+		}
+		entradas.put(chave, entrada);
+	}
+
+	private static Page<ResumoLancamento> aguardar(Carga carga) {
+		try {
+			return carga.futuro.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException causa) {
+				throw causa;
+			}
+			throw e;
+		}
+	}
+
+	private static boolean sobrepoe(LocalDate deEntrada, LocalDate ateEntrada, LocalDate de, LocalDate ate) {
+		boolean depoisDoInicio = deEntrada == null || ate == null || !ate.isBefore(deEntrada);
+		boolean antesDoFim = ateEntrada == null || de == null || !de.isAfter(ateEntrada);
+		return depoisDoInicio && antesDoFim;
+	}
+
+	private static List<Object> chave(LancamentoFilter filtro, Pageable pageable) {
+		String descricao = StringUtils.hasLength(filtro.getDescricao()) ? filtro.getDescricao().toLowerCase() : null;
+		return Arrays.asList(descricao, filtro.getDataVencimentoDe(), filtro.getDataVencimentoAte(),
+				filtro.getCodigoCategoria(), filtro.getCodigoPessoa(), filtro.getTipo(),
+				normalizar(filtro.getValorDe()), normalizar(filtro.getValorAte()),
+				filtro.getDataPagamentoDe(), filtro.getDataPagamentoAte(), filtro.getPendente(),
+				pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+	}
+
+	// 10 e 10.00 precisam cair na mesma entrada
+	private static BigDecimal normalizar(BigDecimal valor) {
+		return valor != null ? valor.stripTrailingZeros() : null;
+	}
+
+	private static Counter contador(MeterRegistry meterRegistry, String resultado) {
+		return Counter.builder("algamoney.cache.resumo")
+				.tag("resultado", resultado)
+				.register(meterRegistry);
+	}
+
+	private static final class Entrada {
+
+		private final Page<ResumoLancamento> pagina;
+		private final LocalDate de;
+		private final LocalDate ate;
+		private final long expiraEm;
+
+		private Entrada(Page<ResumoLancamento> pagina, LocalDate de, LocalDate ate, long expiraEm) {
+			this.pagina = pagina;
+			this.de = de;
+			this.ate = ate;
+			this.expiraEm = expiraEm;
+		}
+
+	}
+
+	private static final class Carga {
+
+		private final CompletableFuture<Page<ResumoLancamento>> futuro = new CompletableFuture<>();
+		private final LocalDate de;
+		private final LocalDate ate;
+		private volatile boolean invalidada;
+
+		private Carga(LocalDate de, LocalDate ate) {
+			this.de = de;
+			this.ate = ate;
+		}
+
+	}
+
+}
@@ -0,0 +1,136 @@
+package com.example.algamoney.api.cache;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.event.Operacao;
+import com.example.algamoney.api.event.TipoRecurso;
+import com.example.algamoney.api.event.outbox.MarcaDaguaOutbox;
+import com.example.algamoney.api.model.EventoOutbox;
+import com.example.algamoney.api.repository.EventoOutboxRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Invalida os caches locais em todas as instâncias sem broker externo.
+ *
+ * O log de invalidação é o próprio evento_outbox: toda alteração de categoria, pessoa ou
+ * lançamento já grava ali um registro na mesma transação. Cada instância lê os registros
+ * acima da sua marca d'água a cada algamoney.cache.intervalo-ms, então o atraso máximo
+ * para outra instância é esse intervalo. Na instância que fez a alteração o cache é
+ * limpo logo depois do commit.
+ *
+ * Um código menor pode ser confirmado depois de um maior (transações concorrentes); as
+ * lacunas que isso deixa são acompanhadas pela MarcaDaguaOutbox, a mesma do feed SSE.
+ *
+ * Métrica: algamoney.cache.invalidacoes.
+ */
+@Component
+public class InvalidacaoCacheCluster {
+
+	private static final Logger logger = LoggerFactory.getLogger(InvalidacaoCacheCluster.class);
+
+	private final MarcaDaguaOutbox marcaDagua;
+	private final CacheManager cacheManager;
+	private final CacheResumoLancamentos cacheResumo;
+	private final Counter invalidacoes;
+
+	public InvalidacaoCacheCluster(EventoOutboxRepository eventoOutboxRepository, CacheManager cacheManager,
+			CacheResumoLancamentos cacheResumo, AlgamoneyApiProperty algamoneyApiProperty, MeterRegistry meterRegistry) {
+		this.marcaDagua = new MarcaDaguaOutbox(eventoOutboxRepository, algamoneyApiProperty.getOutbox().getTamanhoLote());
+		this.cacheManager = cacheManager;
+		this.cacheResumo = cacheResumo;
+		this.invalidacoes = Counter.builder("algamoney.cache.invalidacoes")
+				.description("Entradas de cache invalidadas por alterações de outras instâncias ou locais")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Limpa o cache desta instância assim que a transação corrente confirmar.
+	 */
+	public void invalidarAposCommit(TipoRecurso tipoRecurso, Operacao operacao, Collection<Long> codigos,
+			LocalDate dataInicio, LocalDate dataFim) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			invalidar(tipoRecurso, operacao, codigos, dataInicio, dataFim);
+			return;
+		}
+		List<Long> copia = new ArrayList<>(codigos);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				invalidar(tipoRecurso, operacao, copia, dataInicio, dataFim);
+			}
+		});
+	}
+
+	@Scheduled(fixedDelayString = "${algamoney.cache.intervalo-ms:1000}")
+	public void acompanhar() {
+		acompanhar(System.currentTimeMillis());
+	}
+
+	void acompanhar(long agora) {
+		// Caches começam vazios: na primeira leitura só posiciona, nada anterior precisa ser invalidado
+		marcaDagua.ler(agora, (eventos, tardios) -> eventos.forEach(this::aplicar));
+	}
+
+	private void aplicar(EventoOutbox evento) {
+		invalidar(evento.getTipoRecurso(), evento.getOperacao(), List.of(evento.getCodigoRecurso()),
+				evento.getDataInicio(), evento.getDataFim());
+	}
+
+	private void invalidar(TipoRecurso tipoRecurso, Operacao operacao, Collection<Long> codigos,
+			LocalDate dataInicio, LocalDate dataFim) {
+		switch (tipoRecurso) {
+		case CATEGORIA:
+			limpar(NomesCache.CATEGORIAS);
+			remover(NomesCache.CATEGORIA, codigos);
+			break;
+		case PESSOA:
+			remover(NomesCache.PESSOA, codigos);
+			// O resumo traz o nome da pessoa
+			if (operacao != Operacao.CRIADO) {
+				cacheResumo.invalidarTudo();
+			}
+			break;
+		case LANCAMENTO:
+			cacheResumo.invalidar(dataInicio, dataFim);
+			break;
+		default:
+			break;
+		}
+	}
+
+	private void remover(String nome, Collection<Long> codigos) {
+		Cache cache = cacheManager.getCache(nome);
+		if (cache == null) {
+			return;
+		}
+		for (Long codigo : codigos) {
+			cache.evict(codigo);
+		}
+		invalidacoes.increment(codigos.size());
+		logger.debug("Cache {}: {} entradas invalidadas", nome, codigos.size());
+	}
+
+	private void limpar(String nome) {
+		Cache cache = cacheManager.getCache(nome);
+		if (cache != null) {
+			cache.clear();
+			invalidacoes.increment();
+		}
+	}
+
+}
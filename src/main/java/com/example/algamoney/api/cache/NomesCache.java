@@ -0,0 +1,18 @@
+package com.example.algamoney.api.cache;
+
+/**
+ * Caches locais da aplicação. Todos são invalidados em cluster pelo {@link InvalidacaoCacheCluster}.
+ */
+public final class NomesCache {
+
+	public static final String CATEGORIAS = "categorias";
+	public static final String CATEGORIA = "categoria";
+	public static final String PESSOA = "pessoa";
+
+	// Chave única do cache CATEGORIAS (a lista inteira)
+	public static final String TODAS = "todas";
+
+	private NomesCache() {
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.example.algamoney.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.algamoney.api.security.AutorizacaoInterceptor;
+import com.example.algamoney.api.security.RegrasAutorizacao;
+
+/**
+ * Registra a checagem de {@link com.example.algamoney.api.security.Autorizacao} antes dos
+ * demais interceptors, para uma requisição negada não abrir orçamento de SQL.
+ */
+@Configuration
+public class AutorizacaoConfig implements WebMvcConfigurer {
+
+	private final RegrasAutorizacao regrasAutorizacao;
+
+	public AutorizacaoConfig(RegrasAutorizacao regrasAutorizacao) {
+		this.regrasAutorizacao = regrasAutorizacao;
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new AutorizacaoInterceptor(regrasAutorizacao)).order(Ordered.HIGHEST_PRECEDENCE);
+	}
+
+}
@@ -1,5 +1,7 @@
 package com.example.algamoney.api.config;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -31,7 +33,9 @@ public class BasicSecurityConfig {
 	public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
 		http
 			.authorizeHttpRequests(auth -> auth
-				.requestMatchers("/oauth/token").permitAll() // Permitir acesso ao endpoint de token
+				.requestMatchers("/oauth/token", "/oauth/revoke").permitAll() // Emissão e revogação (quem tem o token pode revogá-lo)
+				// Fim de conexões SSE: a requisição original já foi autorizada
+				.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 				.anyRequest().authenticated()
 			)
 			// Injetar filtro JWT (já usando constructor injection)
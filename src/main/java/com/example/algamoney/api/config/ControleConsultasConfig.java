@@ -0,0 +1,50 @@
+package com.example.algamoney.api.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.data.repository.Repository;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.query.ControleConsultasDataSource;
+import com.example.algamoney.api.query.TimeoutConsultaInterceptor;
+
+/**
+ * Timeouts por método de repositório (algamoney.consultas.timeouts) e cancelamento dos
+ * comandos SQL de uma consulta cancelável: o DataSource passa a entregar conexões que
+ * aplicam o timeout e registram os comandos em andamento.
+ */
+@Configuration
+public class ControleConsultasConfig {
+
+	@Bean
+	public static BeanPostProcessor controleConsultasDataSourcePostProcessor() {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && !(bean instanceof ControleConsultasDataSource)) {
+					return new ControleConsultasDataSource(dataSource);
+				}
+				return bean;
+			}
+
+		};
+	}
+
+	@Bean
+	@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+	public static Advisor timeoutConsultaAdvisor(AlgamoneyApiProperty algamoneyApiProperty) {
+		ComposablePointcut repositorios = new ComposablePointcut(Repository.class::isAssignableFrom);
+		return new DefaultPointcutAdvisor(repositorios,
+				new TimeoutConsultaInterceptor(algamoneyApiProperty.getConsultas().getTimeouts()));
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.example.algamoney.api.config;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.algamoney.api.pool.MonitorPoolDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Envolve o pool Hikari no {@link MonitorPoolDataSource}, medido e ajustado pelo
+ * {@link com.example.algamoney.api.pool.GerenciadorPool}.
+ */
+@Configuration
+public class PoolConexoesConfig {
+
+	@Bean
+	public static BeanPostProcessor monitorPoolDataSourcePostProcessor() {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && monitoravel(dataSource)) {
+					return new MonitorPoolDataSource(dataSource);
+				}
+				return bean;
+			}
+
+		};
+	}
+
+	// Independe da ordem dos outros DataSource que envolvem o pool
+	private static boolean monitoravel(DataSource dataSource) {
+		try {
+			return dataSource.isWrapperFor(HikariDataSource.class) && !dataSource.isWrapperFor(MonitorPoolDataSource.class);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.example.algamoney.api.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.query.QueryBudgetInspector;
+import com.example.algamoney.api.query.QueryBudgetInterceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Liga o orçamento de comandos SQL por requisição: o Hibernate usa o
+ * {@link QueryBudgetInspector} para contar os comandos e o MVC abre/fecha
+ * o orçamento em cada método de resource.
+ */
+@Configuration
+public class QueryBudgetConfig implements WebMvcConfigurer {
+
+	private final QueryBudgetInspector inspector = new QueryBudgetInspector();
+
+	private final AlgamoneyApiProperty algamoneyApiProperty;
+	private final MeterRegistry meterRegistry;
+
+	public QueryBudgetConfig(AlgamoneyApiProperty algamoneyApiProperty, MeterRegistry meterRegistry) {
+		this.algamoneyApiProperty = algamoneyApiProperty;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer queryBudgetHibernateCustomizer() {
+		return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new QueryBudgetInterceptor(inspector, algamoneyApiProperty.getQueryBudget(), meterRegistry));
+	}
+
+}
@@ -0,0 +1,32 @@
+package com.example.algamoney.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.resilience.CompartimentoInterceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Liga os bulkheads ({@link com.example.algamoney.api.resilience.Compartimento}) nos
+ * métodos de resource, depois da checagem de autorização.
+ */
+@Configuration
+public class ResilienciaConfig implements WebMvcConfigurer {
+
+	private final AlgamoneyApiProperty algamoneyApiProperty;
+	private final MeterRegistry meterRegistry;
+
+	public ResilienciaConfig(AlgamoneyApiProperty algamoneyApiProperty, MeterRegistry meterRegistry) {
+		this.algamoneyApiProperty = algamoneyApiProperty;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new CompartimentoInterceptor(algamoneyApiProperty.getResiliencia(), meterRegistry));
+	}
+
+}
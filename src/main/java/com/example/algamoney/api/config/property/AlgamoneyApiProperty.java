@@ -1,5 +1,10 @@
 package com.example.algamoney.api.config.property;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /*Nesta classe consigo seprar o que é seguranca e o que é infraEstrutura.*/
@@ -11,10 +16,88 @@ public class AlgamoneyApiProperty {
 
 	private final Seguranca seguranca = new Seguranca();
 
+	private final QueryBudget queryBudget = new QueryBudget();
+
+	private final Vencidos vencidos = new Vencidos();
+
+	private final Outbox outbox = new Outbox();
+
+	private final Feed feed = new Feed();
+
+	private final ResumoCache resumoCache = new ResumoCache();
+
+	private final Revogacao revogacao = new Revogacao();
+
+	private final RateLimit rateLimit = new RateLimit();
+
+	private final Concorrencia concorrencia = new Concorrencia();
+
+	private final Resiliencia resiliencia = new Resiliencia();
+
+	private final Consultas consultas = new Consultas();
+
+	private final Pool pool = new Pool();
+
+	private final Particionamento particionamento = new Particionamento();
+
+	private final Dashboard dashboard = new Dashboard();
+
 	public Seguranca getSeguranca() {
 		return seguranca;
 	}
 
+	public QueryBudget getQueryBudget() {
+		return queryBudget;
+	}
+
+	public Vencidos getVencidos() {
+		return vencidos;
+	}
+
+	public Outbox getOutbox() {
+		return outbox;
+	}
+
+	public Feed getFeed() {
+		return feed;
+	}
+
+	public ResumoCache getResumoCache() {
+		return resumoCache;
+	}
+
+	public Revogacao getRevogacao() {
+		return revogacao;
+	}
+
+	public RateLimit getRateLimit() {
+		return rateLimit;
+	}
+
+	public Concorrencia getConcorrencia() {
+		return concorrencia;
+	}
+
+	public Resiliencia getResiliencia() {
+		return resiliencia;
+	}
+
+	public Consultas getConsultas() {
+		return consultas;
+	}
+
+	public Pool getPool() {
+		return pool;
+	}
+
+	public Particionamento getParticionamento() {
+		return particionamento;
+	}
+
+	public Dashboard getDashboard() {
+		return dashboard;
+	}
+
 	public String getOriginPermitida() {
 		return originPermitida;
 	}
@@ -37,4 +120,653 @@ public class AlgamoneyApiProperty {
 
 	}
 
+	public static class QueryBudget {
+
+		// Máximo de comandos SQL por requisição quando o método não declara @QueryBudget
+		private int defaultMax = 10;
+
+		// Em testes, aborta a requisição assim que o orçamento é ultrapassado
+		private boolean failOnExceed;
+
+		public int getDefaultMax() {
+			return defaultMax;
+		}
+
+		public void setDefaultMax(int defaultMax) {
+			this.defaultMax = defaultMax;
+		}
+
+		public boolean isFailOnExceed() {
+			return failOnExceed;
+		}
+
+		public void setFailOnExceed(boolean failOnExceed) {
+			this.failOnExceed = failOnExceed;
+		}
+
+	}
+
+	public static class Vencidos {
+
+		private boolean habilitado = true;
+
+		// Lançamentos lidos por consulta keyset
+		private int tamanhoLote = 1000;
+
+		// Threads que processam os lotes de uma mesma leva
+		private int paralelismo = 4;
+
+		public boolean isHabilitado() {
+			return habilitado;
+		}
+
+		public void setHabilitado(boolean habilitado) {
+			this.habilitado = habilitado;
+		}
+
+		public int getTamanhoLote() {
+			return tamanhoLote;
+		}
+
+		public void setTamanhoLote(int tamanhoLote) {
+			this.tamanhoLote = tamanhoLote;
+		}
+
+		public int getParalelismo() {
+			return paralelismo;
+		}
+
+		public void setParalelismo(int paralelismo) {
+			this.paralelismo = paralelismo;
+		}
+
+	}
+
+	public static class Outbox {
+
+		// Eventos lidos por consulta de quem acompanha o outbox (caches e feed)
+		private int tamanhoLote = 100;
+
+		// Eventos ficam disponíveis por este tempo antes da limpeza (reenvio do feed, lacunas)
+		private int retencaoHoras = 24;
+
+		public int getTamanhoLote() {
+			return tamanhoLote;
+		}
+
+		public void setTamanhoLote(int tamanhoLote) {
+			this.tamanhoLote = tamanhoLote;
+		}
+
+		public int getRetencaoHoras() {
+			return retencaoHoras;
+		}
+
+		public void setRetencaoHoras(int retencaoHoras) {
+			this.retencaoHoras = retencaoHoras;
+		}
+
+	}
+
+	public static class Feed {
+
+		// Eventos aguardando envio por assinante; ao estourar, o cliente é desconectado
+		private int capacidadeBuffer = 256;
+
+		private int maximoAssinantes = 1000;
+
+		// Conexões são encerradas depois disso e o navegador reconecta sozinho
+		private int timeoutMinutos = 30;
+
+		// Threads que escrevem nas conexões, compartilhadas por todos os assinantes
+		private int threadsEnvio = 2;
+
+		public int getCapacidadeBuffer() {
+			return capacidadeBuffer;
+		}
+
+		public void setCapacidadeBuffer(int capacidadeBuffer) {
+			this.capacidadeBuffer = capacidadeBuffer;
+		}
+
+		public int getMaximoAssinantes() {
+			return maximoAssinantes;
+		}
+
+		public void setMaximoAssinantes(int maximoAssinantes) {
+			this.maximoAssinantes = maximoAssinantes;
+		}
+
+		public int getTimeoutMinutos() {
+			return timeoutMinutos;
+		}
+
+		public void setTimeoutMinutos(int timeoutMinutos) {
+			this.timeoutMinutos = timeoutMinutos;
+		}
+
+		public int getThreadsEnvio() {
+			return threadsEnvio;
+		}
+
+		public void setThreadsEnvio(int threadsEnvio) {
+			this.threadsEnvio = threadsEnvio;
+		}
+
+	}
+
+	public static class ResumoCache {
+
+		private boolean habilitado = true;
+
+		// Limite para alterações que não passam pelo outbox
+		private int ttlSegundos = 60;
+
+		// Páginas guardadas; cheio, só entra nova página depois que alguma expirar
+		private int maximoEntradas = 1000;
+
+		public boolean isHabilitado() {
+			return habilitado;
+		}
+
+		public void setHabilitado(boolean habilitado) {
+			this.habilitado = habilitado;
+		}
+
+		public int getTtlSegundos() {
+			return ttlSegundos;
+		}
+
+		public void setTtlSegundos(int ttlSegundos) {
+			this.ttlSegundos = ttlSegundos;
+		}
+
+		public int getMaximoEntradas() {
+			return maximoEntradas;
+		}
+
+		public void setMaximoEntradas(int maximoEntradas) {
+			this.maximoEntradas = maximoEntradas;
+		}
+
+	}
+
+	public static class Revogacao {
+
+		// Tokens revogados e ainda válidos esperados; acima disso o filtro de Bloom é recriado maior
+		private int capacidade = 10000;
+
+		// Revogações confirmadas até este tempo depois da última lida ainda são vistas
+		private int margemSegundos = 5;
+
+		public int getCapacidade() {
+			return capacidade;
+		}
+
+		public void setCapacidade(int capacidade) {
+			this.capacidade = capacidade;
+		}
+
+		public int getMargemSegundos() {
+			return margemSegundos;
+		}
+
+		public void setMargemSegundos(int margemSegundos) {
+			this.margemSegundos = margemSegundos;
+		}
+
+	}
+
+	public static class RateLimit {
+
+		private boolean habilitado = true;
+
+		// Baldes em memória; acima disso chaves novas dividem um balde por grupo
+		private int maximoBaldes = 100000;
+
+		// Limite das rotas que não estão em nenhum grupo
+		private final Limite padrao = new Limite();
+
+		// Grupos de rotas com limite próprio; vale o primeiro grupo, na ordem declarada, cujo caminho casar
+		private final Map<String, Limite> grupos = new LinkedHashMap<>();
+
+		public boolean isHabilitado() {
+			return habilitado;
+		}
+
+		public void setHabilitado(boolean habilitado) {
+			this.habilitado = habilitado;
+		}
+
+		public int getMaximoBaldes() {
+			return maximoBaldes;
+		}
+
+		public void setMaximoBaldes(int maximoBaldes) {
+			this.maximoBaldes = maximoBaldes;
+		}
+
+		public Limite getPadrao() {
+			return padrao;
+		}
+
+		public Map<String, Limite> getGrupos() {
+			return grupos;
+		}
+
+		public static class Limite {
+
+			// Padrões de caminho (ex.: /lancamentos/**); ignorado no limite padrão
+			private List<String> caminhos = new ArrayList<>();
+
+			// Taxa sustentada por usuário (subject do JWT) ou, sem token, por IP
+			private double requisicoesPorSegundo = 50;
+
+			// Requisições aceitas de uma vez com o balde cheio
+			private int rajada = 100;
+
+			public List<String> getCaminhos() {
+				return caminhos;
+			}
+
+			public void setCaminhos(List<String> caminhos) {
+				this.caminhos = caminhos;
+			}
+
+			public double getRequisicoesPorSegundo() {
+				return requisicoesPorSegundo;
+			}
+
+			public void setRequisicoesPorSegundo(double requisicoesPorSegundo) {
+				this.requisicoesPorSegundo = requisicoesPorSegundo;
+			}
+
+			public int getRajada() {
+				return rajada;
+			}
+
+			public void setRajada(int rajada) {
+				this.rajada = rajada;
+			}
+
+		}
+
+	}
+
+	public static class Concorrencia {
+
+		private boolean habilitado = true;
+
+		private int limiteInicial = 50;
+
+		private int limiteMinimo = 10;
+
+		// Acima das threads do Tomcat (200) não faz sentido: a fila já estaria no conector
+		private int limiteMaximo = 200;
+
+		// Quanto a latência curta pode passar da longa antes de o limite cair
+		private double tolerancia = 1.5;
+
+		// Peso do novo valor a cada janela (0 a 1)
+		private double suavizacao = 0.2;
+
+		private int janelaMs = 500;
+
+		// Nunca recusados (health check do container)
+		private List<String> caminhosCriticos = new ArrayList<>(List.of("/actuator/health/**"));
+
+		private List<String> caminhosAltaPrioridade = new ArrayList<>(List.of("/oauth/**"));
+
+		// Só requisições GET: pesquisas paginadas são as primeiras a serem recusadas
+		private List<String> caminhosBaixaPrioridade = new ArrayList<>(List.of("/lancamentos", "/pessoas"));
+
+		public boolean isHabilitado() {
+			return habilitado;
+		}
+
+		public void setHabilitado(boolean habilitado) {
+			this.habilitado = habilitado;
+		}
+
+		public int getLimiteInicial() {
+			return limiteInicial;
+		}
+
+		public void setLimiteInicial(int limiteInicial) {
+			this.limiteInicial = limiteInicial;
+		}
+
+		public int getLimiteMinimo() {
+			return limiteMinimo;
+		}
+
+		public void setLimiteMinimo(int limiteMinimo) {
+			this.limiteMinimo = limiteMinimo;
+		}
+
+		public int getLimiteMaximo() {
+			return limiteMaximo;
+		}
+
+		public void setLimiteMaximo(int limiteMaximo) {
+			this.limiteMaximo = limiteMaximo;
+		}
+
+		public double getTolerancia() {
+			return tolerancia;
+		}
+
+		public void setTolerancia(double tolerancia) {
+			this.tolerancia = tolerancia;
+		}
+
+		public double getSuavizacao() {
+			return suavizacao;
+		}
+
+		public void setSuavizacao(double suavizacao) {
+			this.suavizacao = suavizacao;
+		}
+
+		public int getJanelaMs() {
+			return janelaMs;
+		}
+
+		public void setJanelaMs(int janelaMs) {
+			this.janelaMs = janelaMs;
+		}
+
+		public List<String> getCaminhosCriticos() {
+			return caminhosCriticos;
+		}
+
+		public void setCaminhosCriticos(List<String> caminhosCriticos) {
+			this.caminhosCriticos = caminhosCriticos;
+		}
+
+		public List<String> getCaminhosAltaPrioridade() {
+			return caminhosAltaPrioridade;
+		}
+
+		public void setCaminhosAltaPrioridade(List<String> caminhosAltaPrioridade) {
+			this.caminhosAltaPrioridade = caminhosAltaPrioridade;
+		}
+
+		public List<String> getCaminhosBaixaPrioridade() {
+			return caminhosBaixaPrioridade;
+		}
+
+		public void setCaminhosBaixaPrioridade(List<String> caminhosBaixaPrioridade) {
+			this.caminhosBaixaPrioridade = caminhosBaixaPrioridade;
+		}
+
+	}
+
+	public static class Resiliencia {
+
+		// Vagas por @Compartimento; nomes não configurados usam compartimentoPadrao
+		private final Map<String, Integer> compartimentos = new LinkedHashMap<>();
+
+		private int compartimentoPadrao = 20;
+
+		// Falhas seguidas de banco que abrem o circuito de um grupo de leitura
+		private int falhasParaAbrir = 5;
+
+		// Tempo aberto antes da chamada de teste
+		private long aberturaMs = 10000;
+
+		// Últimos valores bons guardados para fallback
+		private int maximoValoresConhecidos = 10000;
+
+		public Map<String, Integer> getCompartimentos() {
+			return compartimentos;
+		}
+
+		public int getCompartimentoPadrao() {
+			return compartimentoPadrao;
+		}
+
+		public void setCompartimentoPadrao(int compartimentoPadrao) {
+			this.compartimentoPadrao = compartimentoPadrao;
+		}
+
+		public int getFalhasParaAbrir() {
+			return falhasParaAbrir;
+		}
+
+		public void setFalhasParaAbrir(int falhasParaAbrir) {
+			this.falhasParaAbrir = falhasParaAbrir;
+		}
+
+		public long getAberturaMs() {
+			return aberturaMs;
+		}
+
+		public void setAberturaMs(long aberturaMs) {
+			this.aberturaMs = aberturaMs;
+		}
+
+		public int getMaximoValoresConhecidos() {
+			return maximoValoresConhecidos;
+		}
+
+		public void setMaximoValoresConhecidos(int maximoValoresConhecidos) {
+			this.maximoValoresConhecidos = maximoValoresConhecidos;
+		}
+
+	}
+
+	public static class Consultas {
+
+		// Timeout em ms por método de repositório, chave <Repositorio>.<metodo>
+		private final Map<String, Integer> timeouts = new LinkedHashMap<>();
+
+		// Threads das consultas canceláveis; a fila tem o mesmo tamanho
+		private int threads = 40;
+
+		// Tempo máximo de uma consulta cancelável antes do 503
+		private long timeoutRequisicaoMs = 30000;
+
+		public Map<String, Integer> getTimeouts() {
+			return timeouts;
+		}
+
+		public int getThreads() {
+			return threads;
+		}
+
+		public void setThreads(int threads) {
+			this.threads = threads;
+		}
+
+		public long getTimeoutRequisicaoMs() {
+			return timeoutRequisicaoMs;
+		}
+
+		public void setTimeoutRequisicaoMs(long timeoutRequisicaoMs) {
+			this.timeoutRequisicaoMs = timeoutRequisicaoMs;
+		}
+
+	}
+
+	public static class Pool {
+
+		private boolean autoAjuste = true;
+
+		// Limites do maximum-pool-size; a soma entre instâncias precisa caber no max_connections do MySQL
+		private int tamanhoMinimo = 5;
+
+		private int tamanhoMaximo = 30;
+
+		// Espera média por conexão acima disso aumenta o pool
+		private long esperaAlvoMs = 20;
+
+		// Janelas seguidas ociosas antes de reduzir uma conexão
+		private int janelasParaReduzir = 3;
+
+		// Conexão emprestada há mais tempo que isso é reportada como vazamento; 0 desliga
+		private long limiarVazamentoMs = 30000;
+
+		public boolean isAutoAjuste() {
+			return autoAjuste;
+		}
+
+		public void setAutoAjuste(boolean autoAjuste) {
+			this.autoAjuste = autoAjuste;
+		}
+
+		public int getTamanhoMinimo() {
+			return tamanhoMinimo;
+		}
+
+		public void setTamanhoMinimo(int tamanhoMinimo) {
+			this.tamanhoMinimo = tamanhoMinimo;
+		}
+
+		public int getTamanhoMaximo() {
+			return tamanhoMaximo;
+		}
+
+		public void setTamanhoMaximo(int tamanhoMaximo) {
+			this.tamanhoMaximo = tamanhoMaximo;
+		}
+
+		public long getEsperaAlvoMs() {
+			return esperaAlvoMs;
+		}
+
+		public void setEsperaAlvoMs(long esperaAlvoMs) {
+			this.esperaAlvoMs = esperaAlvoMs;
+		}
+
+		public int getJanelasParaReduzir() {
+			return janelasParaReduzir;
+		}
+
+		public void setJanelasParaReduzir(int janelasParaReduzir) {
+			this.janelasParaReduzir = janelasParaReduzir;
+		}
+
+		public long getLimiarVazamentoMs() {
+			return limiarVazamentoMs;
+		}
+
+		public void setLimiarVazamentoMs(long limiarVazamentoMs) {
+			this.limiarVazamentoMs = limiarVazamentoMs;
+		}
+
+	}
+
+	public static class Particionamento {
+
+		// Partições de dataVencimento de uma pesquisa com período longo; 1 desliga
+		private int particoes = 4;
+
+		// Períodos menores que isso por partição não compensam as consultas extras
+		private int diasMinimosPorParticao = 31;
+
+		// Threads (e conexões) de uma mesma requisição, contando a dela
+		private int paralelismoPorRequisicao = 4;
+
+		// Threads auxiliares compartilhadas por todas as requisições
+		private int threads = 12;
+
+		// Páginas mais fundas que isso (offset + tamanho) vão numa consulta só
+		private int maximoLinhasPorParticao = 5000;
+
+		public int getParticoes() {
+			return particoes;
+		}
+
+		public void setParticoes(int particoes) {
+			this.particoes = particoes;
+		}
+
+		public int getDiasMinimosPorParticao() {
+			return diasMinimosPorParticao;
+		}
+
+		public void setDiasMinimosPorParticao(int diasMinimosPorParticao) {
+			this.diasMinimosPorParticao = diasMinimosPorParticao;
+		}
+
+		public int getParalelismoPorRequisicao() {
+			return paralelismoPorRequisicao;
+		}
+
+		public void setParalelismoPorRequisicao(int paralelismoPorRequisicao) {
+			this.paralelismoPorRequisicao = paralelismoPorRequisicao;
+		}
+
+		public int getThreads() {
+			return threads;
+		}
+
+		public void setThreads(int threads) {
+			this.threads = threads;
+		}
+
+		public int getMaximoLinhasPorParticao() {
+			return maximoLinhasPorParticao;
+		}
+
+		public void setMaximoLinhasPorParticao(int maximoLinhasPorParticao) {
+			this.maximoLinhasPorParticao = maximoLinhasPorParticao;
+		}
+
+	}
+
+	public static class Dashboard {
+
+		// Threads das leituras do dashboard; a fila tem quatro vezes esse tamanho
+		private int threads = 16;
+
+		// Tempo de cada seção em ms, por nome (categorias, pessoas, totais-mensais, recentes, vencidos)
+		private final Map<String, Long> timeouts = new LinkedHashMap<>();
+
+		private long timeoutPadraoMs = 1500;
+
+		// Meses em totais-mensais, contando o atual
+		private int meses = 12;
+
+		private int recentes = 5;
+
+		public int getThreads() {
+			return threads;
+		}
+
+		public void setThreads(int threads) {
+			this.threads = threads;
+		}
+
+		public Map<String, Long> getTimeouts() {
+			return timeouts;
+		}
+
+		public long getTimeoutPadraoMs() {
+			return timeoutPadraoMs;
+		}
+
+		public void setTimeoutPadraoMs(long timeoutPadraoMs) {
+			this.timeoutPadraoMs = timeoutPadraoMs;
+		}
+
+		public int getMeses() {
+			return meses;
+		}
+
+		public void setMeses(int meses) {
+			this.meses = meses;
+		}
+
+		public int getRecentes() {
+			return recentes;
+		}
+
+		public void setRecentes(int recentes) {
+			this.recentes = recentes;
+		}
+
+	}
+
 }
@@ -0,0 +1,34 @@
+package com.example.algamoney.api.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class AtualizacaoAtivoPessoas {
+
+	@NotEmpty
+	@Size(max = 5000)
+	private List<@NotNull Long> codigos;
+
+	@NotNull
+	private Boolean ativo;
+
+	public List<Long> getCodigos() {
+		return codigos;
+	}
+
+	public void setCodigos(List<Long> codigos) {
+		this.codigos = codigos;
+	}
+
+	public Boolean getAtivo() {
+		return ativo;
+	}
+
+	public void setAtivo(Boolean ativo) {
+		this.ativo = ativo;
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.example.algamoney.api.dto;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.example.algamoney.api.model.Categoria;
+import com.example.algamoney.api.repository.projection.EstatisticaPessoas;
+import com.example.algamoney.api.repository.projection.ResumoLancamento;
+import com.example.algamoney.api.repository.projection.TotalMensal;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Resposta de GET /dashboard: cada seção traz seu status e, quando "ok", os dados.
+ * Uma seção que falhou ou estourou o tempo não impede as outras.
+ */
+public class Dashboard {
+
+	private Secao<List<Categoria>> categorias;
+	private Secao<EstatisticaPessoas> pessoas;
+	private Secao<List<TotalMensal>> totaisMensais;
+	private Secao<List<ResumoLancamento>> recentes;
+	private Secao<Long> vencidos;
+
+	public Dashboard(Secao<List<Categoria>> categorias, Secao<EstatisticaPessoas> pessoas,
+			Secao<List<TotalMensal>> totaisMensais, Secao<List<ResumoLancamento>> recentes, Secao<Long> vencidos) {
+		this.categorias = categorias;
+		this.pessoas = pessoas;
+		this.totaisMensais = totaisMensais;
+		this.recentes = recentes;
+		this.vencidos = vencidos;
+	}
+
+	// Sem permissão não conta como falha
+	public boolean isCompleto() {
+		return secoes().allMatch(secao -> secao.getStatus() != Status.TIMEOUT && secao.getStatus() != Status.ERRO);
+	}
+
+	public boolean possuiDados() {
+		return secoes().anyMatch(secao -> secao.getStatus() == Status.OK);
+	}
+
+	public Secao<List<Categoria>> getCategorias() {
+		return categorias;
+	}
+
+	public Secao<EstatisticaPessoas> getPessoas() {
+		return pessoas;
+	}
+
+	public Secao<List<TotalMensal>> getTotaisMensais() {
+		return totaisMensais;
+	}
+
+	public Secao<List<ResumoLancamento>> getRecentes() {
+		return recentes;
+	}
+
+	public Secao<Long> getVencidos() {
+		return vencidos;
+	}
+
+	private Stream<Secao<?>> secoes() {
+		return Stream.of(categorias, pessoas, totaisMensais, recentes, vencidos);
+	}
+
+	public enum Status {
+		OK, TIMEOUT, ERRO, SEM_PERMISSAO
+	}
+
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	public static class Secao<T> {
+
+		private final Status status;
+		private final T dados;
+
+		private Secao(Status status, T dados) {
+			this.status = status;
+			this.dados = dados;
+		}
+
+		public static <T> Secao<T> ok(T dados) {
+			return new Secao<>(Status.OK, dados);
+		}
+
+		public static <T> Secao<T> falha(Status status) {
+			return new Secao<>(status, null);
+		}
+
+		public Status getStatus() {
+			return status;
+		}
+
+		public T getDados() {
+			return dados;
+		}
+
+	}
+
+}
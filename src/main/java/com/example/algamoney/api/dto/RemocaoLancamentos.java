@@ -0,0 +1,27 @@
+package com.example.algamoney.api.dto;
+
+public class RemocaoLancamentos {
+
+	private boolean simulacao;
+	private long removidos;
+	private int lotes;
+
+	public RemocaoLancamentos(boolean simulacao, long removidos, int lotes) {
+		this.simulacao = simulacao;
+		this.removidos = removidos;
+		this.lotes = lotes;
+	}
+
+	public boolean isSimulacao() {
+		return simulacao;
+	}
+
+	public long getRemovidos() {
+		return removidos;
+	}
+
+	public int getLotes() {
+		return lotes;
+	}
+
+}
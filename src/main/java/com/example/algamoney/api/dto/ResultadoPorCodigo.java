@@ -0,0 +1,56 @@
+package com.example.algamoney.api.dto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Item da resposta das buscas por vários códigos: um por código pedido, na mesma ordem,
+ * com encontrado = false (e sem registro) quando o código não existe.
+ */
+public class ResultadoPorCodigo<T> {
+
+	private Long codigo;
+	private boolean encontrado;
+
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private T registro;
+
+	public ResultadoPorCodigo(Long codigo, T registro) {
+		this.codigo = codigo;
+		this.encontrado = registro != null;
+		this.registro = registro;
+	}
+
+	public static <T> List<ResultadoPorCodigo<T>> naOrdem(List<Long> codigos, Collection<T> encontrados,
+			Function<T, Long> codigoDe) {
+		Map<Long, T> porCodigo = new HashMap<>();
+		for (T registro : encontrados) {
+			porCodigo.put(codigoDe.apply(registro), registro);
+		}
+
+		List<ResultadoPorCodigo<T>> resultado = new ArrayList<>(codigos.size());
+		for (Long codigo : codigos) {
+			resultado.add(new ResultadoPorCodigo<>(codigo, porCodigo.get(codigo)));
+		}
+		return resultado;
+	}
+
+	public Long getCodigo() {
+		return codigo;
+	}
+
+	public boolean isEncontrado() {
+		return encontrado;
+	}
+
+	public T getRegistro() {
+		return registro;
+	}
+
+}
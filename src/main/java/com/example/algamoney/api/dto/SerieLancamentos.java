@@ -0,0 +1,66 @@
+package com.example.algamoney.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import com.example.algamoney.api.model.Lancamento;
+import com.example.algamoney.api.model.Periodicidade;
+
+/**
+ * Descreve um parcelamento ou uma recorrência a partir de um lançamento modelo.
+ *
+ * Com dividirValor = true o valor do modelo é o total, dividido entre as parcelas
+ * (a diferença de arredondamento fica na primeira). Com false, cada ocorrência
+ * repete o valor do modelo.
+ */
+public class SerieLancamentos {
+
+	@Valid
+	@NotNull
+	private Lancamento lancamento;
+
+	@NotNull
+	@Min(2)
+	@Max(120)
+	private Integer quantidade;
+
+	@NotNull
+	private Periodicidade periodicidade;
+
+	private boolean dividirValor;
+
+	public Lancamento getLancamento() {
+		return lancamento;
+	}
+
+	public void setLancamento(Lancamento lancamento) {
+		this.lancamento = lancamento;
+	}
+
+	public Integer getQuantidade() {
+		return quantidade;
+	}
+
+	public void setQuantidade(Integer quantidade) {
+		this.quantidade = quantidade;
+	}
+
+	public Periodicidade getPeriodicidade() {
+		return periodicidade;
+	}
+
+	public void setPeriodicidade(Periodicidade periodicidade) {
+		this.periodicidade = periodicidade;
+	}
+
+	public boolean isDividirValor() {
+		return dividirValor;
+	}
+
+	public void setDividirValor(boolean dividirValor) {
+		this.dividirValor = dividirValor;
+	}
+
+}
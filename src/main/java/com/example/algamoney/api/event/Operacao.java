@@ -0,0 +1,9 @@
+package com.example.algamoney.api.event;
+
+public enum Operacao {
+
+	CRIADO,
+	ATUALIZADO,
+	REMOVIDO
+
+}
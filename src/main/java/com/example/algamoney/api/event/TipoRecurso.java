@@ -0,0 +1,9 @@
+package com.example.algamoney.api.event;
+
+public enum TipoRecurso {
+
+	LANCAMENTO,
+	PESSOA,
+	CATEGORIA
+
+}
@@ -0,0 +1,127 @@
+package com.example.algamoney.api.event.feed;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Uma conexão do feed. O buffer é limitado: quem não consome a tempo é desconectado e
+ * retoma pelo Last-Event-ID, em vez de acumular eventos em memória.
+ *
+ * Envio e reenvio acontecem com o monitor do assinante, então as mensagens saem em
+ * ordem de versão, menos as tardias (confirmadas depois que a marca d'água passou pelo
+ * código), que saem quando aparecem. O id do SSE é a posição segura de retomada, então
+ * numa reconexão o que estava acima dela pode ser repetido: a entrega é pelo menos uma vez.
+ */
+final class Assinante {
+
+	private final SseEmitter emitter;
+	private final EventoLancamentoFilter filtro;
+	private final BlockingQueue<Mensagem> fila;
+	private final AtomicBoolean agendado = new AtomicBoolean();
+
+	private volatile long ultimaVersao;
+	private volatile boolean reenviar;
+	private volatile boolean encerrado;
+
+	Assinante(SseEmitter emitter, EventoLancamentoFilter filtro, int capacidade, long ultimaVersao, boolean reenviar) {
+		this.emitter = emitter;
+		this.filtro = filtro;
+		this.fila = new ArrayBlockingQueue<>(capacidade);
+		this.ultimaVersao = ultimaVersao;
+		this.reenviar = reenviar;
+	}
+
+	EventoLancamentoFilter getFiltro() {
+		return filtro;
+	}
+
+	SseEmitter getEmitter() {
+		return emitter;
+	}
+
+	long getUltimaVersao() {
+		return ultimaVersao;
+	}
+
+	boolean isEncerrado() {
+		return encerrado;
+	}
+
+	/**
+	 * @return false quando o buffer está cheio
+	 */
+	boolean enfileirar(EventoLancamento evento, long id, boolean tardia) {
+		return encerrado || fila.offer(new Mensagem(evento, id, tardia));
+	}
+
+	boolean temPendentes() {
+		return !fila.isEmpty();
+	}
+
+	boolean agendar() {
+		return !encerrado && agendado.compareAndSet(false, true);
+	}
+
+	void liberarAgendamento() {
+		agendado.set(false);
+	}
+
+	boolean consumirReenvio() {
+		boolean pendente = reenviar;
+		reenviar = false;
+		return pendente;
+	}
+
+	void drenar() throws IOException {
+		Mensagem mensagem;
+		while (!encerrado && (mensagem = fila.poll()) != null) {
+			enviar(mensagem.evento(), mensagem.id(), mensagem.tardia());
+		}
+	}
+
+	/**
+	 * @param id posição de retomada que vai no id do SSE
+	 * @param tardia confirmada abaixo da versão já enviada; não é descartada como repetida
+	 */
+	void enviar(EventoLancamento evento, long id, boolean tardia) throws IOException {
+		if (!tardia && evento.getVersao() <= ultimaVersao) {
+			return;
+		}
+		emitter.send(SseEmitter.event()
+				.id(String.valueOf(id))
+				.name("lancamento")
+				.data(evento, MediaType.APPLICATION_JSON));
+		avancar(evento.getVersao());
+	}
+
+	/**
+	 * Eventos descartados por filtro também avançam a posição, para o reenvio não relê-los.
+	 */
+	void avancar(long versao) {
+		if (versao > ultimaVersao) {
+			ultimaVersao = versao;
+		}
+	}
+
+	void enviarReinicio() throws IOException {
+		emitter.send(SseEmitter.event().name("reinicio").data(""));
+	}
+
+	void enviarComentario(String comentario) throws IOException {
+		emitter.send(SseEmitter.event().comment(comentario));
+	}
+
+	void encerrar() {
+		encerrado = true;
+		fila.clear();
+	}
+
+	private record Mensagem(EventoLancamento evento, long id, boolean tardia) {
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.example.algamoney.api.event.feed;
+
+import com.example.algamoney.api.event.Operacao;
+
+/**
+ * Corpo de cada mensagem do feed. A versão é o código no outbox; o id do SSE, que o
+ * navegador devolve em Last-Event-ID ao reconectar, é a posição de retomada, que pode
+ * ficar abaixo da versão enquanto houver lacuna aberta.
+ */
+public class EventoLancamento {
+
+	private Long codigo;
+	private Operacao operacao;
+	private Long versao;
+
+	public EventoLancamento(Long codigo, Operacao operacao, Long versao) {
+		this.codigo = codigo;
+		this.operacao = operacao;
+		this.versao = versao;
+	}
+
+	public Long getCodigo() {
+		return codigo;
+	}
+
+	public Operacao getOperacao() {
+		return operacao;
+	}
+
+	public Long getVersao() {
+		return versao;
+	}
+
+}
@@ -0,0 +1,56 @@
+package com.example.algamoney.api.event.feed;
+
+import com.example.algamoney.api.model.TipoLancamento;
+import com.example.algamoney.api.repository.projection.ClassificacaoLancamento;
+
+/**
+ * Critérios do feed de lançamentos. Só valem atributos que identificam a quem o lançamento
+ * pertence; remoções sempre passam, já que o lançamento não existe mais para ser comparado.
+ */
+public class EventoLancamentoFilter {
+
+	private Long codigoPessoa;
+	private Long codigoCategoria;
+	private TipoLancamento tipo;
+
+	public Long getCodigoPessoa() {
+		return codigoPessoa;
+	}
+
+	public void setCodigoPessoa(Long codigoPessoa) {
+		this.codigoPessoa = codigoPessoa;
+	}
+
+	public Long getCodigoCategoria() {
+		return codigoCategoria;
+	}
+
+	public void setCodigoCategoria(Long codigoCategoria) {
+		this.codigoCategoria = codigoCategoria;
+	}
+
+	public TipoLancamento getTipo() {
+		return tipo;
+	}
+
+	public void setTipo(TipoLancamento tipo) {
+		this.tipo = tipo;
+	}
+
+	public boolean isVazio() {
+		return codigoPessoa == null && codigoCategoria == null && tipo == null;
+	}
+
+	/**
+	 * @param classificacao null quando o lançamento já foi removido
+	 */
+	public boolean aceita(ClassificacaoLancamento classificacao) {
+		if (isVazio() || classificacao == null) {
+			return true;
+		}
+		return (codigoPessoa == null || codigoPessoa.equals(classificacao.getCodigoPessoa()))
+				&& (codigoCategoria == null || codigoCategoria.equals(classificacao.getCodigoCategoria()))
+				&& (tipo == null || tipo == classificacao.getTipo());
+	}
+
+}
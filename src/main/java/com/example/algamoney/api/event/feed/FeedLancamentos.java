@@ -0,0 +1,305 @@
+package com.example.algamoney.api.event.feed;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.event.Operacao;
+import com.example.algamoney.api.event.TipoRecurso;
+import com.example.algamoney.api.event.outbox.MarcaDaguaOutbox;
+import com.example.algamoney.api.model.EventoOutbox;
+import com.example.algamoney.api.repository.EventoOutboxRepository;
+import com.example.algamoney.api.repository.LancamentoRepository;
+import com.example.algamoney.api.repository.projection.ClassificacaoLancamento;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Feed SSE de alterações de lançamentos, alimentado pelo evento_outbox.
+ *
+ * Cada instância acompanha a tabela com uma única consulta por ciclo, compartilhada por
+ * todos os assinantes. As conexões ficam em modo assíncrono no servlet: nenhuma thread fica
+ * presa por assinante, e um pool pequeno faz os envios a partir dos buffers de cada um.
+ *
+ * A posição é uma MarcaDaguaOutbox, a mesma da invalidação de cache: um lançamento
+ * confirmado depois que a marca passou pelo seu código chega pela lacuna, fora de ordem.
+ * O id do SSE é a posição segura de retomada (antes de qualquer lacuna aberta), e na
+ * reconexão o Last-Event-ID é usado para reenviar o que veio depois dela; o que já tinha
+ * sido entregue acima dessa posição pode chegar de novo. Se parte do intervalo já saiu da
+ * retenção do outbox o cliente recebe "reinicio" e deve recarregar a lista.
+ *
+ * Métricas: algamoney.feed.assinantes, algamoney.feed.desconectados.
+ */
+@Component
+public class FeedLancamentos {
+
+	private static final Logger logger = LoggerFactory.getLogger(FeedLancamentos.class);
+
+	private static final long RECONEXAO_MS = 3000;
+
+	private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+
+	private final EventoOutboxRepository eventoOutboxRepository;
+	private final LancamentoRepository lancamentoRepository;
+	private final MarcaDaguaOutbox marcaDagua;
+	private final AlgamoneyApiProperty.Feed configuracao;
+	private final int tamanhoLote;
+	private final ExecutorService envios;
+	private final Counter desconectados;
+
+	public FeedLancamentos(EventoOutboxRepository eventoOutboxRepository, LancamentoRepository lancamentoRepository,
+			AlgamoneyApiProperty algamoneyApiProperty, MeterRegistry meterRegistry) {
+		this.eventoOutboxRepository = eventoOutboxRepository;
+		this.lancamentoRepository = lancamentoRepository;
+		this.configuracao = algamoneyApiProperty.getFeed();
+		this.tamanhoLote = algamoneyApiProperty.getOutbox().getTamanhoLote();
+		this.marcaDagua = new MarcaDaguaOutbox(eventoOutboxRepository, tamanhoLote);
+		this.envios = Executors.newFixedThreadPool(configuracao.getThreadsEnvio(),
+				new CustomizableThreadFactory("feed-lancamentos-"));
+
+		Gauge.builder("algamoney.feed.assinantes", assinantes, Set::size).register(meterRegistry);
+		this.desconectados = Counter.builder("algamoney.feed.desconectados")
+				.description("Assinantes desconectados por buffer cheio")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * @param ultimaVersao Last-Event-ID enviado pelo cliente na reconexão, ou null
+	 * @return null quando o limite de assinantes foi atingido
+	 */
+	public SseEmitter assinar(EventoLancamentoFilter filtro, Long ultimaVersao) {
+		if (assinantes.size() >= configuracao.getMaximoAssinantes()) {
+			return null;
+		}
+
+		SseEmitter emitter = criarEmitter();
+		boolean reenviar = ultimaVersao != null;
+		Assinante assinante = new Assinante(emitter, filtro, configuracao.getCapacidadeBuffer(),
+				reenviar ? ultimaVersao : marcaDagua.getMarca(), reenviar);
+
+		emitter.onCompletion(() -> remover(assinante));
+		emitter.onTimeout(emitter::complete);
+		emitter.onError(e -> remover(assinante));
+		assinantes.add(assinante);
+
+		try {
+			emitter.send(SseEmitter.event().reconnectTime(RECONEXAO_MS).comment("conectado"));
+		} catch (IOException e) {
+			encerrar(assinante);
+			return emitter;
+		}
+
+		if (reenviar) {
+			agendar(assinante);
+		}
+		return emitter;
+	}
+
+	@Scheduled(fixedDelayString = "${algamoney.feed.intervalo-ms:500}")
+	public void acompanhar() {
+		acompanhar(System.currentTimeMillis());
+	}
+
+	void acompanhar(long agora) {
+		if (assinantes.isEmpty()) {
+			// Sem ninguém ouvindo basta manter a posição, sem ler os eventos
+			marcaDagua.posicionarNoFim();
+			return;
+		}
+
+		// A marca lê todos os tipos: os códigos de categoria e pessoa não podem parecer lacunas
+		marcaDagua.ler(agora, this::distribuir);
+
+		for (Assinante assinante : assinantes) {
+			if (assinante.temPendentes()) {
+				agendar(assinante);
+			}
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${algamoney.feed.heartbeat-ms:15000}")
+	public void manterConexoes() {
+		for (Assinante assinante : assinantes) {
+			try {
+				envios.execute(() -> executar(assinante, () -> assinante.enviarComentario("ping")));
+			} catch (RejectedExecutionException e) {
+				encerrar(assinante);
+			}
+		}
+	}
+
+	@PreDestroy
+	public void finalizar() {
+		envios.shutdownNow();
+		for (Assinante assinante : assinantes) {
+			encerrar(assinante);
+		}
+	}
+
+	SseEmitter criarEmitter() {
+		return new SseEmitter(TimeUnit.MINUTES.toMillis(configuracao.getTimeoutMinutos()));
+	}
+
+	private void distribuir(List<EventoOutbox> eventos, boolean tardios) {
+		List<EventoOutbox> lancamentos = eventos.stream()
+				.filter(evento -> evento.getTipoRecurso() == TipoRecurso.LANCAMENTO)
+				.toList();
+		if (lancamentos.isEmpty()) {
+			return;
+		}
+
+		Map<Long, ClassificacaoLancamento> classificacoes = classificar(lancamentos, assinantes);
+		for (EventoOutbox evento : lancamentos) {
+			distribuir(evento, classificacoes.get(evento.getCodigoRecurso()), tardios);
+		}
+	}
+
+	private void distribuir(EventoOutbox evento, ClassificacaoLancamento classificacao, boolean tardio) {
+		EventoLancamento mensagem = new EventoLancamento(evento.getCodigoRecurso(), evento.getOperacao(),
+				evento.getCodigo());
+		long id = marcaDagua.posicaoSegura(evento.getCodigo());
+		for (Assinante assinante : assinantes) {
+			if (!assinante.getFiltro().aceita(classificacao)) {
+				continue;
+			}
+			if (!assinante.enfileirar(mensagem, id, tardio)) {
+				desconectados.increment();
+				logger.debug("Feed: assinante desconectado com buffer cheio na versão {}", assinante.getUltimaVersao());
+				encerrar(assinante);
+			}
+		}
+	}
+
+	private void agendar(Assinante assinante) {
+		if (!assinante.agendar()) {
+			return;
+		}
+		try {
+			envios.execute(() -> {
+				assinante.liberarAgendamento();
+				executar(assinante, () -> {
+					if (assinante.consumirReenvio()) {
+						reenviar(assinante);
+					}
+					assinante.drenar();
+				});
+			});
+		} catch (RejectedExecutionException e) {
+			encerrar(assinante);
+		}
+	}
+
+	private void reenviar(Assinante assinante) throws IOException {
+		long versao = assinante.getUltimaVersao();
+		Long primeiro = eventoOutboxRepository.primeiroCodigo();
+		if (versao > 0 && (primeiro == null || primeiro > versao + 1)) {
+			// Algo entre a versão do cliente e o início do outbox pode ter sido limpo
+			assinante.enviarReinicio();
+			return;
+		}
+
+		// Acima da marca os eventos chegam pela fila, com as lacunas já registradas
+		long limite = marcaDagua.getMarca();
+		List<EventoOutbox> eventos;
+		do {
+			eventos = eventoOutboxRepository.findByTipoRecursoAndCodigoGreaterThanOrderByCodigo(
+					TipoRecurso.LANCAMENTO, assinante.getUltimaVersao(), PageRequest.of(0, tamanhoLote));
+			Map<Long, ClassificacaoLancamento> classificacoes = classificar(eventos, List.of(assinante));
+			for (EventoOutbox evento : eventos) {
+				if (evento.getCodigo() > limite) {
+					return;
+				}
+				if (assinante.getFiltro().aceita(classificacoes.get(evento.getCodigoRecurso()))) {
+					assinante.enviar(new EventoLancamento(evento.getCodigoRecurso(), evento.getOperacao(),
+							evento.getCodigo()), marcaDagua.posicaoSegura(evento.getCodigo()), false);
+				}
+				assinante.avancar(evento.getCodigo());
+			}
+		} while (eventos.size() == tamanhoLote && !assinante.isEncerrado());
+	}
+
+	/**
+	 * Uma consulta por lote, e só se algum assinante filtra; remoções não são consultadas.
+	 */
+	private Map<Long, ClassificacaoLancamento> classificar(List<EventoOutbox> eventos, Iterable<Assinante> interessados) {
+		boolean filtrado = false;
+		for (Assinante assinante : interessados) {
+			filtrado |= !assinante.getFiltro().isVazio();
+		}
+		if (!filtrado) {
+			return Collections.emptyMap();
+		}
+
+		List<Long> codigos = new ArrayList<>(eventos.size());
+		for (EventoOutbox evento : eventos) {
+			if (evento.getOperacao() != Operacao.REMOVIDO) {
+				codigos.add(evento.getCodigoRecurso());
+			}
+		}
+		if (codigos.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		return lancamentoRepository.buscarClassificacoes(codigos).stream()
+				.collect(Collectors.toMap(ClassificacaoLancamento::getCodigo, Function.identity()));
+	}
+
+	private void executar(Assinante assinante, Envio envio) {
+		synchronized (assinante) {
+			if (assinante.isEncerrado()) {
+				return;
+			}
+			try {
+				envio.executar();
+			} catch (IOException | IllegalStateException e) {
+				// Cliente foi embora ou o emitter já terminou
+				encerrar(assinante);
+			} catch (RuntimeException e) {
+				logger.warn("Feed: falha ao enviar eventos; assinante desconectado", e);
+				encerrar(assinante);
+			}
+		}
+	}
+
+	private void encerrar(Assinante assinante) {
+		remover(assinante);
+		try {
+			assinante.getEmitter().complete();
+		} catch (IllegalStateException e) {
+			// Já encerrado
+		}
+	}
+
+	private void remover(Assinante assinante) {
+		assinante.encerrar();
+		assinantes.remove(assinante);
+	}
+
+	@FunctionalInterface
+	private interface Envio {
+		void executar() throws IOException;
+	}
+
+}
@@ -0,0 +1,141 @@
+package com.example.algamoney.api.event.outbox;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.springframework.data.domain.PageRequest;
+
+import com.example.algamoney.api.model.EventoOutbox;
+import com.example.algamoney.api.repository.EventoOutboxRepository;
+
+/**
+ * Posição de quem acompanha o evento_outbox por conta própria (caches locais, feed SSE).
+ *
+ * Os códigos vêm do AUTO_INCREMENT e são atribuídos no INSERT: uma transação com código
+ * menor pode confirmar depois de outra com código maior, quando a marca d'água já passou
+ * por ele. Por isso os buracos na sequência são guardados e consultados de novo por até
+ * LIMITE_LACUNA_MS; depois disso são considerados rollback. O que aparece numa lacuna é
+ * entregue como tardio, fora da ordem do código.
+ *
+ * Cada leitor tem a sua instância.
+ */
+public class MarcaDaguaOutbox {
+
+	public static final long LIMITE_LACUNA_MS = 60000;
+
+	// Acima disso o salto vem de outra causa (auto_increment_increment, restart) e não é rastreado
+	public static final int MAXIMO_LACUNAS = 1000;
+
+	private final EventoOutboxRepository eventoOutboxRepository;
+	private final int tamanhoLote;
+
+	// Código -> instante em que o buraco foi visto
+	private final NavigableMap<Long, Long> lacunas = new TreeMap<>();
+	private long marca = -1;
+
+	public MarcaDaguaOutbox(EventoOutboxRepository eventoOutboxRepository, int tamanhoLote) {
+		this.eventoOutboxRepository = eventoOutboxRepository;
+		this.tamanhoLote = tamanhoLote;
+	}
+
+	/**
+	 * Posição atual; na primeira chamada vai para o fim do outbox.
+	 */
+	public synchronized long getMarca() {
+		return marca < 0 ? posicionarNoFim() : marca;
+	}
+
+	/**
+	 * Vai para o fim do outbox sem entregar nada; lacunas abertas deixam de ser acompanhadas.
+	 */
+	public synchronized long posicionarNoFim() {
+		marca = eventoOutboxRepository.ultimoCodigo();
+		lacunas.clear();
+		return marca;
+	}
+
+	/**
+	 * Entrega o que mudou desde a última leitura: primeiro os eventos que apareceram em
+	 * lacunas, depois os novos acima da marca, em lotes na ordem do código. Na primeira
+	 * leitura só se posiciona no fim. Se o leitor falhar, o lote é lido de novo na próxima.
+	 */
+	public synchronized void ler(long agora, Leitor leitor) {
+		if (marca < 0) {
+			posicionarNoFim();
+			return;
+		}
+
+		revisarLacunas(agora, leitor);
+
+		List<EventoOutbox> eventos;
+		do {
+			eventos = eventoOutboxRepository.findByCodigoGreaterThanOrderByCodigo(marca, PageRequest.of(0, tamanhoLote));
+			if (eventos.isEmpty()) {
+				return;
+			}
+			long anterior = marca;
+			for (EventoOutbox evento : eventos) {
+				registrarLacunas(anterior, evento.getCodigo(), agora);
+				anterior = evento.getCodigo();
+			}
+			leitor.ler(eventos, false);
+			marca = anterior;
+		} while (eventos.size() == tamanhoLote);
+	}
+
+	/**
+	 * Posição a partir da qual reler o outbox não perde nada: o próprio código ou, com
+	 * lacuna aberta abaixo dele, a posição logo antes dela.
+	 */
+	public synchronized long posicaoSegura(long codigo) {
+		return lacunas.isEmpty() ? codigo : Math.min(codigo, lacunas.firstKey() - 1);
+	}
+
+	private void revisarLacunas(long agora, Leitor leitor) {
+		if (lacunas.isEmpty()) {
+			return;
+		}
+
+		List<EventoOutbox> tardios = new ArrayList<>();
+		eventoOutboxRepository.findAllById(new ArrayList<>(lacunas.keySet())).forEach(tardios::add);
+		if (!tardios.isEmpty()) {
+			tardios.sort(Comparator.comparing(EventoOutbox::getCodigo));
+			leitor.ler(tardios, true);
+			for (EventoOutbox evento : tardios) {
+				lacunas.remove(evento.getCodigo());
+			}
+		}
+
+		long limite = agora - LIMITE_LACUNA_MS;
+		for (Iterator<Long> vistos = lacunas.values().iterator(); vistos.hasNext();) {
+			if (vistos.next() < limite) {
+				vistos.remove();
+			}
+		}
+	}
+
+	private void registrarLacunas(long anterior, long codigo, long agora) {
+		long faltando = codigo - anterior - 1;
+		if (faltando <= 0 || lacunas.size() + faltando > MAXIMO_LACUNAS) {
+			return;
+		}
+		for (long lacuna = anterior + 1; lacuna < codigo; lacuna++) {
+			lacunas.putIfAbsent(lacuna, agora);
+		}
+	}
+
+	@FunctionalInterface
+	public interface Leitor {
+
+		/**
+		 * @param tardios eventos confirmados depois que a marca passou por eles
+		 */
+		void ler(List<EventoOutbox> eventos, boolean tardios);
+
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.example.algamoney.api.event.outbox;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.algamoney.api.cache.InvalidacaoCacheCluster;
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.event.Operacao;
+import com.example.algamoney.api.event.TipoRecurso;
+import com.example.algamoney.api.repository.EventoOutboxRepository;
+
+/**
+ * Grava eventos de domínio no outbox dentro da transação de quem alterou o recurso.
+ *
+ * MANDATORY garante que o evento só existe se a alteração for confirmada. Não há entrega
+ * centralizada: cada instância lê a tabela por conta própria, fora da requisição
+ * ({@link InvalidacaoCacheCluster} para os caches locais, FeedLancamentos para o SSE), e
+ * os registros ficam disponíveis até passarem de algamoney.outbox.retencao-horas.
+ */
+@Component
+public class OutboxEventos {
+
+	private static final String INSERT_EVENTO = "INSERT INTO evento_outbox"
+			+ " (tipo_recurso, codigo_recurso, operacao, criado_em, data_inicio, data_fim) VALUES (?, ?, ?, ?, ?, ?)";
+
+	private static final Logger logger = LoggerFactory.getLogger(OutboxEventos.class);
+
+	private final JdbcTemplate jdbcTemplate;
+	private final InvalidacaoCacheCluster invalidacaoCache;
+	private final EventoOutboxRepository eventoOutboxRepository;
+	private final AlgamoneyApiProperty.Outbox configuracao;
+
+	public OutboxEventos(JdbcTemplate jdbcTemplate, InvalidacaoCacheCluster invalidacaoCache,
+			EventoOutboxRepository eventoOutboxRepository, AlgamoneyApiProperty algamoneyApiProperty) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.invalidacaoCache = invalidacaoCache;
+		this.eventoOutboxRepository = eventoOutboxRepository;
+		this.configuracao = algamoneyApiProperty.getOutbox();
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrar(TipoRecurso tipoRecurso, Long codigo, Operacao operacao) {
+		registrar(tipoRecurso, codigo, operacao, null, null);
+	}
+
+	/**
+	 * @param dataInicio início do intervalo de datas afetado (null = sem limite)
+	 * @param dataFim fim do intervalo de datas afetado (null = sem limite)
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrar(TipoRecurso tipoRecurso, Long codigo, Operacao operacao, LocalDate dataInicio,
+			LocalDate dataFim) {
+		jdbcTemplate.update(INSERT_EVENTO, tipoRecurso.name(), codigo, operacao.name(),
+				Timestamp.valueOf(LocalDateTime.now()), data(dataInicio), data(dataFim));
+		invalidacaoCache.invalidarAposCommit(tipoRecurso, operacao, List.of(codigo), dataInicio, dataFim);
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrar(TipoRecurso tipoRecurso, Collection<Long> codigos, Operacao operacao) {
+		registrar(tipoRecurso, codigos, operacao, null, null);
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrar(TipoRecurso tipoRecurso, Collection<Long> codigos, Operacao operacao, LocalDate dataInicio,
+			LocalDate dataFim) {
+		if (codigos.isEmpty()) {
+			return;
+		}
+
+		Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+		List<Object[]> linhas = new ArrayList<>(codigos.size());
+		for (Long codigo : codigos) {
+			linhas.add(new Object[] { tipoRecurso.name(), codigo, operacao.name(), agora, data(dataInicio), data(dataFim) });
+		}
+		jdbcTemplate.batchUpdate(INSERT_EVENTO, linhas);
+		invalidacaoCache.invalidarAposCommit(tipoRecurso, operacao, codigos, dataInicio, dataFim);
+	}
+
+	// Todas as instâncias limpam; o DELETE por data é idempotente
+	@Scheduled(fixedDelay = 3600000)
+	public void removerAntigos() {
+		int removidos = eventoOutboxRepository.removerCriadosAntesDe(
+				LocalDateTime.now().minusHours(configuracao.getRetencaoHoras()));
+		if (removidos > 0) {
+			logger.info("Outbox: {} eventos removidos após a retenção", removidos);
+		}
+	}
+
+	private static Date data(LocalDate data) {
+		return data != null ? Date.valueOf(data) : null;
+	}
+
+}
@@ -8,6 +8,7 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.http.HttpHeaders;
@@ -22,6 +23,8 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import com.example.algamoney.api.service.exception.ServicoIndisponivelException;
+
 @ControllerAdvice
 public class AlgamoneyExceptionHandler extends ResponseEntityExceptionHandler {
 
@@ -62,6 +65,26 @@ public class AlgamoneyExceptionHandler extends ResponseEntityExceptionHandler {
 		return handleExceptionInternal(ex, erros, new HttpHeaders(), HttpStatus.BAD_REQUEST, request);
 	}
 	
+	@ExceptionHandler({ ServicoIndisponivelException.class })
+	public ResponseEntity<Object> handleServicoIndisponivelException(ServicoIndisponivelException ex, WebRequest request) {
+		return servicoIndisponivel(ex, request);
+	}
+	
+	// Fila de um pool de consultas cheia (ex.: ConsultasCancelaveis): é sobrecarga, não erro interno
+	@ExceptionHandler({ TaskRejectedException.class })
+	public ResponseEntity<Object> handleTaskRejectedException(TaskRejectedException ex, WebRequest request) {
+		return servicoIndisponivel(ex, request);
+	}
+	
+	private ResponseEntity<Object> servicoIndisponivel(Exception ex, WebRequest request) {
+		String mensagemUsuario = messageSource.getMessage("servico.indisponivel", null, LocaleContextHolder.getLocale());
+		String mensagemDesenvolvedor = ExceptionUtils.getRootCauseMessage(ex);
+		List<Erro> erros = Arrays.asList(new Erro(mensagemUsuario, mensagemDesenvolvedor));
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, "10");
+		return handleExceptionInternal(ex, erros, headers, HttpStatus.SERVICE_UNAVAILABLE, request);
+	}
+	
 	private List<Erro> criarListaDeErros(BindingResult bindingResult) {
 		List<Erro> erros = new ArrayList<>();
 		
@@ -0,0 +1,14 @@
+package com.example.algamoney.api.job;
+
+/**
+ * A execução foi assumida por outra instância (versão maior) e esta não pode mais gravar.
+ */
+class ExecucaoAssumidaException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	ExecucaoAssumidaException(Long codigo, Long versao) {
+		super("Execução " + codigo + " não está mais na versão " + versao);
+	}
+
+}
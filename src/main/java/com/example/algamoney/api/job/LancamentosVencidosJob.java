@@ -0,0 +1,247 @@
+package com.example.algamoney.api.job;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.model.ExecucaoJob;
+import com.example.algamoney.api.model.StatusExecucaoJob;
+import com.example.algamoney.api.repository.ExecucaoJobRepository;
+import com.example.algamoney.api.repository.LancamentoRepository;
+import com.example.algamoney.api.repository.projection.LancamentoVencido;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Job diário que gera, por pessoa, o resumo dos lançamentos vencidos e não pagos.
+ *
+ * Os candidatos são lidos em lotes por keyset (dataVencimento, codigo), nunca com findAll.
+ * Cada leva de até N lotes é agrupada em paralelo num pool fixo e gravada numa única
+ * transação junto com o checkpoint em execucao_job, então uma execução interrompida
+ * retoma da última leva gravada sem contar lançamentos duas vezes.
+ *
+ * Execuções que falharam ou pararam de atualizar o checkpoint (de hoje ou de dias
+ * anteriores) são retomadas a cada algamoney.vencidos.intervalo-retomada-ms. Quem assume
+ * incrementa a versão da execução, e o checkpoint só grava com a versão assumida: uma
+ * instância lenta que foi substituída tem a leva desfeita em vez de somar de novo.
+ *
+ * Métricas: algamoney.job.vencidos.duracao, algamoney.job.vencidos.lancamentos.
+ */
+@Component
+public class LancamentosVencidosJob {
+
+	private static final Logger logger = LoggerFactory.getLogger(LancamentosVencidosJob.class);
+
+	static final String NOME = "lancamentos-vencidos";
+
+	// Posição inicial do keyset (menor DATE aceito pelo MySQL)
+	private static final LocalDate INICIO = LocalDate.of(1000, 1, 1);
+
+	// Execução EM_ANDAMENTO sem checkpoint há mais tempo que isso é considerada abandonada
+	private static final Duration LIMITE_SEM_ATUALIZACAO = Duration.ofMinutes(10);
+
+	private static final String UPSERT_RESUMO = "INSERT INTO resumo_vencidos"
+			+ " (codigo_execucao, codigo_pessoa, quantidade, valor_total, vencimento_mais_antigo) VALUES (?, ?, ?, ?, ?)"
+			+ " ON DUPLICATE KEY UPDATE quantidade = quantidade + VALUES(quantidade),"
+			+ " valor_total = valor_total + VALUES(valor_total),"
+			+ " vencimento_mais_antigo = LEAST(vencimento_mais_antigo, VALUES(vencimento_mais_antigo))";
+
+	private final LancamentoRepository lancamentoRepository;
+	private final ExecucaoJobRepository execucaoJobRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final AlgamoneyApiProperty.Vencidos configuracao;
+	private final MeterRegistry meterRegistry;
+
+	public LancamentosVencidosJob(LancamentoRepository lancamentoRepository,
+			ExecucaoJobRepository execucaoJobRepository, JdbcTemplate jdbcTemplate,
+			PlatformTransactionManager transactionManager, AlgamoneyApiProperty algamoneyApiProperty,
+			MeterRegistry meterRegistry) {
+		this.lancamentoRepository = lancamentoRepository;
+		this.execucaoJobRepository = execucaoJobRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.configuracao = algamoneyApiProperty.getVencidos();
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Scheduled(cron = "${algamoney.vencidos.cron:0 0 2 * * *}")
+	public void executar() {
+		if (configuracao.isHabilitado()) {
+			executar(LocalDate.now());
+		}
+	}
+
+	/**
+	 * O cron só olha o dia corrente; o que falhou ou ficou abandonado é retomado aqui.
+	 */
+	@Scheduled(fixedDelayString = "${algamoney.vencidos.intervalo-retomada-ms:600000}",
+			initialDelayString = "${algamoney.vencidos.intervalo-retomada-ms:600000}")
+	public void retomarPendentes() {
+		if (!configuracao.isHabilitado()) {
+			return;
+		}
+		for (ExecucaoJob pendente : execucaoJobRepository.findByNomeAndStatusNotOrderByDataReferencia(NOME,
+				StatusExecucaoJob.CONCLUIDA)) {
+			executar(pendente.getDataReferencia());
+		}
+	}
+
+	public void executar(LocalDate hoje) {
+		Optional<ExecucaoJob> execucao = iniciarOuRetomar(hoje);
+		if (execucao.isEmpty()) {
+			logger.info("Job {} de {} já concluído ou em execução em outra instância", NOME, hoje);
+			return;
+		}
+
+		Timer.Sample amostra = Timer.start(meterRegistry);
+		ExecutorService workers = Executors.newFixedThreadPool(configuracao.getParalelismo());
+		String status = "concluida";
+		try {
+			processar(execucao.get(), hoje, workers);
+		} catch (ExecucaoAssumidaException e) {
+			status = "assumida";
+			logger.warn("Job {} de {} assumido por outra instância; a última leva desta foi desfeita", NOME, hoje);
+		} catch (Exception e) {
+			status = "falha";
+			logger.error("Job {} de {} falhou; será retomado do último checkpoint", NOME, hoje, e);
+			marcarFalha(execucao.get());
+		} finally {
+			workers.shutdownNow();
+			amostra.stop(meterRegistry.timer("algamoney.job.vencidos.duracao", "status", status));
+		}
+	}
+
+	private Optional<ExecucaoJob> iniciarOuRetomar(LocalDate hoje) {
+		LocalDateTime agora = LocalDateTime.now();
+		Optional<ExecucaoJob> existente = execucaoJobRepository.findByNomeAndDataReferencia(NOME, hoje);
+
+		if (existente.isEmpty()) {
+			ExecucaoJob nova = new ExecucaoJob();
+			nova.setNome(NOME);
+			nova.setDataReferencia(hoje);
+			nova.setStatus(StatusExecucaoJob.EM_ANDAMENTO);
+			nova.setVersao(0L);
+			nova.setUltimaDataVencimento(INICIO);
+			nova.setUltimoCodigo(0L);
+			nova.setProcessados(0L);
+			nova.setIniciadaEm(agora);
+			nova.setAtualizadaEm(agora);
+			try {
+				return Optional.of(execucaoJobRepository.saveAndFlush(nova));
+			} catch (DataIntegrityViolationException e) {
+				// Outra instância criou a execução do dia primeiro
+				return Optional.empty();
+			}
+		}
+
+		Long codigo = existente.get().getCodigo();
+		Integer assumidas = transactionTemplate.execute(status ->
+				execucaoJobRepository.assumir(codigo, agora, agora.minus(LIMITE_SEM_ATUALIZACAO)));
+		return assumidas != null && assumidas == 1 ? execucaoJobRepository.findById(codigo) : Optional.empty();
+	}
+
+	private void processar(ExecucaoJob execucao, LocalDate hoje, ExecutorService workers) throws Exception {
+		int tamanhoLote = configuracao.getTamanhoLote();
+		LocalDate ultimaDataVencimento = execucao.getUltimaDataVencimento();
+		Long ultimoCodigo = execucao.getUltimoCodigo();
+		boolean fim = false;
+
+		while (!fim) {
+			// A leitura é sequencial (cada lote começa onde o anterior terminou); o agrupamento é paralelo
+			List<Future<Map<Long, ResumoVencidosPessoa>>> leva = new ArrayList<>();
+			int lidos = 0;
+			while (leva.size() < configuracao.getParalelismo()) {
+				List<LancamentoVencido> lote = lancamentoRepository.buscarVencidos(hoje, ultimaDataVencimento,
+						ultimoCodigo, PageRequest.of(0, tamanhoLote));
+				if (lote.isEmpty()) {
+					fim = true;
+					break;
+				}
+
+				LancamentoVencido ultimo = lote.get(lote.size() - 1);
+				ultimaDataVencimento = ultimo.getDataVencimento();
+				ultimoCodigo = ultimo.getCodigo();
+				lidos += lote.size();
+				leva.add(workers.submit(() -> ResumoVencidosPessoa.agrupar(lote)));
+
+				if (lote.size() < tamanhoLote) {
+					fim = true;
+					break;
+				}
+			}
+
+			if (leva.isEmpty()) {
+				break;
+			}
+
+			Map<Long, ResumoVencidosPessoa> resumos = new HashMap<>();
+			for (Future<Map<Long, ResumoVencidosPessoa>> parcial : leva) {
+				parcial.get().forEach((pessoa, resumo) -> resumos.merge(pessoa, resumo, ResumoVencidosPessoa::somar));
+			}
+
+			gravar(execucao, resumos, ultimaDataVencimento, ultimoCodigo, lidos);
+			meterRegistry.counter("algamoney.job.vencidos.lancamentos").increment(lidos);
+			logger.info("Job {}: {} lançamentos processados até ({}, {})",
+					NOME, execucao.getProcessados(), ultimaDataVencimento, ultimoCodigo);
+		}
+
+		Integer concluidas = transactionTemplate.execute(status ->
+				execucaoJobRepository.concluir(execucao.getCodigo(), execucao.getVersao(), LocalDateTime.now()));
+		if (concluidas == null || concluidas == 0) {
+			throw new ExecucaoAssumidaException(execucao.getCodigo(), execucao.getVersao());
+		}
+		execucao.setStatus(StatusExecucaoJob.CONCLUIDA);
+	}
+
+	void gravar(ExecucaoJob execucao, Map<Long, ResumoVencidosPessoa> resumos,
+			LocalDate ultimaDataVencimento, Long ultimoCodigo, int lidos) {
+		List<Object[]> linhas = new ArrayList<>(resumos.size());
+		resumos.forEach((pessoa, resumo) -> linhas.add(new Object[] {
+			execucao.getCodigo(), pessoa, resumo.getQuantidade(), resumo.getValorTotal(), resumo.getVencimentoMaisAntigo()
+		}));
+
+		// Resumos e checkpoint no mesmo commit: ou a leva inteira conta, ou nada dela. O
+		// checkpoint vai primeiro: a linha fica travada até o commit, então ninguém assume
+		// no meio da leva, e com a versão trocada a leva é desfeita antes do upsert
+		LocalDateTime agora = LocalDateTime.now();
+		transactionTemplate.executeWithoutResult(status -> {
+			if (execucaoJobRepository.registrarCheckpoint(execucao.getCodigo(), execucao.getVersao(),
+					ultimaDataVencimento, ultimoCodigo, lidos, agora) == 0) {
+				throw new ExecucaoAssumidaException(execucao.getCodigo(), execucao.getVersao());
+			}
+			jdbcTemplate.batchUpdate(UPSERT_RESUMO, linhas);
+		});
+		execucao.setUltimaDataVencimento(ultimaDataVencimento);
+		execucao.setUltimoCodigo(ultimoCodigo);
+		execucao.setProcessados(execucao.getProcessados() + lidos);
+		execucao.setAtualizadaEm(agora);
+	}
+
+	private void marcarFalha(ExecucaoJob execucao) {
+		// Só a versão assumida marca: se outra instância já assumiu, a execução é dela
+		transactionTemplate.executeWithoutResult(status ->
+				execucaoJobRepository.marcarFalha(execucao.getCodigo(), execucao.getVersao(), LocalDateTime.now()));
+	}
+
+}
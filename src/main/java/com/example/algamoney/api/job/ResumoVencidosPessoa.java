@@ -0,0 +1,58 @@
+package com.example.algamoney.api.job;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.algamoney.api.repository.projection.LancamentoVencido;
+
+/**
+ * Acumulado dos lançamentos vencidos de uma pessoa dentro de uma execução do job.
+ */
+class ResumoVencidosPessoa {
+
+	private long quantidade;
+	private BigDecimal valorTotal = BigDecimal.ZERO;
+	private LocalDate vencimentoMaisAntigo;
+
+	static Map<Long, ResumoVencidosPessoa> agrupar(List<LancamentoVencido> lote) {
+		Map<Long, ResumoVencidosPessoa> resumos = new HashMap<>();
+		for (LancamentoVencido lancamento : lote) {
+			resumos.computeIfAbsent(lancamento.getCodigoPessoa(), codigo -> new ResumoVencidosPessoa())
+				.adicionar(lancamento);
+		}
+		return resumos;
+	}
+
+	static ResumoVencidosPessoa somar(ResumoVencidosPessoa a, ResumoVencidosPessoa b) {
+		ResumoVencidosPessoa soma = new ResumoVencidosPessoa();
+		soma.quantidade = a.quantidade + b.quantidade;
+		soma.valorTotal = a.valorTotal.add(b.valorTotal);
+		soma.vencimentoMaisAntigo = a.vencimentoMaisAntigo.isBefore(b.vencimentoMaisAntigo)
+				? a.vencimentoMaisAntigo : b.vencimentoMaisAntigo;
+		return soma;
+	}
+
+	private void adicionar(LancamentoVencido lancamento) {
+		quantidade++;
+		valorTotal = valorTotal.add(lancamento.getValor());
+		if (vencimentoMaisAntigo == null || lancamento.getDataVencimento().isBefore(vencimentoMaisAntigo)) {
+			vencimentoMaisAntigo = lancamento.getDataVencimento();
+		}
+	}
+
+	long getQuantidade() {
+		return quantidade;
+	}
+
+	BigDecimal getValorTotal() {
+		return valorTotal;
+	}
+
+	LocalDate getVencimentoMaisAntigo() {
+		return vencimentoMaisAntigo;
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.example.algamoney.api.loadshedding;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * GET /actuator/concorrencia: limite atual, requisições em execução, latências curta e
+ * longa e recusas por prioridade.
+ */
+@Component
+@Endpoint(id = "concorrencia")
+public class ConcorrenciaEndpoint {
+
+	private final LimiteAdaptativo limiteAdaptativo;
+
+	public ConcorrenciaEndpoint(LimiteAdaptativo limiteAdaptativo) {
+		this.limiteAdaptativo = limiteAdaptativo;
+	}
+
+	@ReadOperation
+	public Map<String, Object> estado() {
+		return limiteAdaptativo.estado();
+	}
+
+}
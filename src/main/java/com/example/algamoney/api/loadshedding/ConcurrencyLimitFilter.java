@@ -0,0 +1,146 @@
+package com.example.algamoney.api.loadshedding;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+
+/**
+ * Descarta carga com 503 assim que o {@link LimiteAdaptativo} da prioridade da requisição
+ * estiver ocupado, em vez de deixar a requisição esperar na fila do Tomcat. Não há fila
+ * aqui: a resposta é imediata e o cliente tenta de novo depois do Retry-After.
+ *
+ * Roda depois do RateLimitFilter: um cliente acima da própria cota é recusado antes de
+ * ocupar vaga. SSE libera a vaga quando o handler retorna e não entra na medição de
+ * latência; as demais requisições assíncronas (consultas canceláveis) seguram a vaga até o
+ * AsyncContext completar e são medidas até lá.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+	private static final String RETRY_AFTER_SEGUNDOS = "1";
+
+	private final LimiteAdaptativo limiteAdaptativo;
+	private final List<PathPattern> caminhosCriticos;
+	private final List<PathPattern> caminhosAltaPrioridade;
+	private final List<PathPattern> caminhosBaixaPrioridade;
+
+	public ConcurrencyLimitFilter(LimiteAdaptativo limiteAdaptativo, AlgamoneyApiProperty algamoneyApiProperty) {
+		AlgamoneyApiProperty.Concorrencia concorrencia = algamoneyApiProperty.getConcorrencia();
+		this.limiteAdaptativo = limiteAdaptativo;
+		this.caminhosCriticos = padroes(concorrencia.getCaminhosCriticos());
+		this.caminhosAltaPrioridade = padroes(concorrencia.getCaminhosAltaPrioridade());
+		this.caminhosBaixaPrioridade = padroes(concorrencia.getCaminhosBaixaPrioridade());
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !limiteAdaptativo.isHabilitado();
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		Prioridade prioridade = prioridade(request);
+		if (prioridade == Prioridade.CRITICA) {
+			chain.doFilter(request, response);
+			return;
+		}
+
+		if (!limiteAdaptativo.adquirir(prioridade)) {
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SEGUNDOS);
+			return;
+		}
+
+		long inicio = System.nanoTime();
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			if (request.isAsyncStarted()) {
+				liberarAoConcluir(request, response, inicio);
+			} else {
+				limiteAdaptativo.liberar(System.nanoTime() - inicio);
+			}
+		}
+	}
+
+	private void liberarAoConcluir(HttpServletRequest request, HttpServletResponse response, long inicio) {
+		String contentType = response.getContentType();
+		if (contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+			limiteAdaptativo.liberar(-1);
+			return;
+		}
+		request.getAsyncContext().addListener(new AsyncListener() {
+
+			@Override
+			public void onComplete(AsyncEvent event) {
+				limiteAdaptativo.liberar(System.nanoTime() - inicio);
+			}
+
+			@Override
+			public void onTimeout(AsyncEvent event) {
+			}
+
+			@Override
+			public void onError(AsyncEvent event) {
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent event) {
+			}
+
+		});
+	}
+
+	private Prioridade prioridade(HttpServletRequest request) {
+		PathContainer caminho = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+		if (casa(caminhosCriticos, caminho)) {
+			return Prioridade.CRITICA;
+		}
+		if (casa(caminhosAltaPrioridade, caminho)) {
+			return Prioridade.ALTA;
+		}
+		if (HttpMethod.GET.matches(request.getMethod()) && casa(caminhosBaixaPrioridade, caminho)) {
+			return Prioridade.BAIXA;
+		}
+		return Prioridade.NORMAL;
+	}
+
+	private static boolean casa(List<PathPattern> padroes, PathContainer caminho) {
+		for (PathPattern padrao : padroes) {
+			if (padrao.matches(caminho)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<PathPattern> padroes(List<String> caminhos) {
+		return caminhos.stream()
+				.map(PathPatternParser.defaultInstance::parse)
+				.collect(Collectors.toList());
+	}
+
+}
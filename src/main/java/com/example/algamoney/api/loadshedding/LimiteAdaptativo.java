@@ -0,0 +1,186 @@
+package com.example.algamoney.api.loadshedding;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Limite de requisições simultâneas ajustado pela latência medida, no estilo do
+ * Gradient2 (Netflix concurrency-limits).
+ *
+ * A cada janela de algamoney.concorrencia.janela-ms a latência média da janela (curta) é
+ * comparada com uma média móvel lenta (longa). Se a curta sobe, o MySQL ou a JVM estão
+ * enfileirando e o limite cai na proporção; estável, o limite cresce devagar (raiz do
+ * limite por janela). O limite só cresce se a janela chegou perto dele: sem carga não há
+ * como saber se caberia mais.
+ *
+ * Admitir e liberar são operações atômicas, sem lock; o recálculo é feito por uma única
+ * thread por janela, quem fechar a janela.
+ *
+ * Métricas: algamoney.concorrencia.limite, algamoney.concorrencia.em-execucao,
+ * algamoney.concorrencia.rejeitadas{prioridade}. Estado completo em /actuator/concorrencia.
+ */
+@Component
+public class LimiteAdaptativo {
+
+	// Gradiente mínimo: o limite cai no máximo pela metade por janela
+	private static final double GRADIENTE_MINIMO = 0.5;
+
+	// Janelas na média longa; se a curta cair abaixo da metade da longa, a longa decai mais rápido
+	private static final int JANELAS_MEDIA_LONGA = 60;
+
+	private static final int AMOSTRAS_MINIMAS = 10;
+
+	private final boolean habilitado;
+	private final int limiteMinimo;
+	private final int limiteMaximo;
+	private final double tolerancia;
+	private final double suavizacao;
+	private final long janelaNanos;
+
+	private final AtomicInteger emExecucao = new AtomicInteger();
+	private volatile double limite;
+
+	// Janela corrente
+	private final AtomicLong fimJanela;
+	private final AtomicLong somaRttJanela = new AtomicLong();
+	private final AtomicInteger amostrasJanela = new AtomicInteger();
+	private final AtomicInteger picoJanela = new AtomicInteger();
+
+	// Escritos só por quem fecha a janela
+	private volatile double rttCurto;
+	private volatile double rttLongo;
+
+	private final Map<Prioridade, Counter> rejeitadas = new EnumMap<>(Prioridade.class);
+
+	public LimiteAdaptativo(AlgamoneyApiProperty algamoneyApiProperty, MeterRegistry meterRegistry) {
+		AlgamoneyApiProperty.Concorrencia concorrencia = algamoneyApiProperty.getConcorrencia();
+		this.habilitado = concorrencia.isHabilitado();
+		this.limiteMinimo = concorrencia.getLimiteMinimo();
+		this.limiteMaximo = concorrencia.getLimiteMaximo();
+		this.tolerancia = concorrencia.getTolerancia();
+		this.suavizacao = concorrencia.getSuavizacao();
+		this.janelaNanos = TimeUnit.MILLISECONDS.toNanos(concorrencia.getJanelaMs());
+		this.limite = Math.max(limiteMinimo, Math.min(limiteMaximo, concorrencia.getLimiteInicial()));
+		this.fimJanela = new AtomicLong(System.nanoTime() + janelaNanos);
+
+		Gauge.builder("algamoney.concorrencia.limite", this, LimiteAdaptativo::getLimite)
+				.description("Limite adaptativo de requisições simultâneas")
+				.register(meterRegistry);
+		Gauge.builder("algamoney.concorrencia.em-execucao", emExecucao, AtomicInteger::get)
+				.description("Requisições em execução contadas pelo limitador")
+				.register(meterRegistry);
+		for (Prioridade prioridade : Prioridade.values()) {
+			rejeitadas.put(prioridade, Counter.builder("algamoney.concorrencia.rejeitadas")
+					.description("Requisições recusadas com 503 pelo limitador de concorrência")
+					.tag("prioridade", prioridade.name().toLowerCase())
+					.register(meterRegistry));
+		}
+	}
+
+	public boolean isHabilitado() {
+		return habilitado;
+	}
+
+	public int getLimite() {
+		return (int) limite;
+	}
+
+	/**
+	 * @return false se a prioridade já ocupou sua fração do limite; nesse caso não há o que liberar
+	 */
+	public boolean adquirir(Prioridade prioridade) {
+		int permitido = (int) Math.max(1, limite * prioridade.getFracaoLimite());
+		while (true) {
+			int atual = emExecucao.get();
+			if (atual >= permitido) {
+				rejeitadas.get(prioridade).increment();
+				return false;
+			}
+			if (emExecucao.compareAndSet(atual, atual + 1)) {
+				picoJanela.accumulateAndGet(atual + 1, Math::max);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * @param rttNanos duração da requisição, ou negativo se não deve virar amostra (SSE, por exemplo)
+	 */
+	public void liberar(long rttNanos) {
+		liberar(rttNanos, System.nanoTime());
+	}
+
+	void liberar(long rttNanos, long agora) {
+		emExecucao.decrementAndGet();
+		if (rttNanos < 0) {
+			return;
+		}
+		somaRttJanela.addAndGet(rttNanos);
+		amostrasJanela.incrementAndGet();
+
+		long fim = fimJanela.get();
+		if (agora - fim >= 0 && fimJanela.compareAndSet(fim, agora + janelaNanos)) {
+			recalcular();
+		}
+	}
+
+	public Map<String, Object> estado() {
+		Map<String, Object> estado = new LinkedHashMap<>();
+		estado.put("habilitado", habilitado);
+		estado.put("limite", getLimite());
+		estado.put("emExecucao", emExecucao.get());
+		estado.put("rttCurtoMs", rttCurto / 1_000_000);
+		estado.put("rttLongoMs", rttLongo / 1_000_000);
+		Map<String, Object> porPrioridade = new LinkedHashMap<>();
+		for (Prioridade prioridade : Prioridade.values()) {
+			Map<String, Object> dados = new LinkedHashMap<>();
+			dados.put("admitidasAte", prioridade == Prioridade.CRITICA
+					? "sem limite" : (int) Math.max(1, limite * prioridade.getFracaoLimite()));
+			dados.put("rejeitadas", (long) rejeitadas.get(prioridade).count());
+			porPrioridade.put(prioridade.name().toLowerCase(), dados);
+		}
+		estado.put("prioridades", porPrioridade);
+		return estado;
+	}
+
+	private void recalcular() {
+		int amostras = amostrasJanela.getAndSet(0);
+		long soma = somaRttJanela.getAndSet(0);
+		int pico = picoJanela.getAndSet(emExecucao.get());
+		if (amostras < AMOSTRAS_MINIMAS) {
+			// Poucas amostras são ruído; a soma descartada só atrasa o ajuste em uma janela
+			return;
+		}
+
+		double curto = (double) soma / amostras;
+		double longo = rttLongo == 0 ? curto : rttLongo + (curto - rttLongo) / JANELAS_MEDIA_LONGA;
+		if (longo / curto > 2) {
+			// A latência caiu de vez (fim de um incidente): não esperar 60 janelas para acompanhar
+			longo *= 0.95;
+		}
+		rttCurto = curto;
+		rttLongo = longo;
+
+		double atual = limite;
+		double gradiente = Math.max(GRADIENTE_MINIMO, Math.min(1.0, tolerancia * longo / curto));
+		double novo = atual * gradiente + Math.sqrt(atual);
+		if (pico < atual / 2) {
+			novo = Math.min(novo, atual);
+		}
+		novo = atual * (1 - suavizacao) + novo * suavizacao;
+		limite = Math.max(limiteMinimo, Math.min(limiteMaximo, novo));
+	}
+
+}
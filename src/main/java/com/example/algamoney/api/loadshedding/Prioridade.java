@@ -0,0 +1,29 @@
+package com.example.algamoney.api.loadshedding;
+
+/**
+ * Classe de prioridade de uma requisição no limitador de concorrência. Cada classe só é
+ * admitida enquanto as requisições em execução estiverem abaixo da sua fração do limite:
+ * com a aplicação saturando, pesquisas em massa são recusadas primeiro e a emissão de
+ * token por último.
+ */
+public enum Prioridade {
+
+	// Health check do container: nunca recusado nem contado
+	CRITICA(Double.POSITIVE_INFINITY),
+	// Emissão e revogação de token
+	ALTA(1.0),
+	NORMAL(0.85),
+	// Pesquisas paginadas (GET nas coleções)
+	BAIXA(0.6);
+
+	private final double fracaoLimite;
+
+	Prioridade(double fracaoLimite) {
+		this.fracaoLimite = fracaoLimite;
+	}
+
+	public double getFracaoLimite() {
+		return fracaoLimite;
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.example.algamoney.api.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import com.example.algamoney.api.event.Operacao;
+import com.example.algamoney.api.event.TipoRecurso;
+
+@Entity
+@Table(name = "evento_outbox")
+public class EventoOutbox {
+
+	@Id
+	private Long codigo;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "tipo_recurso")
+	private TipoRecurso tipoRecurso;
+
+	@Column(name = "codigo_recurso")
+	private Long codigoRecurso;
+
+	@Enumerated(EnumType.STRING)
+	private Operacao operacao;
+
+	@Column(name = "criado_em")
+	private LocalDateTime criadoEm;
+
+	@Column(name = "data_inicio")
+	private LocalDate dataInicio;
+
+	@Column(name = "data_fim")
+	private LocalDate dataFim;
+
+	public Long getCodigo() {
+		return codigo;
+	}
+
+	public TipoRecurso getTipoRecurso() {
+		return tipoRecurso;
+	}
+
+	public Long getCodigoRecurso() {
+		return codigoRecurso;
+	}
+
+	public Operacao getOperacao() {
+		return operacao;
+	}
+
+	public LocalDateTime getCriadoEm() {
+		return criadoEm;
+	}
+
+	public LocalDate getDataInicio() {
+		return dataInicio;
+	}
+
+	public LocalDate getDataFim() {
+		return dataFim;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((codigo == null) ? 0 : codigo.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		EventoOutbox other = (EventoOutbox) obj;
+		if (codigo == null) {
+			if (other.codigo != null)
+				return false;
+		} else if (!codigo.equals(other.codigo))
+			return false;
+		return true;
+	}
+
+}
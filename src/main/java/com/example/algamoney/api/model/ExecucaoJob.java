@@ -0,0 +1,167 @@
+package com.example.algamoney.api.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Checkpoint de uma execução de job em lotes. A chave (ultimaDataVencimento, ultimoCodigo)
+ * é a última posição do keyset já gravada, permitindo retomar de onde parou.
+ */
+@Entity
+@Table(name = "execucao_job")
+public class ExecucaoJob {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long codigo;
+
+	private String nome;
+
+	@Column(name = "data_referencia")
+	private LocalDate dataReferencia;
+
+	@Enumerated(EnumType.STRING)
+	private StatusExecucaoJob status;
+
+	private Long versao;
+
+	@Column(name = "ultima_data_vencimento")
+	private LocalDate ultimaDataVencimento;
+
+	@Column(name = "ultimo_codigo")
+	private Long ultimoCodigo;
+
+	private Long processados;
+
+	@Column(name = "iniciada_em")
+	private LocalDateTime iniciadaEm;
+
+	@Column(name = "atualizada_em")
+	private LocalDateTime atualizadaEm;
+
+	@Column(name = "finalizada_em")
+	private LocalDateTime finalizadaEm;
+
+	public Long getCodigo() {
+		return codigo;
+	}
+
+	public void setCodigo(Long codigo) {
+		this.codigo = codigo;
+	}
+
+	public String getNome() {
+		return nome;
+	}
+
+	public void setNome(String nome) {
+		this.nome = nome;
+	}
+
+	public LocalDate getDataReferencia() {
+		return dataReferencia;
+	}
+
+	public void setDataReferencia(LocalDate dataReferencia) {
+		this.dataReferencia = dataReferencia;
+	}
+
+	public StatusExecucaoJob getStatus() {
+		return status;
+	}
+
+	public void setStatus(StatusExecucaoJob status) {
+		this.status = status;
+	}
+
+	public Long getVersao() {
+		return versao;
+	}
+
+	public void setVersao(Long versao) {
+		this.versao = versao;
+	}
+
+	public LocalDate getUltimaDataVencimento() {
+		return ultimaDataVencimento;
+	}
+
+	public void setUltimaDataVencimento(LocalDate ultimaDataVencimento) {
+		this.ultimaDataVencimento = ultimaDataVencimento;
+	}
+
+	public Long getUltimoCodigo() {
+		return ultimoCodigo;
+	}
+
+	public void setUltimoCodigo(Long ultimoCodigo) {
+		this.ultimoCodigo = ultimoCodigo;
+	}
+
+	public Long getProcessados() {
+		return processados;
+	}
+
+	public void setProcessados(Long processados) {
+		this.processados = processados;
+	}
+
+	public LocalDateTime getIniciadaEm() {
+		return iniciadaEm;
+	}
+
+	public void setIniciadaEm(LocalDateTime iniciadaEm) {
+		this.iniciadaEm = iniciadaEm;
+	}
+
+	public LocalDateTime getAtualizadaEm() {
+		return atualizadaEm;
+	}
+
+	public void setAtualizadaEm(LocalDateTime atualizadaEm) {
+		this.atualizadaEm = atualizadaEm;
+	}
+
+	public LocalDateTime getFinalizadaEm() {
+		return finalizadaEm;
+	}
+
+	public void setFinalizadaEm(LocalDateTime finalizadaEm) {
+		this.finalizadaEm = finalizadaEm;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((codigo == null) ? 0 : codigo.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ExecucaoJob other = (ExecucaoJob) obj;
+		if (codigo == null) {
+			if (other.codigo != null)
+				return false;
+		} else if (!codigo.equals(other.codigo))
+			return false;
+		return true;
+	}
+
+}
@@ -15,6 +15,8 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 @Entity
 @Table(name = "lancamento")
 public class Lancamento {
@@ -52,6 +54,11 @@ public class Lancamento {
 	@JoinColumn(name = "codigo_pessoa")
 	private Pessoa pessoa;
 
+	// Liga as parcelas/recorrências geradas juntas; só é definido pelo servidor
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	@Column(name = "codigo_serie")
+	private String codigoSerie;
+
 	public Long getCodigo() {
 		return codigo;
 	}
@@ -124,6 +131,14 @@ public class Lancamento {
 		this.pessoa = pessoa;
 	}
 
+	public String getCodigoSerie() {
+		return codigoSerie;
+	}
+
+	public void setCodigoSerie(String codigoSerie) {
+		this.codigoSerie = codigoSerie;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -0,0 +1,30 @@
+package com.example.algamoney.api.model;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+public enum Periodicidade {
+
+	SEMANAL(ChronoUnit.WEEKS),
+	QUINZENAL(ChronoUnit.WEEKS, 2),
+	MENSAL(ChronoUnit.MONTHS),
+	ANUAL(ChronoUnit.YEARS);
+
+	private final ChronoUnit unidade;
+	private final int passo;
+
+	Periodicidade(ChronoUnit unidade) {
+		this(unidade, 1);
+	}
+
+	Periodicidade(ChronoUnit unidade, int passo) {
+		this.unidade = unidade;
+		this.passo = passo;
+	}
+
+	// Sempre a partir da data inicial, para não acumular ajustes de fim de mês (31/01 -> 28/02 -> 28/03)
+	public LocalDate ocorrencia(LocalDate dataInicial, int indice) {
+		return dataInicial.plus((long) indice * passo, unidade);
+	}
+
+}
@@ -0,0 +1,9 @@
+package com.example.algamoney.api.model;
+
+public enum StatusExecucaoJob {
+
+	EM_ANDAMENTO,
+	CONCLUIDA,
+	FALHA
+
+}
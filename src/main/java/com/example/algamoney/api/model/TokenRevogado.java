@@ -0,0 +1,44 @@
+package com.example.algamoney.api.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "token_revogado")
+public class TokenRevogado {
+
+	@Id
+	private String jti;
+
+	@Column(name = "expira_em")
+	private LocalDateTime expiraEm;
+
+	// Preenchido pelo banco: todas as instâncias comparam o mesmo relógio
+	@Column(name = "revogado_em", insertable = false, updatable = false)
+	private LocalDateTime revogadoEm;
+
+	protected TokenRevogado() {
+	}
+
+	public TokenRevogado(String jti, LocalDateTime expiraEm) {
+		this.jti = jti;
+		this.expiraEm = expiraEm;
+	}
+
+	public String getJti() {
+		return jti;
+	}
+
+	public LocalDateTime getExpiraEm() {
+		return expiraEm;
+	}
+
+	public LocalDateTime getRevogadoEm() {
+		return revogadoEm;
+	}
+
+}
@@ -0,0 +1,282 @@
+package com.example.algamoney.api.pool;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Mede e ajusta cada pool Hikari da aplicação.
+ *
+ * A cada segundo a utilização (conexões ativas sobre o maximum-pool-size) vira uma amostra
+ * do histograma; o tempo de espera de cada getConnection é medido pelo
+ * {@link MonitorPoolDataSource}. A cada janela de ajuste:
+ *
+ * - espera média acima de algamoney.pool.espera-alvo-ms, ou algum connection-timeout, aumenta
+ *   o pool em 25%, desde que o tempo de uso das conexões não tenha subido junto: conexões
+ *   mais lentas indicam banco saturado, e mais conexões só piorariam;
+ * - janelas seguidas sem espera e com no máximo metade do pool em uso tiram uma conexão.
+ *
+ * Sempre entre algamoney.pool.tamanho-minimo e tamanho-maximo. Conexões emprestadas há mais
+ * que algamoney.pool.limiar-vazamento-ms são reportadas uma vez, com o método de origem.
+ *
+ * Métricas: algamoney.pool.espera{pool}, algamoney.pool.utilizacao{pool},
+ * algamoney.pool.tamanho-maximo{pool}, algamoney.pool.vazamentos{pool,origem}.
+ * Estado completo em /actuator/pool.
+ */
+@Component
+public class GerenciadorPool {
+
+	private static final Logger logger = LoggerFactory.getLogger(GerenciadorPool.class);
+
+	// Peso da janela na média longa do tempo de uso
+	private static final double SUAVIZACAO_USO = 0.1;
+
+	// Uso médio acima disso (em relação à média longa) é banco lento, não falta de conexão
+	private static final double TOLERANCIA_USO = 1.5;
+
+	private final AlgamoneyApiProperty.Pool configuracao;
+	private final MeterRegistry meterRegistry;
+	private final List<PoolGerenciado> pools = new ArrayList<>();
+
+	public GerenciadorPool(ObjectProvider<DataSource> dataSources, AlgamoneyApiProperty algamoneyApiProperty,
+			MeterRegistry meterRegistry) {
+		this.configuracao = algamoneyApiProperty.getPool();
+		this.meterRegistry = meterRegistry;
+		dataSources.orderedStream().forEach(this::adicionar);
+	}
+
+	@Scheduled(fixedDelayString = "${algamoney.pool.amostragem-ms:1000}")
+	public void amostrar() {
+		for (PoolGerenciado pool : pools) {
+			HikariPoolMXBean estado = pool.hikari.getHikariPoolMXBean();
+			if (estado == null) {
+				// Pool ainda não iniciado
+				continue;
+			}
+			int ativas = estado.getActiveConnections();
+			pool.utilizacao.record(100.0 * ativas / pool.hikari.getMaximumPoolSize());
+			pool.picoAtivas.accumulateAndGet(ativas, Math::max);
+			pool.picoAguardando.accumulateAndGet(estado.getThreadsAwaitingConnection(), Math::max);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${algamoney.pool.ajuste-ms:30000}", initialDelayString = "${algamoney.pool.ajuste-ms:30000}")
+	public void ajustar() {
+		for (PoolGerenciado pool : pools) {
+			MonitorPoolDataSource.Janela janela = pool.monitor.fecharJanela();
+			int picoAtivas = pool.picoAtivas.getAndSet(0);
+			pool.picoAguardandoJanela = pool.picoAguardando.getAndSet(0);
+			pool.ultimaJanela = janela;
+			if (configuracao.isAutoAjuste()) {
+				ajustar(pool, janela, picoAtivas);
+			}
+			if (janela.devolucoes() > 0) {
+				pool.usoLongoMs = pool.usoLongoMs == 0 ? janela.getUsoMedioMs()
+						: pool.usoLongoMs + SUAVIZACAO_USO * (janela.getUsoMedioMs() - pool.usoLongoMs);
+			}
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${algamoney.pool.verificacao-vazamento-ms:5000}")
+	public void verificarVazamentos() {
+		long limiar = TimeUnit.MILLISECONDS.toNanos(configuracao.getLimiarVazamentoMs());
+		if (limiar <= 0) {
+			return;
+		}
+		long agora = System.nanoTime();
+		for (PoolGerenciado pool : pools) {
+			for (MonitorPoolDataSource.Emprestimo emprestimo : pool.monitor.getEmprestimos()) {
+				if (!emprestimo.isReportado() && agora - emprestimo.getInicio() > limiar) {
+					emprestimo.reportar();
+					meterRegistry.counter("algamoney.pool.vazamentos", "pool", pool.nome, "origem", emprestimo.getOrigem())
+							.increment();
+					logger.warn("Possible connection leak in pool {}: borrowed by {} on {} for {} ms", pool.nome,
+							emprestimo.getOrigem(), emprestimo.getThread(), TimeUnit.NANOSECONDS.toMillis(agora - emprestimo.getInicio()));
+				}
+			}
+		}
+	}
+
+	public Map<String, Object> estado() {
+		Map<String, Object> estado = new LinkedHashMap<>();
+		estado.put("autoAjuste", configuracao.isAutoAjuste());
+		estado.put("tamanhoMinimo", configuracao.getTamanhoMinimo());
+		estado.put("tamanhoMaximo", configuracao.getTamanhoMaximo());
+		estado.put("esperaAlvoMs", configuracao.getEsperaAlvoMs());
+		estado.put("limiarVazamentoMs", configuracao.getLimiarVazamentoMs());
+		Map<String, Object> porPool = new LinkedHashMap<>();
+		for (PoolGerenciado pool : pools) {
+			porPool.put(pool.nome, pool.estado());
+		}
+		estado.put("pools", porPool);
+		return estado;
+	}
+
+	private void ajustar(PoolGerenciado pool, MonitorPoolDataSource.Janela janela, int picoAtivas) {
+		HikariConfigMXBean config = pool.hikari.getHikariConfigMXBean();
+		int atual = config.getMaximumPoolSize();
+		boolean esperando = janela.esgotamentos() > 0 || janela.getEsperaMediaMs() > configuracao.getEsperaAlvoMs();
+		boolean bancoLento = pool.usoLongoMs > 0 && janela.getUsoMedioMs() > pool.usoLongoMs * TOLERANCIA_USO;
+
+		if (esperando) {
+			pool.janelasOciosas = 0;
+			if (bancoLento) {
+				logger.debug("Pool {} has waiters but connection usage went from {} to {} ms; keeping size {}",
+						pool.nome, pool.usoLongoMs, janela.getUsoMedioMs(), atual);
+			} else if (atual < configuracao.getTamanhoMaximo()) {
+				redimensionar(pool, atual, Math.min(configuracao.getTamanhoMaximo(), atual + Math.max(1, atual / 4)),
+						String.format("espera média %.1f ms, %d timeouts", janela.getEsperaMediaMs(), janela.esgotamentos()));
+			}
+			return;
+		}
+
+		boolean ocioso = janela.getEsperaMediaMs() < configuracao.getEsperaAlvoMs() / 4.0 && picoAtivas <= atual / 2;
+		pool.janelasOciosas = ocioso ? pool.janelasOciosas + 1 : 0;
+		if (pool.janelasOciosas >= configuracao.getJanelasParaReduzir() && atual > configuracao.getTamanhoMinimo()) {
+			pool.janelasOciosas = 0;
+			redimensionar(pool, atual, atual - 1, String.format("no máximo %d de %d conexões em uso", picoAtivas, atual));
+		}
+	}
+
+	private void redimensionar(PoolGerenciado pool, int de, int para, String motivo) {
+		HikariConfigMXBean config = pool.hikari.getHikariConfigMXBean();
+		if (para < de && config.getMinimumIdle() > para) {
+			config.setMinimumIdle(para);
+		}
+		config.setMaximumPoolSize(para);
+		pool.ultimoAjuste = Map.of("de", de, "para", para, "motivo", motivo, "em", LocalDateTime.now().toString());
+		logger.info("Pool {} resized from {} to {} ({})", pool.nome, de, para, motivo);
+	}
+
+	private void adicionar(DataSource dataSource) {
+		HikariDataSource hikari;
+		MonitorPoolDataSource monitor;
+		try {
+			if (!dataSource.isWrapperFor(HikariDataSource.class) || !dataSource.isWrapperFor(MonitorPoolDataSource.class)) {
+				return;
+			}
+			hikari = dataSource.unwrap(HikariDataSource.class);
+			monitor = dataSource.unwrap(MonitorPoolDataSource.class);
+		} catch (SQLException e) {
+			throw new IllegalStateException("Could not unwrap data source", e);
+		}
+
+		// Tamanho configurado fora dos limites: vale o limite
+		int tamanho = Math.max(configuracao.getTamanhoMinimo(),
+				Math.min(configuracao.getTamanhoMaximo(), hikari.getMaximumPoolSize()));
+		if (tamanho != hikari.getMaximumPoolSize()) {
+			hikari.setMaximumPoolSize(tamanho);
+		}
+
+		PoolGerenciado pool = new PoolGerenciado(hikari, monitor);
+		Timer espera = Timer.builder("algamoney.pool.espera")
+				.description("Espera por uma conexão do pool")
+				.tag("pool", pool.nome)
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		pool.utilizacao = DistributionSummary.builder("algamoney.pool.utilizacao")
+				.description("Conexões em uso sobre o tamanho máximo do pool")
+				.baseUnit("percent")
+				.tag("pool", pool.nome)
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.serviceLevelObjectives(25, 50, 75, 90, 100)
+				.register(meterRegistry);
+		Gauge.builder("algamoney.pool.tamanho-maximo", hikari, HikariDataSource::getMaximumPoolSize)
+				.description("maximum-pool-size atual")
+				.tag("pool", pool.nome)
+				.register(meterRegistry);
+		monitor.monitorar(espera, configuracao.getLimiarVazamentoMs() > 0);
+		pools.add(pool);
+	}
+
+	private static final class PoolGerenciado {
+
+		private final String nome;
+		private final HikariDataSource hikari;
+		private final MonitorPoolDataSource monitor;
+		private DistributionSummary utilizacao;
+
+		// Janela corrente, escrita pela amostragem
+		private final AtomicInteger picoAtivas = new AtomicInteger();
+		private final AtomicInteger picoAguardando = new AtomicInteger();
+
+		// Escritos só pelo ajuste
+		private volatile MonitorPoolDataSource.Janela ultimaJanela;
+		private volatile int picoAguardandoJanela;
+		private volatile double usoLongoMs;
+		private volatile Map<String, Object> ultimoAjuste;
+		private int janelasOciosas;
+
+		private PoolGerenciado(HikariDataSource hikari, MonitorPoolDataSource monitor) {
+			this.nome = hikari.getPoolName() != null ? hikari.getPoolName() : "padrao";
+			this.hikari = hikari;
+			this.monitor = monitor;
+		}
+
+		private Map<String, Object> estado() {
+			Map<String, Object> estado = new LinkedHashMap<>();
+			estado.put("maximumPoolSize", hikari.getMaximumPoolSize());
+			estado.put("minimumIdle", hikari.getMinimumIdle());
+			estado.put("connectionTimeoutMs", hikari.getConnectionTimeout());
+			HikariPoolMXBean conexoes = hikari.getHikariPoolMXBean();
+			if (conexoes != null) {
+				estado.put("ativas", conexoes.getActiveConnections());
+				estado.put("ociosas", conexoes.getIdleConnections());
+				estado.put("total", conexoes.getTotalConnections());
+				estado.put("aguardando", conexoes.getThreadsAwaitingConnection());
+			}
+			MonitorPoolDataSource.Janela janela = ultimaJanela;
+			if (janela != null) {
+				Map<String, Object> dados = new LinkedHashMap<>();
+				dados.put("aquisicoes", janela.aquisicoes());
+				dados.put("esperaMediaMs", janela.getEsperaMediaMs());
+				dados.put("esperaMaximaMs", janela.getEsperaMaximaMs());
+				dados.put("timeouts", janela.esgotamentos());
+				dados.put("usoMedioMs", janela.getUsoMedioMs());
+				dados.put("picoAguardando", picoAguardandoJanela);
+				estado.put("ultimaJanela", dados);
+			}
+			estado.put("usoLongoMs", usoLongoMs);
+			if (ultimoAjuste != null) {
+				estado.put("ultimoAjuste", ultimoAjuste);
+			}
+			long agora = System.nanoTime();
+			List<Map<String, Object>> vazamentos = new ArrayList<>();
+			for (MonitorPoolDataSource.Emprestimo emprestimo : monitor.getEmprestimos()) {
+				if (emprestimo.isReportado()) {
+					vazamentos.add(Map.of("origem", emprestimo.getOrigem(), "thread", emprestimo.getThread(),
+							"emprestadaHaMs", TimeUnit.NANOSECONDS.toMillis(agora - emprestimo.getInicio())));
+				}
+			}
+			estado.put("emprestadas", monitor.getEmprestimos().size());
+			estado.put("vazamentos", vazamentos);
+			return estado;
+		}
+
+	}
+
+}
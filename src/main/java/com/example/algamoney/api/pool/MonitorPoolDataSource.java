@@ -0,0 +1,257 @@
+package com.example.algamoney.api.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Envolve o pool para medir o tempo de espera de cada getConnection e saber quem está
+ * com cada conexão emprestada.
+ *
+ * A origem do empréstimo é o método de resource ou service mais interno na pilha de quem
+ * pediu a conexão (na falta deles, o primeiro método da aplicação). Percorrer a pilha só
+ * acontece com a detecção de vazamento ligada; o {@link GerenciadorPool} varre os
+ * empréstimos abertos e aponta os que passaram do limiar.
+ */
+public class MonitorPoolDataSource extends DelegatingDataSource {
+
+	private static final Logger logger = LoggerFactory.getLogger(MonitorPoolDataSource.class);
+
+	private static final String PACOTE_APLICACAO = "com.example.algamoney.api.";
+	private static final String PACOTE_POOL = PACOTE_APLICACAO + "pool.";
+	private static final String PACOTE_QUERY = PACOTE_APLICACAO + "query.";
+	private static final String PACOTE_RESOURCE = PACOTE_APLICACAO + "resource.";
+	private static final String PACOTE_SERVICE = PACOTE_APLICACAO + "service.";
+
+	private static final StackWalker PILHA = StackWalker.getInstance();
+
+	private final Set<Emprestimo> emprestimos = ConcurrentHashMap.newKeySet();
+
+	// Janela corrente, fechada pelo GerenciadorPool a cada ajuste
+	private final LongAdder aquisicoes = new LongAdder();
+	private final LongAdder somaEsperaNanos = new LongAdder();
+	private final LongAccumulator maximaEsperaNanos = new LongAccumulator(Math::max, 0);
+	private final LongAdder esgotamentos = new LongAdder();
+	private final LongAdder devolucoes = new LongAdder();
+	private final LongAdder somaUsoNanos = new LongAdder();
+
+	private volatile Timer espera;
+	private volatile boolean rastrearOrigem;
+
+	public MonitorPoolDataSource(DataSource alvo) {
+		super(alvo);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		long inicio = System.nanoTime();
+		try {
+			return emprestar(super.getConnection(), inicio);
+		} catch (SQLTransientConnectionException e) {
+			// connection-timeout do Hikari: nenhuma conexão livre a tempo
+			esgotamentos.increment();
+			registrarEspera(System.nanoTime() - inicio);
+			throw e;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		long inicio = System.nanoTime();
+		try {
+			return emprestar(super.getConnection(username, password), inicio);
+		} catch (SQLTransientConnectionException e) {
+			esgotamentos.increment();
+			registrarEspera(System.nanoTime() - inicio);
+			throw e;
+		}
+	}
+
+	void monitorar(Timer espera, boolean rastrearOrigem) {
+		this.espera = espera;
+		this.rastrearOrigem = rastrearOrigem;
+	}
+
+	Set<Emprestimo> getEmprestimos() {
+		return emprestimos;
+	}
+
+	Janela fecharJanela() {
+		return new Janela(aquisicoes.sumThenReset(), somaEsperaNanos.sumThenReset(),
+				maximaEsperaNanos.getThenReset(), esgotamentos.sumThenReset(),
+				devolucoes.sumThenReset(), somaUsoNanos.sumThenReset());
+	}
+
+	private Connection emprestar(Connection conexao, long inicio) {
+		long agora = System.nanoTime();
+		registrarEspera(agora - inicio);
+		Emprestimo emprestimo = new Emprestimo(rastrearOrigem ? origem() : null, Thread.currentThread().getName(), agora);
+		emprestimos.add(emprestimo);
+		return (Connection) Proxy.newProxyInstance(MonitorPoolDataSource.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, new ConexaoEmprestada(conexao, emprestimo));
+	}
+
+	private void registrarEspera(long nanos) {
+		aquisicoes.increment();
+		somaEsperaNanos.add(nanos);
+		maximaEsperaNanos.accumulate(nanos);
+		Timer timer = espera;
+		if (timer != null) {
+			timer.record(nanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private void devolver(Emprestimo emprestimo) {
+		if (!emprestimos.remove(emprestimo)) {
+			return;
+		}
+		long uso = System.nanoTime() - emprestimo.getInicio();
+		devolucoes.increment();
+		somaUsoNanos.add(uso);
+		if (emprestimo.isReportado()) {
+			logger.info("Connection borrowed by {} on {} returned after {} ms", emprestimo.getOrigem(),
+					emprestimo.getThread(), TimeUnit.NANOSECONDS.toMillis(uso));
+		}
+	}
+
+	private static String origem() {
+		return PILHA.walk(frames -> {
+			String alternativa = null;
+			for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+				String classe = frame.getClassName();
+				// Proxies CGLIB repetem o método logo acima do original
+				if (!classe.startsWith(PACOTE_APLICACAO) || classe.startsWith(PACOTE_POOL)
+						|| classe.startsWith(PACOTE_QUERY) || classe.contains("$$")) {
+					continue;
+				}
+				if (classe.startsWith(PACOTE_RESOURCE) || classe.startsWith(PACOTE_SERVICE)) {
+					return nome(frame);
+				}
+				if (alternativa == null) {
+					alternativa = nome(frame);
+				}
+			}
+			return alternativa != null ? alternativa : "desconhecida";
+		});
+	}
+
+	// LancamentoResource.lambda$pesquisar$0 vira LancamentoResource.pesquisar
+	private static String nome(StackWalker.StackFrame frame) {
+		String classe = frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1);
+		String metodo = frame.getMethodName();
+		if (metodo.startsWith("lambda$")) {
+			int fim = metodo.indexOf('$', "lambda$".length());
+			metodo = metodo.substring("lambda$".length(), fim > 0 ? fim : metodo.length());
+		}
+		return classe + "." + metodo;
+	}
+
+	static final class Emprestimo {
+
+		private final String origem;
+		private final String thread;
+		private final long inicio;
+		private volatile boolean reportado;
+
+		private Emprestimo(String origem, String thread, long inicio) {
+			this.origem = origem;
+			this.thread = thread;
+			this.inicio = inicio;
+		}
+
+		String getOrigem() {
+			return origem != null ? origem : "desconhecida";
+		}
+
+		String getThread() {
+			return thread;
+		}
+
+		long getInicio() {
+			return inicio;
+		}
+
+		boolean isReportado() {
+			return reportado;
+		}
+
+		void reportar() {
+			reportado = true;
+		}
+
+	}
+
+	record Janela(long aquisicoes, long somaEsperaNanos, long maximaEsperaNanos, long esgotamentos,
+			long devolucoes, long somaUsoNanos) {
+
+		double getEsperaMediaMs() {
+			return aquisicoes == 0 ? 0 : somaEsperaNanos / (double) aquisicoes / 1_000_000;
+		}
+
+		// Quanto tempo cada conexão ficou emprestada: sobe quando o banco fica lento
+		double getUsoMedioMs() {
+			return devolucoes == 0 ? 0 : somaUsoNanos / (double) devolucoes / 1_000_000;
+		}
+
+		double getEsperaMaximaMs() {
+			return maximaEsperaNanos / 1_000_000.0;
+		}
+
+	}
+
+	private final class ConexaoEmprestada implements InvocationHandler {
+
+		private final Connection conexao;
+		private final Emprestimo emprestimo;
+
+		private ConexaoEmprestada(Connection conexao, Emprestimo emprestimo) {
+			this.conexao = conexao;
+			this.emprestimo = emprestimo;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "close":
+					devolver(emprestimo);
+					break;
+				case "equals":
+					if (args != null && args.length == 1) {
+						return proxy == args[0];
+					}
+					break;
+				case "hashCode":
+					if (args == null || args.length == 0) {
+						return System.identityHashCode(proxy);
+					}
+					break;
+				default:
+					break;
+			}
+			try {
+				return method.invoke(conexao, args);
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.example.algamoney.api.pool;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * GET /actuator/pool: limites e configuração em vigor, conexões em uso, espera da última
+ * janela, último ajuste e vazamentos suspeitos de cada pool.
+ */
+@Component
+@Endpoint(id = "pool")
+public class PoolEndpoint {
+
+	private final GerenciadorPool gerenciadorPool;
+
+	public PoolEndpoint(GerenciadorPool gerenciadorPool) {
+		this.gerenciadorPool = gerenciadorPool;
+	}
+
+	@ReadOperation
+	public Map<String, Object> estado() {
+		return gerenciadorPool.estado();
+	}
+
+}
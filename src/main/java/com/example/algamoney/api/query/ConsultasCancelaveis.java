@@ -0,0 +1,85 @@
+package com.example.algamoney.api.query;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.service.exception.ServicoIndisponivelException;
+
+/**
+ * Executa uma consulta de resource como requisição assíncrona, para que o Tomcat avise
+ * quando o cliente desconectar (AsyncListener.onError) e os comandos SQL em andamento
+ * sejam cancelados em vez de rodarem até o fim segurando uma conexão.
+ *
+ * A consulta roda em um pool próprio (algamoney.consultas.threads); estourado
+ * algamoney.consultas.timeout-requisicao-ms, os comandos são cancelados e a resposta é 503,
+ * a mesma de quando o pool e a fila estão cheios.
+ * O orçamento de SQL da requisição acompanha a consulta na outra thread.
+ */
+@Component
+public class ConsultasCancelaveis {
+
+	private final ThreadPoolExecutor executor;
+	private final TaskExecutorAdapter taskExecutor;
+	private final long timeoutRequisicaoMs;
+
+	public ConsultasCancelaveis(AlgamoneyApiProperty algamoneyApiProperty) {
+		AlgamoneyApiProperty.Consultas configuracao = algamoneyApiProperty.getConsultas();
+		this.executor = new ThreadPoolExecutor(configuracao.getThreads(), configuracao.getThreads(),
+				0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(configuracao.getThreads()),
+				new CustomizableThreadFactory("consultas-"));
+		this.taskExecutor = new TaskExecutorAdapter(executor);
+		this.timeoutRequisicaoMs = configuracao.getTimeoutRequisicaoMs();
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> WebAsyncTask<T> executar(Callable<T> consulta) {
+		// Pool e fila cheios: recusa antes de entrar em modo assíncrono. Se a fila encher entre
+		// este teste e o submit, a TaskRejectedException também vira 503 no exception handler
+		if (executor.getQueue().remainingCapacity() == 0) {
+			throw new ServicoIndisponivelException("consulta", null);
+		}
+
+		ExecucaoConsultas execucao = new ExecucaoConsultas();
+		QueryBudgetInspector.Orcamento orcamento = QueryBudgetInspector.atual();
+
+		WebAsyncTask<T> tarefa = new WebAsyncTask<>(timeoutRequisicaoMs, taskExecutor, () -> {
+			ContextoConsultas.definirExecucao(execucao);
+			QueryBudgetInspector.retomar(orcamento);
+			try {
+				return consulta.call();
+			} finally {
+				QueryBudgetInspector.soltar();
+				ContextoConsultas.definirExecucao(null);
+			}
+		});
+		tarefa.onTimeout(() -> {
+			execucao.cancelar();
+			throw new ServicoIndisponivelException("consulta", null);
+		});
+		// Cliente desconectou: cancela e deixa o tratamento padrão seguir
+		tarefa.onError(() -> {
+			execucao.cancelar();
+			return (T) CallableProcessingInterceptor.RESULT_NONE;
+		});
+		// Garantia para qualquer outro fim do ciclo assíncrono; sem comando aberto, não faz nada
+		tarefa.onCompletion(execucao::cancelar);
+		return tarefa;
+	}
+
+	@PreDestroy
+	public void finalizar() {
+		executor.shutdownNow();
+	}
+
+}
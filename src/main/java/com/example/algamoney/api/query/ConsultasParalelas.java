@@ -0,0 +1,147 @@
+package com.example.algamoney.api.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+
+/**
+ * Executa consultas independentes de uma mesma requisição em paralelo, cada uma na sua
+ * conexão.
+ *
+ * Uma requisição usa no máximo algamoney.particionamento.paralelismo-por-requisicao
+ * threads, contando a própria: as tarefas ficam numa fila da chamada e cada thread pega a
+ * próxima ao terminar. O pool (algamoney.particionamento.threads) é compartilhado e não
+ * tem fila; ocupado, a requisição segue com menos threads, no limite só com a sua.
+ *
+ * As consultas continuam canceláveis ({@link ConsultasCancelaveis}) e não contam no
+ * orçamento de SQL da requisição: a divisão é intencional, não um N+1.
+ */
+@Component
+public class ConsultasParalelas {
+
+	private final ThreadPoolExecutor executor;
+	private final int paralelismoPorRequisicao;
+
+	public ConsultasParalelas(AlgamoneyApiProperty algamoneyApiProperty) {
+		AlgamoneyApiProperty.Particionamento configuracao = algamoneyApiProperty.getParticionamento();
+		this.executor = new ThreadPoolExecutor(configuracao.getThreads(), configuracao.getThreads(),
+				60, TimeUnit.SECONDS, new SynchronousQueue<>(), new CustomizableThreadFactory("particoes-"));
+		this.executor.allowCoreThreadTimeOut(true);
+		this.paralelismoPorRequisicao = Math.max(1, configuracao.getParalelismoPorRequisicao());
+	}
+
+	/**
+	 * @param descartar recebe os resultados já prontos quando alguma tarefa falha (ex.: fechar streams)
+	 * @return os resultados na ordem das tarefas
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<T> executar(List<Callable<T>> tarefas, Consumer<? super T> descartar) {
+		Object[] resultados = new Object[tarefas.size()];
+		AtomicInteger proxima = new AtomicInteger();
+		AtomicReference<Throwable> falha = new AtomicReference<>();
+		ExecucaoConsultas execucao = ContextoConsultas.getExecucao();
+
+		Runnable trabalhador = () -> {
+			int indice;
+			while (falha.get() == null && (indice = proxima.getAndIncrement()) < resultados.length) {
+				try {
+					resultados[indice] = tarefas.get(indice).call();
+				} catch (Throwable e) {
+					falha.compareAndSet(null, e);
+				}
+			}
+		};
+
+		List<Future<?>> auxiliares = new ArrayList<>();
+		for (int i = 1; i < Math.min(paralelismoPorRequisicao, tarefas.size()); i++) {
+			try {
+				auxiliares.add(executor.submit(() -> {
+					ContextoConsultas.definirExecucao(execucao);
+					try {
+						trabalhador.run();
+					} finally {
+						ContextoConsultas.definirExecucao(null);
+					}
+				}));
+			} catch (RejectedExecutionException e) {
+				// Pool ocupado por outras requisições
+				break;
+			}
+		}
+
+		QueryBudgetInspector.Orcamento orcamento = QueryBudgetInspector.atual();
+		QueryBudgetInspector.soltar();
+		try {
+			trabalhador.run();
+		} finally {
+			QueryBudgetInspector.retomar(orcamento);
+		}
+		aguardar(auxiliares, falha);
+
+		Throwable erro = falha.get();
+		if (erro == null) {
+			return (List<T>) Arrays.asList(resultados);
+		}
+		for (Object resultado : resultados) {
+			if (resultado != null) {
+				try {
+					descartar.accept((T) resultado);
+				} catch (RuntimeException e) {
+					erro.addSuppressed(e);
+				}
+			}
+		}
+		if (erro instanceof RuntimeException runtime) {
+			throw runtime;
+		}
+		if (erro instanceof Error error) {
+			throw error;
+		}
+		throw new IllegalStateException("Parallel query failed", erro);
+	}
+
+	// Espera as auxiliares terminarem mesmo se interrompida: nenhum resultado pode chegar depois do descarte
+	private static void aguardar(List<Future<?>> auxiliares, AtomicReference<Throwable> falha) {
+		boolean interrompida = false;
+		for (Future<?> auxiliar : auxiliares) {
+			while (true) {
+				try {
+					auxiliar.get();
+					break;
+				} catch (InterruptedException e) {
+					interrompida = true;
+					falha.compareAndSet(null, e);
+				} catch (ExecutionException e) {
+					falha.compareAndSet(null, e.getCause());
+					break;
+				}
+			}
+		}
+		if (interrompida) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@PreDestroy
+	public void finalizar() {
+		executor.shutdownNow();
+	}
+
+}
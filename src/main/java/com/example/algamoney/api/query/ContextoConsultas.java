@@ -0,0 +1,45 @@
+package com.example.algamoney.api.query;
+
+/**
+ * Estado da thread atual lido pelo {@link ControleConsultasDataSource} ao criar comandos:
+ * timeout configurado para o método de repositório em execução e a execução cancelável
+ * da requisição, quando houver.
+ */
+final class ContextoConsultas {
+
+	private static final ThreadLocal<Integer> TIMEOUT_MS = new ThreadLocal<>();
+	private static final ThreadLocal<ExecucaoConsultas> EXECUCAO = new ThreadLocal<>();
+
+	private ContextoConsultas() {
+	}
+
+	static Integer getTimeoutMs() {
+		return TIMEOUT_MS.get();
+	}
+
+	/**
+	 * @return o timeout anterior, a ser restaurado ao fim do método
+	 */
+	static Integer definirTimeoutMs(Integer timeoutMs) {
+		Integer anterior = TIMEOUT_MS.get();
+		if (timeoutMs == null) {
+			TIMEOUT_MS.remove();
+		} else {
+			TIMEOUT_MS.set(timeoutMs);
+		}
+		return anterior;
+	}
+
+	static ExecucaoConsultas getExecucao() {
+		return EXECUCAO.get();
+	}
+
+	static void definirExecucao(ExecucaoConsultas execucao) {
+		if (execucao == null) {
+			EXECUCAO.remove();
+		} else {
+			EXECUCAO.set(execucao);
+		}
+	}
+
+}
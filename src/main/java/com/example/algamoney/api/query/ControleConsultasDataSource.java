@@ -0,0 +1,140 @@
+package com.example.algamoney.api.query;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Envolve o pool para controlar cada comando JDBC criado:
+ *
+ * - aplica o timeout do método de repositório em execução ({@link TimeoutConsultaInterceptor}),
+ *   ignorando o setQueryTimeout que o Hibernate fizer depois com o valor padrão ou do hint;
+ * - registra o comando na {@link ExecucaoConsultas} da requisição, para cancelamento quando
+ *   o cliente desconectar.
+ *
+ * Sem timeout configurado nem execução cancelável na thread, o comando segue sem mudança.
+ * unwrap continua chegando ao HikariDataSource (métricas do pool).
+ */
+public class ControleConsultasDataSource extends DelegatingDataSource {
+
+	public ControleConsultasDataSource(DataSource alvo) {
+		super(alvo);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return envolver(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return envolver(super.getConnection(username, password));
+	}
+
+	private static Connection envolver(Connection conexao) {
+		return (Connection) Proxy.newProxyInstance(ControleConsultasDataSource.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, new ConexaoControlada(conexao));
+	}
+
+	private static Object invocar(Object alvo, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(alvo, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	private static final class ConexaoControlada implements InvocationHandler {
+
+		private final Connection conexao;
+
+		private ConexaoControlada(Connection conexao) {
+			this.conexao = conexao;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if ("equals".equals(method.getName()) && args != null && args.length == 1) {
+				return proxy == args[0];
+			}
+			if ("hashCode".equals(method.getName()) && (args == null || args.length == 0)) {
+				return System.identityHashCode(proxy);
+			}
+
+			Object resultado = invocar(conexao, method, args);
+			if (resultado instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+				return controlar(statement, method.getReturnType());
+			}
+			return resultado;
+		}
+
+		private Object controlar(Statement statement, Class<?> tipo) throws SQLException {
+			Integer timeoutMs = ContextoConsultas.getTimeoutMs();
+			if (timeoutMs != null) {
+				// JDBC só aceita segundos
+				statement.setQueryTimeout(Math.max(1, (timeoutMs + 999) / 1000));
+			}
+			ExecucaoConsultas execucao = ContextoConsultas.getExecucao();
+			if (timeoutMs == null && execucao == null) {
+				return statement;
+			}
+			if (execucao != null) {
+				try {
+					execucao.registrar(statement);
+				} catch (SQLException e) {
+					statement.close();
+					throw e;
+				}
+			}
+			return Proxy.newProxyInstance(ControleConsultasDataSource.class.getClassLoader(),
+					new Class<?>[] { tipo }, new ComandoControlado(statement, timeoutMs != null, execucao));
+		}
+
+	}
+
+	private static final class ComandoControlado implements InvocationHandler {
+
+		private final Statement statement;
+		private final boolean timeoutFixo;
+		private final ExecucaoConsultas execucao;
+
+		private ComandoControlado(Statement statement, boolean timeoutFixo, ExecucaoConsultas execucao) {
+			this.statement = statement;
+			this.timeoutFixo = timeoutFixo;
+			this.execucao = execucao;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "setQueryTimeout":
+					if (timeoutFixo) {
+						return null;
+					}
+					break;
+				case "close":
+					if (execucao != null) {
+						execucao.remover(statement);
+					}
+					break;
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				default:
+					break;
+			}
+			return invocar(statement, method, args);
+		}
+
+	}
+
+}
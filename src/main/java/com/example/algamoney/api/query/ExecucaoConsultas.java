@@ -0,0 +1,69 @@
+package com.example.algamoney.api.query;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Comandos JDBC abertos por uma requisição, para que possam ser cancelados de outra
+ * thread quando o cliente desconectar. Depois de cancelada, nenhum comando novo é aceito.
+ */
+public class ExecucaoConsultas {
+
+	private static final Logger logger = LoggerFactory.getLogger(ExecucaoConsultas.class);
+
+	private final Set<Statement> emAndamento = ConcurrentHashMap.newKeySet();
+	private volatile boolean cancelada;
+
+	public boolean isCancelada() {
+		return cancelada;
+	}
+
+	/**
+	 * Cancela os comandos em execução (no MySQL, KILL QUERY por outra conexão), o que
+	 * devolve a conexão ao pool assim que a thread da consulta tratar o erro.
+	 */
+	public void cancelar() {
+		cancelada = true;
+		for (Statement statement : emAndamento) {
+			try {
+				statement.cancel();
+			} catch (SQLException e) {
+				logger.debug("Statement cancel failed: {}", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Executa a leitura na thread atual com os comandos registrados nesta execução, para
+	 * que um timeout decidido fora dela (ex.: ramo do dashboard) possa cancelá-los.
+	 */
+	public <T> T executar(Supplier<T> leitura) {
+		ExecucaoConsultas anterior = ContextoConsultas.getExecucao();
+		ContextoConsultas.definirExecucao(this);
+		try {
+			return leitura.get();
+		} finally {
+			ContextoConsultas.definirExecucao(anterior);
+		}
+	}
+
+	void registrar(Statement statement) throws SQLException {
+		emAndamento.add(statement);
+		// Cancelada entre a criação do comando e o registro: o laço de cancelar() pode não tê-lo visto
+		if (cancelada) {
+			emAndamento.remove(statement);
+			throw new SQLException("Consulta cancelada");
+		}
+	}
+
+	void remover(Statement statement) {
+		emAndamento.remove(statement);
+	}
+
+}
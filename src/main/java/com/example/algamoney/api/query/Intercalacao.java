@@ -0,0 +1,60 @@
+package com.example.algamoney.api.query;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Intercalação de k sequências já ordenadas (k-way merge), preguiçosa: cada next() custa
+ * O(log k) e só avança a sequência de onde saiu o elemento. Empates saem na ordem das
+ * sequências, então o resultado é estável.
+ */
+public final class Intercalacao<T> implements Iterator<T> {
+
+	private final List<? extends Iterator<? extends T>> sequencias;
+	private final PriorityQueue<Cabeca<T>> cabecas;
+
+	private Intercalacao(List<? extends Iterator<? extends T>> sequencias, Comparator<? super T> comparador) {
+		this.sequencias = sequencias;
+		this.cabecas = new PriorityQueue<>(Math.max(1, sequencias.size()), (a, b) -> {
+			int comparacao = comparador.compare(a.elemento, b.elemento);
+			return comparacao != 0 ? comparacao : Integer.compare(a.sequencia, b.sequencia);
+		});
+		for (int i = 0; i < sequencias.size(); i++) {
+			avancar(i);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T> Iterator<T> de(List<? extends Iterator<? extends T>> sequencias, Comparator<? super T> comparador) {
+		return sequencias.size() == 1 ? (Iterator<T>) sequencias.get(0) : new Intercalacao<>(sequencias, comparador);
+	}
+
+	@Override
+	public boolean hasNext() {
+		return !cabecas.isEmpty();
+	}
+
+	@Override
+	public T next() {
+		Cabeca<T> cabeca = cabecas.poll();
+		if (cabeca == null) {
+			throw new NoSuchElementException();
+		}
+		avancar(cabeca.sequencia);
+		return cabeca.elemento;
+	}
+
+	private void avancar(int sequencia) {
+		Iterator<? extends T> iterator = sequencias.get(sequencia);
+		if (iterator.hasNext()) {
+			cabecas.add(new Cabeca<>(iterator.next(), sequencia));
+		}
+	}
+
+	private record Cabeca<T>(T elemento, int sequencia) {
+	}
+
+}
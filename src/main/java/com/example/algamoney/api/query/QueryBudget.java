@@ -0,0 +1,25 @@
+package com.example.algamoney.api.query;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declara o número máximo de comandos SQL que um método de resource pode emitir
+ * durante uma requisição (incluindo a serialização da resposta).
+ *
+ * Métodos sem a anotação usam o valor padrão de algamoney.query-budget.default-max.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface QueryBudget {
+
+	// Para operações em lote cujo número de comandos cresce com a quantidade de registros
+	int ILIMITADO = Integer.MAX_VALUE;
+
+	int value();
+
+}
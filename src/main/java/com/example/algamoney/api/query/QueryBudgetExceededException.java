@@ -0,0 +1,11 @@
+package com.example.algamoney.api.query;
+
+public class QueryBudgetExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public QueryBudgetExceededException(String handler, int budget, int executed) {
+		super("Query budget exceeded for " + handler + ": " + executed + " statements (max " + budget + ")");
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.example.algamoney.api.query;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta os comandos SQL preparados pelo Hibernate na thread da requisição atual.
+ *
+ * A contagem só acontece entre {@link #iniciar(String, int, boolean)} e {@link #finalizar()},
+ * chamados pelo {@link QueryBudgetInterceptor}. Fora de uma requisição (jobs, startup)
+ * o inspector não interfere.
+ */
+public class QueryBudgetInspector implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final ThreadLocal<Orcamento> ORCAMENTO_ATUAL = new ThreadLocal<>();
+
+	@Override
+	public String inspect(String sql) {
+		Orcamento orcamento = ORCAMENTO_ATUAL.get();
+		if (orcamento != null) {
+			orcamento.executados++;
+			// Em testes o estouro aborta a requisição no comando que ultrapassou o limite
+			if (orcamento.falharAoExceder && orcamento.executados > orcamento.maximo) {
+				throw new QueryBudgetExceededException(orcamento.handler, orcamento.maximo, orcamento.executados);
+			}
+		}
+		return sql;
+	}
+
+	public void iniciar(String handler, int maximo, boolean falharAoExceder) {
+		ORCAMENTO_ATUAL.set(new Orcamento(handler, maximo, falharAoExceder));
+	}
+
+	public Orcamento finalizar() {
+		Orcamento orcamento = ORCAMENTO_ATUAL.get();
+		ORCAMENTO_ATUAL.remove();
+		return orcamento;
+	}
+
+	/*
+	 * Requisições assíncronas (ConsultasCancelaveis) continuam o mesmo orçamento em outra
+	 * thread e depois no dispatch ASYNC; uma thread de cada vez.
+	 */
+
+	static Orcamento atual() {
+		return ORCAMENTO_ATUAL.get();
+	}
+
+	static void retomar(Orcamento orcamento) {
+		if (orcamento != null) {
+			ORCAMENTO_ATUAL.set(orcamento);
+		}
+	}
+
+	static void soltar() {
+		ORCAMENTO_ATUAL.remove();
+	}
+
+	public static class Orcamento {
+
+		private final String handler;
+		private final int maximo;
+		private final boolean falharAoExceder;
+		private int executados;
+
+		Orcamento(String handler, int maximo, boolean falharAoExceder) {
+			this.handler = handler;
+			this.maximo = maximo;
+			this.falharAoExceder = falharAoExceder;
+		}
+
+		public String getHandler() {
+			return handler;
+		}
+
+		public int getMaximo() {
+			return maximo;
+		}
+
+		public int getExecutados() {
+			return executados;
+		}
+
+		public boolean isExcedido() {
+			return executados > maximo;
+		}
+
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.example.algamoney.api.query;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Abre um orçamento de comandos SQL por requisição e, ao final, registra
+ * o total executado por handler (métrica algamoney.query.statements).
+ *
+ * Estouros geram log de alerta e incrementam algamoney.query.budget.exceeded.
+ */
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+	private static final Logger logger = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+
+	private static final String ATRIBUTO = QueryBudgetInterceptor.class.getName() + ".ORCAMENTO";
+
+	private final QueryBudgetInspector inspector;
+	private final AlgamoneyApiProperty.QueryBudget configuracao;
+	private final MeterRegistry meterRegistry;
+
+	public QueryBudgetInterceptor(QueryBudgetInspector inspector, AlgamoneyApiProperty.QueryBudget configuracao,
+			MeterRegistry meterRegistry) {
+		this.inspector = inspector;
+		this.configuracao = configuracao;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		Object suspenso = request.getAttribute(ATRIBUTO);
+		if (suspenso != null && request.getDispatcherType() == DispatcherType.ASYNC) {
+			// Resultado de uma consulta assíncrona: a serialização conta no mesmo orçamento
+			request.removeAttribute(ATRIBUTO);
+			QueryBudgetInspector.retomar((QueryBudgetInspector.Orcamento) suspenso);
+			return true;
+		}
+		if (handler instanceof HandlerMethod handlerMethod) {
+			inspector.iniciar(nome(handlerMethod), maximo(handlerMethod), configuracao.isFailOnExceed());
+		}
+		return true;
+	}
+
+	/**
+	 * Requisições assíncronas liberam a thread sem passar por afterCompletion; o orçamento
+	 * sai da thread aqui para não vazar para a próxima requisição. SSE fecha o orçamento;
+	 * consultas assíncronas o retomam no dispatch ASYNC, que registra o total.
+	 */
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+			Object handler) {
+		String contentType = response.getContentType();
+		if (contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+			afterCompletion(request, response, handler, null);
+			return;
+		}
+		QueryBudgetInspector.Orcamento orcamento = inspector.finalizar();
+		if (orcamento != null) {
+			request.setAttribute(ATRIBUTO, orcamento);
+		}
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		QueryBudgetInspector.Orcamento orcamento = inspector.finalizar();
+		if (orcamento == null) {
+			return;
+		}
+
+		DistributionSummary.builder("algamoney.query.statements")
+			.tag("handler", orcamento.getHandler())
+			.register(meterRegistry)
+			.record(orcamento.getExecutados());
+
+		if (orcamento.isExcedido()) {
+			logger.warn("Query budget exceeded for {}: {} statements (max {})",
+					orcamento.getHandler(), orcamento.getExecutados(), orcamento.getMaximo());
+			Counter.builder("algamoney.query.budget.exceeded")
+				.tag("handler", orcamento.getHandler())
+				.register(meterRegistry)
+				.increment();
+		}
+	}
+
+	private int maximo(HandlerMethod handlerMethod) {
+		QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+		if (budget == null) {
+			budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), QueryBudget.class);
+		}
+		return budget != null ? budget.value() : configuracao.getDefaultMax();
+	}
+
+	private String nome(HandlerMethod handlerMethod) {
+		return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+	}
+
+}
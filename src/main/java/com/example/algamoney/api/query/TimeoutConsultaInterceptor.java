@@ -0,0 +1,67 @@
+package com.example.algamoney.api.query;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.repository.Repository;
+
+/**
+ * Define o timeout dos comandos SQL emitidos durante um método de repositório, lido de
+ * algamoney.consultas.timeouts.&lt;Repositorio&gt;.&lt;metodo&gt; (em milissegundos), por exemplo
+ * algamoney.consultas.timeouts.LancamentoRepository.filtrar=15000. Vale para todos os
+ * comandos do método, inclusive o COUNT da paginação.
+ *
+ * O valor configurado prevalece sobre @QueryHints e sobre o padrão do Hibernate; métodos
+ * sem configuração ficam como estão.
+ */
+public class TimeoutConsultaInterceptor implements MethodInterceptor {
+
+	private static final Integer SEM_TIMEOUT = -1;
+
+	private final Map<String, Integer> timeouts;
+	private final Map<Class<?>, Map<Method, Integer>> resolvidos = new ConcurrentHashMap<>();
+
+	public TimeoutConsultaInterceptor(Map<String, Integer> timeouts) {
+		this.timeouts = timeouts;
+	}
+
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		Object repositorio = invocation.getThis();
+		if (repositorio == null) {
+			return invocation.proceed();
+		}
+		Integer timeout = resolvidos.computeIfAbsent(repositorio.getClass(), c -> new ConcurrentHashMap<>())
+				.computeIfAbsent(invocation.getMethod(), metodo -> resolver(repositorio.getClass(), metodo));
+		if (SEM_TIMEOUT.equals(timeout)) {
+			return invocation.proceed();
+		}
+
+		Integer anterior = ContextoConsultas.definirTimeoutMs(timeout);
+		try {
+			return invocation.proceed();
+		} finally {
+			ContextoConsultas.definirTimeoutMs(anterior);
+		}
+	}
+
+	private Integer resolver(Class<?> tipo, Method metodo) {
+		Integer timeout = timeouts.get(nomeRepositorio(tipo) + "." + metodo.getName());
+		return timeout != null ? timeout : SEM_TIMEOUT;
+	}
+
+	// O bean é um proxy do Spring Data: a interface declarada na aplicação é a primeira que estende Repository
+	private static String nomeRepositorio(Class<?> tipo) {
+		for (Class<?> interfaceImplementada : tipo.getInterfaces()) {
+			if (Repository.class.isAssignableFrom(interfaceImplementada)
+					&& !interfaceImplementada.getName().startsWith("org.springframework.")) {
+				return interfaceImplementada.getSimpleName();
+			}
+		}
+		return tipo.getSimpleName();
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.example.algamoney.api.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de fichas sem lock, no formato GCRA: em vez de fichas e instante do último
+ * reabastecimento, guarda só o instante teórico da próxima chegada. Consumir é um
+ * compareAndSet nesse valor.
+ *
+ * Com intervalo T entre fichas e rajada R, a tolerância é T * (R - 1): R requisições
+ * passam de uma vez com o balde cheio e depois uma a cada T.
+ */
+final class BaldeFichas {
+
+	private final AtomicLong chegadaTeorica;
+
+	BaldeFichas(long agora) {
+		this.chegadaTeorica = new AtomicLong(agora);
+	}
+
+	/**
+	 * @return 0 se a requisição foi aceita, senão os nanossegundos até haver ficha
+	 */
+	long consumir(long agora, long intervalo, long tolerancia) {
+		while (true) {
+			long atual = chegadaTeorica.get();
+			long base = atual - agora > 0 ? atual : agora;
+			long espera = base - tolerancia - agora;
+			if (espera > 0) {
+				return espera;
+			}
+			if (chegadaTeorica.compareAndSet(atual, base + intervalo)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Cheio é igual a um balde novo: pode ser descartado sem perder estado.
+	 */
+	boolean cheio(long agora) {
+		return chegadaTeorica.get() - agora <= 0;
+	}
+
+}
@@ -0,0 +1,173 @@
+package com.example.algamoney.api.ratelimit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.token.VerificadorJwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Limita a taxa de requisições por usuário (subject do JWT) ou, sem token válido, por IP,
+ * com um {@link BaldeFichas} por chave e grupo de rotas (algamoney.rate-limit.grupos).
+ * Excedido o limite, responde 429 com Retry-After sem passar pela autenticação.
+ *
+ * Roda logo depois do CorsFilter, para o front-end conseguir ler o 429, e antes do filtro
+ * do Spring Security. O subject só é usado depois de o token ser verificado (resultado
+ * reaproveitado pelo JwtAuthenticationFilter); um subject forjado não escolhe o balde.
+ *
+ * A memória é limitada: baldes cheios são idênticos a baldes novos e são descartados
+ * periodicamente; acima de algamoney.rate-limit.maximo-baldes, chaves novas dividem um
+ * balde por grupo até a limpeza abrir espaço.
+ *
+ * Métricas: algamoney.rate-limit.rejeitadas{grupo}, algamoney.rate-limit.baldes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+	private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+	private static final long NANOS_POR_SEGUNDO = 1_000_000_000L;
+
+	private final VerificadorJwt verificadorJwt;
+	private final boolean habilitado;
+	private final int maximoBaldes;
+	private final List<Grupo> grupos = new ArrayList<>();
+	private final Grupo padrao;
+	private final Map<String, BaldeFichas> baldes = new ConcurrentHashMap<>();
+
+	public RateLimitFilter(VerificadorJwt verificadorJwt, AlgamoneyApiProperty algamoneyApiProperty,
+			MeterRegistry meterRegistry) {
+		AlgamoneyApiProperty.RateLimit rateLimit = algamoneyApiProperty.getRateLimit();
+		this.verificadorJwt = verificadorJwt;
+		this.habilitado = rateLimit.isHabilitado();
+		this.maximoBaldes = rateLimit.getMaximoBaldes();
+		rateLimit.getGrupos().forEach((nome, limite) -> grupos.add(new Grupo(nome, limite, meterRegistry)));
+		this.padrao = new Grupo("padrao", rateLimit.getPadrao(), meterRegistry);
+		Gauge.builder("algamoney.rate-limit.baldes", baldes, Map::size)
+				.description("Baldes de rate limiting em memória")
+				.register(meterRegistry);
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !habilitado;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		Grupo grupo = grupo(PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length())));
+		long agora = System.nanoTime();
+		long espera = balde(grupo, identidade(request), agora).consumir(agora, grupo.intervalo, grupo.tolerancia);
+
+		if (espera > 0) {
+			grupo.rejeitadas.increment();
+			logger.debug("Rate limit exceeded on group {} for {}", grupo.nome, request.getRequestURI());
+			response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString((espera + NANOS_POR_SEGUNDO - 1) / NANOS_POR_SEGUNDO));
+			return;
+		}
+
+		chain.doFilter(request, response);
+	}
+
+	@Scheduled(fixedDelayString = "${algamoney.rate-limit.limpeza-ms:60000}")
+	public void removerOciosos() {
+		long agora = System.nanoTime();
+		baldes.values().removeIf(balde -> balde.cheio(agora));
+	}
+
+	private Grupo grupo(PathContainer caminho) {
+		for (Grupo grupo : grupos) {
+			if (grupo.casa(caminho)) {
+				return grupo;
+			}
+		}
+		return padrao;
+	}
+
+	private String identidade(HttpServletRequest request) {
+		try {
+			DecodedJWT jwt = verificadorJwt.verificar(request);
+			if (jwt != null && jwt.getSubject() != null) {
+				return "u:" + jwt.getSubject();
+			}
+		} catch (JWTVerificationException e) {
+			// Token inválido conta para o IP; o JwtAuthenticationFilter registra o motivo
+		}
+		return "ip:" + request.getRemoteAddr();
+	}
+
+	private BaldeFichas balde(Grupo grupo, String identidade, long agora) {
+		String chave = grupo.nome + '|' + identidade;
+		BaldeFichas balde = baldes.get(chave);
+		if (balde != null) {
+			return balde;
+		}
+		if (baldes.size() >= maximoBaldes) {
+			return grupo.excedente;
+		}
+		return baldes.computeIfAbsent(chave, k -> new BaldeFichas(agora));
+	}
+
+	private static final class Grupo {
+
+		private final String nome;
+		private final List<PathPattern> caminhos = new ArrayList<>();
+		private final long intervalo;
+		private final long tolerancia;
+		private final BaldeFichas excedente;
+		private final Counter rejeitadas;
+
+		private Grupo(String nome, AlgamoneyApiProperty.RateLimit.Limite limite, MeterRegistry meterRegistry) {
+			this.nome = nome;
+			limite.getCaminhos().forEach(caminho -> caminhos.add(PathPatternParser.defaultInstance.parse(caminho)));
+			this.intervalo = Math.max(1, Math.round(NANOS_POR_SEGUNDO / limite.getRequisicoesPorSegundo()));
+			this.tolerancia = intervalo * (Math.max(1, limite.getRajada()) - 1);
+			this.excedente = new BaldeFichas(System.nanoTime());
+			this.rejeitadas = Counter.builder("algamoney.rate-limit.rejeitadas")
+					.description("Requisições recusadas com 429")
+					.tag("grupo", nome)
+					.register(meterRegistry);
+		}
+
+		private boolean casa(PathContainer caminho) {
+			for (PathPattern padrao : caminhos) {
+				if (padrao.matches(caminho)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+}
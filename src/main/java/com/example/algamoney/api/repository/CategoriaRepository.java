@@ -1,9 +1,30 @@
 package com.example.algamoney.api.repository;
 
+import java.util.List;
+import java.util.Optional;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.SpecHints;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.example.algamoney.api.cache.NomesCache;
 import com.example.algamoney.api.model.Categoria;
 
 public interface CategoriaRepository extends JpaRepository<Categoria, Long>{
 
+	@QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_QUERY_TIMEOUT, value = TimeoutsConsulta.REFERENCIA_MS))
+	@Cacheable(cacheNames = NomesCache.CATEGORIAS, key = "'" + NomesCache.TODAS + "'")
+	@Query("select c from Categoria c order by c.codigo")
+	public List<Categoria> listarTodas();
+
+	@QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_QUERY_TIMEOUT, value = TimeoutsConsulta.REFERENCIA_MS))
+	@Cacheable(cacheNames = NomesCache.CATEGORIA, unless = "#result == null")
+	@Query("select c from Categoria c where c.codigo = :codigo")
+	public Optional<Categoria> buscarPorCodigo(@Param("codigo") Long codigo);
+
 }
@@ -0,0 +1,38 @@
+package com.example.algamoney.api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.algamoney.api.event.TipoRecurso;
+import com.example.algamoney.api.model.EventoOutbox;
+
+/**
+ * Somente leitura e limpeza: a gravação dos eventos é feita em batch pelo OutboxEventos.
+ */
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long>{
+
+	public List<EventoOutbox> findByTipoRecursoAndCodigoGreaterThanOrderByCodigo(TipoRecurso tipoRecurso, Long codigo,
+			Pageable pageable);
+
+	public List<EventoOutbox> findByCodigoGreaterThanOrderByCodigo(Long codigo, Pageable pageable);
+
+	@Query("select coalesce(max(e.codigo), 0) from EventoOutbox e")
+	public Long ultimoCodigo();
+
+	// null com o outbox vazio
+	@Query("select min(e.codigo) from EventoOutbox e")
+	public Long primeiroCodigo();
+
+	@Transactional
+	@Modifying
+	@Query("delete from EventoOutbox e where e.criadoEm < :limite")
+	public int removerCriadosAntesDe(@Param("limite") LocalDateTime limite);
+
+}
@@ -0,0 +1,59 @@
+package com.example.algamoney.api.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.algamoney.api.model.ExecucaoJob;
+import com.example.algamoney.api.model.StatusExecucaoJob;
+
+public interface ExecucaoJobRepository extends JpaRepository<ExecucaoJob, Long>{
+
+	public Optional<ExecucaoJob> findByNomeAndDataReferencia(String nome, LocalDate dataReferencia);
+
+	public List<ExecucaoJob> findByNomeAndStatusNotOrderByDataReferencia(String nome, StatusExecucaoJob status);
+
+	/**
+	 * Assume uma execução que falhou ou cuja instância parou de atualizar o checkpoint.
+	 * Retorna 1 só para a instância que conseguiu assumir; a versão incrementada tira a
+	 * anterior do jogo nas gravações abaixo.
+	 */
+	@Modifying(clearAutomatically = true)
+	@Query("update ExecucaoJob e set e.status = com.example.algamoney.api.model.StatusExecucaoJob.EM_ANDAMENTO,"
+			+ " e.versao = e.versao + 1, e.atualizadaEm = :agora where e.codigo = :codigo"
+			+ " and (e.status = com.example.algamoney.api.model.StatusExecucaoJob.FALHA or e.atualizadaEm < :limite)"
+			+ " and e.status <> com.example.algamoney.api.model.StatusExecucaoJob.CONCLUIDA")
+	public int assumir(@Param("codigo") Long codigo, @Param("agora") LocalDateTime agora,
+			@Param("limite") LocalDateTime limite);
+
+	/**
+	 * Avança o checkpoint se a execução ainda está com a versão que esta instância assumiu.
+	 * Retorna 0 quando outra instância assumiu no meio tempo.
+	 */
+	@Modifying
+	@Query("update ExecucaoJob e set e.ultimaDataVencimento = :ultimaDataVencimento, e.ultimoCodigo = :ultimoCodigo,"
+			+ " e.processados = e.processados + :lidos, e.atualizadaEm = :agora"
+			+ " where e.codigo = :codigo and e.versao = :versao")
+	public int registrarCheckpoint(@Param("codigo") Long codigo, @Param("versao") Long versao,
+			@Param("ultimaDataVencimento") LocalDate ultimaDataVencimento, @Param("ultimoCodigo") Long ultimoCodigo,
+			@Param("lidos") long lidos, @Param("agora") LocalDateTime agora);
+
+	@Modifying
+	@Query("update ExecucaoJob e set e.status = com.example.algamoney.api.model.StatusExecucaoJob.CONCLUIDA,"
+			+ " e.atualizadaEm = :agora, e.finalizadaEm = :agora where e.codigo = :codigo and e.versao = :versao")
+	public int concluir(@Param("codigo") Long codigo, @Param("versao") Long versao,
+			@Param("agora") LocalDateTime agora);
+
+	@Modifying
+	@Query("update ExecucaoJob e set e.status = com.example.algamoney.api.model.StatusExecucaoJob.FALHA,"
+			+ " e.atualizadaEm = :agora where e.codigo = :codigo and e.versao = :versao")
+	public int marcarFalha(@Param("codigo") Long codigo, @Param("versao") Long versao,
+			@Param("agora") LocalDateTime agora);
+
+}
@@ -1,10 +1,82 @@
 package com.example.algamoney.api.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.algamoney.api.model.Categoria;
 import com.example.algamoney.api.model.Lancamento;
+import com.example.algamoney.api.model.Pessoa;
+import com.example.algamoney.api.model.TipoLancamento;
 import com.example.algamoney.api.repository.lancamento.LancamentoRepositoryQuery;
+import com.example.algamoney.api.repository.projection.ClassificacaoLancamento;
+import com.example.algamoney.api.repository.projection.LancamentoVencido;
+import com.example.algamoney.api.repository.projection.ResumoLancamento;
+import com.example.algamoney.api.repository.projection.TotalMensal;
 
 public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, LancamentoRepositoryQuery{
 
+	@Modifying
+	@Query("delete from Lancamento l where l.codigo in :codigos")
+	public int removerPorCodigos(@Param("codigos") Collection<Long> codigos);
+
+	// findAllById carregaria categoria e pessoa (EAGER) uma a uma
+	@Query("select l from Lancamento l join fetch l.categoria join fetch l.pessoa where l.codigo in :codigos")
+	public List<Lancamento> buscarPorCodigos(@Param("codigos") Collection<Long> codigos);
+
+	@Query("select l from Lancamento l join fetch l.categoria join fetch l.pessoa"
+			+ " where l.codigoSerie = :codigoSerie order by l.dataVencimento, l.codigo")
+	public List<Lancamento> buscarPorSerie(@Param("codigoSerie") String codigoSerie);
+
+	@Modifying(clearAutomatically = true)
+	@Query("update Lancamento l set l.descricao = :descricao, l.observacao = :observacao, l.tipo = :tipo,"
+			+ " l.categoria = :categoria, l.pessoa = :pessoa where l.codigoSerie = :codigoSerie")
+	public int atualizarSerie(@Param("codigoSerie") String codigoSerie, @Param("descricao") String descricao,
+			@Param("observacao") String observacao, @Param("tipo") TipoLancamento tipo,
+			@Param("categoria") Categoria categoria, @Param("pessoa") Pessoa pessoa);
+
+	@Query("select new com.example.algamoney.api.repository.projection.ClassificacaoLancamento("
+			+ "l.codigo, l.pessoa.codigo, l.categoria.codigo, l.tipo) from Lancamento l where l.codigo in :codigos")
+	public List<ClassificacaoLancamento> buscarClassificacoes(@Param("codigos") Collection<Long> codigos);
+
+	/**
+	 * Próximo lote de lançamentos vencidos e não pagos depois da posição (dataVencimento, codigo).
+	 * Percorre idx_lancamento_pagamento_vencimento em ordem, sem OFFSET.
+	 */
+	@Query("select new com.example.algamoney.api.repository.projection.LancamentoVencido("
+			+ "l.codigo, l.pessoa.codigo, l.valor, l.dataVencimento) from Lancamento l"
+			+ " where l.dataPagamento is null and l.dataVencimento < :hoje"
+			+ " and (l.dataVencimento > :ultimaDataVencimento"
+			+ " or (l.dataVencimento = :ultimaDataVencimento and l.codigo > :ultimoCodigo))"
+			+ " order by l.dataVencimento, l.codigo")
+	public List<LancamentoVencido> buscarVencidos(@Param("hoje") LocalDate hoje,
+			@Param("ultimaDataVencimento") LocalDate ultimaDataVencimento, @Param("ultimoCodigo") Long ultimoCodigo,
+			Pageable pageable);
+
+	/**
+	 * Receitas e despesas por mês de vencimento no período, em ordem cronológica.
+	 */
+	@Query("select new com.example.algamoney.api.repository.projection.TotalMensal("
+			+ "extract(year from l.dataVencimento), extract(month from l.dataVencimento), l.tipo, sum(l.valor))"
+			+ " from Lancamento l where l.dataVencimento between :de and :ate"
+			+ " group by extract(year from l.dataVencimento), extract(month from l.dataVencimento), l.tipo"
+			+ " order by extract(year from l.dataVencimento), extract(month from l.dataVencimento), l.tipo")
+	public List<TotalMensal> totaisMensais(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+	// Últimos cadastrados: percorre a chave primária de trás para frente, o Pageable só limita
+	@Query("select new com.example.algamoney.api.repository.projection.ResumoLancamento("
+			+ "l.codigo, l.descricao, l.dataVencimento, l.dataPagamento, l.valor, l.tipo, c.nome, p.nome)"
+			+ " from Lancamento l join l.categoria c join l.pessoa p order by l.codigo desc")
+	public List<ResumoLancamento> buscarRecentes(Pageable pageable);
+
+	// Mesmo índice de buscarVencidos (dataPagamento, dataVencimento)
+	@Query("select count(l) from Lancamento l where l.dataPagamento is null and l.dataVencimento < :hoje")
+	public long contarVencidos(@Param("hoje") LocalDate hoje);
+
 }
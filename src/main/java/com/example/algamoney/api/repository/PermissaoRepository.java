@@ -0,0 +1,9 @@
+package com.example.algamoney.api.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.algamoney.api.model.Permissao;
+
+public interface PermissaoRepository extends JpaRepository<Permissao, Long>{
+
+}
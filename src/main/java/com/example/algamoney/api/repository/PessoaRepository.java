@@ -1,12 +1,44 @@
 package com.example.algamoney.api.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.SpecHints;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.example.algamoney.api.cache.NomesCache;
 import com.example.algamoney.api.model.Pessoa;
+import com.example.algamoney.api.repository.projection.EstatisticaPessoas;
+import com.example.algamoney.api.repository.projection.ResumoPessoa;
 
 public interface PessoaRepository extends JpaRepository<Pessoa, Long>{
 	
 	public Page<Pessoa> findByNomeContaining(String nome, Pageable pageable);
+
+	// Só para leitura: quem vai alterar a pessoa usa findById, nunca a instância do cache
+	@QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_QUERY_TIMEOUT, value = TimeoutsConsulta.REFERENCIA_MS))
+	@Cacheable(cacheNames = NomesCache.PESSOA, unless = "#result == null")
+	@Query("select p from Pessoa p where p.codigo = :codigo")
+	public Optional<Pessoa> buscarPorCodigo(@Param("codigo") Long codigo);
+
+	// Prefixo + collation utf8_general_ci (sem acento e caixa) = range scan em idx_pessoa_nome, sem COUNT
+	public List<ResumoPessoa> findByNomeStartingWithOrderByNomeAscCodigoAsc(String nome, Pageable pageable);
+
+	@Query("select new com.example.algamoney.api.repository.projection.EstatisticaPessoas("
+			+ "count(p), sum(case when p.ativo = true then 1 else 0 end)) from Pessoa p")
+	public EstatisticaPessoas estatisticas();
+
+	@Modifying(clearAutomatically = true)
+	@Query("update Pessoa p set p.ativo = :ativo where p.codigo in :codigos")
+	public int atualizarAtivo(@Param("codigos") Collection<Long> codigos, @Param("ativo") Boolean ativo);
 }
@@ -0,0 +1,16 @@
+package com.example.algamoney.api.repository;
+
+/**
+ * Timeouts de consulta (jakarta.persistence.query.timeout, em milissegundos) usados nos
+ * hints dos repositórios. O padrão das demais consultas fica em application.properties.
+ */
+public final class TimeoutsConsulta {
+
+	// Dados de referência estão em cache; ir ao banco e demorar indica banco degradado,
+	// e a LeituraResiliente responde com o último valor conhecido
+	public static final String REFERENCIA_MS = "2000";
+
+	private TimeoutsConsulta() {
+	}
+
+}
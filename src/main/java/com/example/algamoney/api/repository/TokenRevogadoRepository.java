@@ -0,0 +1,25 @@
+package com.example.algamoney.api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.algamoney.api.model.TokenRevogado;
+
+public interface TokenRevogadoRepository extends JpaRepository<TokenRevogado, String> {
+
+	public List<TokenRevogado> findByExpiraEmAfter(LocalDateTime agora);
+
+	public List<TokenRevogado> findByRevogadoEmGreaterThanEqual(LocalDateTime desde);
+
+	@Transactional
+	@Modifying
+	@Query("delete from TokenRevogado t where t.expiraEm < :agora")
+	public int removerExpirados(@Param("agora") LocalDateTime agora);
+
+}
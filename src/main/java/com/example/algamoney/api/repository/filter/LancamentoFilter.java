@@ -1,8 +1,13 @@
 package com.example.algamoney.api.repository.filter;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.util.StringUtils;
+
+import com.example.algamoney.api.model.TipoLancamento;
 
 public class LancamentoFilter {
 
@@ -14,6 +19,44 @@ public class LancamentoFilter {
 	@DateTimeFormat(pattern = "yyyy-MM-dd")
 	private LocalDate dataVencimentoAte;
 
+	private Long codigoCategoria;
+
+	private Long codigoPessoa;
+
+	private TipoLancamento tipo;
+
+	private BigDecimal valorDe;
+
+	private BigDecimal valorAte;
+
+	@DateTimeFormat(pattern = "yyyy-MM-dd")
+	private LocalDate dataPagamentoDe;
+
+	@DateTimeFormat(pattern = "yyyy-MM-dd")
+	private LocalDate dataPagamentoAte;
+
+	// true = sem data de pagamento, false = já pago, null = ambos
+	private Boolean pendente;
+
+	public boolean isVazio() {
+		return !StringUtils.hasLength(descricao) && dataVencimentoDe == null && dataVencimentoAte == null
+				&& codigoCategoria == null && codigoPessoa == null && tipo == null
+				&& valorDe == null && valorAte == null
+				&& dataPagamentoDe == null && dataPagamentoAte == null && pendente == null;
+	}
+
+	/**
+	 * Cópia com outro período de vencimento; os demais critérios continuam iguais. Copia
+	 * pelas propriedades, então um critério novo com getter e setter entra sem mudar aqui.
+	 */
+	public LancamentoFilter comVencimentoEntre(LocalDate de, LocalDate ate) {
+		LancamentoFilter copia = new LancamentoFilter();
+		BeanUtils.copyProperties(this, copia);
+		copia.dataVencimentoDe = de;
+		copia.dataVencimentoAte = ate;
+		return copia;
+	}
+
 	public String getDescricao() {
 		return descricao;
 	}
@@ -38,4 +81,68 @@ public class LancamentoFilter {
 		this.dataVencimentoAte = dataVencimentoAte;
 	}
 
+	public Long getCodigoCategoria() {
+		return codigoCategoria;
+	}
+
+	public void setCodigoCategoria(Long codigoCategoria) {
+		this.codigoCategoria = codigoCategoria;
+	}
+
+	public Long getCodigoPessoa() {
+		return codigoPessoa;
+	}
+
+	public void setCodigoPessoa(Long codigoPessoa) {
+		this.codigoPessoa = codigoPessoa;
+	}
+
+	public TipoLancamento getTipo() {
+		return tipo;
+	}
+
+	public void setTipo(TipoLancamento tipo) {
+		this.tipo = tipo;
+	}
+
+	public BigDecimal getValorDe() {
+		return valorDe;
+	}
+
+	public void setValorDe(BigDecimal valorDe) {
+		this.valorDe = valorDe;
+	}
+
+	public BigDecimal getValorAte() {
+		return valorAte;
+	}
+
+	public void setValorAte(BigDecimal valorAte) {
+		this.valorAte = valorAte;
+	}
+
+	public LocalDate getDataPagamentoDe() {
+		return dataPagamentoDe;
+	}
+
+	public void setDataPagamentoDe(LocalDate dataPagamentoDe) {
+		this.dataPagamentoDe = dataPagamentoDe;
+	}
+
+	public LocalDate getDataPagamentoAte() {
+		return dataPagamentoAte;
+	}
+
+	public void setDataPagamentoAte(LocalDate dataPagamentoAte) {
+		this.dataPagamentoAte = dataPagamentoAte;
+	}
+
+	public Boolean getPendente() {
+		return pendente;
+	}
+
+	public void setPendente(Boolean pendente) {
+		this.pendente = pendente;
+	}
+
 }
@@ -0,0 +1,188 @@
+package com.example.algamoney.api.repository.lancamento;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import jakarta.persistence.Tuple;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import com.example.algamoney.api.service.exception.CampoInexistenteException;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Campos pedidos em ?fields= para GET /lancamentos, já validados contra a lista permitida.
+ *
+ * Cada campo vira uma coluna do SELECT; categoria e pessoa só entram com join quando algum
+ * campo (ou a ordenação) precisa delas. Os nomes seguem o JSON de Lancamento, então
+ * "pessoa.nome" sai aninhado como {"pessoa": {"nome": ...}}.
+ */
+public final class CamposLancamento {
+
+	// Ordem de declaração = ordem no JSON; campos do mesmo objeto ficam juntos
+	private static final Map<String, String> PERMITIDOS = new LinkedHashMap<>();
+
+	static {
+		PERMITIDOS.put("codigo", "l.codigo");
+		PERMITIDOS.put("descricao", "l.descricao");
+		PERMITIDOS.put("dataVencimento", "l.dataVencimento");
+		PERMITIDOS.put("dataPagamento", "l.dataPagamento");
+		PERMITIDOS.put("valor", "l.valor");
+		PERMITIDOS.put("observacao", "l.observacao");
+		PERMITIDOS.put("tipo", "l.tipo");
+		PERMITIDOS.put("codigoSerie", "l.codigoSerie");
+		// Código via chave estrangeira, sem join
+		PERMITIDOS.put("categoria.codigo", "l.categoria.codigo");
+		PERMITIDOS.put("categoria.nome", "c.nome");
+		PERMITIDOS.put("pessoa.codigo", "l.pessoa.codigo");
+		PERMITIDOS.put("pessoa.nome", "p.nome");
+		PERMITIDOS.put("pessoa.ativo", "p.ativo");
+		PERMITIDOS.put("pessoa.endereco.logradouro", "p.endereco.logradouro");
+		PERMITIDOS.put("pessoa.endereco.numero", "p.endereco.numero");
+		PERMITIDOS.put("pessoa.endereco.complemento", "p.endereco.complemento");
+		PERMITIDOS.put("pessoa.endereco.bairro", "p.endereco.bairro");
+		PERMITIDOS.put("pessoa.endereco.cep", "p.endereco.cep");
+		PERMITIDOS.put("pessoa.endereco.cidade", "p.endereco.cidade");
+		PERMITIDOS.put("pessoa.endereco.estado", "p.endereco.estado");
+	}
+
+	private final List<String> nomes;
+	private final List<String[]> caminhos;
+
+	// Expressões do ORDER BY selecionadas depois dos campos, fora do JSON (intercalação)
+	private final List<String> ordenacao;
+
+	private CamposLancamento(List<String> nomes) {
+		this(nomes, List.of());
+	}
+
+	private CamposLancamento(List<String> nomes, List<String> ordenacao) {
+		this.nomes = Collections.unmodifiableList(nomes);
+		this.ordenacao = ordenacao;
+		this.caminhos = new ArrayList<>(nomes.size());
+		for (String nome : nomes) {
+			caminhos.add(nome.split("\\."));
+		}
+	}
+
+	/**
+	 * @param fields lista separada por vírgulas, ex.: "codigo,descricao,pessoa.nome"
+	 * @throws CampoInexistenteException se algum nome não for permitido
+	 */
+	public static CamposLancamento de(String fields) {
+		Set<String> pedidos = new TreeSet<>();
+		for (String campo : StringUtils.commaDelimitedListToStringArray(fields)) {
+			String nome = campo.trim();
+			if (nome.isEmpty()) {
+				continue;
+			}
+			if (!PERMITIDOS.containsKey(nome)) {
+				throw new CampoInexistenteException(nome);
+			}
+			pedidos.add(nome);
+		}
+		if (pedidos.isEmpty()) {
+			throw new CampoInexistenteException(fields);
+		}
+
+		List<String> nomes = new ArrayList<>(pedidos.size());
+		for (String nome : PERMITIDOS.keySet()) {
+			if (pedidos.contains(nome)) {
+				nomes.add(nome);
+			}
+		}
+		return new CamposLancamento(nomes);
+	}
+
+	/**
+	 * Os mesmos campos, mais as colunas de ordenação no fim de cada linha: cada partição de
+	 * uma consulta particionada traz o que é preciso para intercalar as linhas na ordem.
+	 */
+	CamposLancamento comOrdenacao(Sort sort) {
+		List<String> expressoes = new ArrayList<>();
+		for (OrdenacaoLancamentos.Chave chave : OrdenacaoLancamentos.chaves(sort)) {
+			expressoes.add(chave.expressao());
+		}
+		return new CamposLancamento(nomes, List.copyOf(expressoes));
+	}
+
+	Comparator<Tuple> comparador(Sort sort) {
+		return OrdenacaoLancamentos.comparador(sort,
+				(linha, expressao) -> linha.get(nomes.size() + ordenacao.indexOf(expressao)));
+	}
+
+	String select() {
+		StringBuilder select = new StringBuilder("select ");
+		for (int i = 0; i < nomes.size(); i++) {
+			select.append(i == 0 ? "" : ", ").append(PERMITIDOS.get(nomes.get(i)));
+		}
+		for (String expressao : ordenacao) {
+			select.append(", ").append(expressao);
+		}
+		return select.toString();
+	}
+
+	boolean usaAlias(String alias) {
+		String prefixo = alias + ".";
+		for (String nome : nomes) {
+			if (PERMITIDOS.get(nome).startsWith(prefixo)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Escreve uma linha como objeto JSON, abrindo e fechando os objetos aninhados
+	 * conforme o prefixo muda de um campo para o seguinte.
+	 */
+	public void escrever(JsonGenerator gerador, Tuple linha) throws IOException {
+		gerador.writeStartObject();
+		String[] anterior = new String[0];
+		for (int i = 0; i < caminhos.size(); i++) {
+			String[] caminho = caminhos.get(i);
+			int comum = prefixoComum(anterior, caminho);
+			for (int aberto = anterior.length - 1; aberto > comum; aberto--) {
+				gerador.writeEndObject();
+			}
+			for (int nivel = comum; nivel < caminho.length - 1; nivel++) {
+				gerador.writeObjectFieldStart(caminho[nivel]);
+			}
+			gerador.writeObjectField(caminho[caminho.length - 1], linha.get(i));
+			anterior = caminho;
+		}
+		for (int aberto = anterior.length - 1; aberto > 0; aberto--) {
+			gerador.writeEndObject();
+		}
+		gerador.writeEndObject();
+	}
+
+	// Chave do cache de JPQL das projeções (LancamentoRepositoryImpl)
+	@Override
+	public boolean equals(Object outro) {
+		return outro instanceof CamposLancamento campos && nomes.equals(campos.nomes) && ordenacao.equals(campos.ordenacao);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * nomes.hashCode() + ordenacao.hashCode();
+	}
+
+	// Quantos objetos (segmentos antes do último) os dois caminhos têm em comum
+	private static int prefixoComum(String[] anterior, String[] caminho) {
+		int comum = 0;
+		while (comum < anterior.length - 1 && comum < caminho.length - 1 && anterior[comum].equals(caminho[comum])) {
+			comum++;
+		}
+		return comum;
+	}
+
+}
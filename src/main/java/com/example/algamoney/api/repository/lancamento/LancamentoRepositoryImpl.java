@@ -1,112 +1,356 @@
 package com.example.algamoney.api.repository.lancamento;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Predicate;
-import jakarta.persistence.criteria.Root;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.util.StringUtils;
 
-import com.example.algamoney.api.model.Categoria_;
+import com.example.algamoney.api.cache.CacheResumoLancamentos;
 import com.example.algamoney.api.model.Lancamento;
-import com.example.algamoney.api.model.Lancamento_;
-import com.example.algamoney.api.model.Pessoa_;
 import com.example.algamoney.api.repository.filter.LancamentoFilter;
 import com.example.algamoney.api.repository.projection.ResumoLancamento;
 
 public class LancamentoRepositoryImpl implements LancamentoRepositoryQuery {
 
+	// PERFORMANCE: cada combinação de campos presentes no filtro vira uma máscara de bits.
+	// A mesma máscara gera sempre o mesmo JPQL, então o Hibernate reaproveita o plano
+	// compilado do seu cache e os valores entram sempre como parâmetros.
+	private static final int DESCRICAO = 1;
+	private static final int DATA_VENCIMENTO_DE = 1 << 1;
+	private static final int DATA_VENCIMENTO_ATE = 1 << 2;
+	private static final int CATEGORIA = 1 << 3;
+	private static final int PESSOA = 1 << 4;
+	private static final int TIPO = 1 << 5;
+	private static final int VALOR_DE = 1 << 6;
+	private static final int VALOR_ATE = 1 << 7;
+	private static final int DATA_PAGAMENTO_DE = 1 << 8;
+	private static final int DATA_PAGAMENTO_ATE = 1 << 9;
+	// pendente não vira parâmetro: true/false mudam o formato da restrição (is null / is not null)
+	private static final int PENDENTE = 1 << 10;
+	private static final int PAGO = 1 << 11;
+
+	// JPQL de ?fields= por máscara, campos e ordenação. Campos e ordenação vêm do cliente:
+	// só as primeiras combinações são guardadas, as demais são montadas a cada chamada
+	static final int MAXIMO_PROJECOES = 1024;
+	static final Map<Projecao, String> PROJECOES = new ConcurrentHashMap<>();
+
 	@PersistenceContext
 	private EntityManager manager;
-	
+
+	@Autowired
+	private CacheResumoLancamentos cacheResumo;
+
 	@Override
 	public Page<Lancamento> filtrar(LancamentoFilter lancamentoFilter, Pageable pageable) {
-		CriteriaBuilder builder = manager.getCriteriaBuilder();
-		CriteriaQuery<Lancamento> criteria = builder.createQuery(Lancamento.class);
-		Root<Lancamento> root = criteria.from(Lancamento.class);
-		
-		Predicate[] predicates = criarRestricoes(lancamentoFilter, builder, root);
-		criteria.where(predicates);
-		
-		TypedQuery<Lancamento> query = manager.createQuery(criteria);
+		int mascara = mascara(lancamentoFilter);
+
+		TypedQuery<Lancamento> query = manager.createQuery(
+				Consulta.LANCAMENTO.jpql(mascara) + OrdenacaoLancamentos.jpql(pageable.getSort()), Lancamento.class);
+		adicionarParametros(query, lancamentoFilter, mascara);
 		adicionarRestricoesDePaginacao(query, pageable);
-		
-		return new PageImpl<>(query.getResultList(), pageable, total(lancamentoFilter));
+
+		return new PageImpl<>(query.getResultList(), pageable, total(lancamentoFilter, mascara));
 	}
-	
+
 
 	@Override
 	public Page<ResumoLancamento> resumir(LancamentoFilter lancamentoFilter, Pageable pageable) {
-		CriteriaBuilder builder = manager.getCriteriaBuilder();
-		CriteriaQuery<ResumoLancamento> criteria = builder.createQuery(ResumoLancamento.class);
-		Root<Lancamento> root = criteria.from(Lancamento.class);
-		
-		criteria.select(builder.construct(ResumoLancamento.class
-				, root.get(Lancamento_.codigo), root.get(Lancamento_.descricao)
-				, root.get(Lancamento_.dataVencimento), root.get(Lancamento_.dataPagamento)
-				, root.get(Lancamento_.valor), root.get(Lancamento_.tipo)
-				, root.get(Lancamento_.categoria).get(Categoria_.nome)
-				, root.get(Lancamento_.pessoa).get(Pessoa_.nome)));
-		
-		Predicate[] predicates = criarRestricoes(lancamentoFilter, builder, root);
-		criteria.where(predicates);
-		
-		TypedQuery<ResumoLancamento> query = manager.createQuery(criteria);
+		return cacheResumo.obter(lancamentoFilter, pageable, () -> consultarResumo(lancamentoFilter, pageable));
+	}
+
+	private Page<ResumoLancamento> consultarResumo(LancamentoFilter lancamentoFilter, Pageable pageable) {
+		int mascara = mascara(lancamentoFilter);
+
+		TypedQuery<ResumoLancamento> query = manager.createQuery(
+				Consulta.RESUMO.jpql(mascara) + OrdenacaoLancamentos.jpql(pageable.getSort()), ResumoLancamento.class);
+		adicionarParametros(query, lancamentoFilter, mascara);
+		adicionarRestricoesDePaginacao(query, pageable);
+
+		return new PageImpl<>(query.getResultList(), pageable, total(lancamentoFilter, mascara));
+	}
+
+	@Override
+	public Long contar(LancamentoFilter lancamentoFilter) {
+		return total(lancamentoFilter, mascara(lancamentoFilter));
+	}
+
+	/**
+	 * Códigos que atendem o filtro, em ordem de chave primária, a partir de codigoInicial (exclusivo).
+	 * Paginação por keyset: cada chamada é um range scan curto no índice primário.
+	 */
+	@Override
+	public List<Long> codigosPorFiltro(LancamentoFilter lancamentoFilter, Long codigoInicial, int limite) {
+		int mascara = mascara(lancamentoFilter);
+
+		TypedQuery<Long> query = manager.createQuery(Consulta.CODIGOS.jpql(mascara), Long.class);
+		adicionarParametros(query, lancamentoFilter, mascara);
+		query.setParameter("codigoInicial", codigoInicial);
+		query.setMaxResults(limite);
+
+		return query.getResultList();
+	}
+
+	/**
+	 * Só as colunas pedidas, sem montar entidades: o chamador consome o stream dentro da
+	 * requisição e escreve cada linha direto no JSON. Os joins entram apenas se algum
+	 * campo ou a ordenação usar categoria/pessoa.
+	 */
+	@Override
+	public Stream<Tuple> projetar(LancamentoFilter lancamentoFilter, Pageable pageable, CamposLancamento campos) {
+		int mascara = mascara(lancamentoFilter);
+
+		TypedQuery<Tuple> query = manager.createQuery(jpqlProjecao(mascara, campos, pageable.getSort()), Tuple.class);
+		adicionarParametros(query, lancamentoFilter, mascara);
 		adicionarRestricoesDePaginacao(query, pageable);
-		
-		return new PageImpl<>(query.getResultList(), pageable, total(lancamentoFilter));
+
+		return query.getResultStream();
 	}
 
-	private Predicate[] criarRestricoes(LancamentoFilter lancamentoFilter, CriteriaBuilder builder,
-			Root<Lancamento> root) {
-		List<Predicate> predicates = new ArrayList<>();
-		
-		if (!StringUtils.isEmpty(lancamentoFilter.getDescricao())) {
-			predicates.add(builder.like(
-					builder.lower(root.get(Lancamento_.descricao)), "%" + lancamentoFilter.getDescricao().toLowerCase() + "%"));
+	static String jpqlProjecao(int mascara, CamposLancamento campos, Sort sort) {
+		Projecao projecao = new Projecao(mascara, campos, OrdenacaoLancamentos.chaves(sort));
+		String jpql = PROJECOES.get(projecao);
+		if (jpql == null) {
+			jpql = projecao.criarJpql();
+			if (PROJECOES.size() < MAXIMO_PROJECOES) {
+				String existente = PROJECOES.putIfAbsent(projecao, jpql);
+				if (existente != null) {
+					jpql = existente;
+				}
+			}
 		}
-		
+		return jpql;
+	}
+
+	static int mascara(LancamentoFilter lancamentoFilter) {
+		int mascara = 0;
+
+		if (StringUtils.hasLength(lancamentoFilter.getDescricao())) {
+			mascara |= DESCRICAO;
+		}
+
 		if (lancamentoFilter.getDataVencimentoDe() != null) {
-			predicates.add(
-					builder.greaterThanOrEqualTo(root.get(Lancamento_.dataVencimento), lancamentoFilter.getDataVencimentoDe()));
+			mascara |= DATA_VENCIMENTO_DE;
 		}
-		
+
 		if (lancamentoFilter.getDataVencimentoAte() != null) {
-			predicates.add(
-					builder.lessThanOrEqualTo(root.get(Lancamento_.dataVencimento), lancamentoFilter.getDataVencimentoAte()));
+			mascara |= DATA_VENCIMENTO_ATE;
+		}
+
+		if (lancamentoFilter.getCodigoCategoria() != null) {
+			mascara |= CATEGORIA;
+		}
+
+		if (lancamentoFilter.getCodigoPessoa() != null) {
+			mascara |= PESSOA;
+		}
+
+		if (lancamentoFilter.getTipo() != null) {
+			mascara |= TIPO;
+		}
+
+		if (lancamentoFilter.getValorDe() != null) {
+			mascara |= VALOR_DE;
+		}
+
+		if (lancamentoFilter.getValorAte() != null) {
+			mascara |= VALOR_ATE;
+		}
+
+		if (lancamentoFilter.getDataPagamentoDe() != null) {
+			mascara |= DATA_PAGAMENTO_DE;
+		}
+
+		if (lancamentoFilter.getDataPagamentoAte() != null) {
+			mascara |= DATA_PAGAMENTO_ATE;
+		}
+
+		if (lancamentoFilter.getPendente() != null) {
+			mascara |= lancamentoFilter.getPendente() ? PENDENTE : PAGO;
+		}
+
+		return mascara;
+	}
+
+	private static String criarRestricoes(int mascara) {
+		StringBuilder restricoes = new StringBuilder();
+
+		if ((mascara & DESCRICAO) != 0) {
+			adicionarRestricao(restricoes, "lower(l.descricao) like concat('%', :descricao, '%')");
+		}
+
+		if ((mascara & DATA_VENCIMENTO_DE) != 0) {
+			adicionarRestricao(restricoes, "l.dataVencimento >= :dataVencimentoDe");
+		}
+
+		if ((mascara & DATA_VENCIMENTO_ATE) != 0) {
+			adicionarRestricao(restricoes, "l.dataVencimento <= :dataVencimentoAte");
+		}
+
+		if ((mascara & CATEGORIA) != 0) {
+			adicionarRestricao(restricoes, "l.categoria.codigo = :codigoCategoria");
+		}
+
+		if ((mascara & PESSOA) != 0) {
+			adicionarRestricao(restricoes, "l.pessoa.codigo = :codigoPessoa");
+		}
+
+		if ((mascara & TIPO) != 0) {
+			adicionarRestricao(restricoes, "l.tipo = :tipo");
+		}
+
+		if ((mascara & VALOR_DE) != 0) {
+			adicionarRestricao(restricoes, "l.valor >= :valorDe");
+		}
+
+		if ((mascara & VALOR_ATE) != 0) {
+			adicionarRestricao(restricoes, "l.valor <= :valorAte");
+		}
+
+		if ((mascara & DATA_PAGAMENTO_DE) != 0) {
+			adicionarRestricao(restricoes, "l.dataPagamento >= :dataPagamentoDe");
+		}
+
+		if ((mascara & DATA_PAGAMENTO_ATE) != 0) {
+			adicionarRestricao(restricoes, "l.dataPagamento <= :dataPagamentoAte");
+		}
+
+		if ((mascara & PENDENTE) != 0) {
+			adicionarRestricao(restricoes, "l.dataPagamento is null");
+		}
+
+		if ((mascara & PAGO) != 0) {
+			adicionarRestricao(restricoes, "l.dataPagamento is not null");
+		}
+
+		return restricoes.toString();
+	}
+
+	private static void adicionarRestricao(StringBuilder restricoes, String restricao) {
+		restricoes.append(restricoes.length() == 0 ? " where " : " and ").append(restricao);
+	}
+
+	private void adicionarParametros(TypedQuery<?> query, LancamentoFilter lancamentoFilter, int mascara) {
+		if ((mascara & DESCRICAO) != 0) {
+			query.setParameter("descricao", lancamentoFilter.getDescricao().toLowerCase());
+		}
+
+		if ((mascara & DATA_VENCIMENTO_DE) != 0) {
+			query.setParameter("dataVencimentoDe", lancamentoFilter.getDataVencimentoDe());
+		}
+
+		if ((mascara & DATA_VENCIMENTO_ATE) != 0) {
+			query.setParameter("dataVencimentoAte", lancamentoFilter.getDataVencimentoAte());
+		}
+
+		if ((mascara & CATEGORIA) != 0) {
+			query.setParameter("codigoCategoria", lancamentoFilter.getCodigoCategoria());
+		}
+
+		if ((mascara & PESSOA) != 0) {
+			query.setParameter("codigoPessoa", lancamentoFilter.getCodigoPessoa());
+		}
+
+		if ((mascara & TIPO) != 0) {
+			query.setParameter("tipo", lancamentoFilter.getTipo());
+		}
+
+		if ((mascara & VALOR_DE) != 0) {
+			query.setParameter("valorDe", lancamentoFilter.getValorDe());
+		}
+
+		if ((mascara & VALOR_ATE) != 0) {
+			query.setParameter("valorAte", lancamentoFilter.getValorAte());
+		}
+
+		if ((mascara & DATA_PAGAMENTO_DE) != 0) {
+			query.setParameter("dataPagamentoDe", lancamentoFilter.getDataPagamentoDe());
+		}
+
+		if ((mascara & DATA_PAGAMENTO_ATE) != 0) {
+			query.setParameter("dataPagamentoAte", lancamentoFilter.getDataPagamentoAte());
 		}
-		
-		return predicates.toArray(new Predicate[predicates.size()]);
 	}
 
 	private void adicionarRestricoesDePaginacao(TypedQuery<?> query, Pageable pageable) {
 		int paginaAtual = pageable.getPageNumber();
 		int totalRegistrosPorPagina = pageable.getPageSize();
 		int primeiroRegistroDaPagina = paginaAtual * totalRegistrosPorPagina;
-		
+
 		query.setFirstResult(primeiroRegistroDaPagina);
 		query.setMaxResults(totalRegistrosPorPagina);
 	}
-	
-	private Long total(LancamentoFilter lancamentoFilter) {
-		CriteriaBuilder builder = manager.getCriteriaBuilder();
-		CriteriaQuery<Long> criteria = builder.createQuery(Long.class);
-		Root<Lancamento> root = criteria.from(Lancamento.class);
-		
-		Predicate[] predicates = criarRestricoes(lancamentoFilter, builder, root);
-		criteria.where(predicates);
-		
-		criteria.select(builder.count(root));
-		return manager.createQuery(criteria).getSingleResult();
+
+	private Long total(LancamentoFilter lancamentoFilter, int mascara) {
+		TypedQuery<Long> query = manager.createQuery(Consulta.TOTAL.jpql(mascara), Long.class);
+		adicionarParametros(query, lancamentoFilter, mascara);
+		return query.getSingleResult();
+	}
+
+	// Ordenação já normalizada (só chaves permitidas + desempate): sorts equivalentes dividem a entrada
+	record Projecao(int mascara, CamposLancamento campos, List<OrdenacaoLancamentos.Chave> ordenacao) {
+
+		String criarJpql() {
+			String orderBy = OrdenacaoLancamentos.jpql(ordenacao);
+			StringBuilder jpql = new StringBuilder(campos.select()).append(" from Lancamento l");
+			if (campos.usaAlias("c") || orderBy.contains(" c.")) {
+				jpql.append(" join l.categoria c");
+			}
+			if (campos.usaAlias("p") || orderBy.contains(" p.")) {
+				jpql.append(" join l.pessoa p");
+			}
+			return jpql.append(criarRestricoes(mascara)).append(orderBy).toString();
+		}
+
 	}
-	
-}
\ No newline at end of file
+
+	enum Consulta {
+
+		// Evita N+1: categoria e pessoa são EAGER e seriam carregadas uma a uma
+		LANCAMENTO("select l from Lancamento l join fetch l.categoria c join fetch l.pessoa p"),
+		RESUMO("select new com.example.algamoney.api.repository.projection.ResumoLancamento("
+				+ "l.codigo, l.descricao, l.dataVencimento, l.dataPagamento, l.valor, l.tipo, c.nome, p.nome) "
+				+ "from Lancamento l join l.categoria c join l.pessoa p"),
+		TOTAL("select count(l) from Lancamento l"),
+		CODIGOS("select l.codigo from Lancamento l", true);
+
+		private final String select;
+		private final boolean keyset;
+		private final Map<Integer, String> jpqlPorMascara = new ConcurrentHashMap<>();
+
+		Consulta(String select) {
+			this(select, false);
+		}
+
+		Consulta(String select, boolean keyset) {
+			this.select = select;
+			this.keyset = keyset;
+		}
+
+		String jpql(int mascara) {
+			return jpqlPorMascara.computeIfAbsent(mascara, this::criarJpql);
+		}
+
+		private String criarJpql(int mascara) {
+			String restricoes = criarRestricoes(mascara);
+			if (!keyset) {
+				return select + restricoes;
+			}
+			return select + restricoes + (restricoes.isEmpty() ? " where " : " and ")
+					+ "l.codigo > :codigoInicial order by l.codigo";
+		}
+
+	}
+
+}
@@ -1,5 +1,10 @@
 package com.example.algamoney.api.repository.lancamento;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import jakarta.persistence.Tuple;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -11,5 +16,8 @@ public interface LancamentoRepositoryQuery {
 
 	public Page<Lancamento> filtrar(LancamentoFilter lancamentoFilter, Pageable pageable);
 	public Page<ResumoLancamento> resumir(LancamentoFilter lancamentoFilter, Pageable pageable);
+	public Long contar(LancamentoFilter lancamentoFilter);
+	public List<Long> codigosPorFiltro(LancamentoFilter lancamentoFilter, Long codigoInicial, int limite);
+	public Stream<Tuple> projetar(LancamentoFilter lancamentoFilter, Pageable pageable, CamposLancamento campos);
 	
 }
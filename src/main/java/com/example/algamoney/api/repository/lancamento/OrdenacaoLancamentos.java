@@ -0,0 +1,121 @@
+package com.example.algamoney.api.repository.lancamento;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Ordenação aceita em ?sort= para lançamentos, como ORDER BY e como Comparator equivalente.
+ *
+ * O Comparator serve para intercalar resultados já ordenados pelo banco (consultas
+ * particionadas) e precisa concordar com ele, com nulos primeiro em ordem crescente, como
+ * no MySQL. Textos não têm comparação em Java igual à collation utf8_general_ci (PAD SPACE,
+ * pesos de pontuação, espaços e ß), então só se intercala quando nenhum texto decide a
+ * ordem entre partições: ver {@link #intercalavel(Sort)}.
+ *
+ * Custos que continuam: categoria.nome e pessoa.nome ordenam o resultado do join em
+ * filesort (o índice do nome está na outra tabela, sem o codigo do lançamento), e as
+ * páginas usam OFFSET, então a página N lê e descarta as N × tamanho linhas anteriores.
+ */
+final class OrdenacaoLancamentos {
+
+	static final String DESEMPATE = "l.codigo";
+
+	private static final String VENCIMENTO = "l.dataVencimento";
+
+	// Ordenadas pela collation do banco, que o Comparator não reproduz
+	private static final Set<String> TEXTOS = Set.of("l.descricao", "c.nome", "p.nome");
+
+	// Propriedades aceitas em ?sort=; cada uma tem índice próprio (V05)
+	private static final Map<String, String> ORDENACOES = Map.of(
+			"dataVencimento", VENCIMENTO,
+			"valor", "l.valor",
+			"descricao", "l.descricao",
+			"categoria.nome", "c.nome",
+			"pessoa.nome", "p.nome");
+
+	private OrdenacaoLancamentos() {
+	}
+
+	/**
+	 * Chaves do ORDER BY, só com as propriedades permitidas. O codigo entra sempre como
+	 * desempate para que as páginas sejam estáveis.
+	 */
+	static List<Chave> chaves(Sort sort) {
+		List<Chave> chaves = new ArrayList<>();
+		Sort.Direction direcaoDesempate = Sort.Direction.ASC;
+
+		for (Sort.Order order : sort) {
+			String propriedade = ORDENACOES.get(order.getProperty());
+			if (propriedade != null) {
+				chaves.add(new Chave(propriedade, order.isAscending()));
+				direcaoDesempate = order.getDirection();
+			}
+		}
+
+		// Mesma direção da última chave: com uma única chave de lancamento e sem faixa em outra
+		// coluna, o índice da coluna (que o InnoDB termina com codigo) dá a ordem sem filesort.
+		// Chaves de categoria/pessoa, direções misturadas ou filtros por faixa em outra coluna
+		// continuam ordenando em filesort
+		chaves.add(new Chave(DESEMPATE, direcaoDesempate.isAscending()));
+		return chaves;
+	}
+
+	static String jpql(Sort sort) {
+		return jpql(chaves(sort));
+	}
+
+	static String jpql(List<Chave> chaves) {
+		StringBuilder ordenacao = new StringBuilder(" order by ");
+		for (int i = 0; i < chaves.size(); i++) {
+			Chave chave = chaves.get(i);
+			ordenacao.append(i == 0 ? "" : ", ").append(chave.expressao()).append(chave.ascendente() ? " asc" : " desc");
+		}
+		return ordenacao.toString();
+	}
+
+	/**
+	 * Se resultados de partições de dataVencimento ordenados por sort podem ser intercalados
+	 * pelo {@link #comparador}. Com dataVencimento na frente, duas partições nunca empatam
+	 * nela e as chaves seguintes só ordenam dentro de cada partição; sem ela na frente, só
+	 * quando nenhuma chave é texto.
+	 */
+	static boolean intercalavel(Sort sort) {
+		List<Chave> chaves = chaves(sort);
+		return chaves.get(0).expressao().equals(VENCIMENTO)
+				|| chaves.stream().noneMatch(chave -> TEXTOS.contains(chave.expressao()));
+	}
+
+	/**
+	 * @param valor lê de um elemento o valor de uma expressão do ORDER BY (ex.: "c.nome")
+	 */
+	static <T> Comparator<T> comparador(Sort sort, BiFunction<T, String, Object> valor) {
+		Comparator<T> comparador = null;
+		for (Chave chave : chaves(sort)) {
+			String expressao = chave.expressao();
+			Comparator<T> proximo = (a, b) -> comparar(valor.apply(a, expressao), valor.apply(b, expressao));
+			if (!chave.ascendente()) {
+				proximo = proximo.reversed();
+			}
+			comparador = comparador == null ? proximo : comparador.thenComparing(proximo);
+		}
+		return comparador;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static int comparar(Object a, Object b) {
+		if (a == null || b == null) {
+			return a == null ? (b == null ? 0 : -1) : 1;
+		}
+		return ((Comparable) a).compareTo(b);
+	}
+
+	record Chave(String expressao, boolean ascendente) {
+	}
+
+}
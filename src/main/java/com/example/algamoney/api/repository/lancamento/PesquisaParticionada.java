@@ -0,0 +1,265 @@
+package com.example.algamoney.api.repository.lancamento;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.model.Lancamento;
+import com.example.algamoney.api.query.ConsultasParalelas;
+import com.example.algamoney.api.query.Intercalacao;
+import com.example.algamoney.api.repository.LancamentoRepository;
+import com.example.algamoney.api.repository.filter.LancamentoFilter;
+import com.example.algamoney.api.repository.projection.ResumoLancamento;
+
+/**
+ * Pesquisas de lançamentos com período de vencimento longo (ex.: um ano de resumo ou
+ * exportação) divididas em partições de dataVencimento consultadas em paralelo.
+ *
+ * Cada partição roda a mesma consulta, com seu período, no seu EntityManager e na sua
+ * conexão ({@link ConsultasParalelas}), ordenada como a página pedida. Os resultados são
+ * intercalados na ordem da página (k-way merge) e os totais somados. Para a página N cada
+ * partição precisa trazer as primeiras (N + 1) × tamanho linhas, então páginas fundas
+ * (algamoney.particionamento.maximo-linhas-por-particao), períodos curtos ou abertos e
+ * ordenações por texto que o Java não compara como o banco
+ * ({@link OrdenacaoLancamentos#intercalavel}) vão numa consulta só, como antes.
+ *
+ * As chamadas passam pelo LancamentoRepository: timeouts por método valem em cada partição.
+ */
+@Component
+public class PesquisaParticionada {
+
+	private final LancamentoRepository lancamentoRepository;
+	private final ConsultasParalelas consultasParalelas;
+	private final EntityManagerFactory entityManagerFactory;
+	private final AlgamoneyApiProperty.Particionamento configuracao;
+
+	public PesquisaParticionada(LancamentoRepository lancamentoRepository, ConsultasParalelas consultasParalelas,
+			EntityManagerFactory entityManagerFactory, AlgamoneyApiProperty algamoneyApiProperty) {
+		this.lancamentoRepository = lancamentoRepository;
+		this.consultasParalelas = consultasParalelas;
+		this.entityManagerFactory = entityManagerFactory;
+		this.configuracao = algamoneyApiProperty.getParticionamento();
+	}
+
+	public Page<Lancamento> filtrar(LancamentoFilter lancamentoFilter, Pageable pageable) {
+		List<LancamentoFilter> particoes = particionar(lancamentoFilter, pageable);
+		if (particoes.size() == 1) {
+			return lancamentoRepository.filtrar(lancamentoFilter, pageable);
+		}
+		Pageable inicio = inicio(pageable);
+		List<Page<Lancamento>> paginas = executar(particoes, particao -> lancamentoRepository.filtrar(particao, inicio));
+		return intercalar(paginas, pageable,
+				OrdenacaoLancamentos.<Lancamento>comparador(pageable.getSort(), PesquisaParticionada::valor));
+	}
+
+	public Page<ResumoLancamento> resumir(LancamentoFilter lancamentoFilter, Pageable pageable) {
+		List<LancamentoFilter> particoes = particionar(lancamentoFilter, pageable);
+		if (particoes.size() == 1) {
+			return lancamentoRepository.resumir(lancamentoFilter, pageable);
+		}
+		Pageable inicio = inicio(pageable);
+		List<Page<ResumoLancamento>> paginas = executar(particoes, particao -> lancamentoRepository.resumir(particao, inicio));
+		return intercalar(paginas, pageable,
+				OrdenacaoLancamentos.<ResumoLancamento>comparador(pageable.getSort(), PesquisaParticionada::valor));
+	}
+
+	public Long contar(LancamentoFilter lancamentoFilter) {
+		List<LancamentoFilter> particoes = particionar(lancamentoFilter, Pageable.unpaged());
+		if (particoes.size() == 1) {
+			return lancamentoRepository.contar(lancamentoFilter);
+		}
+		return executar(particoes, lancamentoRepository::contar).stream().mapToLong(Long::longValue).sum();
+	}
+
+	/**
+	 * Linhas da página em ordem, lidas das partições à medida que o chamador consome. O
+	 * stream segura uma conexão por partição até ser fechado.
+	 */
+	public Stream<Tuple> projetar(LancamentoFilter lancamentoFilter, Pageable pageable, CamposLancamento campos) {
+		List<LancamentoFilter> particoes = particionar(lancamentoFilter, pageable);
+		if (particoes.size() == 1) {
+			return lancamentoRepository.projetar(lancamentoFilter, pageable, campos);
+		}
+		Pageable inicio = inicio(pageable);
+		CamposLancamento comOrdenacao = campos.comOrdenacao(pageable.getSort());
+
+		List<Callable<Stream<Tuple>>> tarefas = new ArrayList<>(particoes.size());
+		for (LancamentoFilter particao : particoes) {
+			tarefas.add(() -> abrir(() -> lancamentoRepository.projetar(particao, inicio, comOrdenacao)));
+		}
+		List<Stream<Tuple>> linhas = consultasParalelas.executar(tarefas, Stream::close);
+
+		List<Iterator<Tuple>> sequencias = new ArrayList<>(linhas.size());
+		for (Stream<Tuple> stream : linhas) {
+			sequencias.add(stream.iterator());
+		}
+		Iterator<Tuple> intercaladas = Intercalacao.de(sequencias, comOrdenacao.comparador(pageable.getSort()));
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(intercaladas, Spliterator.ORDERED), false)
+				.skip(pageable.getOffset())
+				.limit(pageable.getPageSize())
+				.onClose(() -> fechar(linhas));
+	}
+
+	/**
+	 * Períodos contíguos e do mesmo tamanho (a última partição leva o resto) cobrindo
+	 * exatamente o período do filtro; uma só partição quando não compensa dividir ou quando
+	 * a ordenação não pode ser intercalada.
+	 */
+	List<LancamentoFilter> particionar(LancamentoFilter lancamentoFilter, Pageable pageable) {
+		LocalDate de = lancamentoFilter.getDataVencimentoDe();
+		LocalDate ate = lancamentoFilter.getDataVencimentoAte();
+		if (de == null || ate == null || ate.isBefore(de)
+				|| (pageable.isPaged() && pageable.getOffset() + pageable.getPageSize() > configuracao.getMaximoLinhasPorParticao())
+				|| !OrdenacaoLancamentos.intercalavel(pageable.getSort())) {
+			return List.of(lancamentoFilter);
+		}
+
+		long dias = ChronoUnit.DAYS.between(de, ate) + 1;
+		int quantidade = (int) Math.min(configuracao.getParticoes(), dias / Math.max(1, configuracao.getDiasMinimosPorParticao()));
+		if (quantidade < 2) {
+			return List.of(lancamentoFilter);
+		}
+
+		List<LancamentoFilter> particoes = new ArrayList<>(quantidade);
+		long diasPorParticao = dias / quantidade;
+		LocalDate inicio = de;
+		for (int i = 0; i < quantidade; i++) {
+			LocalDate fim = i == quantidade - 1 ? ate : inicio.plusDays(diasPorParticao - 1);
+			particoes.add(lancamentoFilter.comVencimentoEntre(inicio, fim));
+			inicio = fim.plusDays(1);
+		}
+		return particoes;
+	}
+
+	private <T> List<T> executar(List<LancamentoFilter> particoes, Function<LancamentoFilter, T> consulta) {
+		List<Callable<T>> tarefas = new ArrayList<>(particoes.size());
+		for (LancamentoFilter particao : particoes) {
+			tarefas.add(() -> isolado(() -> consulta.apply(particao)));
+		}
+		return consultasParalelas.executar(tarefas, resultado -> { });
+	}
+
+	/**
+	 * Roda a consulta com um EntityManager só dela, fechado ao fim. Na thread da requisição
+	 * o EntityManager do open-in-view sai de cena durante a consulta e volta depois.
+	 */
+	private <T> T isolado(Supplier<T> consulta) {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			return vincular(entityManager, consulta);
+		} finally {
+			entityManager.close();
+		}
+	}
+
+	// Como isolado(), mas o EntityManager só fecha junto com o stream
+	private Stream<Tuple> abrir(Supplier<Stream<Tuple>> consulta) {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			return vincular(entityManager, consulta).onClose(entityManager::close);
+		} catch (RuntimeException e) {
+			entityManager.close();
+			throw e;
+		}
+	}
+
+	private <T> T vincular(EntityManager entityManager, Supplier<T> consulta) {
+		Object anterior = TransactionSynchronizationManager.unbindResourceIfPossible(entityManagerFactory);
+		TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+		try {
+			return consulta.get();
+		} finally {
+			TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+			if (anterior != null) {
+				TransactionSynchronizationManager.bindResource(entityManagerFactory, anterior);
+			}
+		}
+	}
+
+	private static Pageable inicio(Pageable pageable) {
+		return PageRequest.of(0, (int) (pageable.getOffset() + pageable.getPageSize()), pageable.getSort());
+	}
+
+	private static <T> Page<T> intercalar(List<Page<T>> paginas, Pageable pageable, Comparator<? super T> comparador) {
+		List<Iterator<T>> sequencias = new ArrayList<>(paginas.size());
+		long total = 0;
+		for (Page<T> pagina : paginas) {
+			sequencias.add(pagina.getContent().iterator());
+			total += pagina.getTotalElements();
+		}
+
+		Iterator<T> intercalados = Intercalacao.de(sequencias, comparador);
+		for (long i = 0; i < pageable.getOffset() && intercalados.hasNext(); i++) {
+			intercalados.next();
+		}
+		List<T> conteudo = new ArrayList<>(pageable.getPageSize());
+		while (conteudo.size() < pageable.getPageSize() && intercalados.hasNext()) {
+			conteudo.add(intercalados.next());
+		}
+		return new PageImpl<>(conteudo, pageable, total);
+	}
+
+	private static void fechar(List<Stream<Tuple>> streams) {
+		RuntimeException erro = null;
+		for (Stream<Tuple> stream : streams) {
+			try {
+				stream.close();
+			} catch (RuntimeException e) {
+				if (erro == null) {
+					erro = e;
+				} else {
+					erro.addSuppressed(e);
+				}
+			}
+		}
+		if (erro != null) {
+			throw erro;
+		}
+	}
+
+	private static Object valor(Lancamento lancamento, String expressao) {
+		return switch (expressao) {
+			case "l.dataVencimento" -> lancamento.getDataVencimento();
+			case "l.valor" -> lancamento.getValor();
+			case "l.descricao" -> lancamento.getDescricao();
+			case "c.nome" -> lancamento.getCategoria().getNome();
+			case "p.nome" -> lancamento.getPessoa().getNome();
+			default -> lancamento.getCodigo();
+		};
+	}
+
+	private static Object valor(ResumoLancamento resumo, String expressao) {
+		return switch (expressao) {
+			case "l.dataVencimento" -> resumo.getDataVencimento();
+			case "l.valor" -> resumo.getValor();
+			case "l.descricao" -> resumo.getDescricao();
+			case "c.nome" -> resumo.getCategoria();
+			case "p.nome" -> resumo.getPessoa();
+			default -> resumo.getCodigo();
+		};
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.example.algamoney.api.repository.projection;
+
+import com.example.algamoney.api.model.TipoLancamento;
+
+public class ClassificacaoLancamento {
+
+	private Long codigo;
+	private Long codigoPessoa;
+	private Long codigoCategoria;
+	private TipoLancamento tipo;
+
+	public ClassificacaoLancamento(Long codigo, Long codigoPessoa, Long codigoCategoria, TipoLancamento tipo) {
+		this.codigo = codigo;
+		this.codigoPessoa = codigoPessoa;
+		this.codigoCategoria = codigoCategoria;
+		this.tipo = tipo;
+	}
+
+	public Long getCodigo() {
+		return codigo;
+	}
+
+	public Long getCodigoPessoa() {
+		return codigoPessoa;
+	}
+
+	public Long getCodigoCategoria() {
+		return codigoCategoria;
+	}
+
+	public TipoLancamento getTipo() {
+		return tipo;
+	}
+
+}
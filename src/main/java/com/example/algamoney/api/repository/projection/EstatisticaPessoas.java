@@ -0,0 +1,25 @@
+package com.example.algamoney.api.repository.projection;
+
+public class EstatisticaPessoas {
+
+	private Long total;
+	private Long ativas;
+
+	public EstatisticaPessoas(Long total, Long ativas) {
+		this.total = total;
+		this.ativas = ativas != null ? ativas : 0L;
+	}
+
+	public Long getTotal() {
+		return total;
+	}
+
+	public Long getAtivas() {
+		return ativas;
+	}
+
+	public Long getInativas() {
+		return total - ativas;
+	}
+
+}
@@ -0,0 +1,36 @@
+package com.example.algamoney.api.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class LancamentoVencido {
+
+	private Long codigo;
+	private Long codigoPessoa;
+	private BigDecimal valor;
+	private LocalDate dataVencimento;
+
+	public LancamentoVencido(Long codigo, Long codigoPessoa, BigDecimal valor, LocalDate dataVencimento) {
+		this.codigo = codigo;
+		this.codigoPessoa = codigoPessoa;
+		this.valor = valor;
+		this.dataVencimento = dataVencimento;
+	}
+
+	public Long getCodigo() {
+		return codigo;
+	}
+
+	public Long getCodigoPessoa() {
+		return codigoPessoa;
+	}
+
+	public BigDecimal getValor() {
+		return valor;
+	}
+
+	public LocalDate getDataVencimento() {
+		return dataVencimento;
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.example.algamoney.api.repository.projection;
+
+public class ResumoPessoa {
+
+	private Long codigo;
+	private String nome;
+
+	public ResumoPessoa(Long codigo, String nome) {
+		this.codigo = codigo;
+		this.nome = nome;
+	}
+
+	public Long getCodigo() {
+		return codigo;
+	}
+
+	public String getNome() {
+		return nome;
+	}
+
+	public void setCodigo(Long codigo) {
+		this.codigo = codigo;
+	}
+
+	public void setNome(String nome) {
+		this.nome = nome;
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.example.algamoney.api.repository.projection;
+
+import java.math.BigDecimal;
+
+import com.example.algamoney.api.model.TipoLancamento;
+
+public class TotalMensal {
+
+	private Integer ano;
+	private Integer mes;
+	private TipoLancamento tipo;
+	private BigDecimal total;
+
+	public TotalMensal(Integer ano, Integer mes, TipoLancamento tipo, BigDecimal total) {
+		this.ano = ano;
+		this.mes = mes;
+		this.tipo = tipo;
+		this.total = total;
+	}
+
+	public Integer getAno() {
+		return ano;
+	}
+
+	public Integer getMes() {
+		return mes;
+	}
+
+	public TipoLancamento getTipo() {
+		return tipo;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+
+}
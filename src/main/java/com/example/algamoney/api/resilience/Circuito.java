@@ -0,0 +1,67 @@
+package com.example.algamoney.api.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Circuit breaker por contagem de falhas seguidas. Aberto, nenhuma chamada passa até o
+ * fim do tempo de abertura; depois uma única chamada de teste decide se fecha ou reabre.
+ */
+public class Circuito {
+
+	public enum Estado { FECHADO, ABERTO, MEIO_ABERTO }
+
+	private final int falhasParaAbrir;
+	private final long aberturaNanos;
+
+	private final AtomicInteger falhasSeguidas = new AtomicInteger();
+	private final AtomicBoolean testando = new AtomicBoolean();
+	private volatile boolean aberto;
+	private volatile long abertoAte;
+
+	public Circuito(int falhasParaAbrir, long aberturaMs) {
+		this.falhasParaAbrir = falhasParaAbrir;
+		this.aberturaNanos = TimeUnit.MILLISECONDS.toNanos(aberturaMs);
+	}
+
+	public boolean permite() {
+		if (!aberto) {
+			return true;
+		}
+		if (System.nanoTime() - abertoAte < 0) {
+			return false;
+		}
+		// Meio aberto: só uma chamada de teste por vez
+		return testando.compareAndSet(false, true);
+	}
+
+	public void sucesso() {
+		falhasSeguidas.set(0);
+		aberto = false;
+		testando.set(false);
+	}
+
+	public void falha() {
+		if (aberto || falhasSeguidas.incrementAndGet() >= falhasParaAbrir) {
+			abertoAte = System.nanoTime() + aberturaNanos;
+			aberto = true;
+			testando.set(false);
+		}
+	}
+
+	/**
+	 * A chamada de teste terminou sem dizer nada sobre o banco (erro de outra natureza).
+	 */
+	public void liberarTeste() {
+		testando.set(false);
+	}
+
+	public Estado getEstado() {
+		if (!aberto) {
+			return Estado.FECHADO;
+		}
+		return System.nanoTime() - abertoAte < 0 ? Estado.ABERTO : Estado.MEIO_ABERTO;
+	}
+
+}
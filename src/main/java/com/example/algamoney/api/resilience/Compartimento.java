@@ -0,0 +1,21 @@
+package com.example.algamoney.api.resilience;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Bulkhead: as requisições de um resource (ou método) dividem um número fixo de vagas,
+ * configurado em algamoney.resiliencia.compartimentos.&lt;nome&gt;. Sem vaga a requisição
+ * é recusada na hora com 503, então uma rota lenta não ocupa as threads das demais.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface Compartimento {
+
+	String value();
+
+}
@@ -0,0 +1,146 @@
+package com.example.algamoney.api.resilience;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Aplica o {@link Compartimento} do handler: tryAcquire sem espera no preHandle e
+ * liberação no fim da requisição. SSE libera assim que soltar a thread; as demais
+ * requisições assíncronas (consultas canceláveis) seguram a vaga até o AsyncContext completar.
+ *
+ * Métricas: algamoney.compartimento.em-uso{compartimento},
+ * algamoney.compartimento.rejeitadas{compartimento}.
+ */
+public class CompartimentoInterceptor implements AsyncHandlerInterceptor {
+
+	private static final String ATRIBUTO = CompartimentoInterceptor.class.getName() + ".VAGA";
+
+	private final AlgamoneyApiProperty.Resiliencia configuracao;
+	private final MeterRegistry meterRegistry;
+	private final Map<String, Vagas> compartimentos = new ConcurrentHashMap<>();
+
+	public CompartimentoInterceptor(AlgamoneyApiProperty.Resiliencia configuracao, MeterRegistry meterRegistry) {
+		this.configuracao = configuracao;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (!(handler instanceof HandlerMethod handlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+			return true;
+		}
+		Compartimento compartimento = compartimento(handlerMethod);
+		if (compartimento == null) {
+			return true;
+		}
+
+		Vagas vagas = compartimentos.computeIfAbsent(compartimento.value(), this::criar);
+		if (!vagas.semaforo.tryAcquire()) {
+			vagas.rejeitadas.increment();
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+			return false;
+		}
+		request.setAttribute(ATRIBUTO, vagas);
+		return true;
+	}
+
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+			Object handler) {
+		String contentType = response.getContentType();
+		Object vagas = request.getAttribute(ATRIBUTO);
+		if (vagas == null || (contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE))) {
+			liberar(request);
+			return;
+		}
+		// O dispatch ASYNC não vê mais o atributo: só o fim do AsyncContext libera, uma vez
+		request.removeAttribute(ATRIBUTO);
+		request.getAsyncContext().addListener(new AsyncListener() {
+
+			@Override
+			public void onComplete(AsyncEvent event) {
+				((Vagas) vagas).semaforo.release();
+			}
+
+			@Override
+			public void onTimeout(AsyncEvent event) {
+			}
+
+			@Override
+			public void onError(AsyncEvent event) {
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent event) {
+			}
+
+		});
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		liberar(request);
+	}
+
+	private void liberar(HttpServletRequest request) {
+		Object vagas = request.getAttribute(ATRIBUTO);
+		if (vagas != null) {
+			request.removeAttribute(ATRIBUTO);
+			((Vagas) vagas).semaforo.release();
+		}
+	}
+
+	private Compartimento compartimento(HandlerMethod handlerMethod) {
+		Compartimento compartimento = handlerMethod.getMethodAnnotation(Compartimento.class);
+		if (compartimento == null) {
+			compartimento = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), Compartimento.class);
+		}
+		return compartimento;
+	}
+
+	private Vagas criar(String nome) {
+		int maximo = configuracao.getCompartimentos().getOrDefault(nome, configuracao.getCompartimentoPadrao());
+		Semaphore semaforo = new Semaphore(maximo);
+		Gauge.builder("algamoney.compartimento.em-uso", semaforo, s -> maximo - s.availablePermits())
+			.tag("compartimento", nome)
+			.register(meterRegistry);
+		Counter rejeitadas = Counter.builder("algamoney.compartimento.rejeitadas")
+			.tag("compartimento", nome)
+			.register(meterRegistry);
+		return new Vagas(semaforo, rejeitadas);
+	}
+
+	private static final class Vagas {
+
+		private final Semaphore semaforo;
+		private final Counter rejeitadas;
+
+		private Vagas(Semaphore semaforo, Counter rejeitadas) {
+			this.semaforo = semaforo;
+			this.rejeitadas = rejeitadas;
+		}
+
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.example.algamoney.api.resilience;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.service.exception.ServicoIndisponivelException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Leitura de dados de referência (categorias, pessoa por código) com circuit breaker por
+ * grupo e fallback para o último valor bom conhecido.
+ *
+ * Cada leitura bem-sucedida guarda o valor aqui, fora do cache do Spring: a invalidação do
+ * cache não apaga o fallback. Com o banco falhando (conexão, timeout), o circuito abre e as
+ * leituras seguintes respondem na hora com o valor guardado, marcado como desatualizado,
+ * sem esperar timeout de JDBC. Sem valor guardado, {@link ServicoIndisponivelException} (503).
+ *
+ * Métricas: algamoney.resiliencia.fallback{grupo}, algamoney.resiliencia.circuito.aberto{grupo}.
+ */
+@Component
+public class LeituraResiliente {
+
+	private static final Logger logger = LoggerFactory.getLogger(LeituraResiliente.class);
+
+	private final AlgamoneyApiProperty.Resiliencia configuracao;
+	private final MeterRegistry meterRegistry;
+	private final Map<String, Circuito> circuitos = new ConcurrentHashMap<>();
+	private final Map<String, Counter> fallbacks = new ConcurrentHashMap<>();
+	private final Map<String, Conhecido> conhecidos = new ConcurrentHashMap<>();
+
+	public LeituraResiliente(AlgamoneyApiProperty algamoneyApiProperty, MeterRegistry meterRegistry) {
+		this.configuracao = algamoneyApiProperty.getResiliencia();
+		this.meterRegistry = meterRegistry;
+	}
+
+	public <T> ResultadoLeitura<T> ler(String grupo, Object chave, Supplier<T> consulta) {
+		Circuito circuito = circuitos.computeIfAbsent(grupo, this::criarCircuito);
+		String chaveCompleta = grupo + ":" + chave;
+
+		if (!circuito.permite()) {
+			return fallback(grupo, chaveCompleta, null);
+		}
+
+		T valor;
+		try {
+			valor = consulta.get();
+		} catch (TransientDataAccessException | RecoverableDataAccessException | DataAccessResourceFailureException
+				| TransactionException e) {
+			circuito.falha();
+			logger.warn("Read of {} failed, circuit {}: {}", chaveCompleta, circuito.getEstado(), e.getMessage());
+			return fallback(grupo, chaveCompleta, e);
+		} catch (RuntimeException e) {
+			circuito.liberarTeste();
+			throw e;
+		}
+
+		circuito.sucesso();
+		guardar(chaveCompleta, valor);
+		return new ResultadoLeitura<>(valor, Instant.now(), false);
+	}
+
+	private void guardar(String chave, Object valor) {
+		if (valor instanceof Optional<?> opcional && opcional.isEmpty()) {
+			// "Não encontrado" não serve de fallback
+			return;
+		}
+		// Cheio, só atualiza chaves já guardadas: o conjunto de referência é pequeno e estável
+		if (conhecidos.size() < configuracao.getMaximoValoresConhecidos() || conhecidos.containsKey(chave)) {
+			conhecidos.put(chave, new Conhecido(valor, Instant.now()));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> ResultadoLeitura<T> fallback(String grupo, String chave, RuntimeException causa) {
+		Conhecido conhecido = conhecidos.get(chave);
+		if (conhecido == null) {
+			throw new ServicoIndisponivelException(grupo, causa);
+		}
+		fallbacks.computeIfAbsent(grupo, g -> Counter.builder("algamoney.resiliencia.fallback")
+				.description("Leituras respondidas com o último valor conhecido")
+				.tag("grupo", g)
+				.register(meterRegistry)).increment();
+		return new ResultadoLeitura<>((T) conhecido.valor, conhecido.obtidoEm, true);
+	}
+
+	private Circuito criarCircuito(String grupo) {
+		Circuito circuito = new Circuito(configuracao.getFalhasParaAbrir(), configuracao.getAberturaMs());
+		Gauge.builder("algamoney.resiliencia.circuito.aberto", circuito,
+				c -> c.getEstado() == Circuito.Estado.FECHADO ? 0 : 1)
+				.tag("grupo", grupo)
+				.register(meterRegistry);
+		return circuito;
+	}
+
+	private static final class Conhecido {
+
+		private final Object valor;
+		private final Instant obtidoEm;
+
+		private Conhecido(Object valor, Instant obtidoEm) {
+			this.valor = valor;
+			this.obtidoEm = obtidoEm;
+		}
+
+	}
+
+}
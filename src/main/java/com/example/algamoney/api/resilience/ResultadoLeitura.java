@@ -0,0 +1,50 @@
+package com.example.algamoney.api.resilience;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Valor lido por {@link LeituraResiliente}: do banco (ou cache) ou, com o banco fora,
+ * o último valor bom conhecido. Nesse caso a resposta leva Age e Warning 110.
+ */
+public class ResultadoLeitura<T> {
+
+	private static final String AVISO_DESATUALIZADO = "110 - \"Response is Stale\"";
+
+	private final T valor;
+	private final Instant obtidoEm;
+	private final boolean desatualizado;
+
+	ResultadoLeitura(T valor, Instant obtidoEm, boolean desatualizado) {
+		this.valor = valor;
+		this.obtidoEm = obtidoEm;
+		this.desatualizado = desatualizado;
+	}
+
+	public T getValor() {
+		return valor;
+	}
+
+	public boolean isDesatualizado() {
+		return desatualizado;
+	}
+
+	public ResponseEntity<T> resposta() {
+		return resposta(valor);
+	}
+
+	public <B> ResponseEntity<B> resposta(B corpo) {
+		if (!desatualizado) {
+			return ResponseEntity.ok(corpo);
+		}
+		long idade = Math.max(0, Duration.between(obtidoEm, Instant.now()).getSeconds());
+		return ResponseEntity.ok()
+				.header(HttpHeaders.AGE, Long.toString(idade))
+				.header(HttpHeaders.WARNING, AVISO_DESATUALIZADO)
+				.body(corpo);
+	}
+
+}
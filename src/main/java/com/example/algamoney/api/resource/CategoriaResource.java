@@ -1,58 +1,98 @@
 package com.example.algamoney.api.resource;
 
 import java.util.List;
+import java.util.Optional;
 
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.algamoney.api.cache.NomesCache;
+import com.example.algamoney.api.dto.ResultadoPorCodigo;
 import com.example.algamoney.api.event.RecursoCriadoEvent;
 import com.example.algamoney.api.model.Categoria;
+import com.example.algamoney.api.query.QueryBudget;
 import com.example.algamoney.api.repository.CategoriaRepository;
+import com.example.algamoney.api.resilience.Compartimento;
+import com.example.algamoney.api.resilience.LeituraResiliente;
+import com.example.algamoney.api.resilience.ResultadoLeitura;
+import com.example.algamoney.api.security.Autorizacao;
+import com.example.algamoney.api.security.Escopo;
+import com.example.algamoney.api.service.CategoriaService;
 
 @RestController
 @RequestMapping("/categorias")
+@Compartimento("categorias")
 public class CategoriaResource {
 
+	private static final int LIMITE_MAXIMO_BUSCA_CODIGOS = 100;
+
 	@Autowired
 	private CategoriaRepository categoriaRepository;
 	
+	@Autowired
+	private CategoriaService categoriaService;
+	
 	@Autowired
 	private ApplicationEventPublisher publisher;
 	
+	@Autowired
+	private LeituraResiliente leituraResiliente;
+	
 	@GetMapping
-	@PreAuthorize("hasAuthority('ROLE_PESQUISAR_CATEGORIA') and #oauth2.hasScope('read')")
-	public List<Categoria> listar() {
-		return categoriaRepository.findAll();
+	@Autorizacao(permissao = "ROLE_PESQUISAR_CATEGORIA", escopo = Escopo.READ)
+	@QueryBudget(1)
+	public ResponseEntity<List<Categoria>> listar() {
+		return listarTodas().resposta();
+	}
+	
+	// A lista de categorias é pequena e fica em cache: filtra a lista em vez de ir ao banco
+	@GetMapping(params = "codigos")
+	@Autorizacao(permissao = "ROLE_PESQUISAR_CATEGORIA", escopo = Escopo.READ)
+	@QueryBudget(1)
+	public ResponseEntity<List<ResultadoPorCodigo<Categoria>>> buscarPelosCodigos(
+			@RequestParam @Size(min = 1, max = LIMITE_MAXIMO_BUSCA_CODIGOS) List<Long> codigos) {
+		ResultadoLeitura<List<Categoria>> todas = listarTodas();
+		return todas.resposta(ResultadoPorCodigo.naOrdem(codigos, todas.getValor(), Categoria::getCodigo));
 	}
 	
 	@PostMapping
-	@PreAuthorize("hasAuthority('ROLE_CADASTRAR_CATEGORIA') and #oauth2.hasScope('write')")
+	@Autorizacao(permissao = "ROLE_CADASTRAR_CATEGORIA", escopo = Escopo.WRITE)
+	@QueryBudget(1)
 	public ResponseEntity<Categoria> criar(@Valid @RequestBody Categoria categoria, HttpServletResponse response) {
-		Categoria categoriaSalva = categoriaRepository.save(categoria);
+		Categoria categoriaSalva = categoriaService.salvar(categoria);
 		publisher.publishEvent(new RecursoCriadoEvent(this, response, categoriaSalva.getCodigo()));
 		return ResponseEntity.status(HttpStatus.CREATED).body(categoriaSalva);
 	}
 	
 	@GetMapping("/{codigo}")
-	@PreAuthorize("hasAuthority('ROLE_PESQUISAR_CATEGORIA') and #oauth2.hasScope('read')")
+	@Autorizacao(permissao = "ROLE_PESQUISAR_CATEGORIA", escopo = Escopo.READ)
+	@QueryBudget(1)
 	public ResponseEntity<Categoria> buscarPeloCodigo(@PathVariable Long codigo) {
-		return categoriaRepository.findById(codigo)
-				.map(ResponseEntity::ok)
+		ResultadoLeitura<Optional<Categoria>> resultado = leituraResiliente.ler("categoria", codigo,
+				() -> categoriaRepository.buscarPorCodigo(codigo));
+		return resultado.getValor()
+				.map(resultado::resposta)
 				.orElse(ResponseEntity.notFound().build());
 	}
 	
+	// Com o banco fora, responde com a última lista conhecida (headers Age e Warning)
+	private ResultadoLeitura<List<Categoria>> listarTodas() {
+		return leituraResiliente.ler("categorias", NomesCache.TODAS, categoriaRepository::listarTodas);
+	}
+	
 	
 	/*
 	 * Exemplo de caso não tenha informação ele retorna noContent e StatusCode = 201
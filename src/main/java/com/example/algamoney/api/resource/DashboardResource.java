@@ -0,0 +1,34 @@
+package com.example.algamoney.api.resource;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.algamoney.api.dto.Dashboard;
+import com.example.algamoney.api.query.QueryBudget;
+import com.example.algamoney.api.resilience.Compartimento;
+import com.example.algamoney.api.security.Autorizacao;
+import com.example.algamoney.api.security.Escopo;
+import com.example.algamoney.api.service.DashboardService;
+
+@RestController
+@RequestMapping("/dashboard")
+@Compartimento("dashboard")
+public class DashboardResource {
+
+	@Autowired
+	private DashboardService dashboardService;
+
+	// As leituras rodam no executor do dashboard, fora do orçamento de SQL da requisição
+	@GetMapping
+	@Autorizacao(permissao = "ROLE_PESQUISAR_LANCAMENTO", escopo = Escopo.READ)
+	@QueryBudget(0)
+	public CompletableFuture<Dashboard> montar() {
+		return dashboardService.montar(SecurityContextHolder.getContext().getAuthentication());
+	}
+
+}
@@ -1,10 +1,15 @@
 package com.example.algamoney.api.resource;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.stream.Stream;
 
+import jakarta.persistence.Tuple;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
@@ -12,9 +17,10 @@ import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,23 +28,46 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.example.algamoney.api.dto.RemocaoLancamentos;
+import com.example.algamoney.api.dto.ResultadoPorCodigo;
+import com.example.algamoney.api.dto.SerieLancamentos;
 import com.example.algamoney.api.event.RecursoCriadoEvent;
+import com.example.algamoney.api.event.feed.EventoLancamentoFilter;
+import com.example.algamoney.api.event.feed.FeedLancamentos;
 import com.example.algamoney.api.exceptionhandler.AlgamoneyExceptionHandler.Erro;
 import com.example.algamoney.api.model.Lancamento;
+import com.example.algamoney.api.query.ConsultasCancelaveis;
+import com.example.algamoney.api.query.QueryBudget;
 import com.example.algamoney.api.repository.LancamentoRepository;
 import com.example.algamoney.api.repository.filter.LancamentoFilter;
+import com.example.algamoney.api.repository.lancamento.CamposLancamento;
+import com.example.algamoney.api.repository.lancamento.PesquisaParticionada;
 import com.example.algamoney.api.repository.projection.ResumoLancamento;
+import com.example.algamoney.api.resilience.Compartimento;
+import com.example.algamoney.api.security.Autorizacao;
+import com.example.algamoney.api.security.Escopo;
 import com.example.algamoney.api.service.LancamentoService;
+import com.example.algamoney.api.service.exception.CampoInexistenteException;
 import com.example.algamoney.api.service.exception.PessoaInexistenteOuInativaException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @RestController
 @RequestMapping("/lancamentos")
+@Compartimento("lancamentos")
 public class LancamentoResource {
 
+	private static final int TAMANHO_MAXIMO_LOTE_REMOCAO = 10000;
+	private static final int LIMITE_MAXIMO_BUSCA_CODIGOS = 100;
+
 	@Autowired
 	private LancamentoRepository lancamentoRepository;
 	
@@ -51,20 +80,94 @@ public class LancamentoResource {
 	@Autowired
 	private MessageSource messageSource;
 	
+	@Autowired
+	private FeedLancamentos feedLancamentos;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	@Autowired
+	private ConsultasCancelaveis consultasCancelaveis;
+	
+	@Autowired
+	private PesquisaParticionada pesquisaParticionada;
+	
 	@GetMapping
-	@PreAuthorize("hasAuthority('ROLE_PESQUISAR_LANCAMENTO') and #oauth2.hasScope('read')")
-	public Page<Lancamento> pesquisar(LancamentoFilter lancamentoFilter, Pageable pageable) {
-		return lancamentoRepository.filtrar(lancamentoFilter, pageable);
+	@Autorizacao(permissao = "ROLE_PESQUISAR_LANCAMENTO", escopo = Escopo.READ)
+	@QueryBudget(2)
+	public WebAsyncTask<Page<Lancamento>> pesquisar(LancamentoFilter lancamentoFilter, Pageable pageable) {
+		return consultasCancelaveis.executar(() -> pesquisaParticionada.filtrar(lancamentoFilter, pageable));
+	}
+	
+	@GetMapping(params = { "codigos", "!resumo", "!fields" })
+	@Autorizacao(permissao = "ROLE_PESQUISAR_LANCAMENTO", escopo = Escopo.READ)
+	@QueryBudget(1)
+	public List<ResultadoPorCodigo<Lancamento>> buscarPelosCodigos(
+			@RequestParam @Size(min = 1, max = LIMITE_MAXIMO_BUSCA_CODIGOS) List<Long> codigos) {
+		List<Lancamento> lancamentos = lancamentoRepository.buscarPorCodigos(new LinkedHashSet<>(codigos));
+		return ResultadoPorCodigo.naOrdem(codigos, lancamentos, Lancamento::getCodigo);
+	}
+	
+	/**
+	 * Página só com as colunas de ?fields=, escrita linha a linha a partir do banco.
+	 * O COUNT é dispensado quando a própria página mostra que não há mais registros.
+	 */
+	@GetMapping(params = { "fields", "!resumo" })
+	@Autorizacao(permissao = "ROLE_PESQUISAR_LANCAMENTO", escopo = Escopo.READ)
+	@QueryBudget(2)
+	public void pesquisarCampos(LancamentoFilter lancamentoFilter, Pageable pageable,
+			@RequestParam String fields, HttpServletResponse response) throws IOException {
+		CamposLancamento campos = CamposLancamento.de(fields);
+
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.setCharacterEncoding("UTF-8");
+		int linhas = 0;
+		try (Stream<Tuple> resultado = pesquisaParticionada.projetar(lancamentoFilter, pageable, campos);
+				JsonGenerator gerador = objectMapper.createGenerator(response.getOutputStream())) {
+			gerador.writeStartObject();
+			gerador.writeArrayFieldStart("content");
+			for (Tuple linha : (Iterable<Tuple>) resultado::iterator) {
+				campos.escrever(gerador, linha);
+				linhas++;
+			}
+			gerador.writeEndArray();
+
+			// Página incompleta (ou primeira página vazia) já revela o total
+			boolean ultimaPagina = linhas < pageable.getPageSize() && (linhas > 0 || pageable.getPageNumber() == 0);
+			long total = ultimaPagina ? pageable.getOffset() + linhas : pesquisaParticionada.contar(lancamentoFilter);
+			gerador.writeNumberField("totalElements", total);
+			gerador.writeNumberField("totalPages", (total + pageable.getPageSize() - 1) / pageable.getPageSize());
+			gerador.writeNumberField("number", pageable.getPageNumber());
+			gerador.writeNumberField("size", pageable.getPageSize());
+			gerador.writeNumberField("numberOfElements", linhas);
+			gerador.writeEndObject();
+		}
 	}
 	
 	@GetMapping(params = "resumo")
-	@PreAuthorize("hasAuthority('ROLE_PESQUISAR_LANCAMENTO') and #oauth2.hasScope('read')")
-	public Page<ResumoLancamento> resumir(LancamentoFilter lancamentoFilter, Pageable pageable) {
-		return lancamentoRepository.resumir(lancamentoFilter, pageable);
+	@Autorizacao(permissao = "ROLE_PESQUISAR_LANCAMENTO", escopo = Escopo.READ)
+	@QueryBudget(2)
+	public WebAsyncTask<Page<ResumoLancamento>> resumir(LancamentoFilter lancamentoFilter, Pageable pageable) {
+		return consultasCancelaveis.executar(() -> pesquisaParticionada.resumir(lancamentoFilter, pageable));
+	}
+	
+	@GetMapping(path = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@Autorizacao(permissao = "ROLE_PESQUISAR_LANCAMENTO", escopo = Escopo.READ)
+	@QueryBudget(1)
+	public ResponseEntity<SseEmitter> acompanhar(EventoLancamentoFilter filtro,
+			@RequestHeader(name = "Last-Event-ID", required = false) Long ultimaVersao) {
+		SseEmitter emitter = feedLancamentos.assinar(filtro, ultimaVersao);
+		if (emitter == null) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.header(HttpHeaders.RETRY_AFTER, "30")
+					.build();
+		}
+		return ResponseEntity.ok(emitter);
 	}
 	
 	@GetMapping("/{codigo}")
-	@PreAuthorize("hasAuthority('ROLE_PESQUISAR_LANCAMENTO') and #oauth2.hasScope('read')")
+	@Autorizacao(permissao = "ROLE_PESQUISAR_LANCAMENTO", escopo = Escopo.READ)
+	@QueryBudget(1)
 	public ResponseEntity<Lancamento> buscarPeloCodigo(@PathVariable Long codigo) {
 		return lancamentoRepository.findById(codigo)
 				.map(ResponseEntity::ok)
@@ -72,13 +175,45 @@ public class LancamentoResource {
 	}
 	
 	@PostMapping
-	@PreAuthorize("hasAuthority('ROLE_CADASTRAR_LANCAMENTO') and #oauth2.hasScope('write')")
+	@Autorizacao(permissao = "ROLE_CADASTRAR_LANCAMENTO", escopo = Escopo.WRITE)
+	@QueryBudget(2)
 	public ResponseEntity<Lancamento> criar(@Valid @RequestBody Lancamento lancamento, HttpServletResponse response) {
 		Lancamento lancamentoSalvo = lancamentoService.salvar(lancamento);
 		publisher.publishEvent(new RecursoCriadoEvent(this, response, lancamentoSalvo.getCodigo()));
 		return ResponseEntity.status(HttpStatus.CREATED).body(lancamentoSalvo);
 	}
 	
+	@PostMapping("/serie")
+	@Autorizacao(permissao = "ROLE_CADASTRAR_LANCAMENTO", escopo = Escopo.WRITE)
+	@QueryBudget(3)
+	public ResponseEntity<List<Lancamento>> criarSerie(@Valid @RequestBody SerieLancamentos serie) {
+		List<Lancamento> lancamentosSalvos = lancamentoService.salvarSerie(serie);
+		return ResponseEntity.status(HttpStatus.CREATED).body(lancamentosSalvos);
+	}
+
+	@PutMapping("/serie/{codigoSerie}")
+	@Autorizacao(permissao = "ROLE_CADASTRAR_LANCAMENTO", escopo = Escopo.WRITE)
+	@QueryBudget(3)
+	public List<Lancamento> atualizarSerie(@PathVariable String codigoSerie, @Valid @RequestBody Lancamento lancamento) {
+		return lancamentoService.atualizarSerie(codigoSerie, lancamento);
+	}
+
+	@DeleteMapping("/serie/{codigoSerie}")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	@Autorizacao(permissao = "ROLE_REMOVER_LANCAMENTO", escopo = Escopo.WRITE)
+	@QueryBudget(2)
+	public void removerSerie(@PathVariable String codigoSerie) {
+		lancamentoService.removerSerie(codigoSerie);
+	}
+	
+	@ExceptionHandler({ CampoInexistenteException.class })
+	public ResponseEntity<Object> handleCampoInexistenteException(CampoInexistenteException ex) {
+		String mensagemUsuario = messageSource.getMessage("lancamento.campo-inexistente", new Object[] { ex.getMessage() },
+				LocaleContextHolder.getLocale());
+		List<Erro> erros = Arrays.asList(new Erro(mensagemUsuario, ex.toString()));
+		return ResponseEntity.badRequest().body(erros);
+	}
+	
 	@ExceptionHandler({ PessoaInexistenteOuInativaException.class })
 	public ResponseEntity<Object> handlePessoaInexistenteOuInativaException(PessoaInexistenteOuInativaException ex) {
 		String mensagemUsuario = messageSource.getMessage("pessoa.inexistente-ou-inativa", null, LocaleContextHolder.getLocale());
@@ -89,13 +224,32 @@ public class LancamentoResource {
 	
 	@DeleteMapping("/{codigo}")
 	@ResponseStatus(HttpStatus.NO_CONTENT)
-	@PreAuthorize("hasAuthority('ROLE_REMOVER_LANCAMENTO') and #oauth2.hasScope('write')")
+	@Autorizacao(permissao = "ROLE_REMOVER_LANCAMENTO", escopo = Escopo.WRITE)
+	@QueryBudget(2)
 	public void remover(@PathVariable Long codigo) {
-		lancamentoRepository.deleteById(codigo);
+		lancamentoService.remover(codigo);
+	}
+	
+	@DeleteMapping
+	@Autorizacao(permissao = "ROLE_REMOVER_LANCAMENTO", escopo = Escopo.WRITE)
+	@QueryBudget(QueryBudget.ILIMITADO)
+	public ResponseEntity<Object> removerPorFiltro(LancamentoFilter lancamentoFilter,
+			@RequestParam(required = false, defaultValue = "false") boolean simular,
+			@RequestParam(required = false, defaultValue = "1000") int tamanhoLote) {
+		if (lancamentoFilter.isVazio()) {
+			String mensagemUsuario = messageSource.getMessage("lancamento.remocao-sem-filtro", null, LocaleContextHolder.getLocale());
+			List<Erro> erros = Arrays.asList(new Erro(mensagemUsuario, "LancamentoFilter vazio"));
+			return ResponseEntity.badRequest().body(erros);
+		}
+
+		int lote = Math.max(1, Math.min(tamanhoLote, TAMANHO_MAXIMO_LOTE_REMOCAO));
+		RemocaoLancamentos remocao = lancamentoService.removerPorFiltro(lancamentoFilter, lote, simular);
+		return ResponseEntity.ok(remocao);
 	}
 	
 	@PutMapping("/{codigo}")
-	@PreAuthorize("hasAuthority('ROLE_CADASTRAR_LANCAMENTO')")
+	@Autorizacao(permissao = "ROLE_CADASTRAR_LANCAMENTO")
+	@QueryBudget(4)
 	public ResponseEntity<Lancamento> atualizar(@PathVariable Long codigo, @Valid @RequestBody Lancamento lancamento) {
 		try {
 			Lancamento lancamentoSalvo = lancamentoService.atualizar(codigo, lancamento);
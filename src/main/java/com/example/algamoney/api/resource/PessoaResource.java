@@ -1,15 +1,20 @@
 package com.example.algamoney.api.resource;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -21,15 +26,29 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.algamoney.api.dto.AtualizacaoAtivoPessoas;
+import com.example.algamoney.api.dto.ResultadoPorCodigo;
 import com.example.algamoney.api.event.RecursoCriadoEvent;
 import com.example.algamoney.api.model.Pessoa;
+import com.example.algamoney.api.query.QueryBudget;
 import com.example.algamoney.api.repository.PessoaRepository;
+import com.example.algamoney.api.repository.projection.ResumoPessoa;
+import com.example.algamoney.api.resilience.Compartimento;
+import com.example.algamoney.api.resilience.LeituraResiliente;
+import com.example.algamoney.api.resilience.ResultadoLeitura;
+import com.example.algamoney.api.security.Autorizacao;
+import com.example.algamoney.api.security.Escopo;
 import com.example.algamoney.api.service.PessoaService;
 
 @RestController
 @RequestMapping("/pessoas")
+@Compartimento("pessoas")
 public class PessoaResource {
 
+	private static final int LIMITE_MAXIMO_AUTOCOMPLETAR = 50;
+	private static final int LIMITE_MAXIMO_ATUALIZACAO_LOTE = 1000;
+	private static final int LIMITE_MAXIMO_BUSCA_CODIGOS = 100;
+
 	@Autowired
 	private PessoaRepository pessoaRepository;
 	
@@ -38,32 +57,42 @@ public class PessoaResource {
 	
 	@Autowired
 	private ApplicationEventPublisher publisher;
+	
+	@Autowired
+	private LeituraResiliente leituraResiliente;
 
 	@PostMapping
-	@PreAuthorize("hasAuthority('ROLE_CADASTRAR_PESSOA') and #oauth2.hasScope('write')")
+	@Autorizacao(permissao = "ROLE_CADASTRAR_PESSOA", escopo = Escopo.WRITE)
+	@QueryBudget(1)
 	public ResponseEntity<Pessoa> criar(@Valid @RequestBody Pessoa pessoa, HttpServletResponse response) {
-		Pessoa pessoaSalva = pessoaRepository.save(pessoa);
+		Pessoa pessoaSalva = pessoaService.salvar(pessoa);
 		publisher.publishEvent(new RecursoCriadoEvent(this, response, pessoaSalva.getCodigo()));
 		return ResponseEntity.status(HttpStatus.CREATED).body(pessoaSalva);
 	}
 
 	@GetMapping("/{codigo}")
-	@PreAuthorize("hasAuthority('ROLE_PESQUISAR_PESSOA') and #oauth2.hasScope('read')")
+	@Autorizacao(permissao = "ROLE_PESQUISAR_PESSOA", escopo = Escopo.READ)
+	@QueryBudget(1)
 	public ResponseEntity<Pessoa> buscarPeloCodigo(@PathVariable Long codigo) {
-		return pessoaRepository.findById(codigo)
-				.map(ResponseEntity::ok)
+		// Com o banco fora, responde com a última versão conhecida (headers Age e Warning)
+		ResultadoLeitura<Optional<Pessoa>> resultado = leituraResiliente.ler("pessoa", codigo,
+				() -> pessoaRepository.buscarPorCodigo(codigo));
+		return resultado.getValor()
+				.map(resultado::resposta)
 				.orElse(ResponseEntity.notFound().build());
 	}
 
 	@DeleteMapping("/{codigo}")
 	@ResponseStatus(HttpStatus.NO_CONTENT)
-	@PreAuthorize("hasAuthority('ROLE_REMOVER_PESSOA') and #oauth2.hasScope('write')")
+	@Autorizacao(permissao = "ROLE_REMOVER_PESSOA", escopo = Escopo.WRITE)
+	@QueryBudget(2)
 	public void remover(@PathVariable Long codigo) {
-		pessoaRepository.deleteById(codigo);
+		pessoaService.remover(codigo);
 	}
 	
 	@PutMapping("/{codigo}")
-	@PreAuthorize("hasAuthority('ROLE_CADASTRAR_PESSOA') and #oauth2.hasScope('write')")
+	@Autorizacao(permissao = "ROLE_CADASTRAR_PESSOA", escopo = Escopo.WRITE)
+	@QueryBudget(2)
 	public ResponseEntity<Pessoa> atualizar(@PathVariable Long codigo, @Valid @RequestBody Pessoa pessoa) {
 		Pessoa pessoaSalva = pessoaService.atualizar(codigo, pessoa);
 		return ResponseEntity.ok(pessoaSalva);
@@ -71,15 +100,51 @@ public class PessoaResource {
 	
 	@PutMapping("/{codigo}/ativo")
 	@ResponseStatus(HttpStatus.NO_CONTENT)
-	@PreAuthorize("hasAuthority('ROLE_CADASTRAR_PESSOA') and #oauth2.hasScope('write')")
+	@Autorizacao(permissao = "ROLE_CADASTRAR_PESSOA", escopo = Escopo.WRITE)
+	@QueryBudget(2)
 	public void atualizarPropriedadeAtivo(@PathVariable Long codigo, @RequestBody Boolean ativo) {
 		pessoaService.atualizarPropriedadeAtivo(codigo, ativo);
 	}
 	
+	@PutMapping
+	@Autorizacao(permissao = "ROLE_CADASTRAR_PESSOA", escopo = Escopo.WRITE)
+	@QueryBudget(25)
+	public List<Pessoa> atualizarEmLote(
+			@RequestBody @Size(max = LIMITE_MAXIMO_ATUALIZACAO_LOTE) List<@Valid Pessoa> pessoas) {
+		return pessoaService.atualizar(pessoas);
+	}
+
+	@PutMapping("/ativo")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	@Autorizacao(permissao = "ROLE_CADASTRAR_PESSOA", escopo = Escopo.WRITE)
+	@QueryBudget(10)
+	public void atualizarPropriedadeAtivoEmLote(@Valid @RequestBody AtualizacaoAtivoPessoas atualizacao) {
+		pessoaService.atualizarPropriedadeAtivo(atualizacao.getCodigos(), atualizacao.getAtivo());
+	}
+	
 	@GetMapping
-	@PreAuthorize("hasAuthority('ROLE_PESQUISAR_PESSOA')")
+	@Autorizacao(permissao = "ROLE_PESQUISAR_PESSOA")
+	@QueryBudget(2)
 	public Page<Pessoa> pesquisar(@RequestParam(required = false, defaultValue = "%") String nome, Pageable pageable) {
 		return pessoaRepository.findByNomeContaining(nome, pageable);
 	}
 
+	@GetMapping(params = "codigos")
+	@Autorizacao(permissao = "ROLE_PESQUISAR_PESSOA", escopo = Escopo.READ)
+	@QueryBudget(1)
+	public List<ResultadoPorCodigo<Pessoa>> buscarPelosCodigos(
+			@RequestParam @Size(min = 1, max = LIMITE_MAXIMO_BUSCA_CODIGOS) List<Long> codigos) {
+		List<Pessoa> pessoas = pessoaRepository.findAllById(new LinkedHashSet<>(codigos));
+		return ResultadoPorCodigo.naOrdem(codigos, pessoas, Pessoa::getCodigo);
+	}
+
+	@GetMapping("/autocompletar")
+	@Autorizacao(permissao = "ROLE_PESQUISAR_PESSOA")
+	@QueryBudget(1)
+	public List<ResumoPessoa> autocompletar(@RequestParam(required = false, defaultValue = "") String nome,
+			@RequestParam(required = false, defaultValue = "10") int limite) {
+		int tamanho = Math.max(1, Math.min(limite, LIMITE_MAXIMO_AUTOCOMPLETAR));
+		return pessoaRepository.findByNomeStartingWithOrderByNomeAscCodigoAsc(nome.trim(), PageRequest.of(0, tamanho));
+	}
+
 }
\ No newline at end of file
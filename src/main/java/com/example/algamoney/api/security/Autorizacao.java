@@ -0,0 +1,30 @@
+package com.example.algamoney.api.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Permissão e escopos exigidos por um método de resource. Substitui o
+ * {@code @PreAuthorize("hasAuthority('...') and #oauth2.hasScope('...')")}: a regra é
+ * resolvida uma vez na subida ({@link RegrasAutorizacao}) e checada por
+ * {@link AutorizacaoInterceptor} com testes de bit, sem avaliar SpEL a cada chamada.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Autorizacao {
+
+	/**
+	 * Nome da permissão (ROLE_*) na tabela permissao.
+	 */
+	String permissao();
+
+	/**
+	 * Escopos que o token precisa ter, todos eles.
+	 */
+	Escopo[] escopo() default {};
+
+}
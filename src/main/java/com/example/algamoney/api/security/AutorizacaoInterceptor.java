@@ -0,0 +1,37 @@
+package com.example.algamoney.api.security;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Aplica o {@link Autorizacao} do método antes de chamá-lo. A negação vira 403 pelo
+ * ExceptionTranslationFilter do Spring Security.
+ */
+public class AutorizacaoInterceptor implements HandlerInterceptor {
+
+	private final RegrasAutorizacao regras;
+
+	public AutorizacaoInterceptor(RegrasAutorizacao regras) {
+		this.regras = regras;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		// O dispatch ASYNC só encerra uma requisição que já foi autorizada
+		if (!(handler instanceof HandlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+			return true;
+		}
+		RegraAutorizacao regra = regras.regra((HandlerMethod) handler);
+		if (!regra.permite(SecurityContextHolder.getContext().getAuthentication())) {
+			throw new AccessDeniedException("Acesso negado: " + regra);
+		}
+		return true;
+	}
+
+}
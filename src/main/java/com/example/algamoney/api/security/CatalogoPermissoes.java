@@ -0,0 +1,125 @@
+package com.example.algamoney.api.security;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.example.algamoney.api.model.Permissao;
+import com.example.algamoney.api.repository.PermissaoRepository;
+
+/**
+ * Mapeamento entre os nomes ROLE_* e os códigos da tabela permissao, lido uma vez.
+ *
+ * A versão é um CRC do mapeamento inteiro e vai no token junto com o bitset: se uma
+ * migration mudar a tabela, tokens antigos deixam de ser aceitos em vez de terem os bits
+ * interpretados com outro significado.
+ */
+@Component
+public class CatalogoPermissoes {
+
+	private final PermissaoRepository permissaoRepository;
+
+	private volatile Mapeamento mapeamento;
+
+	public CatalogoPermissoes(PermissaoRepository permissaoRepository) {
+		this.permissaoRepository = permissaoRepository;
+	}
+
+	// Carrega na subida para a primeira requisição não pagar a consulta
+	@EventListener(ApplicationReadyEvent.class)
+	public void carregar() {
+		mapeamento();
+	}
+
+	public int getVersao() {
+		return mapeamento().versao;
+	}
+
+	/**
+	 * @return código da permissão, ou -1 se o nome não existir
+	 */
+	public int codigo(String descricao) {
+		return mapeamento().codigos.getOrDefault(descricao.toUpperCase(), -1);
+	}
+
+	public Permissoes permissoes(Collection<String> descricoes) {
+		BitSet bits = new BitSet();
+		for (String descricao : descricoes) {
+			int codigo = codigo(descricao);
+			if (codigo >= 0) {
+				bits.set(codigo);
+			}
+		}
+		return Permissoes.de(bits);
+	}
+
+	public List<GrantedAuthority> authorities(Permissoes permissoes) {
+		Map<Integer, GrantedAuthority> porCodigo = mapeamento().authorities;
+		BitSet bits = permissoes.paraBitSet();
+		List<GrantedAuthority> authorities = new ArrayList<>(bits.cardinality());
+		for (int codigo = bits.nextSetBit(0); codigo >= 0; codigo = bits.nextSetBit(codigo + 1)) {
+			GrantedAuthority authority = porCodigo.get(codigo);
+			if (authority != null) {
+				authorities.add(authority);
+			}
+		}
+		return Collections.unmodifiableList(authorities);
+	}
+
+	private Mapeamento mapeamento() {
+		Mapeamento atual = mapeamento;
+		if (atual == null) {
+			synchronized (this) {
+				if (mapeamento == null) {
+					mapeamento = ler();
+				}
+				atual = mapeamento;
+			}
+		}
+		return atual;
+	}
+
+	private Mapeamento ler() {
+		TreeMap<Integer, String> ordenado = new TreeMap<>();
+		for (Permissao permissao : permissaoRepository.findAll()) {
+			ordenado.put(permissao.getCodigo().intValue(), permissao.getDescricao().toUpperCase());
+		}
+
+		CRC32 crc = new CRC32();
+		Map<String, Integer> codigos = new HashMap<>();
+		Map<Integer, GrantedAuthority> authorities = new HashMap<>();
+		ordenado.forEach((codigo, descricao) -> {
+			crc.update((codigo + "=" + descricao + ";").getBytes());
+			codigos.put(descricao, codigo);
+			authorities.put(codigo, new SimpleGrantedAuthority(descricao));
+		});
+		return new Mapeamento((int) crc.getValue(), codigos, authorities);
+	}
+
+	private static final class Mapeamento {
+
+		private final int versao;
+		private final Map<String, Integer> codigos;
+		private final Map<Integer, GrantedAuthority> authorities;
+
+		private Mapeamento(int versao, Map<String, Integer> codigos, Map<Integer, GrantedAuthority> authorities) {
+			this.versao = versao;
+			this.codigos = codigos;
+			this.authorities = authorities;
+		}
+
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.example.algamoney.api.security;
+
+/**
+ * Escopos OAuth2 do token (claim scope, separados por espaço). Cada um ocupa um bit,
+ * para a checagem por método ser uma operação de máscara.
+ */
+public enum Escopo {
+
+	READ("read"),
+	WRITE("write");
+
+	public static final int TODOS = mascara(values());
+
+	private final String nome;
+
+	Escopo(String nome) {
+		this.nome = nome;
+	}
+
+	public String getNome() {
+		return nome;
+	}
+
+	public int bit() {
+		return 1 << ordinal();
+	}
+
+	public static int mascara(Escopo... escopos) {
+		int mascara = 0;
+		for (Escopo escopo : escopos) {
+			mascara |= escopo.bit();
+		}
+		return mascara;
+	}
+
+	/**
+	 * Converte o valor do claim scope ("read write") na máscara. Nomes desconhecidos
+	 * são ignorados.
+	 */
+	public static int mascara(String escopos) {
+		int mascara = 0;
+		for (String nome : escopos.trim().split("\\s+")) {
+			for (Escopo escopo : values()) {
+				if (escopo.nome.equals(nome)) {
+					mascara |= escopo.bit();
+				}
+			}
+		}
+		return mascara;
+	}
+
+	public static String nomes(int mascara) {
+		StringBuilder nomes = new StringBuilder();
+		for (Escopo escopo : values()) {
+			if ((mascara & escopo.bit()) != 0) {
+				if (nomes.length() > 0) {
+					nomes.append(' ');
+				}
+				nomes.append(escopo.nome);
+			}
+		}
+		return nomes.toString();
+	}
+
+}
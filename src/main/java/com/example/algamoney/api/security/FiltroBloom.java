@@ -0,0 +1,82 @@
+package com.example.algamoney.api.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para strings com inclusão concorrente e leitura sem lock.
+ *
+ * Um "não" é definitivo; um "talvez" precisa ser confirmado no conjunto exato. Tamanho e
+ * número de funções saem da capacidade e da taxa de falso positivo desejadas; acima da
+ * capacidade a taxa sobe, e quem usa deve recriar o filtro maior.
+ */
+final class FiltroBloom {
+
+	private final AtomicLongArray bits;
+	private final int tamanho;
+	private final int funcoes;
+	private final int capacidade;
+
+	FiltroBloom(int capacidade, double taxaFalsoPositivo) {
+		this.capacidade = Math.max(capacidade, 64);
+		double ln2 = Math.log(2);
+		long otimo = (long) Math.ceil(-this.capacidade * Math.log(taxaFalsoPositivo) / (ln2 * ln2));
+		this.tamanho = (int) Math.min(Integer.MAX_VALUE - 64, Math.max(64, otimo));
+		this.funcoes = Math.max(1, (int) Math.round((double) tamanho / this.capacidade * ln2));
+		this.bits = new AtomicLongArray((tamanho + 63) >>> 6);
+	}
+
+	int getCapacidade() {
+		return capacidade;
+	}
+
+	void adicionar(String valor) {
+		long hash = hash(valor);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 1; i <= funcoes; i++) {
+			int posicao = posicao(h1 + i * h2);
+			long mascara = 1L << posicao;
+			int indice = posicao >>> 6;
+			long atual;
+			do {
+				atual = bits.get(indice);
+				if ((atual & mascara) != 0) {
+					break;
+				}
+			} while (!bits.compareAndSet(indice, atual, atual | mascara));
+		}
+	}
+
+	boolean talvezContem(String valor) {
+		long hash = hash(valor);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 1; i <= funcoes; i++) {
+			int posicao = posicao(h1 + i * h2);
+			if ((bits.get(posicao >>> 6) & (1L << posicao)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int posicao(int combinado) {
+		return (combinado < 0 ? ~combinado : combinado) % tamanho;
+	}
+
+	// FNV-1a de 64 bits com a finalização do MurmurHash3 para espalhar os bits altos
+	private static long hash(String valor) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < valor.length(); i++) {
+			h ^= valor.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+}
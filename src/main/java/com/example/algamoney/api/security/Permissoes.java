@@ -0,0 +1,43 @@
+package com.example.algamoney.api.security;
+
+import java.util.Base64;
+import java.util.BitSet;
+
+/**
+ * Conjunto imutável de permissões do usuário, um bit por código da tabela permissao.
+ *
+ * No JWT vai como os bytes do bitset em base64url (3 caracteres para as 8 permissões
+ * atuais, em vez da lista de nomes ROLE_*). A checagem é um teste de bit.
+ */
+public final class Permissoes {
+
+	public static final Permissoes NENHUMA = new Permissoes(new long[0]);
+
+	private final long[] bits;
+
+	private Permissoes(long[] bits) {
+		this.bits = bits;
+	}
+
+	public static Permissoes de(BitSet bitSet) {
+		return new Permissoes(bitSet.toLongArray());
+	}
+
+	public static Permissoes decodificar(String valor) {
+		return new Permissoes(BitSet.valueOf(Base64.getUrlDecoder().decode(valor)).toLongArray());
+	}
+
+	public String codificar() {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(BitSet.valueOf(bits).toByteArray());
+	}
+
+	public boolean possui(int codigo) {
+		int palavra = codigo >>> 6;
+		return codigo >= 0 && palavra < bits.length && (bits[palavra] & (1L << codigo)) != 0;
+	}
+
+	public BitSet paraBitSet() {
+		return BitSet.valueOf(bits);
+	}
+
+}
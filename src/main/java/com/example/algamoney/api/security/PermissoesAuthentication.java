@@ -0,0 +1,90 @@
+package com.example.algamoney.api.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Autenticação criada a partir do JWT. As permissões ficam no bitset; a lista de
+ * GrantedAuthority só é montada se algum código do Spring pedir por ela. Os escopos
+ * do claim scope ficam como máscara de {@link Escopo}.
+ */
+public class PermissoesAuthentication implements Authentication {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String usuario;
+	private final Permissoes permissoes;
+	private final int escopos;
+	private final transient CatalogoPermissoes catalogo;
+	private transient volatile List<GrantedAuthority> authorities;
+	private volatile boolean autenticado = true;
+
+	public PermissoesAuthentication(String usuario, Permissoes permissoes, int escopos, CatalogoPermissoes catalogo) {
+		this.usuario = usuario;
+		this.permissoes = permissoes;
+		this.escopos = escopos;
+		this.catalogo = catalogo;
+	}
+
+	public Permissoes getPermissoes() {
+		return permissoes;
+	}
+
+	/**
+	 * @param mascara escopos exigidos, ver {@link Escopo#mascara(Escopo...)}
+	 */
+	public boolean possuiEscopos(int mascara) {
+		return (escopos & mascara) == mascara;
+	}
+
+	public boolean possui(String authority) {
+		return permissoes.possui(catalogo.codigo(authority));
+	}
+
+	@Override
+	public Collection<? extends GrantedAuthority> getAuthorities() {
+		List<GrantedAuthority> atual = authorities;
+		if (atual == null) {
+			atual = catalogo.authorities(permissoes);
+			authorities = atual;
+		}
+		return atual;
+	}
+
+	@Override
+	public Object getCredentials() {
+		return null;
+	}
+
+	@Override
+	public Object getDetails() {
+		return null;
+	}
+
+	@Override
+	public Object getPrincipal() {
+		return usuario;
+	}
+
+	@Override
+	public boolean isAuthenticated() {
+		return autenticado;
+	}
+
+	@Override
+	public void setAuthenticated(boolean isAuthenticated) {
+		if (isAuthenticated) {
+			throw new IllegalArgumentException("Autenticação por JWT não pode ser promovida");
+		}
+		autenticado = false;
+	}
+
+	@Override
+	public String getName() {
+		return usuario;
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.example.algamoney.api.security;
+
+import org.springframework.security.core.Authentication;
+
+/**
+ * {@link Autorizacao} já resolvida: código da permissão no bitset e máscara de escopos.
+ */
+public final class RegraAutorizacao {
+
+	public static final RegraAutorizacao LIVRE = new RegraAutorizacao(null, -1, 0);
+
+	private final String permissao;
+	private final int codigo;
+	private final int escopos;
+
+	RegraAutorizacao(String permissao, int codigo, int escopos) {
+		this.permissao = permissao;
+		this.codigo = codigo;
+		this.escopos = escopos;
+	}
+
+	public boolean permite(Authentication authentication) {
+		if (this == LIVRE) {
+			return true;
+		}
+		if (authentication == null || !authentication.isAuthenticated()) {
+			return false;
+		}
+		if (authentication instanceof PermissoesAuthentication) {
+			PermissoesAuthentication jwt = (PermissoesAuthentication) authentication;
+			return jwt.getPermissoes().possui(codigo) && jwt.possuiEscopos(escopos);
+		}
+		// Autenticações que não vieram do JWT não têm escopo: só valem para regras sem escopo
+		return escopos == 0 && authentication.getAuthorities().stream()
+				.anyMatch(authority -> permissao.equals(authority.getAuthority()));
+	}
+
+	@Override
+	public String toString() {
+		return this == LIVRE ? "livre" : permissao + " [" + Escopo.nomes(escopos) + "]";
+	}
+
+}
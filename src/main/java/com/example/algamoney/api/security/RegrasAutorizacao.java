@@ -0,0 +1,79 @@
+package com.example.algamoney.api.security;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Resolve o {@link Autorizacao} de cada método de resource em uma {@link RegraAutorizacao}.
+ *
+ * Todos os métodos mapeados são resolvidos na subida; uma permissão que não existe na
+ * tabela permissao derruba a aplicação em vez de negar acesso em produção sem aviso.
+ */
+@Component
+public class RegrasAutorizacao {
+
+	private static final Logger logger = LoggerFactory.getLogger(RegrasAutorizacao.class);
+
+	private final CatalogoPermissoes catalogoPermissoes;
+	private final Map<Method, RegraAutorizacao> regras = new ConcurrentHashMap<>();
+	private final Map<String, RegraAutorizacao> regrasAvulsas = new ConcurrentHashMap<>();
+
+	public RegrasAutorizacao(CatalogoPermissoes catalogoPermissoes) {
+		this.catalogoPermissoes = catalogoPermissoes;
+	}
+
+	// O handler mapping é buscado no evento: injetá-lo aqui criaria um ciclo com o WebMvcConfigurer
+	@EventListener(ApplicationReadyEvent.class)
+	public void precompilar(ApplicationReadyEvent event) {
+		for (RequestMappingHandlerMapping mapping : event.getApplicationContext()
+				.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+			mapping.getHandlerMethods().values().forEach(this::regra);
+		}
+		logger.info("Authorization rules resolved for {} handler methods", regras.size());
+	}
+
+	public RegraAutorizacao regra(HandlerMethod handlerMethod) {
+		return regras.computeIfAbsent(handlerMethod.getMethod(), this::resolver);
+	}
+
+	/**
+	 * Regra checada dentro de um handler, para partes da resposta com permissão própria
+	 * (ex.: seções do dashboard).
+	 */
+	public RegraAutorizacao regra(String permissao, Escopo... escopo) {
+		int mascara = Escopo.mascara(escopo);
+		return regrasAvulsas.computeIfAbsent(permissao.toUpperCase() + ":" + mascara, chave -> {
+			String nome = permissao.toUpperCase();
+			int codigo = catalogoPermissoes.codigo(nome);
+			if (codigo < 0) {
+				throw new IllegalStateException("Permissão inexistente: " + nome);
+			}
+			return new RegraAutorizacao(nome, codigo, mascara);
+		});
+	}
+
+	private RegraAutorizacao resolver(Method method) {
+		Autorizacao autorizacao = AnnotatedElementUtils.findMergedAnnotation(method, Autorizacao.class);
+		if (autorizacao == null) {
+			return RegraAutorizacao.LIVRE;
+		}
+		String permissao = autorizacao.permissao().toUpperCase();
+		int codigo = catalogoPermissoes.codigo(permissao);
+		if (codigo < 0) {
+			throw new IllegalStateException("Permissão inexistente em @Autorizacao de "
+					+ method.getDeclaringClass().getSimpleName() + "." + method.getName() + ": " + permissao);
+		}
+		return new RegraAutorizacao(permissao, codigo, Escopo.mascara(autorizacao.escopo()));
+	}
+
+}
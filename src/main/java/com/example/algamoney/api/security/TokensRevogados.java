@@ -0,0 +1,158 @@
+package com.example.algamoney.api.security;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.model.TokenRevogado;
+import com.example.algamoney.api.repository.TokenRevogadoRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Tokens revogados (claim jti) ainda não expirados, em memória.
+ *
+ * A tabela token_revogado é a fonte; cada instância mantém um filtro de Bloom e o
+ * conjunto exato dos jti. O caso comum, token não revogado, é respondido pelo filtro com
+ * alguns testes de bit; só um "talvez" consulta o conjunto. Nenhuma requisição vai ao banco.
+ *
+ * Revogações de outras instâncias chegam a cada algamoney.revogacao.intervalo-ms, lendo
+ * revogado_em a partir da última vista menos a margem (transações confirmadas fora de
+ * ordem). Na instância que revogou o efeito é imediato. De hora em hora os expirados saem
+ * da tabela e o filtro é reconstruído, já que um filtro de Bloom não remove elementos.
+ *
+ * Métrica: algamoney.tokens.revogados.
+ */
+@Component
+public class TokensRevogados {
+
+	private static final Logger logger = LoggerFactory.getLogger(TokensRevogados.class);
+
+	private static final double TAXA_FALSO_POSITIVO = 0.01;
+
+	// Antes da primeira revogação lida a consulta incremental pega a tabela inteira (pequena)
+	private static final LocalDateTime INICIO = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+	private final TokenRevogadoRepository tokenRevogadoRepository;
+	private final int capacidade;
+	private final int margemSegundos;
+
+	private volatile Estado estado;
+	private LocalDateTime ultimaRevogacao = INICIO;
+
+	public TokensRevogados(TokenRevogadoRepository tokenRevogadoRepository, AlgamoneyApiProperty algamoneyApiProperty,
+			MeterRegistry meterRegistry) {
+		this.tokenRevogadoRepository = tokenRevogadoRepository;
+		this.capacidade = algamoneyApiProperty.getRevogacao().getCapacidade();
+		this.margemSegundos = algamoneyApiProperty.getRevogacao().getMargemSegundos();
+		this.estado = new Estado(capacidade);
+		Gauge.builder("algamoney.tokens.revogados", this, tokens -> tokens.estado.jtis.size())
+				.description("Tokens revogados e ainda não expirados em memória")
+				.register(meterRegistry);
+	}
+
+	// Antes de o servidor aceitar requisições: um token revogado não pode passar na subida
+	@PostConstruct
+	public void carregar() {
+		recarregar();
+	}
+
+	public boolean revogado(String jti) {
+		Estado atual = estado;
+		return atual.bloom.talvezContem(jti) && atual.jtis.contains(jti);
+	}
+
+	public void revogar(String jti, Instant expiraEm) {
+		try {
+			tokenRevogadoRepository.save(new TokenRevogado(jti, LocalDateTime.ofInstant(expiraEm, ZoneId.systemDefault())));
+		} catch (DataIntegrityViolationException e) {
+			// Revogado ao mesmo tempo por outra requisição
+			logger.debug("Token {} already revoked", jti);
+		}
+		adicionar(jti);
+	}
+
+	int getCapacidadeFiltro() {
+		return estado.bloom.getCapacidade();
+	}
+
+	@Scheduled(fixedDelayString = "${algamoney.revogacao.intervalo-ms:1000}")
+	public synchronized void atualizar() {
+		List<TokenRevogado> novos = tokenRevogadoRepository
+				.findByRevogadoEmGreaterThanEqual(ultimaRevogacao.minusSeconds(margemSegundos));
+		for (TokenRevogado token : novos) {
+			adicionar(token.getJti());
+			avancar(token);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${algamoney.revogacao.limpeza-ms:3600000}",
+			initialDelayString = "${algamoney.revogacao.limpeza-ms:3600000}")
+	public void limpar() {
+		int removidos = tokenRevogadoRepository.removerExpirados(LocalDateTime.now());
+		if (removidos > 0) {
+			logger.info("Removed {} expired revoked tokens", removidos);
+		}
+		recarregar();
+	}
+
+	private synchronized void recarregar() {
+		List<TokenRevogado> validos = tokenRevogadoRepository.findByExpiraEmAfter(LocalDateTime.now());
+		// Revogações locais feitas durante a leitura estão na tabela e voltam no próximo atualizar()
+		Estado novo = new Estado(Math.max(capacidade, validos.size() * 2));
+		for (TokenRevogado token : validos) {
+			novo.adicionar(token.getJti());
+			avancar(token);
+		}
+		estado = novo;
+	}
+
+	private synchronized void adicionar(String jti) {
+		Estado atual = estado;
+		if (atual.jtis.size() >= atual.bloom.getCapacidade()) {
+			// Cheio, a taxa de falso positivo subiria: recria com o dobro
+			Estado maior = new Estado(atual.bloom.getCapacidade() * 2);
+			atual.jtis.forEach(maior::adicionar);
+			estado = maior;
+			atual = maior;
+		}
+		atual.adicionar(jti);
+	}
+
+	private void avancar(TokenRevogado token) {
+		if (token.getRevogadoEm() != null && token.getRevogadoEm().isAfter(ultimaRevogacao)) {
+			ultimaRevogacao = token.getRevogadoEm();
+		}
+	}
+
+	private static final class Estado {
+
+		private final FiltroBloom bloom;
+		private final Set<String> jtis = ConcurrentHashMap.newKeySet();
+
+		private Estado(int capacidade) {
+			this.bloom = new FiltroBloom(capacidade, TAXA_FALSO_POSITIVO);
+		}
+
+		// Primeiro o conjunto: quando o filtro disser "talvez", o jti já está lá
+		private void adicionar(String jti) {
+			jtis.add(jti);
+			bloom.adicionar(jti);
+		}
+
+	}
+
+}
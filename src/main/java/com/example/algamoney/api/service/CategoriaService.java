@@ -0,0 +1,29 @@
+package com.example.algamoney.api.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.algamoney.api.event.Operacao;
+import com.example.algamoney.api.event.TipoRecurso;
+import com.example.algamoney.api.event.outbox.OutboxEventos;
+import com.example.algamoney.api.model.Categoria;
+import com.example.algamoney.api.repository.CategoriaRepository;
+
+@Service
+public class CategoriaService {
+
+	@Autowired
+	private CategoriaRepository categoriaRepository;
+
+	@Autowired
+	private OutboxEventos outboxEventos;
+
+	@Transactional
+	public Categoria salvar(Categoria categoria) {
+		Categoria categoriaSalva = categoriaRepository.save(categoria);
+		outboxEventos.registrar(TipoRecurso.CATEGORIA, categoriaSalva.getCodigo(), Operacao.CRIADO);
+		return categoriaSalva;
+	}
+
+}
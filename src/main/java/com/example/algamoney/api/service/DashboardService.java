@@ -0,0 +1,165 @@
+package com.example.algamoney.api.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import com.example.algamoney.api.cache.NomesCache;
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.dto.Dashboard;
+import com.example.algamoney.api.dto.Dashboard.Secao;
+import com.example.algamoney.api.model.Categoria;
+import com.example.algamoney.api.query.ExecucaoConsultas;
+import com.example.algamoney.api.repository.CategoriaRepository;
+import com.example.algamoney.api.repository.LancamentoRepository;
+import com.example.algamoney.api.repository.PessoaRepository;
+import com.example.algamoney.api.repository.projection.EstatisticaPessoas;
+import com.example.algamoney.api.repository.projection.ResumoLancamento;
+import com.example.algamoney.api.repository.projection.TotalMensal;
+import com.example.algamoney.api.resilience.LeituraResiliente;
+import com.example.algamoney.api.security.Escopo;
+import com.example.algamoney.api.security.RegrasAutorizacao;
+import com.example.algamoney.api.service.exception.ServicoIndisponivelException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Monta o dashboard com as cinco leituras da tela inicial ao mesmo tempo, cada uma numa
+ * thread do executor próprio (algamoney.dashboard.threads) e na sua conexão: a resposta
+ * leva o tempo da leitura mais lenta, não a soma.
+ *
+ * Cada seção tem seu timeout (algamoney.dashboard.timeouts.&lt;secao&gt;); estourado, os
+ * comandos SQL dela são cancelados e a seção sai com status TIMEOUT, sem dados. Uma falha
+ * ou um executor cheio dão ERRO só naquela seção. Seções cuja permissão o usuário não tem
+ * nem são consultadas. Só quando nenhuma seção tem dados a resposta é 503.
+ *
+ * Métricas: algamoney.dashboard.secao{secao,status} (duração de cada seção).
+ */
+@Service
+public class DashboardService {
+
+	private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+	private final CategoriaRepository categoriaRepository;
+	private final PessoaRepository pessoaRepository;
+	private final LancamentoRepository lancamentoRepository;
+	private final LeituraResiliente leituraResiliente;
+	private final RegrasAutorizacao regrasAutorizacao;
+	private final MeterRegistry meterRegistry;
+	private final AlgamoneyApiProperty.Dashboard configuracao;
+	private final ThreadPoolExecutor executor;
+
+	public DashboardService(CategoriaRepository categoriaRepository, PessoaRepository pessoaRepository,
+			LancamentoRepository lancamentoRepository, LeituraResiliente leituraResiliente,
+			RegrasAutorizacao regrasAutorizacao, MeterRegistry meterRegistry, AlgamoneyApiProperty algamoneyApiProperty) {
+		this.categoriaRepository = categoriaRepository;
+		this.pessoaRepository = pessoaRepository;
+		this.lancamentoRepository = lancamentoRepository;
+		this.leituraResiliente = leituraResiliente;
+		this.regrasAutorizacao = regrasAutorizacao;
+		this.meterRegistry = meterRegistry;
+		this.configuracao = algamoneyApiProperty.getDashboard();
+		this.executor = new ThreadPoolExecutor(configuracao.getThreads(), configuracao.getThreads(),
+				60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(configuracao.getThreads() * 4),
+				new CustomizableThreadFactory("dashboard-"));
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * @param authentication do usuário da requisição, lido antes de sair da thread dela
+	 */
+	public CompletableFuture<Dashboard> montar(Authentication authentication) {
+		LocalDate hoje = LocalDate.now();
+		LocalDate inicioTotais = hoje.withDayOfMonth(1).minusMonths(configuracao.getMeses() - 1L);
+		LocalDate fimTotais = hoje.withDayOfMonth(hoje.lengthOfMonth());
+
+		CompletableFuture<Secao<List<Categoria>>> categorias = secao("categorias",
+				regrasAutorizacao.regra("ROLE_PESQUISAR_CATEGORIA", Escopo.READ).permite(authentication),
+				() -> leituraResiliente.ler("categorias", NomesCache.TODAS, categoriaRepository::listarTodas).getValor());
+		CompletableFuture<Secao<EstatisticaPessoas>> pessoas = secao("pessoas",
+				regrasAutorizacao.regra("ROLE_PESQUISAR_PESSOA", Escopo.READ).permite(authentication),
+				pessoaRepository::estatisticas);
+		// As demais seções são de lançamentos, permissão exigida pelo próprio endpoint
+		CompletableFuture<Secao<List<TotalMensal>>> totaisMensais = secao("totais-mensais", true,
+				() -> lancamentoRepository.totaisMensais(inicioTotais, fimTotais));
+		CompletableFuture<Secao<List<ResumoLancamento>>> recentes = secao("recentes", true,
+				() -> lancamentoRepository.buscarRecentes(PageRequest.of(0, configuracao.getRecentes())));
+		CompletableFuture<Secao<Long>> vencidos = secao("vencidos", true,
+				() -> lancamentoRepository.contarVencidos(hoje));
+
+		return CompletableFuture.allOf(categorias, pessoas, totaisMensais, recentes, vencidos)
+				.thenApply(nada -> {
+					Dashboard dashboard = new Dashboard(categorias.join(), pessoas.join(), totaisMensais.join(),
+							recentes.join(), vencidos.join());
+					if (!dashboard.isCompleto() && !dashboard.possuiDados()) {
+						throw new ServicoIndisponivelException("dashboard", null);
+					}
+					return dashboard;
+				});
+	}
+
+	// Nunca completa com exceção: falha e timeout viram o status da seção
+	private <T> CompletableFuture<Secao<T>> secao(String nome, boolean permitida, Supplier<T> leitura) {
+		if (!permitida) {
+			return CompletableFuture.completedFuture(Secao.falha(Dashboard.Status.SEM_PERMISSAO));
+		}
+		long timeoutMs = configuracao.getTimeouts().getOrDefault(nome, configuracao.getTimeoutPadraoMs());
+		ExecucaoConsultas execucao = new ExecucaoConsultas();
+		long inicio = System.nanoTime();
+
+		CompletableFuture<T> dados;
+		try {
+			dados = CompletableFuture.supplyAsync(() -> execucao.executar(leitura), executor);
+		} catch (RejectedExecutionException e) {
+			logger.warn("Dashboard executor full, skipping section {}", nome);
+			return CompletableFuture.completedFuture(registrar(nome, inicio, Secao.falha(Dashboard.Status.ERRO)));
+		}
+
+		return dados.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).handle((valor, erro) -> {
+			if (erro == null) {
+				return registrar(nome, inicio, Secao.ok(valor));
+			}
+			Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+			if (causa instanceof TimeoutException) {
+				// A leitura continua na thread dela até o banco responder ao cancelamento
+				execucao.cancelar();
+				logger.warn("Dashboard section {} timed out after {} ms", nome, timeoutMs);
+				return registrar(nome, inicio, Secao.falha(Dashboard.Status.TIMEOUT));
+			}
+			logger.warn("Dashboard section {} failed: {}", nome, causa.toString());
+			return registrar(nome, inicio, Secao.falha(Dashboard.Status.ERRO));
+		});
+	}
+
+	private <T> Secao<T> registrar(String nome, long inicio, Secao<T> secao) {
+		Timer.builder("algamoney.dashboard.secao")
+				.tag("secao", nome)
+				.tag("status", secao.getStatus().name().toLowerCase())
+				.register(meterRegistry)
+				.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+		return secao;
+	}
+
+	@PreDestroy
+	public void finalizar() {
+		executor.shutdownNow();
+	}
+
+}
@@ -1,39 +1,236 @@
 package com.example.algamoney.api.service;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.algamoney.api.dto.RemocaoLancamentos;
+import com.example.algamoney.api.dto.SerieLancamentos;
+import com.example.algamoney.api.event.Operacao;
+import com.example.algamoney.api.event.TipoRecurso;
+import com.example.algamoney.api.event.outbox.OutboxEventos;
 import com.example.algamoney.api.model.Lancamento;
 import com.example.algamoney.api.model.Pessoa;
 import com.example.algamoney.api.repository.LancamentoRepository;
 import com.example.algamoney.api.repository.PessoaRepository;
+import com.example.algamoney.api.repository.filter.LancamentoFilter;
 import com.example.algamoney.api.service.exception.PessoaInexistenteOuInativaException;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Service
 public class LancamentoService {
 
+	private static final Logger logger = LoggerFactory.getLogger(LancamentoService.class);
+
+	private static final String INSERT_LANCAMENTO = "INSERT INTO lancamento (descricao, data_vencimento, data_pagamento,"
+			+ " valor, observacao, tipo, codigo_categoria, codigo_pessoa, codigo_serie) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
 	@Autowired
 	private PessoaRepository pessoaRepository;
 
 	@Autowired
 	private LancamentoRepository lancamentoRepository;
 
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private OutboxEventos outboxEventos;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Transactional
 	public Lancamento salvar(Lancamento lancamento) {
 		validarPessoa(lancamento);
 
-		return lancamentoRepository.save(lancamento);
+		Lancamento lancamentoSalvo = lancamentoRepository.save(lancamento);
+		LocalDate vencimento = lancamentoSalvo.getDataVencimento();
+		outboxEventos.registrar(TipoRecurso.LANCAMENTO, lancamentoSalvo.getCodigo(), Operacao.CRIADO, vencimento, vencimento);
+		return lancamentoSalvo;
 	}
 
+	@Transactional
 	public Lancamento atualizar(Long codigo, Lancamento lancamento) {
 		Lancamento lancamentoSalvo = buscarLancamentoExistente(codigo);
 		if (!lancamento.getPessoa().equals(lancamentoSalvo.getPessoa())) {
 			validarPessoa(lancamento);
 		}
 
-		BeanUtils.copyProperties(lancamento, lancamentoSalvo, "codigo");
+		// O intervalo afetado cobre o vencimento antigo e o novo
+		LocalDate vencimentoAnterior = lancamentoSalvo.getDataVencimento();
+		BeanUtils.copyProperties(lancamento, lancamentoSalvo, "codigo", "codigoSerie");
+
+		lancamentoSalvo = lancamentoRepository.save(lancamentoSalvo);
+		LocalDate vencimento = lancamentoSalvo.getDataVencimento();
+		outboxEventos.registrar(TipoRecurso.LANCAMENTO, codigo, Operacao.ATUALIZADO,
+				vencimento.isBefore(vencimentoAnterior) ? vencimento : vencimentoAnterior,
+				vencimento.isAfter(vencimentoAnterior) ? vencimento : vencimentoAnterior);
+		return lancamentoSalvo;
+	}
+
+	// Remover um código que não existe (ou já removido) continua sendo 204, como o deleteById
+	@Transactional
+	public void remover(Long codigo) {
+		lancamentoRepository.findById(codigo).ifPresent(lancamentoSalvo -> {
+			lancamentoRepository.delete(lancamentoSalvo);
+			LocalDate vencimento = lancamentoSalvo.getDataVencimento();
+			outboxEventos.registrar(TipoRecurso.LANCAMENTO, codigo, Operacao.REMOVIDO, vencimento, vencimento);
+		});
+	}
+
+	/**
+	 * Gera todas as parcelas/ocorrências de uma série numa única transação.
+	 *
+	 * A pessoa é validada uma vez e as linhas vão num único batch JDBC
+	 * (IDENTITY impede o batch de inserts do Hibernate); a série é relida
+	 * com uma consulta para devolver os códigos gerados.
+	 */
+	@Transactional
+	public List<Lancamento> salvarSerie(SerieLancamentos serie) {
+		Lancamento modelo = serie.getLancamento();
+		validarPessoa(modelo);
+
+		String codigoSerie = UUID.randomUUID().toString();
+		int quantidade = serie.getQuantidade();
+		BigDecimal valor = modelo.getValor();
+		BigDecimal diferenca = BigDecimal.ZERO;
+		if (serie.isDividirValor()) {
+			BigDecimal total = modelo.getValor();
+			valor = total.divide(BigDecimal.valueOf(quantidade), 2, RoundingMode.DOWN);
+			diferenca = total.subtract(valor.multiply(BigDecimal.valueOf(quantidade)));
+		}
+
+		List<Object[]> linhas = new ArrayList<>(quantidade);
+		for (int i = 0; i < quantidade; i++) {
+			linhas.add(new Object[] {
+				modelo.getDescricao(),
+				serie.getPeriodicidade().ocorrencia(modelo.getDataVencimento(), i),
+				i == 0 ? modelo.getDataPagamento() : null,
+				i == 0 ? valor.add(diferenca) : valor,
+				modelo.getObservacao(),
+				modelo.getTipo().name(),
+				modelo.getCategoria().getCodigo(),
+				modelo.getPessoa().getCodigo(),
+				codigoSerie
+			});
+		}
+		jdbcTemplate.batchUpdate(INSERT_LANCAMENTO, linhas);
+
+		List<Lancamento> lancamentosSalvos = lancamentoRepository.buscarPorSerie(codigoSerie);
+		registrarSerie(lancamentosSalvos, Operacao.CRIADO);
+		return lancamentosSalvos;
+	}
+
+	/**
+	 * Aplica descrição, observação, tipo, categoria e pessoa do modelo a todos os
+	 * lançamentos da série com um único UPDATE. Datas e valores são preservados.
+	 */
+	@Transactional
+	public List<Lancamento> atualizarSerie(String codigoSerie, Lancamento modelo) {
+		validarPessoa(modelo);
+
+		int atualizados = lancamentoRepository.atualizarSerie(codigoSerie, modelo.getDescricao(),
+				modelo.getObservacao(), modelo.getTipo(), modelo.getCategoria(), modelo.getPessoa());
+		if (atualizados == 0) {
+			throw new EmptyResultDataAccessException(1);
+		}
+
+		List<Lancamento> lancamentosSalvos = lancamentoRepository.buscarPorSerie(codigoSerie);
+		registrarSerie(lancamentosSalvos, Operacao.ATUALIZADO);
+		return lancamentosSalvos;
+	}
+
+	@Transactional
+	public void removerSerie(String codigoSerie) {
+		List<Lancamento> lancamentos = lancamentoRepository.buscarPorSerie(codigoSerie);
+		if (lancamentos.isEmpty()) {
+			throw new EmptyResultDataAccessException(1);
+		}
+
+		lancamentoRepository.removerPorCodigos(codigos(lancamentos));
+		registrarSerie(lancamentos, Operacao.REMOVIDO);
+	}
+
+	/**
+	 * Remove os lançamentos do filtro em lotes ordenados pela chave primária.
+	 *
+	 * Cada lote (SELECT dos códigos + DELETE ... IN) roda e faz commit na própria
+	 * transação, então os locks do InnoDB ficam presos só pelo tempo de um lote.
+	 * Com simular = true apenas conta quantos registros seriam removidos.
+	 *
+	 * O progresso de uma remoção em andamento aparece nos contadores
+	 * algamoney.lancamentos.remocao.removidos e algamoney.lancamentos.remocao.lotes,
+	 * incrementados a cada commit.
+	 */
+	public RemocaoLancamentos removerPorFiltro(LancamentoFilter lancamentoFilter, int tamanhoLote, boolean simular) {
+		if (lancamentoFilter.isVazio()) {
+			throw new IllegalArgumentException("Informe ao menos um critério para remover lançamentos em lote");
+		}
+
+		if (simular) {
+			return new RemocaoLancamentos(true, lancamentoRepository.contar(lancamentoFilter), 0);
+		}
+
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		long removidos = 0;
+		int lotes = 0;
+		Long ultimoCodigo = 0L;
+
+		while (true) {
+			Long codigoInicial = ultimoCodigo;
+			List<Long> codigos = transactionTemplate.execute(status -> {
+				List<Long> lote = lancamentoRepository.codigosPorFiltro(lancamentoFilter, codigoInicial, tamanhoLote);
+				if (!lote.isEmpty()) {
+					lancamentoRepository.removerPorCodigos(lote);
+					outboxEventos.registrar(TipoRecurso.LANCAMENTO, lote, Operacao.REMOVIDO,
+							lancamentoFilter.getDataVencimentoDe(), lancamentoFilter.getDataVencimentoAte());
+				}
+				return lote;
+			});
+
+			if (codigos.isEmpty()) {
+				break;
+			}
+
+			lotes++;
+			removidos += codigos.size();
+			ultimoCodigo = codigos.get(codigos.size() - 1);
+			meterRegistry.counter("algamoney.lancamentos.remocao.removidos").increment(codigos.size());
+			meterRegistry.counter("algamoney.lancamentos.remocao.lotes").increment();
+			logger.info("Remoção em lote de lançamentos: lote {} concluído, {} removidos até o código {}",
+					lotes, removidos, ultimoCodigo);
+		}
+
+		return new RemocaoLancamentos(false, removidos, lotes);
+	}
+
+	private static List<Long> codigos(List<Lancamento> lancamentos) {
+		return lancamentos.stream().map(Lancamento::getCodigo).toList();
+	}
 
-		return lancamentoRepository.save(lancamentoSalvo);
+	// buscarPorSerie devolve a série ordenada por vencimento
+	private void registrarSerie(List<Lancamento> lancamentos, Operacao operacao) {
+		outboxEventos.registrar(TipoRecurso.LANCAMENTO, codigos(lancamentos), operacao,
+				lancamentos.get(0).getDataVencimento(), lancamentos.get(lancamentos.size() - 1).getDataVencimento());
 	}
 
 	private void validarPessoa(Lancamento lancamento) {
@@ -52,4 +249,4 @@ public class LancamentoService {
 				.orElseThrow(IllegalArgumentException::new);
 	}
 
-}
\ No newline at end of file
+}
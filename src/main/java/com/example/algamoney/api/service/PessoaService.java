@@ -1,35 +1,128 @@
 package com.example.algamoney.api.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.algamoney.api.event.Operacao;
+import com.example.algamoney.api.event.TipoRecurso;
+import com.example.algamoney.api.event.outbox.OutboxEventos;
 import com.example.algamoney.api.model.Pessoa;
 import com.example.algamoney.api.repository.PessoaRepository;
 
 @Service
 public class PessoaService {
 	
+	// Quantidade de códigos por comando (IN) nas operações em lote
+	private static final int TAMANHO_LOTE = 500;
+
 	@Autowired
 	private PessoaRepository pessoaRepository;
 
+	@Autowired
+	private OutboxEventos outboxEventos;
+
+	@Transactional
+	public Pessoa salvar(Pessoa pessoa) {
+		Pessoa pessoaSalva = pessoaRepository.save(pessoa);
+		outboxEventos.registrar(TipoRecurso.PESSOA, pessoaSalva.getCodigo(), Operacao.CRIADO);
+		return pessoaSalva;
+	}
+
+	@Transactional
 	public Pessoa atualizar(Long codigo, Pessoa pessoa) {
 		Pessoa pessoaSalva = buscarPessoaPeloCodigo(codigo);
 		
 		BeanUtils.copyProperties(pessoa, pessoaSalva, "codigo");
-		return pessoaRepository.save(pessoaSalva);
+		pessoaSalva = pessoaRepository.save(pessoaSalva);
+		outboxEventos.registrar(TipoRecurso.PESSOA, codigo, Operacao.ATUALIZADO);
+		return pessoaSalva;
 	}
 
+	@Transactional
+	public void remover(Long codigo) {
+		Pessoa pessoaSalva = buscarPessoaPeloCodigo(codigo);
+		pessoaRepository.delete(pessoaSalva);
+		outboxEventos.registrar(TipoRecurso.PESSOA, codigo, Operacao.REMOVIDO);
+	}
+
+	/**
+	 * Atualiza várias pessoas na mesma transação: um SELECT ... IN por lote e
+	 * os UPDATEs enviados em batch JDBC no flush.
+	 */
+	@Transactional
+	public List<Pessoa> atualizar(List<Pessoa> pessoas) {
+		Map<Long, Pessoa> alteracoes = new LinkedHashMap<>();
+		for (Pessoa pessoa : pessoas) {
+			if (pessoa.getCodigo() == null) {
+				throw new EmptyResultDataAccessException(1);
+			}
+			alteracoes.put(pessoa.getCodigo(), pessoa);
+		}
+
+		List<Pessoa> pessoasSalvas = new ArrayList<>(alteracoes.size());
+		for (List<Long> lote : lotes(new ArrayList<>(alteracoes.keySet()))) {
+			List<Pessoa> encontradas = pessoaRepository.findAllById(lote);
+			if (encontradas.size() != lote.size()) {
+				throw new EmptyResultDataAccessException(lote.size());
+			}
+
+			for (Pessoa pessoaSalva : encontradas) {
+				BeanUtils.copyProperties(alteracoes.get(pessoaSalva.getCodigo()), pessoaSalva, "codigo");
+				pessoasSalvas.add(pessoaSalva);
+			}
+		}
+
+		outboxEventos.registrar(TipoRecurso.PESSOA, alteracoes.keySet(), Operacao.ATUALIZADO);
+		return pessoasSalvas;
+	}
+
+	@Transactional
 	public void atualizarPropriedadeAtivo(Long codigo, Boolean ativo) {
 		Pessoa pessoaSalva = buscarPessoaPeloCodigo(codigo);
 		pessoaSalva.setAtivo(ativo);
 		pessoaRepository.save(pessoaSalva);
+		outboxEventos.registrar(TipoRecurso.PESSOA, codigo, Operacao.ATUALIZADO);
+	}
+
+	/**
+	 * Ativa/desativa várias pessoas com um UPDATE ... IN por lote.
+	 * Se algum código não existir, nada é alterado.
+	 */
+	@Transactional
+	public void atualizarPropriedadeAtivo(List<Long> codigos, Boolean ativo) {
+		List<Long> distintos = codigos.stream().distinct().toList();
+
+		int atualizadas = 0;
+		for (List<Long> lote : lotes(distintos)) {
+			atualizadas += pessoaRepository.atualizarAtivo(lote, ativo);
+		}
+
+		if (atualizadas != distintos.size()) {
+			throw new EmptyResultDataAccessException(distintos.size());
+		}
+
+		outboxEventos.registrar(TipoRecurso.PESSOA, distintos, Operacao.ATUALIZADO);
 	}
 	
 	public Pessoa buscarPessoaPeloCodigo(Long codigo) {
 		return pessoaRepository.findById(codigo)
 				.orElseThrow(() -> new EmptyResultDataAccessException(1));
 	}
+
+	private static List<List<Long>> lotes(List<Long> codigos) {
+		List<List<Long>> lotes = new ArrayList<>();
+		for (int inicio = 0; inicio < codigos.size(); inicio += TAMANHO_LOTE) {
+			lotes.add(codigos.subList(inicio, Math.min(inicio + TAMANHO_LOTE, codigos.size())));
+		}
+		return lotes;
+	}
 	
 }
@@ -0,0 +1,11 @@
+package com.example.algamoney.api.service.exception;
+
+public class CampoInexistenteException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public CampoInexistenteException(String campo) {
+		super(campo);
+	}
+
+}
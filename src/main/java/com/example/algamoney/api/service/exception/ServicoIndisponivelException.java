@@ -0,0 +1,11 @@
+package com.example.algamoney.api.service.exception;
+
+public class ServicoIndisponivelException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public ServicoIndisponivelException(String recurso, Throwable causa) {
+		super(recurso, causa);
+	}
+
+}
@@ -2,11 +2,7 @@ package com.example.algamoney.api.token;
 
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.stream.Collectors;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -14,10 +10,13 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.algamoney.api.security.CatalogoPermissoes;
+import com.example.algamoney.api.security.Escopo;
+import com.example.algamoney.api.security.Permissoes;
+import com.example.algamoney.api.security.PermissoesAuthentication;
+import com.example.algamoney.api.security.TokensRevogados;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -26,77 +25,40 @@ import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Filtro para validar JWT tokens em cada requisição
- * Extrai o token do header Authorization e valida usando a secret key configurada
+ * Extrai o token do header Authorization e valida pelo VerificadorJwt
  *
  * SECURITY: Este filtro é um Spring Component para permitir injeção de dependências
- * O secret do JWT é injetado via @Value do application.properties
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
-    private static final String HEADER = "Authorization";
-    private static final String PREFIX = "Bearer ";
 
-    // PERFORMANCE: Reusar Algorithm object ao invés de recriar a cada request
-    private final Algorithm algorithm;
-    private final String issuer;
-    private final String audience;
+    private final VerificadorJwt verificadorJwt;
+    private final CatalogoPermissoes catalogoPermissoes;
+    private final TokensRevogados tokensRevogados;
 
-    // FIX: Constructor injection para otimizar criação do Algorithm
+    // FIX: Constructor injection; o JWTVerifier é criado uma vez no VerificadorJwt
     public JwtAuthenticationFilter(
-            @Value("${algamoney.jwt.secret}") String secret,
-            @Value("${algamoney.jwt.issuer}") String issuer,
-            @Value("${algamoney.jwt.audience}") String audience) {
-        this.algorithm = Algorithm.HMAC256(secret);
-        this.issuer = issuer;
-        this.audience = audience;
+            VerificadorJwt verificadorJwt,
+            CatalogoPermissoes catalogoPermissoes,
+            TokensRevogados tokensRevogados) {
+        this.verificadorJwt = verificadorJwt;
+        this.catalogoPermissoes = catalogoPermissoes;
+        this.tokensRevogados = tokensRevogados;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
-        String header = request.getHeader(HEADER);
-
-        if (header == null || !header.startsWith(PREFIX)) {
-            chain.doFilter(request, response);
-            return;
-        }
-
-        String token = header.replace(PREFIX, "");
-
         try {
             // Verificar e decodificar o token com validação de issuer e audience
-            DecodedJWT decodedJWT = JWT.require(algorithm)
-                .withIssuer(issuer)
-                .withAudience(audience)
-                .build()
-                .verify(token);
-
-            String username = decodedJWT.getSubject();
-
-            // FIX: Proteção contra null pointer - se authorities for null, usa array vazio
-            String[] authorities = decodedJWT.getClaim("authorities").asArray(String.class);
-            if (authorities == null) {
-                authorities = new String[0];
-                logger.warn("Token for user '{}' has no authorities claim", username);
+            // (reaproveita a verificação já feita pelo RateLimitFilter nesta requisição)
+            DecodedJWT decodedJWT = verificadorJwt.verificar(request);
+            if (decodedJWT != null) {
+                autenticar(decodedJWT);
             }
-
-            // Criar autenticação
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                username,
-                null,
-                Arrays.stream(authorities)
-                    .map(SimpleGrantedAuthority::new)
-                    .collect(Collectors.toList())
-            );
-
-            // Setar no contexto de segurança
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-
-            logger.debug("JWT authentication successful for user: {}", username);
-
         } catch (JWTVerificationException e) {
             // FIX: Log específico para erros de validação JWT
             // Token inválido, expirado, assinatura incorreta, issuer/audience inválidos, etc.
@@ -111,4 +73,56 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         chain.doFilter(request, response);
     }
+
+    private void autenticar(DecodedJWT decodedJWT) {
+        String username = decodedJWT.getSubject();
+
+        // PERFORMANCE: consulta só memória (filtro de Bloom); tokens sem jti são anteriores à revogação
+        String jti = decodedJWT.getId();
+        if (jti != null && tokensRevogados.revogado(jti)) {
+            logger.warn("Revoked token used for user: {}", username);
+            return;
+        }
+
+        Permissoes permissoes = permissoes(decodedJWT, username);
+
+        if (permissoes != null) {
+            // PERFORMANCE: bitset imutável; a lista de GrantedAuthority só é criada se alguém pedir
+            SecurityContextHolder.getContext().setAuthentication(
+                new PermissoesAuthentication(username, permissoes, escopos(decodedJWT), catalogoPermissoes));
+            logger.debug("JWT authentication successful for user: {}", username);
+        }
+    }
+
+    /**
+     * Tokens emitidos antes do claim scope sempre tinham "read write".
+     */
+    private int escopos(DecodedJWT decodedJWT) {
+        String scope = decodedJWT.getClaim(TokenController.CLAIM_ESCOPO).asString();
+        return scope == null ? Escopo.TODOS : Escopo.mascara(scope);
+    }
+
+    /**
+     * Lê o bitset compacto (claims perm/perm_v) ou, para tokens emitidos antes dele,
+     * a lista authorities. Retorna null se o bitset foi gerado com outro mapeamento.
+     */
+    private Permissoes permissoes(DecodedJWT decodedJWT, String username) {
+        String bits = decodedJWT.getClaim(TokenController.CLAIM_PERMISSOES).asString();
+        if (bits != null) {
+            Integer versao = decodedJWT.getClaim(TokenController.CLAIM_VERSAO_PERMISSOES).asInt();
+            if (versao == null || versao != catalogoPermissoes.getVersao()) {
+                logger.warn("Token for user '{}' has permissions from another mapping version", username);
+                return null;
+            }
+            return Permissoes.decodificar(bits);
+        }
+
+        // FIX: Proteção contra null pointer - se authorities for null, usa array vazio
+        String[] authorities = decodedJWT.getClaim("authorities").asArray(String.class);
+        if (authorities == null) {
+            logger.warn("Token for user '{}' has no authorities claim", username);
+            return Permissoes.NENHUMA;
+        }
+        return catalogoPermissoes.permissoes(Arrays.asList(authorities));
+    }
 }
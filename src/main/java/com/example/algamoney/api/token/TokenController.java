@@ -4,6 +4,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -26,7 +27,14 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.algamoney.api.query.QueryBudget;
+import com.example.algamoney.api.security.CatalogoPermissoes;
+import com.example.algamoney.api.security.Escopo;
+import com.example.algamoney.api.security.TokensRevogados;
 import com.example.algamoney.api.security.UsuarioSistema;
 
 /**
@@ -42,6 +50,10 @@ import com.example.algamoney.api.security.UsuarioSistema;
  * - Authorities como List em vez de String separada por vírgulas
  * - Nome real do usuário em vez de username/email
  * - Constructor injection (imutabilidade)
+ * - Permissões como bitset versionado (claims perm/perm_v); a lista authorities só
+ *   vai no token com algamoney.jwt.incluir-authorities=true
+ * - Claim scope com os escopos concedidos, checados por @Autorizacao nos resources
+ * - Claim jti para revogação antes da expiração (POST /oauth/revoke)
  */
 @RestController
 @RequestMapping("/oauth")
@@ -49,12 +61,18 @@ import com.example.algamoney.api.security.UsuarioSistema;
 public class TokenController {
 
     private static final Logger logger = LoggerFactory.getLogger(TokenController.class);
+
+    static final String CLAIM_PERMISSOES = "perm";
+    static final String CLAIM_VERSAO_PERMISSOES = "perm_v";
+    static final String CLAIM_ESCOPO = "scope";
     private static final int MILLISECONDS_PER_SECOND = 1000;
 
     // Limites de tamanho para prevenir DoS
     private static final int MAX_USERNAME_LENGTH = 255;
     private static final int MAX_PASSWORD_LENGTH = 100;
     private static final int MAX_GRANT_TYPE_LENGTH = 50;
+    private static final int MAX_SCOPE_LENGTH = 50;
+    private static final int MAX_TOKEN_LENGTH = 4096;
 
     // FIX: Constructor injection com final fields
     private final AuthenticationManager authenticationManager;
@@ -62,14 +80,26 @@ public class TokenController {
     private final long expirationTime;
     private final String issuer;
     private final String audience;
+    private final CatalogoPermissoes catalogoPermissoes;
+    private final boolean incluirAuthorities;
+    private final TokensRevogados tokensRevogados;
+    private final VerificadorJwt verificadorJwt;
 
     public TokenController(
             AuthenticationManager authenticationManager,
+            CatalogoPermissoes catalogoPermissoes,
+            TokensRevogados tokensRevogados,
+            VerificadorJwt verificadorJwt,
+            @Value("${algamoney.jwt.incluir-authorities:false}") boolean incluirAuthorities,
             @Value("${algamoney.jwt.secret}") String secret,
             @Value("${algamoney.jwt.expiration-time-ms:1800000}") long expirationTime,
             @Value("${algamoney.jwt.issuer}") String issuer,
             @Value("${algamoney.jwt.audience}") String audience) {
         this.authenticationManager = authenticationManager;
+        this.catalogoPermissoes = catalogoPermissoes;
+        this.tokensRevogados = tokensRevogados;
+        this.verificadorJwt = verificadorJwt;
+        this.incluirAuthorities = incluirAuthorities;
         this.algorithm = Algorithm.HMAC256(secret); // Criar uma vez no construtor
         this.expirationTime = expirationTime;
         this.issuer = issuer;
@@ -77,6 +107,7 @@ public class TokenController {
     }
 
     @PostMapping("/token")
+    @QueryBudget(2)
     public ResponseEntity<?> token(
             @RequestParam("username")
             @NotBlank(message = "Username is required")
@@ -91,7 +122,12 @@ public class TokenController {
             @RequestParam("grant_type")
             @NotBlank(message = "Grant type is required")
             @Size(max = MAX_GRANT_TYPE_LENGTH, message = "Grant type too long")
-            String grantType) {
+            String grantType,
+
+            // Opcional: o cliente pode pedir menos que "read write"
+            @RequestParam(name = "scope", required = false)
+            @Size(max = MAX_SCOPE_LENGTH, message = "Scope too long")
+            String scope) {
 
         // FIX: Sanitizar username para prevenir log injection
         String sanitizedUsername = username.replaceAll("[\n\r\t]", "_");
@@ -105,6 +141,15 @@ public class TokenController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         }
 
+        int escopos = scope == null ? Escopo.TODOS : Escopo.mascara(scope);
+        if (escopos == 0) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "invalid_scope");
+            error.put("error_description", "Scope not supported: " + scope);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        String escopoConcedido = Escopo.nomes(escopos);
+
         try {
             // Autenticar usando Spring Security
             Authentication authentication = authenticationManager.authenticate(
@@ -124,16 +169,23 @@ public class TokenController {
             }
 
             // Gerar JWT token com issuer, audience e melhor estrutura
-            String token = JWT.create()
+            JWTCreator.Builder builder = JWT.create()
                 .withIssuer(issuer)
                 .withAudience(audience)
                 .withSubject(username)
+                .withJWTId(UUID.randomUUID().toString())
                 .withClaim("user_name", username)
-                .withClaim("authorities", authorities)
+                .withClaim(CLAIM_PERMISSOES, catalogoPermissoes.permissoes(authorities).codificar())
+                .withClaim(CLAIM_VERSAO_PERMISSOES, catalogoPermissoes.getVersao())
+                .withClaim(CLAIM_ESCOPO, escopoConcedido)
                 .withClaim("nome", nomeUsuario)
                 .withIssuedAt(new Date())
-                .withExpiresAt(new Date(System.currentTimeMillis() + expirationTime))
-                .sign(algorithm);
+                .withExpiresAt(new Date(System.currentTimeMillis() + expirationTime));
+            if (incluirAuthorities) {
+                // Compatibilidade com front-ends que leem os nomes ROLE_* do token
+                builder.withClaim("authorities", authorities);
+            }
+            String token = builder.sign(algorithm);
 
             logger.info("Token generated successfully for user: {} with {} authorities",
                        sanitizedUsername, authorities.size());
@@ -143,7 +195,7 @@ public class TokenController {
             response.put("access_token", token);
             response.put("token_type", "bearer");
             response.put("expires_in", expirationTime / MILLISECONDS_PER_SECOND);
-            response.put("scope", "read write");
+            response.put("scope", escopoConcedido);
 
             return ResponseEntity.ok(response);
 
@@ -161,4 +213,30 @@ public class TokenController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
+
+    /**
+     * Revogação no formato da RFC 7009: responde 200 também para token inválido ou já
+     * expirado, que não precisam ser revogados.
+     */
+    @PostMapping("/revoke")
+    @QueryBudget(2)
+    public ResponseEntity<Void> revoke(
+            @RequestParam("token")
+            @NotBlank(message = "Token is required")
+            @Size(max = MAX_TOKEN_LENGTH, message = "Token too long")
+            String token) {
+        try {
+            DecodedJWT decodedJWT = verificadorJwt.verificar(token);
+
+            if (decodedJWT.getId() == null) {
+                logger.warn("Token without jti cannot be revoked, user: {}", decodedJWT.getSubject());
+            } else {
+                tokensRevogados.revogar(decodedJWT.getId(), decodedJWT.getExpiresAtAsInstant());
+                logger.info("Token revoked for user: {}", decodedJWT.getSubject());
+            }
+        } catch (JWTVerificationException e) {
+            logger.debug("Ignoring revocation of invalid token: {}", e.getMessage());
+        }
+        return ResponseEntity.ok().build();
+    }
 }
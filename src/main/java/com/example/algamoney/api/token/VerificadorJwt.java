@@ -0,0 +1,73 @@
+package com.example.algamoney.api.token;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Verificação do JWT (assinatura, issuer, audience e expiração) compartilhada pelos filtros.
+ *
+ * O resultado fica em um atributo da requisição: o RateLimitFilter verifica o token para
+ * usar o subject como chave e o JwtAuthenticationFilter reaproveita, sem verificar duas vezes.
+ */
+@Component
+public class VerificadorJwt {
+
+    private static final String ATRIBUTO = VerificadorJwt.class.getName() + ".RESULTADO";
+    private static final String HEADER = "Authorization";
+    private static final String PREFIX = "Bearer ";
+    private static final Object SEM_TOKEN = new Object();
+
+    // PERFORMANCE: JWTVerifier é imutável e thread-safe, criado uma vez
+    private final JWTVerifier verifier;
+
+    public VerificadorJwt(
+            @Value("${algamoney.jwt.secret}") String secret,
+            @Value("${algamoney.jwt.issuer}") String issuer,
+            @Value("${algamoney.jwt.audience}") String audience) {
+        this.verifier = JWT.require(Algorithm.HMAC256(secret))
+            .withIssuer(issuer)
+            .withAudience(audience)
+            .build();
+    }
+
+    public DecodedJWT verificar(String token) throws JWTVerificationException {
+        return verifier.verify(token);
+    }
+
+    /**
+     * Token Bearer da requisição, verificado uma única vez por requisição.
+     *
+     * @return null se não houver header Authorization Bearer
+     * @throws JWTVerificationException se o token for inválido (a mesma a cada chamada)
+     */
+    public DecodedJWT verificar(HttpServletRequest request) throws JWTVerificationException {
+        Object resultado = request.getAttribute(ATRIBUTO);
+        if (resultado == null) {
+            resultado = verificarHeader(request.getHeader(HEADER));
+            request.setAttribute(ATRIBUTO, resultado);
+        }
+        if (resultado instanceof JWTVerificationException) {
+            throw (JWTVerificationException) resultado;
+        }
+        return resultado == SEM_TOKEN ? null : (DecodedJWT) resultado;
+    }
+
+    private Object verificarHeader(String header) {
+        if (header == null || !header.startsWith(PREFIX)) {
+            return SEM_TOKEN;
+        }
+        try {
+            return verifier.verify(header.substring(PREFIX.length()));
+        } catch (JWTVerificationException e) {
+            return e;
+        }
+    }
+}
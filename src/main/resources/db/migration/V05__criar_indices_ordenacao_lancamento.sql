@@ -0,0 +1,7 @@
+-- Só a coluna: o InnoDB já acrescenta a chave primária (codigo) ao fim de todo índice secundário
+CREATE INDEX idx_lancamento_data_vencimento ON lancamento (data_vencimento);
+CREATE INDEX idx_lancamento_valor ON lancamento (valor);
+CREATE INDEX idx_lancamento_descricao ON lancamento (descricao);
+
+CREATE INDEX idx_categoria_nome ON categoria (nome);
+CREATE INDEX idx_pessoa_nome ON pessoa (nome);
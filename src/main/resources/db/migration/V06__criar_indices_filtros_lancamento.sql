@@ -0,0 +1,7 @@
+-- data_pagamento na frente atende "pendente" (IS NULL), faixas de pagamento e,
+-- combinado com data_vencimento, a busca de vencidos sem pagamento
+CREATE INDEX idx_lancamento_pagamento_vencimento ON lancamento (data_pagamento, data_vencimento);
+
+CREATE INDEX idx_lancamento_pessoa_vencimento ON lancamento (codigo_pessoa, data_vencimento);
+CREATE INDEX idx_lancamento_categoria_vencimento ON lancamento (codigo_categoria, data_vencimento);
+CREATE INDEX idx_lancamento_tipo_vencimento ON lancamento (tipo, data_vencimento);
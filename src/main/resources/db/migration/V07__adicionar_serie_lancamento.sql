@@ -0,0 +1,3 @@
+ALTER TABLE lancamento ADD COLUMN codigo_serie VARCHAR(36);
+
+CREATE INDEX idx_lancamento_serie ON lancamento (codigo_serie);
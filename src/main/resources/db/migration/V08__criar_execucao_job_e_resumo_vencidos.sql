@@ -0,0 +1,26 @@
+CREATE TABLE execucao_job (
+	codigo BIGINT(20) PRIMARY KEY AUTO_INCREMENT,
+	nome VARCHAR(50) NOT NULL,
+	data_referencia DATE NOT NULL,
+	status VARCHAR(20) NOT NULL,
+	-- Incrementada a cada instância que assume a execução; checkpoint só grava com a versão assumida
+	versao BIGINT(20) NOT NULL DEFAULT 0,
+	ultima_data_vencimento DATE,
+	ultimo_codigo BIGINT(20),
+	processados BIGINT(20) NOT NULL,
+	iniciada_em DATETIME NOT NULL,
+	atualizada_em DATETIME NOT NULL,
+	finalizada_em DATETIME,
+	UNIQUE KEY uk_execucao_job_nome_data (nome, data_referencia)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+CREATE TABLE resumo_vencidos (
+	codigo_execucao BIGINT(20) NOT NULL,
+	codigo_pessoa BIGINT(20) NOT NULL,
+	quantidade BIGINT(20) NOT NULL,
+	valor_total DECIMAL(14,2) NOT NULL,
+	vencimento_mais_antigo DATE NOT NULL,
+	PRIMARY KEY (codigo_execucao, codigo_pessoa),
+	FOREIGN KEY (codigo_execucao) REFERENCES execucao_job(codigo),
+	FOREIGN KEY (codigo_pessoa) REFERENCES pessoa(codigo)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
@@ -0,0 +1,11 @@
+CREATE TABLE evento_outbox (
+	codigo BIGINT(20) PRIMARY KEY AUTO_INCREMENT,
+	tipo_recurso VARCHAR(20) NOT NULL,
+	codigo_recurso BIGINT(20) NOT NULL,
+	operacao VARCHAR(20) NOT NULL,
+	criado_em DATETIME(3) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- Sem despacho central: cada instância lê o outbox pela sua marca d'água (codigo > marca,
+-- na ordem da chave primária) e a limpeza é por criado_em
+CREATE INDEX idx_evento_outbox_criado_em ON evento_outbox (criado_em);
@@ -0,0 +1,5 @@
+-- Intervalo de datas afetado pelo evento (data de vencimento, no caso de lançamentos).
+-- Nulo significa sem limite: quem invalida caches por intervalo trata como "tudo".
+ALTER TABLE evento_outbox
+	ADD COLUMN data_inicio DATE NULL,
+	ADD COLUMN data_fim DATE NULL;
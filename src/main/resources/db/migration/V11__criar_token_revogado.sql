@@ -0,0 +1,11 @@
+CREATE TABLE token_revogado (
+	jti VARCHAR(36) PRIMARY KEY,
+	expira_em DATETIME(3) NOT NULL,
+	revogado_em DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- Leitura incremental pelas instancias (revogado_em >= ultimo visto - margem)
+CREATE INDEX idx_token_revogado_revogado_em ON token_revogado (revogado_em);
+
+-- Carga inicial e limpeza dos tokens ja expirados
+CREATE INDEX idx_token_revogado_expira_em ON token_revogado (expira_em);
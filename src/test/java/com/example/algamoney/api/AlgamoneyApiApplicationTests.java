@@ -1,10 +1,8 @@
 package com.example.algamoney.api;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class AlgamoneyApiApplicationTests {
+class AlgamoneyApiApplicationTests extends TesteIntegracao {
 
 	@Test
 	void contextLoads() {
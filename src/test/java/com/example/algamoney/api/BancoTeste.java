@@ -0,0 +1,48 @@
+package com.example.algamoney.api;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfiguration;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+
+/**
+ * MariaDB embutido compartilhado pelos testes de integração, iniciado uma vez por JVM
+ * numa porta livre. Os contextos Spring que apontam para ele (inclusive dois ao mesmo
+ * tempo, como duas instâncias da API) usam o mesmo banco, com as migrations do Flyway.
+ */
+public final class BancoTeste {
+
+	public static final String NOME = "algamoneyapi";
+
+	private static String url;
+
+	private BancoTeste() {
+	}
+
+	public static synchronized String url() {
+		if (url == null) {
+			url = iniciar();
+		}
+		return url;
+	}
+
+	private static String iniciar() {
+		DBConfigurationBuilder configuracao = DBConfigurationBuilder.newBuilder();
+		configuracao.setPort(0);
+		// Sem efeito fora do root; em containers de CI o mariadbd recusa subir como root sem ele
+		configuracao.addArg("--user=root");
+		configuracao.addArg("--character-set-server=utf8");
+		configuracao.addArg("--collation-server=utf8_general_ci");
+		DBConfiguration dbConfiguration = configuracao.build();
+		try {
+			DB banco = DB.newEmbeddedDB(dbConfiguration);
+			banco.start();
+		} catch (ManagedProcessException e) {
+			throw new IllegalStateException("Could not start embedded MariaDB", e);
+		}
+		// O banco é criado pelo driver, como na configuração da aplicação
+		return "jdbc:mysql://localhost:" + dbConfiguration.getPort() + "/" + NOME
+				+ "?createDatabaseIfNotExist=true&useSSL=false&allowPublicKeyRetrieval=true";
+	}
+
+}
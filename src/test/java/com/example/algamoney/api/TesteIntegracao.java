@@ -0,0 +1,24 @@
+package com.example.algamoney.api;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Base dos testes com a aplicação inteira contra o {@link BancoTeste}. Todas as
+ * subclasses compartilham o mesmo contexto Spring (e o mesmo banco): cada teste cria os
+ * registros que altera em vez de depender da ordem de execução.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({ "basic-security", "teste" })
+public abstract class TesteIntegracao {
+
+	@DynamicPropertySource
+	static void banco(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", BancoTeste::url);
+	}
+
+}
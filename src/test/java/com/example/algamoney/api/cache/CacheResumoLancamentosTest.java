@@ -0,0 +1,206 @@
+package com.example.algamoney.api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.repository.filter.LancamentoFilter;
+import com.example.algamoney.api.repository.projection.ResumoLancamento;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Single-flight do cache de resumo: uma thread carrega presa numa trava enquanto as outras
+ * chegam, e só então a carga termina.
+ */
+class CacheResumoLancamentosTest {
+
+	private static final long ESPERA_SEGUNDOS = 5;
+
+	private final Pageable pageable = PageRequest.of(0, 10);
+	private final LancamentoFilter filtro = new LancamentoFilter()
+			.comVencimentoEntre(LocalDate.of(2017, 6, 1), LocalDate.of(2017, 6, 30));
+
+	private SimpleMeterRegistry registro;
+	private CacheResumoLancamentos cache;
+	private ExecutorService threads;
+
+	@BeforeEach
+	void preparar() {
+		registro = new SimpleMeterRegistry();
+		cache = new CacheResumoLancamentos(new AlgamoneyApiProperty(), registro);
+		threads = Executors.newCachedThreadPool();
+	}
+
+	@AfterEach
+	void encerrar() {
+		threads.shutdownNow();
+	}
+
+	@Test
+	void quemAguardaRecebeOResultadoDaCarga() throws Exception {
+		Page<ResumoLancamento> pagina = pagina();
+		CargaPresa carga = new CargaPresa(() -> pagina);
+
+		Future<Page<ResumoLancamento>> carregando = threads.submit(() -> cache.obter(filtro, pageable, carga));
+		carga.aguardarInicio();
+		Future<Page<ResumoLancamento>> aguardando = obterSemConsultar();
+		aguardarQuemEspera(1);
+
+		carga.liberar();
+		assertSame(pagina, carregando.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS));
+		assertSame(pagina, aguardando.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS));
+
+		assertSame(pagina, cache.obter(filtro, pageable, CacheResumoLancamentosTest::naoConsultar));
+		assertEquals(1, carga.chamadas.get());
+		assertEquals(1, contador("acerto"));
+	}
+
+	@Test
+	void erroDaCargaChegaAQuemAguarda() throws Exception {
+		IllegalStateException falha = new IllegalStateException("banco indisponível");
+		CargaPresa carga = new CargaPresa(() -> {
+			throw falha;
+		});
+
+		Future<Page<ResumoLancamento>> carregando = threads.submit(() -> cache.obter(filtro, pageable, carga));
+		carga.aguardarInicio();
+		Future<Page<ResumoLancamento>> aguardando = obterSemConsultar();
+		aguardarQuemEspera(1);
+
+		carga.liberar();
+		assertSame(falha, causa(carregando));
+		assertSame(falha, causa(aguardando));
+
+		// Nada guardado e nenhuma carga pendurada: a próxima chamada consulta de novo
+		Page<ResumoLancamento> pagina = pagina();
+		assertSame(pagina, cache.obter(filtro, pageable, () -> pagina));
+	}
+
+	@Test
+	void invalidacaoDuranteACargaNaoGuardaResultado() throws Exception {
+		Page<ResumoLancamento> pagina = pagina();
+		CargaPresa carga = new CargaPresa(() -> pagina);
+
+		Future<Page<ResumoLancamento>> carregando = threads.submit(() -> cache.obter(filtro, pageable, carga));
+		carga.aguardarInicio();
+		Future<Page<ResumoLancamento>> aguardando = obterSemConsultar();
+		aguardarQuemEspera(1);
+
+		cache.invalidar(LocalDate.of(2017, 6, 15), LocalDate.of(2017, 6, 15));
+		carga.liberar();
+
+		// Quem já estava na fila recebe a página lida, mas ela pode ser anterior ao commit
+		assertSame(pagina, carregando.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS));
+		assertSame(pagina, aguardando.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS));
+
+		AtomicInteger consultas = new AtomicInteger();
+		cache.obter(filtro, pageable, () -> {
+			consultas.incrementAndGet();
+			return pagina();
+		});
+		assertEquals(1, consultas.get());
+	}
+
+	@Test
+	void invalidacaoDeOutroPeriodoNaoAfetaACarga() throws Exception {
+		Page<ResumoLancamento> pagina = pagina();
+		CargaPresa carga = new CargaPresa(() -> pagina);
+
+		Future<Page<ResumoLancamento>> carregando = threads.submit(() -> cache.obter(filtro, pageable, carga));
+		carga.aguardarInicio();
+		cache.invalidar(LocalDate.of(2017, 7, 1), null);
+		carga.liberar();
+		assertSame(pagina, carregando.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS));
+
+		assertSame(pagina, cache.obter(filtro, pageable, CacheResumoLancamentosTest::naoConsultar));
+	}
+
+	private Future<Page<ResumoLancamento>> obterSemConsultar() {
+		return threads.submit(() -> cache.obter(filtro, pageable, CacheResumoLancamentosTest::naoConsultar));
+	}
+
+	private void aguardarQuemEspera(int quantidade) throws InterruptedException {
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(ESPERA_SEGUNDOS);
+		while (contador("aguardou") < quantidade) {
+			assertTrue(System.nanoTime() < limite, "ninguém aguardou a carga");
+			Thread.sleep(5);
+		}
+	}
+
+	private double contador(String resultado) {
+		return registro.get("algamoney.cache.resumo").tag("resultado", resultado).counter().count();
+	}
+
+	private static Throwable causa(Future<?> futuro) throws Exception {
+		return assertThrows(ExecutionException.class, () -> futuro.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS)).getCause();
+	}
+
+	private static Page<ResumoLancamento> pagina() {
+		return new PageImpl<>(List.of());
+	}
+
+	private static Page<ResumoLancamento> naoConsultar() {
+		return fail("consulta repetida: deveria ter aguardado a carga em andamento ou usado o cache");
+	}
+
+	// Consulta que avisa quando começou e só termina quando o teste liberar
+	private static final class CargaPresa implements Supplier<Page<ResumoLancamento>> {
+
+		private final CountDownLatch inicio = new CountDownLatch(1);
+		private final CountDownLatch liberacao = new CountDownLatch(1);
+		private final AtomicInteger chamadas = new AtomicInteger();
+		private final Supplier<Page<ResumoLancamento>> resultado;
+
+		private CargaPresa(Supplier<Page<ResumoLancamento>> resultado) {
+			this.resultado = resultado;
+		}
+
+		@Override
+		public Page<ResumoLancamento> get() {
+			chamadas.incrementAndGet();
+			inicio.countDown();
+			try {
+				if (!liberacao.await(ESPERA_SEGUNDOS, TimeUnit.SECONDS)) {
+					throw new IllegalStateException("carga não liberada");
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+			return resultado.get();
+		}
+
+		void aguardarInicio() throws InterruptedException {
+			assertTrue(inicio.await(ESPERA_SEGUNDOS, TimeUnit.SECONDS), "carga não começou");
+		}
+
+		void liberar() {
+			liberacao.countDown();
+		}
+
+	}
+
+}
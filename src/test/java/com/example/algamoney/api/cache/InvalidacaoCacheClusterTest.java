@@ -0,0 +1,176 @@
+package com.example.algamoney.api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.event.Operacao;
+import com.example.algamoney.api.event.TipoRecurso;
+import com.example.algamoney.api.event.outbox.MarcaDaguaOutbox;
+import com.example.algamoney.api.model.EventoOutbox;
+import com.example.algamoney.api.repository.EventoOutboxRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Marca d'água e lacunas sobre um evento_outbox em memória: cada evento é uma pessoa
+ * alterada (código do evento = código da pessoa), e o cache PESSOA mostra o que foi aplicado.
+ */
+class InvalidacaoCacheClusterTest {
+
+	private static final long INICIO = 1_000_000;
+
+	// Eventos já confirmados, por código
+	private final NavigableMap<Long, EventoOutbox> confirmados = new TreeMap<>();
+
+	private EventoOutboxRepository repositorio;
+	private Cache pessoas;
+	private InvalidacaoCacheCluster invalidacao;
+
+	@BeforeEach
+	void preparar() {
+		repositorio = mock(EventoOutboxRepository.class);
+		when(repositorio.ultimoCodigo()).thenAnswer(i -> confirmados.isEmpty() ? 0L : confirmados.lastKey());
+		when(repositorio.findByCodigoGreaterThanOrderByCodigo(anyLong(), any(Pageable.class))).thenAnswer(i -> {
+			Pageable pagina = i.getArgument(1);
+			return confirmados.tailMap(i.getArgument(0), false).values().stream().limit(pagina.getPageSize()).toList();
+		});
+		when(repositorio.findAllById(any())).thenAnswer(i -> {
+			List<EventoOutbox> encontrados = new ArrayList<>();
+			for (Long codigo : i.<Iterable<Long>>getArgument(0)) {
+				if (confirmados.containsKey(codigo)) {
+					encontrados.add(confirmados.get(codigo));
+				}
+			}
+			return encontrados;
+		});
+
+		ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(NomesCache.PESSOA);
+		pessoas = cacheManager.getCache(NomesCache.PESSOA);
+		invalidacao = new InvalidacaoCacheCluster(repositorio, cacheManager, mock(CacheResumoLancamentos.class),
+				new AlgamoneyApiProperty(), new SimpleMeterRegistry());
+
+		confirmar(10);
+		invalidacao.acompanhar(INICIO);
+	}
+
+	// 11 e 12 ainda não confirmados quando 13 aparece: 11 confirma depois e ainda é aplicado
+	@Test
+	void commitForaDeOrdemEAplicadoPelaLacuna() {
+		confirmar(13);
+		invalidacao.acompanhar(INICIO + 1000);
+		assertEquals(List.of(11L, 12L), lacunasRevisadas(INICIO + 2000));
+
+		cachear(11, 12);
+		confirmar(11);
+		invalidacao.acompanhar(INICIO + 3000);
+
+		assertNull(pessoas.get(11L));
+		assertNotNull(pessoas.get(12L));
+		assertEquals(List.of(12L), lacunasRevisadas(INICIO + 4000));
+	}
+
+	@Test
+	void lacunaExpiraComoRollback() {
+		confirmar(12);
+		invalidacao.acompanhar(INICIO + 1000);
+
+		assertEquals(List.of(11L), lacunasRevisadas(INICIO + 1000 + MarcaDaguaOutbox.LIMITE_LACUNA_MS));
+		assertEquals(List.of(11L), lacunasRevisadas(INICIO + 1001 + MarcaDaguaOutbox.LIMITE_LACUNA_MS));
+		assertEquals(List.of(), lacunasRevisadas(INICIO + 1002 + MarcaDaguaOutbox.LIMITE_LACUNA_MS));
+
+		// Confirmado tarde demais: a marca já passou e a lacuna foi descartada
+		cachear(11);
+		confirmar(11);
+		invalidacao.acompanhar(INICIO + 2000 + MarcaDaguaOutbox.LIMITE_LACUNA_MS);
+		assertNotNull(pessoas.get(11L));
+	}
+
+	@Test
+	void saltoNoLimiteEAcompanhado() {
+		long codigo = 10 + MarcaDaguaOutbox.MAXIMO_LACUNAS + 1;
+		confirmar(codigo);
+		invalidacao.acompanhar(INICIO + 1000);
+
+		assertEquals(MarcaDaguaOutbox.MAXIMO_LACUNAS, lacunasRevisadas(INICIO + 2000).size());
+	}
+
+	// Saltos maiores vêm de auto_increment_increment ou restart, não de transações em curso
+	@Test
+	void saltoAcimaDoLimiteNaoEAcompanhado() {
+		long codigo = 10 + MarcaDaguaOutbox.MAXIMO_LACUNAS + 2;
+		cachear(codigo);
+		confirmar(codigo);
+		invalidacao.acompanhar(INICIO + 1000);
+		invalidacao.acompanhar(INICIO + 2000);
+
+		assertNull(pessoas.get(codigo));
+		verify(repositorio, never()).findAllById(any());
+	}
+
+	// Eventos já vistos pela marca não voltam a ser consultados, mesmo com novas lacunas
+	@Test
+	void eventosEmOrdemNaoCriamLacunas() {
+		cachear(11, 12);
+		confirmar(11);
+		confirmar(12);
+		invalidacao.acompanhar(INICIO + 1000);
+		invalidacao.acompanhar(INICIO + 2000);
+
+		assertNull(pessoas.get(11L));
+		assertNull(pessoas.get(12L));
+		verify(repositorio, never()).findAllById(any());
+	}
+
+	// Roda um ciclo e devolve os códigos que ele foi conferir como lacuna
+	@SuppressWarnings("unchecked")
+	private List<Long> lacunasRevisadas(long agora) {
+		clearInvocations(repositorio);
+		invalidacao.acompanhar(agora);
+
+		ArgumentCaptor<Iterable<Long>> codigos = ArgumentCaptor.forClass(Iterable.class);
+		verify(repositorio, atMost(1)).findAllById(codigos.capture());
+		List<Long> revisadas = new ArrayList<>();
+		codigos.getAllValues().forEach(lote -> lote.forEach(revisadas::add));
+		revisadas.sort(null);
+		return revisadas;
+	}
+
+	private void cachear(long... codigos) {
+		for (long codigo : codigos) {
+			pessoas.put(codigo, "pessoa " + codigo);
+		}
+	}
+
+	private void confirmar(long codigo) {
+		EventoOutbox evento = new EventoOutbox();
+		ReflectionTestUtils.setField(evento, "codigo", codigo);
+		ReflectionTestUtils.setField(evento, "tipoRecurso", TipoRecurso.PESSOA);
+		ReflectionTestUtils.setField(evento, "codigoRecurso", codigo);
+		ReflectionTestUtils.setField(evento, "operacao", Operacao.CRIADO);
+		confirmados.put(codigo, evento);
+	}
+
+}
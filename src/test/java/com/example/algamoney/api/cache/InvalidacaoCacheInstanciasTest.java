@@ -0,0 +1,82 @@
+package com.example.algamoney.api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.algamoney.api.AlgamoneyApiApplication;
+import com.example.algamoney.api.BancoTeste;
+import com.example.algamoney.api.TesteIntegracao;
+import com.example.algamoney.api.model.Pessoa;
+import com.example.algamoney.api.repository.PessoaRepository;
+import com.example.algamoney.api.service.PessoaService;
+
+/**
+ * Duas instâncias contra o mesmo banco: a alteração feita no contexto do teste deve sumir
+ * do cache da outra instância dentro de algamoney.cache.intervalo-ms.
+ */
+class InvalidacaoCacheInstanciasTest extends TesteIntegracao {
+
+	// Duração de um ciclo de leitura do outbox, além do intervalo entre ciclos
+	private static final long TOLERANCIA_MS = 500;
+
+	@Autowired
+	private PessoaRepository pessoaRepository;
+
+	@Autowired
+	private PessoaService pessoaService;
+
+	@Value("${algamoney.cache.intervalo-ms}")
+	private long intervaloMs;
+
+	private ConfigurableApplicationContext outraInstancia;
+
+	@BeforeEach
+	void subirOutraInstancia() {
+		outraInstancia = new SpringApplicationBuilder(AlgamoneyApiApplication.class)
+				.profiles("basic-security", "teste")
+				.run("--spring.datasource.url=" + BancoTeste.url(), "--server.port=0", "--spring.jmx.enabled=false");
+	}
+
+	@AfterEach
+	void derrubarOutraInstancia() {
+		outraInstancia.close();
+	}
+
+	@Test
+	void alteracaoInvalidaCacheDaOutraInstancia() throws InterruptedException {
+		Pessoa pessoa = new Pessoa();
+		pessoa.setNome("Pessoa em duas instâncias");
+		pessoa.setAtivo(true);
+		Long codigo = pessoaRepository.save(pessoa).getCodigo();
+
+		// Marca d'água da outra instância posicionada antes da alteração
+		outraInstancia.getBean(InvalidacaoCacheCluster.class).acompanhar();
+		outraInstancia.getBean(PessoaRepository.class).buscarPorCodigo(codigo);
+		Cache cache = outraInstancia.getBean(CacheManager.class).getCache(NomesCache.PESSOA);
+		assertNotNull(cache.get(codigo));
+
+		pessoaService.atualizarPropriedadeAtivo(codigo, false);
+		long inicio = System.currentTimeMillis();
+		while (cache.get(codigo) != null && System.currentTimeMillis() - inicio < 10 * intervaloMs) {
+			Thread.sleep(20);
+		}
+		long atraso = System.currentTimeMillis() - inicio;
+
+		assertNull(cache.get(codigo));
+		assertTrue(atraso <= intervaloMs + TOLERANCIA_MS, "invalidado após " + atraso + " ms");
+		assertFalse(outraInstancia.getBean(PessoaRepository.class).buscarPorCodigo(codigo).get().getAtivo());
+	}
+
+}
@@ -0,0 +1,320 @@
+package com.example.algamoney.api.event.feed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.event.Operacao;
+import com.example.algamoney.api.event.TipoRecurso;
+import com.example.algamoney.api.model.EventoOutbox;
+import com.example.algamoney.api.model.TipoLancamento;
+import com.example.algamoney.api.repository.EventoOutboxRepository;
+import com.example.algamoney.api.repository.LancamentoRepository;
+import com.example.algamoney.api.repository.projection.ClassificacaoLancamento;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Feed sobre um evento_outbox em memória: o código do evento é também o código do
+ * lançamento, e cada assinatura grava o que o emitter teria enviado.
+ */
+class FeedLancamentosTest {
+
+	private static final long INICIO = 1_000_000;
+
+	// Eventos já confirmados, por código
+	private final NavigableMap<Long, EventoOutbox> confirmados = new TreeMap<>();
+	// Lançamento -> pessoa
+	private final Map<Long, Long> pessoas = new HashMap<>();
+	private final List<EmitterGravado> emitters = new CopyOnWriteArrayList<>();
+
+	private EventoOutboxRepository repositorio;
+	private AlgamoneyApiProperty propriedades;
+	private SimpleMeterRegistry registry;
+	private FeedLancamentos feed;
+
+	@BeforeEach
+	void preparar() {
+		repositorio = mock(EventoOutboxRepository.class);
+		when(repositorio.ultimoCodigo()).thenAnswer(i -> confirmados.isEmpty() ? 0L : confirmados.lastKey());
+		when(repositorio.primeiroCodigo()).thenAnswer(i -> confirmados.isEmpty() ? null : confirmados.firstKey());
+		when(repositorio.findByCodigoGreaterThanOrderByCodigo(anyLong(), any(Pageable.class))).thenAnswer(i -> {
+			Pageable pagina = i.getArgument(1);
+			return confirmados.tailMap(i.getArgument(0), false).values().stream().limit(pagina.getPageSize()).toList();
+		});
+		when(repositorio.findByTipoRecursoAndCodigoGreaterThanOrderByCodigo(any(), anyLong(), any(Pageable.class)))
+				.thenAnswer(i -> {
+					Pageable pagina = i.getArgument(2);
+					return confirmados.tailMap(i.getArgument(1), false).values().stream()
+							.filter(evento -> evento.getTipoRecurso() == i.getArgument(0))
+							.limit(pagina.getPageSize())
+							.toList();
+				});
+		when(repositorio.findAllById(any())).thenAnswer(i -> {
+			List<EventoOutbox> encontrados = new ArrayList<>();
+			for (Long codigo : i.<Iterable<Long>>getArgument(0)) {
+				if (confirmados.containsKey(codigo)) {
+					encontrados.add(confirmados.get(codigo));
+				}
+			}
+			return encontrados;
+		});
+
+		LancamentoRepository lancamentoRepository = mock(LancamentoRepository.class);
+		when(lancamentoRepository.buscarClassificacoes(any())).thenAnswer(i -> {
+			List<ClassificacaoLancamento> classificacoes = new ArrayList<>();
+			for (Long codigo : i.<Collection<Long>>getArgument(0)) {
+				if (pessoas.containsKey(codigo)) {
+					classificacoes.add(new ClassificacaoLancamento(codigo, pessoas.get(codigo), 1L, TipoLancamento.DESPESA));
+				}
+			}
+			return classificacoes;
+		});
+
+		propriedades = new AlgamoneyApiProperty();
+		registry = new SimpleMeterRegistry();
+		feed = new FeedLancamentos(repositorio, lancamentoRepository, propriedades, registry) {
+			@Override
+			SseEmitter criarEmitter() {
+				EmitterGravado emitter = new EmitterGravado();
+				emitters.add(emitter);
+				return emitter;
+			}
+		};
+
+		confirmar(10, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+	}
+
+	@AfterEach
+	void finalizar() {
+		feed.finalizar();
+	}
+
+	// 12 é de pessoa: não vai para o feed e também não abre lacuna
+	@Test
+	void entregaNaOrdemDoOutbox() {
+		EmitterGravado emitter = assinar(new EventoLancamentoFilter(), null);
+		confirmar(11, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		confirmar(12, TipoRecurso.PESSOA, Operacao.ATUALIZADO);
+		confirmar(13, TipoRecurso.LANCAMENTO, Operacao.ATUALIZADO);
+		feed.acompanhar(INICIO);
+
+		aguardar(() -> emitter.lancamentos().size() == 2);
+		assertEquals(List.of(11L, 13L), versoes(emitter));
+		assertEquals(List.of("11", "13"), ids(emitter));
+	}
+
+	// 11 confirma depois de 12: chega pela lacuna, e o id não passa dela enquanto está aberta
+	@Test
+	void commitForaDeOrdemChegaPelaLacuna() {
+		EmitterGravado emitter = assinar(new EventoLancamentoFilter(), null);
+		confirmar(12, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		feed.acompanhar(INICIO);
+		aguardar(() -> emitter.lancamentos().size() == 1);
+
+		confirmar(11, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		feed.acompanhar(INICIO + 1000);
+		aguardar(() -> emitter.lancamentos().size() == 2);
+
+		confirmar(13, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		feed.acompanhar(INICIO + 2000);
+		aguardar(() -> emitter.lancamentos().size() == 3);
+
+		assertEquals(List.of(12L, 11L, 13L), versoes(emitter));
+		assertEquals(List.of("10", "10", "13"), ids(emitter));
+	}
+
+	@Test
+	void reconexaoReenviaAPartirDoLastEventId() {
+		confirmar(11, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		confirmar(12, TipoRecurso.PESSOA, Operacao.CRIADO);
+		confirmar(13, TipoRecurso.LANCAMENTO, Operacao.REMOVIDO);
+
+		EmitterGravado emitter = assinar(new EventoLancamentoFilter(), 10L);
+		aguardar(() -> emitter.lancamentos().size() == 2);
+
+		// O que o reenvio já mandou não é repetido pela fila
+		confirmar(14, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		feed.acompanhar(INICIO);
+		aguardar(() -> emitter.lancamentos().size() == 3);
+
+		assertEquals(List.of(11L, 13L, 14L), versoes(emitter));
+	}
+
+	@Test
+	void versaoForaDaRetencaoRecebeReinicio() {
+		confirmar(11, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		confirmar(12, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		confirmar(13, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		confirmados.remove(10L);
+		confirmados.remove(11L);
+
+		EmitterGravado perdido = assinar(new EventoLancamentoFilter(), 10L);
+		aguardar(() -> !perdido.nomes().isEmpty());
+		assertEquals(List.of("reinicio"), perdido.nomes());
+
+		// Logo antes do primeiro evento retido nada foi perdido
+		EmitterGravado emDia = assinar(new EventoLancamentoFilter(), 11L);
+		aguardar(() -> emDia.lancamentos().size() == 2);
+		assertEquals(List.of("lancamento", "lancamento"), emDia.nomes());
+		assertEquals(List.of(12L, 13L), versoes(emDia));
+	}
+
+	// Remoção não tem mais classificação e passa por qualquer filtro
+	@Test
+	void filtroPorPessoa() {
+		EventoLancamentoFilter filtro = new EventoLancamentoFilter();
+		filtro.setCodigoPessoa(1L);
+		EmitterGravado emitter = assinar(filtro, null);
+
+		pessoas.put(11L, 1L);
+		pessoas.put(12L, 2L);
+		confirmar(11, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		confirmar(12, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		confirmar(13, TipoRecurso.LANCAMENTO, Operacao.REMOVIDO);
+		feed.acompanhar(INICIO);
+
+		aguardar(() -> emitter.lancamentos().size() == 2);
+		assertEquals(List.of(11L, 13L), versoes(emitter));
+	}
+
+	@Test
+	void bufferCheioDesconecta() {
+		propriedades.getFeed().setCapacidadeBuffer(2);
+		EmitterGravado emitter = assinar(new EventoLancamentoFilter(), null);
+		confirmar(11, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		confirmar(12, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		confirmar(13, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		feed.acompanhar(INICIO);
+
+		assertTrue(emitter.completo);
+		assertEquals(1.0, registry.get("algamoney.feed.desconectados").counter().count());
+		assertEquals(0.0, registry.get("algamoney.feed.assinantes").gauge().value());
+	}
+
+	@Test
+	void semAssinantesSoAcompanhaAPosicao() {
+		confirmar(11, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		feed.acompanhar(INICIO);
+
+		verify(repositorio, never()).findByCodigoGreaterThanOrderByCodigo(anyLong(), any(Pageable.class));
+
+		EmitterGravado emitter = assinar(new EventoLancamentoFilter(), null);
+		confirmar(12, TipoRecurso.LANCAMENTO, Operacao.CRIADO);
+		feed.acompanhar(INICIO + 1000);
+		aguardar(() -> emitter.lancamentos().size() == 1);
+		assertEquals(List.of(12L), versoes(emitter));
+	}
+
+	private EmitterGravado assinar(EventoLancamentoFilter filtro, Long ultimaVersao) {
+		feed.assinar(filtro, ultimaVersao);
+		return emitters.get(emitters.size() - 1);
+	}
+
+	private void confirmar(long codigo, TipoRecurso tipoRecurso, Operacao operacao) {
+		EventoOutbox evento = new EventoOutbox();
+		ReflectionTestUtils.setField(evento, "codigo", codigo);
+		ReflectionTestUtils.setField(evento, "tipoRecurso", tipoRecurso);
+		ReflectionTestUtils.setField(evento, "codigoRecurso", codigo);
+		ReflectionTestUtils.setField(evento, "operacao", operacao);
+		confirmados.put(codigo, evento);
+	}
+
+	private static List<Long> versoes(EmitterGravado emitter) {
+		return emitter.lancamentos().stream().map(m -> m.evento().getVersao()).toList();
+	}
+
+	private static List<String> ids(EmitterGravado emitter) {
+		return emitter.lancamentos().stream().map(Recebida::id).toList();
+	}
+
+	// Os envios saem do pool do feed
+	private static void aguardar(BooleanSupplier condicao) {
+		long limite = System.currentTimeMillis() + 5000;
+		while (!condicao.getAsBoolean()) {
+			if (System.currentTimeMillis() > limite) {
+				throw new AssertionError("Condição não atingida em 5s");
+			}
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new AssertionError(e);
+			}
+		}
+	}
+
+	private record Recebida(String id, String nome, EventoLancamento evento) {
+	}
+
+	/**
+	 * Grava cada evento com nome em vez de escrever na resposta; comentários são ignorados.
+	 */
+	private static class EmitterGravado extends SseEmitter {
+
+		private final List<Recebida> recebidas = new CopyOnWriteArrayList<>();
+		private volatile boolean completo;
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			String id = null;
+			String nome = null;
+			EventoLancamento evento = null;
+			for (DataWithMediaType parte : builder.build()) {
+				if (parte.getData() instanceof EventoLancamento lancamento) {
+					evento = lancamento;
+					continue;
+				}
+				for (String linha : parte.getData().toString().split("\n")) {
+					if (linha.startsWith("id:")) {
+						id = linha.substring(3);
+					} else if (linha.startsWith("event:")) {
+						nome = linha.substring(6);
+					}
+				}
+			}
+			if (nome != null) {
+				recebidas.add(new Recebida(id, nome, evento));
+			}
+		}
+
+		@Override
+		public void complete() {
+			completo = true;
+		}
+
+		List<Recebida> lancamentos() {
+			return recebidas.stream().filter(r -> "lancamento".equals(r.nome())).toList();
+		}
+
+		List<String> nomes() {
+			return recebidas.stream().map(Recebida::nome).toList();
+		}
+
+	}
+
+}
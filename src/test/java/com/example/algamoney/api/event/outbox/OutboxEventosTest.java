@@ -0,0 +1,78 @@
+package com.example.algamoney.api.event.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.algamoney.api.TesteIntegracao;
+import com.example.algamoney.api.event.Operacao;
+import com.example.algamoney.api.event.TipoRecurso;
+import com.example.algamoney.api.model.Categoria;
+import com.example.algamoney.api.service.CategoriaService;
+
+class OutboxEventosTest extends TesteIntegracao {
+
+	@Autowired
+	private CategoriaService categoriaService;
+
+	@Autowired
+	private OutboxEventos outboxEventos;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void rollbackNaoDeixaEventoNoOutbox() {
+		long antes = eventos();
+
+		Long codigo = transactionTemplate.execute(status -> {
+			Long salva = categoriaService.salvar(categoria("Desfeita")).getCodigo();
+			assertEquals(antes + 1, eventos());
+			status.setRollbackOnly();
+			return salva;
+		});
+
+		assertEquals(antes, eventos());
+		assertEquals(0, eventos(TipoRecurso.CATEGORIA, codigo));
+	}
+
+	@Test
+	void commitGravaEventoDaAlteracao() {
+		Long codigo = categoriaService.salvar(categoria("Confirmada")).getCodigo();
+
+		assertEquals(1, eventos(TipoRecurso.CATEGORIA, codigo));
+	}
+
+	@Test
+	void registrarExigeTransacao() {
+		assertThrows(IllegalTransactionStateException.class,
+				() -> outboxEventos.registrar(TipoRecurso.LANCAMENTO, List.of(1L), Operacao.ATUALIZADO));
+	}
+
+	private long eventos() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM evento_outbox", Long.class);
+	}
+
+	private long eventos(TipoRecurso tipoRecurso, Long codigo) {
+		return jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM evento_outbox WHERE tipo_recurso = ? AND codigo_recurso = ?", Long.class,
+				tipoRecurso.name(), codigo);
+	}
+
+	private static Categoria categoria(String nome) {
+		Categoria categoria = new Categoria();
+		categoria.setNome(nome);
+		return categoria;
+	}
+
+}
@@ -0,0 +1,36 @@
+package com.example.algamoney.api.exceptionhandler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.example.algamoney.api.TesteIntegracao;
+import com.example.algamoney.api.service.exception.ServicoIndisponivelException;
+
+class AlgamoneyExceptionHandlerTest extends TesteIntegracao {
+
+	@Autowired
+	private AlgamoneyExceptionHandler exceptionHandler;
+
+	// Recusa do executor chega pelo dispatch ASYNC (o MockMvc não reproduz esse caminho)
+	@Test
+	void execucaoRecusadaRespondeComoServicoIndisponivel() {
+		ResponseEntity<Object> recusada = exceptionHandler.handleTaskRejectedException(
+				new TaskRejectedException("fila cheia"), new ServletWebRequest(new MockHttpServletRequest()));
+		ResponseEntity<Object> indisponivel = exceptionHandler.handleServicoIndisponivelException(
+				new ServicoIndisponivelException("consulta", null), new ServletWebRequest(new MockHttpServletRequest()));
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, recusada.getStatusCode());
+		assertEquals(indisponivel.getStatusCode(), recusada.getStatusCode());
+		assertEquals(indisponivel.getHeaders().getFirst(HttpHeaders.RETRY_AFTER),
+				recusada.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+	}
+
+}
@@ -0,0 +1,175 @@
+package com.example.algamoney.api.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.algamoney.api.TesteIntegracao;
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.model.ExecucaoJob;
+import com.example.algamoney.api.model.StatusExecucaoJob;
+import com.example.algamoney.api.repository.ExecucaoJobRepository;
+import com.example.algamoney.api.repository.projection.LancamentoVencido;
+
+/**
+ * Os lançamentos pendentes do banco de teste vencem todos no mesmo dia: com lotes de 3,
+ * o keyset só avança pelo desempate no código. Cada teste usa a sua data de referência.
+ */
+class LancamentosVencidosJobTest extends TesteIntegracao {
+
+	private static final String AGRUPADOS = "SELECT codigo_pessoa, count(*), sum(valor), min(data_vencimento)"
+			+ " FROM lancamento WHERE data_pagamento IS NULL AND data_vencimento < ?";
+
+	@Autowired
+	private LancamentosVencidosJob job;
+
+	@Autowired
+	private ExecucaoJobRepository execucaoJobRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private AlgamoneyApiProperty propriedades;
+
+	private int tamanhoLote;
+	private int paralelismo;
+	private boolean habilitado;
+
+	// O job guarda a mesma instância de configuração
+	@BeforeEach
+	void lotesPequenos() {
+		AlgamoneyApiProperty.Vencidos vencidos = propriedades.getVencidos();
+		tamanhoLote = vencidos.getTamanhoLote();
+		paralelismo = vencidos.getParalelismo();
+		habilitado = vencidos.isHabilitado();
+		vencidos.setTamanhoLote(3);
+		vencidos.setParalelismo(2);
+		vencidos.setHabilitado(true);
+	}
+
+	@AfterEach
+	void restaurar() {
+		AlgamoneyApiProperty.Vencidos vencidos = propriedades.getVencidos();
+		vencidos.setTamanhoLote(tamanhoLote);
+		vencidos.setParalelismo(paralelismo);
+		vencidos.setHabilitado(habilitado);
+	}
+
+	@Test
+	void percorreTodosOsLotesPeloKeyset() {
+		LocalDate hoje = LocalDate.of(2017, 7, 1);
+		job.executar(hoje);
+
+		ExecucaoJob execucao = execucao(hoje);
+		assertEquals(StatusExecucaoJob.CONCLUIDA, execucao.getStatus());
+		assertEquals(pendentes(hoje).size(), execucao.getProcessados().intValue());
+		assertEquals(esperado(hoje), resumo(execucao));
+
+		LancamentoVencido ultimo = pendentes(hoje).get(pendentes(hoje).size() - 1);
+		assertEquals(ultimo.getDataVencimento(), execucao.getUltimaDataVencimento());
+		assertEquals(ultimo.getCodigo(), execucao.getUltimoCodigo());
+	}
+
+	// Os 3 primeiros já estão no resumo e no checkpoint de uma execução que falhou ontem
+	@Test
+	void retomaExecucaoAnteriorDoCheckpoint() {
+		LocalDate hoje = LocalDate.of(2017, 7, 2);
+		LancamentoVencido checkpoint = pendentes(hoje).get(2);
+		Long codigo = criarExecucao(hoje, StatusExecucaoJob.FALHA, checkpoint, 3, LocalDateTime.now());
+		jdbcTemplate.update("INSERT INTO resumo_vencidos"
+				+ " (codigo_execucao, codigo_pessoa, quantidade, valor_total, vencimento_mais_antigo) "
+				+ AGRUPADOS.replace("SELECT ", "SELECT ?, ")
+				+ " AND (data_vencimento < ? OR (data_vencimento = ? AND codigo <= ?)) GROUP BY codigo_pessoa",
+				codigo, hoje, checkpoint.getDataVencimento(), checkpoint.getDataVencimento(), checkpoint.getCodigo());
+
+		job.retomarPendentes();
+
+		ExecucaoJob execucao = execucao(hoje);
+		assertEquals(StatusExecucaoJob.CONCLUIDA, execucao.getStatus());
+		assertEquals(1L, execucao.getVersao());
+		assertEquals(pendentes(hoje).size(), execucao.getProcessados().intValue());
+		assertEquals(esperado(hoje), resumo(execucao));
+	}
+
+	@Test
+	void instanciaSubstituidaNaoGravaMais() {
+		LocalDate hoje = LocalDate.of(2017, 7, 3);
+		LancamentoVencido inicio = new LancamentoVencido(0L, null, null, LocalDate.of(1000, 1, 1));
+		Long codigo = criarExecucao(hoje, StatusExecucaoJob.EM_ANDAMENTO, inicio, 0, LocalDateTime.now());
+		ExecucaoJob lenta = execucaoJobRepository.findById(codigo).get();
+
+		// Checkpoint recente: a instância ainda está viva e ninguém assume
+		job.executar(hoje);
+		assertEquals(StatusExecucaoJob.EM_ANDAMENTO, execucao(hoje).getStatus());
+		assertEquals(0L, execucao(hoje).getVersao());
+
+		jdbcTemplate.update("UPDATE execucao_job SET atualizada_em = ? WHERE codigo = ?",
+				LocalDateTime.now().minusMinutes(20), codigo);
+		job.executar(hoje);
+		assertEquals(StatusExecucaoJob.CONCLUIDA, execucao(hoje).getStatus());
+		assertEquals(1L, execucao(hoje).getVersao());
+
+		// A instância antiga ainda tinha uma leva em memória
+		LancamentoVencido atrasado = pendentes(hoje).get(0);
+		assertThrows(ExecucaoAssumidaException.class, () -> job.gravar(lenta,
+				ResumoVencidosPessoa.agrupar(List.of(atrasado)), atrasado.getDataVencimento(), atrasado.getCodigo(), 1));
+
+		ExecucaoJob execucao = execucao(hoje);
+		assertEquals(StatusExecucaoJob.CONCLUIDA, execucao.getStatus());
+		assertEquals(pendentes(hoje).size(), execucao.getProcessados().intValue());
+		assertEquals(esperado(hoje), resumo(execucao));
+	}
+
+	private Long criarExecucao(LocalDate hoje, StatusExecucaoJob status, LancamentoVencido checkpoint,
+			long processados, LocalDateTime atualizadaEm) {
+		jdbcTemplate.update("INSERT INTO execucao_job (nome, data_referencia, status, versao, ultima_data_vencimento,"
+				+ " ultimo_codigo, processados, iniciada_em, atualizada_em) VALUES (?, ?, ?, 0, ?, ?, ?, ?, ?)",
+				LancamentosVencidosJob.NOME, hoje, status.name(), checkpoint.getDataVencimento(), checkpoint.getCodigo(),
+				processados, atualizadaEm, atualizadaEm);
+		return execucao(hoje).getCodigo();
+	}
+
+	private ExecucaoJob execucao(LocalDate hoje) {
+		return execucaoJobRepository.findByNomeAndDataReferencia(LancamentosVencidosJob.NOME, hoje).get();
+	}
+
+	// Na ordem do keyset
+	private List<LancamentoVencido> pendentes(LocalDate hoje) {
+		return jdbcTemplate.query("SELECT codigo, codigo_pessoa, valor, data_vencimento FROM lancamento"
+				+ " WHERE data_pagamento IS NULL AND data_vencimento < ? ORDER BY data_vencimento, codigo",
+				(rs, linha) -> new LancamentoVencido(rs.getLong(1), rs.getLong(2), rs.getBigDecimal(3),
+						rs.getDate(4).toLocalDate()), hoje);
+	}
+
+	private Map<Long, String> esperado(LocalDate hoje) {
+		return agrupados(AGRUPADOS + " GROUP BY codigo_pessoa", hoje);
+	}
+
+	private Map<Long, String> resumo(ExecucaoJob execucao) {
+		return agrupados("SELECT codigo_pessoa, quantidade, valor_total, vencimento_mais_antigo FROM resumo_vencidos"
+				+ " WHERE codigo_execucao = ?", execucao.getCodigo());
+	}
+
+	private Map<Long, String> agrupados(String sql, Object parametro) {
+		Map<Long, String> linhas = new TreeMap<>();
+		jdbcTemplate.query(sql, rs -> {
+			BigDecimal valor = rs.getBigDecimal(3).setScale(2);
+			linhas.put(rs.getLong(1), rs.getLong(2) + " " + valor + " " + rs.getDate(4));
+		}, parametro);
+		return linhas;
+	}
+
+}
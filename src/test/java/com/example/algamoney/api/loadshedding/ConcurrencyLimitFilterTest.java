@@ -0,0 +1,89 @@
+package com.example.algamoney.api.loadshedding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Quando cada requisição devolve a vaga: as síncronas ao sair do filtro, as assíncronas
+ * quando o AsyncContext completa e o SSE logo que o handler retorna.
+ */
+class ConcurrencyLimitFilterTest {
+
+	private LimiteAdaptativo limite;
+	private ConcurrencyLimitFilter filtro;
+
+	@BeforeEach
+	void preparar() {
+		AlgamoneyApiProperty propriedades = new AlgamoneyApiProperty();
+		propriedades.getConcorrencia().setLimiteInicial(10);
+		limite = new LimiteAdaptativo(propriedades, new SimpleMeterRegistry());
+		filtro = new ConcurrencyLimitFilter(limite, propriedades);
+	}
+
+	@Test
+	void sincronaLiberaAoSair() throws Exception {
+		filtro.doFilter(requisicao(), new MockHttpServletResponse(), new MockFilterChain());
+
+		assertEquals(0, emExecucao());
+	}
+
+	@Test
+	void assincronaSeguraAVagaAteCompletar() throws Exception {
+		MockHttpServletRequest requisicao = requisicao();
+		filtro.doFilter(requisicao, new MockHttpServletResponse(), (req, resp) -> req.startAsync());
+
+		assertEquals(1, emExecucao());
+		requisicao.getAsyncContext().complete();
+		assertEquals(0, emExecucao());
+	}
+
+	// A conexão do feed pode durar horas: não conta como requisição em execução
+	@Test
+	void sseLiberaAVagaLogo() throws Exception {
+		MockHttpServletRequest requisicao = requisicao();
+		filtro.doFilter(requisicao, new MockHttpServletResponse(), (req, resp) -> {
+			resp.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+			req.startAsync();
+		});
+
+		assertEquals(0, emExecucao());
+		requisicao.getAsyncContext().complete();
+		assertEquals(0, emExecucao());
+	}
+
+	@Test
+	void limiteOcupadoRespondeServicoIndisponivel() throws Exception {
+		while (limite.adquirir(Prioridade.NORMAL)) {
+			// ocupa a fração de NORMAL
+		}
+		MockFilterChain cadeia = new MockFilterChain();
+		MockHttpServletResponse resposta = new MockHttpServletResponse();
+		filtro.doFilter(requisicao(), resposta, cadeia);
+
+		assertEquals(503, resposta.getStatus());
+		assertEquals("1", resposta.getHeader(HttpHeaders.RETRY_AFTER));
+		assertEquals(null, cadeia.getRequest());
+	}
+
+	private static MockHttpServletRequest requisicao() {
+		MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", "/lancamentos/1");
+		requisicao.setAsyncSupported(true);
+		return requisicao;
+	}
+
+	private int emExecucao() {
+		return (Integer) limite.estado().get("emExecucao");
+	}
+
+}
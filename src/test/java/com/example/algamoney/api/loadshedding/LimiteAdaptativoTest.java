@@ -0,0 +1,133 @@
+package com.example.algamoney.api.loadshedding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Limite inicial 50 (mínimo 10, máximo 200) e janelas de 500ms avançadas à mão: cada
+ * janela ocupa o limite inteiro e devolve todas as vagas com a mesma latência.
+ */
+class LimiteAdaptativoTest {
+
+	private static final long JANELA = TimeUnit.MILLISECONDS.toNanos(500);
+
+	private SimpleMeterRegistry registry;
+	private LimiteAdaptativo limite;
+	private long fimJanela;
+
+	@BeforeEach
+	void preparar() {
+		registry = new SimpleMeterRegistry();
+		limite = new LimiteAdaptativo(new AlgamoneyApiProperty(), registry);
+
+		// Fecha a janela aberta no construtor (uma amostra só não conta) e passa a ditar o relógio
+		long inicio = System.nanoTime() + JANELA;
+		limite.adquirir(Prioridade.ALTA);
+		limite.liberar(0, inicio);
+		fimJanela = inicio + JANELA;
+	}
+
+	@Test
+	void limiteCaiQuandoALatenciaSobeERecuperaDepois() {
+		janelas(20, 10);
+		int estavel = limite.getLimite();
+		assertTrue(estavel > 50, "cresce com latência estável e carga perto do limite: " + estavel);
+
+		janelas(5, 100);
+		int incidente = limite.getLimite();
+		assertTrue(incidente < estavel * 0.8, "cai com a latência 10x: " + estavel + " -> " + incidente);
+
+		janelas(20, 10);
+		assertTrue(limite.getLimite() > incidente, "volta a crescer: " + incidente + " -> " + limite.getLimite());
+	}
+
+	// Com menos da metade do limite em uso não há como saber se caberia mais
+	@Test
+	void semCargaOLimiteNaoCresce() {
+		for (int i = 0; i < 20; i++) {
+			janela(15, 10);
+		}
+		assertEquals(50, limite.getLimite());
+	}
+
+	// Latência subindo 50% por janela: a média longa nunca alcança a curta
+	@Test
+	void limiteNaoPassaDoMinimo() {
+		janelas(5, 10);
+		double rttMs = 10;
+		for (int i = 0; i < 40; i++) {
+			rttMs *= 1.5;
+			janela(limite.getLimite(), (long) rttMs);
+		}
+		assertEquals(10, limite.getLimite());
+	}
+
+	@Test
+	void limiteNaoPassaDoMaximo() {
+		janelas(150, 10);
+		assertEquals(200, limite.getLimite());
+	}
+
+	// 50 × 0,6 = 30 de BAIXA; 50 × 0,85 = 42 com NORMAL; ALTA até o limite
+	@Test
+	void baixaEDescartadaAntesDeNormalEAlta() {
+		assertEquals(30, ocupar(Prioridade.BAIXA));
+		assertEquals(12, ocupar(Prioridade.NORMAL));
+		assertFalse(limite.adquirir(Prioridade.BAIXA));
+		assertEquals(8, ocupar(Prioridade.ALTA));
+		assertFalse(limite.adquirir(Prioridade.NORMAL));
+
+		assertEquals(2.0, rejeitadas(Prioridade.BAIXA));
+		assertEquals(2.0, rejeitadas(Prioridade.NORMAL));
+		assertEquals(1.0, rejeitadas(Prioridade.ALTA));
+
+		// Uma vaga liberada volta para ALTA, não para BAIXA
+		limite.liberar(-1);
+		assertFalse(limite.adquirir(Prioridade.BAIXA));
+		assertTrue(limite.adquirir(Prioridade.ALTA));
+	}
+
+	private void janelas(int quantidade, long rttMs) {
+		for (int i = 0; i < quantidade; i++) {
+			janela(limite.getLimite(), rttMs);
+		}
+	}
+
+	// A última vaga é devolvida já depois do fim da janela e dispara o recálculo
+	private void janela(int requisicoes, long rttMs) {
+		for (int i = 0; i < requisicoes; i++) {
+			assertTrue(limite.adquirir(Prioridade.ALTA));
+		}
+		long rtt = TimeUnit.MILLISECONDS.toNanos(rttMs);
+		for (int i = 1; i < requisicoes; i++) {
+			limite.liberar(rtt, fimJanela - 1);
+		}
+		limite.liberar(rtt, fimJanela);
+		fimJanela += JANELA;
+	}
+
+	private int ocupar(Prioridade prioridade) {
+		int admitidas = 0;
+		while (limite.adquirir(prioridade)) {
+			admitidas++;
+		}
+		return admitidas;
+	}
+
+	private double rejeitadas(Prioridade prioridade) {
+		return registry.get("algamoney.concorrencia.rejeitadas")
+				.tag("prioridade", prioridade.name().toLowerCase())
+				.counter().count();
+	}
+
+}
@@ -0,0 +1,212 @@
+package com.example.algamoney.api.pool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.service.EmprestimoConexaoTeste;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Pool que nunca sobe: as conexões são mocks e o timeout do Hikari é simulado. Cada
+ * ajustar() fecha uma janela com o que foi emprestado desde o anterior. Limites padrão:
+ * mínimo 5, máximo 30, espera alvo 20ms, 3 janelas ociosas para reduzir.
+ */
+class GerenciadorPoolTest {
+
+	private AlgamoneyApiProperty propriedades;
+	private SimpleMeterRegistry registry;
+	private PoolFalso hikari;
+	private MonitorPoolDataSource monitor;
+	private GerenciadorPool gerenciador;
+
+	@BeforeEach
+	void preparar() {
+		propriedades = new AlgamoneyApiProperty();
+	}
+
+	@Test
+	void cresceComEsperaEUsoEstavel() throws Exception {
+		gerenciar(8);
+		emprestar(4, 10);
+		gerenciador.ajustar();
+		assertEquals(8, hikari.getMaximumPoolSize());
+
+		emprestar(4, 10);
+		esgotar();
+		gerenciador.ajustar();
+		assertEquals(10, hikari.getMaximumPoolSize());
+		assertEquals(10.0, registry.get("algamoney.pool.tamanho-maximo").tag("pool", "teste").gauge().value());
+	}
+
+	// Conexões 4x mais demoradas: o banco é que está lento
+	@Test
+	void seguraQuandoOUsoSobe() throws Exception {
+		gerenciar(8);
+		emprestar(4, 10);
+		gerenciador.ajustar();
+
+		emprestar(4, 40);
+		esgotar();
+		gerenciador.ajustar();
+		assertEquals(8, hikari.getMaximumPoolSize());
+	}
+
+	@Test
+	void reduzDepoisDeJanelasOciosas() {
+		gerenciar(8);
+		hikari.setMinimumIdle(8);
+
+		gerenciador.ajustar();
+		gerenciador.ajustar();
+		assertEquals(8, hikari.getMaximumPoolSize());
+		gerenciador.ajustar();
+		assertEquals(7, hikari.getMaximumPoolSize());
+		assertEquals(7, hikari.getMinimumIdle());
+
+		// A contagem recomeça depois de cada redução
+		gerenciador.ajustar();
+		gerenciador.ajustar();
+		assertEquals(7, hikari.getMaximumPoolSize());
+	}
+
+	@Test
+	void esperaZeraAsJanelasOciosas() throws Exception {
+		propriedades.getPool().setTamanhoMaximo(8);
+		gerenciar(8);
+
+		gerenciador.ajustar();
+		gerenciador.ajustar();
+		esgotar();
+		gerenciador.ajustar();
+		gerenciador.ajustar();
+		gerenciador.ajustar();
+		assertEquals(8, hikari.getMaximumPoolSize());
+	}
+
+	@Test
+	void naoPassaDoMaximo() throws Exception {
+		gerenciar(28);
+		esgotar();
+		gerenciador.ajustar();
+		assertEquals(30, hikari.getMaximumPoolSize());
+
+		esgotar();
+		gerenciador.ajustar();
+		assertEquals(30, hikari.getMaximumPoolSize());
+	}
+
+	@Test
+	void naoPassaDoMinimo() {
+		gerenciar(5);
+		for (int i = 0; i < 6; i++) {
+			gerenciador.ajustar();
+		}
+		assertEquals(5, hikari.getMaximumPoolSize());
+	}
+
+	@Test
+	void tamanhoConfiguradoForaDosLimitesVaiParaOLimite() {
+		gerenciar(50);
+		assertEquals(30, hikari.getMaximumPoolSize());
+
+		gerenciar(2);
+		assertEquals(5, hikari.getMaximumPoolSize());
+	}
+
+	@Test
+	void ajusteDesligadoSoMede() throws Exception {
+		propriedades.getPool().setAutoAjuste(false);
+		gerenciar(8);
+		esgotar();
+		gerenciador.ajustar();
+		assertEquals(8, hikari.getMaximumPoolSize());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void vazamentoApontaOMetodoDeOrigem() throws Exception {
+		propriedades.getPool().setLimiarVazamentoMs(1);
+		gerenciar(8);
+
+		Connection conexao = EmprestimoConexaoTeste.segurar(monitor);
+		Thread.sleep(5);
+		gerenciador.verificarVazamentos();
+		gerenciador.verificarVazamentos();
+
+		assertEquals(1.0, registry.get("algamoney.pool.vazamentos")
+				.tags("pool", "teste", "origem", "EmprestimoConexaoTeste.segurar").counter().count());
+		Map<String, Object> estado = (Map<String, Object>) ((Map<String, Object>) gerenciador.estado().get("pools")).get("teste");
+		List<Map<String, Object>> vazamentos = (List<Map<String, Object>>) estado.get("vazamentos");
+		assertEquals(1, vazamentos.size());
+		assertEquals("EmprestimoConexaoTeste.segurar", vazamentos.get(0).get("origem"));
+
+		conexao.close();
+		assertEquals(0, monitor.getEmprestimos().size());
+	}
+
+	private void gerenciar(int tamanho) {
+		hikari = new PoolFalso();
+		hikari.setPoolName("teste");
+		hikari.setMaximumPoolSize(tamanho);
+		monitor = new MonitorPoolDataSource(hikari);
+		registry = new SimpleMeterRegistry();
+		gerenciador = new GerenciadorPool(new StaticListableBeanFactory(Map.of("dataSource", monitor))
+				.getBeanProvider(DataSource.class), propriedades, registry);
+	}
+
+	// Todas ao mesmo tempo, devolvidas depois de usoMs
+	private void emprestar(int conexoes, long usoMs) throws Exception {
+		List<Connection> emprestadas = new ArrayList<>();
+		for (int i = 0; i < conexoes; i++) {
+			emprestadas.add(monitor.getConnection());
+		}
+		Thread.sleep(usoMs);
+		for (Connection conexao : emprestadas) {
+			conexao.close();
+		}
+	}
+
+	private void esgotar() {
+		hikari.esgotado = true;
+		try {
+			monitor.getConnection();
+		} catch (SQLException e) {
+			// esperado
+		} finally {
+			hikari.esgotado = false;
+		}
+	}
+
+	private static final class PoolFalso extends HikariDataSource {
+
+		// Criado antes: a primeira criação de mock demora e contaria como espera
+		private final Connection conexao = mock(Connection.class);
+		private boolean esgotado;
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			if (esgotado) {
+				throw new SQLTransientConnectionException("teste - Connection is not available, request timed out");
+			}
+			return conexao;
+		}
+
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.example.algamoney.api.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+class IntercalacaoTest {
+
+	@Test
+	void intercalaNaOrdemDoComparador() {
+		Iterator<Integer> intercalados = Intercalacao.de(List.of(List.of(1, 4, 7).iterator(),
+				List.of(2, 5, 8, 9).iterator(), List.of(3, 6).iterator()), Comparator.naturalOrder());
+		assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9), lista(intercalados));
+	}
+
+	@Test
+	void intercalaEmOrdemDecrescente() {
+		Iterator<Integer> intercalados = Intercalacao.de(List.of(List.of(9, 3).iterator(), List.of(8, 5, 1).iterator()),
+				Comparator.reverseOrder());
+		assertEquals(List.of(9, 8, 5, 3, 1), lista(intercalados));
+	}
+
+	// Empates saem na ordem das sequências, e dentro de cada uma na ordem dela
+	@Test
+	void empatesSaoEstaveis() {
+		record Item(int chave, String origem) {
+		}
+		Iterator<Item> intercalados = Intercalacao.de(List.of(
+				List.of(new Item(1, "a1"), new Item(2, "a2"), new Item(2, "a3")).iterator(),
+				List.of(new Item(1, "b1"), new Item(2, "b2")).iterator()), Comparator.comparingInt(Item::chave));
+
+		List<String> origens = new ArrayList<>();
+		intercalados.forEachRemaining(item -> origens.add(item.origem()));
+		assertEquals(List.of("a1", "b1", "a2", "a3", "b2"), origens);
+	}
+
+	@Test
+	void sequenciasVazias() {
+		Iterator<Integer> vazio = Intercalacao.de(List.of(Collections.<Integer>emptyIterator(),
+				Collections.<Integer>emptyIterator()), Comparator.naturalOrder());
+		assertFalse(vazio.hasNext());
+		assertThrows(NoSuchElementException.class, vazio::next);
+
+		Iterator<Integer> algumasVazias = Intercalacao.de(List.of(Collections.<Integer>emptyIterator(),
+				List.of(2, 3).iterator(), Collections.<Integer>emptyIterator(), List.of(1).iterator()),
+				Comparator.naturalOrder());
+		assertEquals(List.of(1, 2, 3), lista(algumasVazias));
+
+		assertFalse(Intercalacao.de(List.<Iterator<Integer>>of(), Comparator.<Integer>naturalOrder()).hasNext());
+	}
+
+	// Uma sequência só não passa pela fila
+	@Test
+	void umaSequenciaEDevolvidaComoEsta() {
+		Iterator<Integer> unica = List.of(3, 1, 2).iterator();
+		assertSame(unica, Intercalacao.de(List.of(unica), Comparator.<Integer>naturalOrder()));
+	}
+
+	private static <T> List<T> lista(Iterator<T> iterator) {
+		List<T> lista = new ArrayList<>();
+		iterator.forEachRemaining(lista::add);
+		return lista;
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.example.algamoney.api.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Executa uma requisição pelo MockMvc e lê quantos comandos SQL ela emitiu, pela métrica
+ * algamoney.query.statements que o {@link QueryBudgetInterceptor} registra ao fechar o
+ * orçamento. Requisições assíncronas são levadas até o dispatch ASYNC, onde o orçamento
+ * retomado é fechado; SSE fecha o orçamento ao iniciar o stream e não tem dispatch.
+ *
+ * O MockMvc roda a requisição na thread do teste: ao final nenhum orçamento pode ter
+ * ficado aberto nela, nem depois de ser passado a outra thread e devolvido.
+ */
+public class MedidorOrcamento {
+
+	private final MockMvc mvc;
+	private final MeterRegistry meterRegistry;
+	private final int maximoPadrao;
+
+	public MedidorOrcamento(MockMvc mvc, MeterRegistry meterRegistry, int maximoPadrao) {
+		this.mvc = mvc;
+		this.meterRegistry = meterRegistry;
+		this.maximoPadrao = maximoPadrao;
+	}
+
+	public Medicao executar(RequestBuilder requisicao, String handler) throws Exception {
+		DistributionSummary antes = resumo(handler);
+		long contagemAntes = antes == null ? 0 : antes.count();
+		double totalAntes = antes == null ? 0 : antes.totalAmount();
+
+		MvcResult resultado = mvc.perform(requisicao).andReturn();
+		if (resultado.getRequest().isAsyncStarted() && !sse(resultado)) {
+			resultado = mvc.perform(asyncDispatch(resultado)).andReturn();
+		}
+		assertNull(QueryBudgetInspector.atual(), handler + ": budget left open on the request thread");
+
+		DistributionSummary depois = resumo(handler);
+		assertNotNull(depois, "No statement count recorded for " + handler);
+		return new Medicao(resultado, handler, maximo(resultado), depois.count() - contagemAntes,
+				(long) (depois.totalAmount() - totalAntes));
+	}
+
+	private static boolean sse(MvcResult resultado) {
+		String contentType = resultado.getResponse().getContentType();
+		return contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+	}
+
+	private DistributionSummary resumo(String handler) {
+		return meterRegistry.find("algamoney.query.statements").tag("handler", handler).summary();
+	}
+
+	// Mesma regra do interceptor: anotação do método, depois da classe, depois o padrão
+	private int maximo(MvcResult resultado) {
+		HandlerMethod handlerMethod = (HandlerMethod) resultado.getHandler();
+		QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+		if (budget == null) {
+			budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), QueryBudget.class);
+		}
+		return budget != null ? budget.value() : maximoPadrao;
+	}
+
+	public record Medicao(MvcResult resultado, String handler, int maximo, long requisicoes, long comandos) {
+
+		public int status() {
+			return resultado.getResponse().getStatus();
+		}
+
+		/**
+		 * Um único orçamento fechado para a requisição, dentro do limite declarado.
+		 */
+		public Medicao dentroDoOrcamento() {
+			assertEquals(1, requisicoes, handler + ": budget must be closed exactly once per request");
+			assertTrue(comandos <= maximo, handler + ": " + comandos + " statements, budget " + maximo);
+			return this;
+		}
+
+		/**
+		 * Para consultas feitas em outra thread: prova que o orçamento acompanhou a consulta.
+		 */
+		public Medicao contouComandos() {
+			assertTrue(comandos > 0, handler + ": statements run on another thread were not counted");
+			return this;
+		}
+
+	}
+
+}
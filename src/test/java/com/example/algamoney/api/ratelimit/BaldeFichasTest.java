@@ -0,0 +1,108 @@
+package com.example.algamoney.api.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tempo em unidades arbitrárias: uma ficha a cada 100, rajada de 5.
+ */
+class BaldeFichasTest {
+
+	private static final long INICIO = 1_000_000;
+	private static final long INTERVALO = 100;
+	private static final int RAJADA = 5;
+	private static final long TOLERANCIA = INTERVALO * (RAJADA - 1);
+
+	@Test
+	void rajadaPassaEDepoisEsperaUmIntervalo() {
+		BaldeFichas balde = new BaldeFichas(INICIO);
+		for (int i = 0; i < RAJADA; i++) {
+			assertEquals(0, balde.consumir(INICIO, INTERVALO, TOLERANCIA), "requisição " + i);
+		}
+		assertEquals(INTERVALO, balde.consumir(INICIO, INTERVALO, TOLERANCIA));
+
+		// Recusada não consome: a espera continua contando do mesmo ponto
+		assertEquals(INTERVALO - 40, balde.consumir(INICIO + 40, INTERVALO, TOLERANCIA));
+		assertEquals(0, balde.consumir(INICIO + INTERVALO, INTERVALO, TOLERANCIA));
+		assertEquals(INTERVALO, balde.consumir(INICIO + INTERVALO, INTERVALO, TOLERANCIA));
+	}
+
+	@Test
+	void reabastecimentoProporcionalAoTempo() {
+		BaldeFichas balde = new BaldeFichas(INICIO);
+		esvaziar(balde, INICIO);
+
+		// 2,5 intervalos depois: duas fichas, e a terceira falta meio intervalo
+		long depois = INICIO + INTERVALO * 5 / 2;
+		assertEquals(0, balde.consumir(depois, INTERVALO, TOLERANCIA));
+		assertEquals(0, balde.consumir(depois, INTERVALO, TOLERANCIA));
+		assertEquals(INTERVALO / 2, balde.consumir(depois, INTERVALO, TOLERANCIA));
+	}
+
+	// Ocioso por muito tempo não acumula mais que a rajada
+	@Test
+	void ociosidadeNaoPassaDaRajada() {
+		BaldeFichas balde = new BaldeFichas(INICIO);
+		esvaziar(balde, INICIO);
+
+		long muitoDepois = INICIO + INTERVALO * 1000;
+		assertTrue(balde.cheio(muitoDepois));
+		assertEquals(RAJADA, esvaziar(balde, muitoDepois));
+	}
+
+	@Test
+	void cheioSoQuandoNaoHaConsumoPendente() {
+		BaldeFichas balde = new BaldeFichas(INICIO);
+		assertTrue(balde.cheio(INICIO));
+
+		balde.consumir(INICIO, INTERVALO, TOLERANCIA);
+		assertFalse(balde.cheio(INICIO + INTERVALO - 1));
+		assertTrue(balde.cheio(INICIO + INTERVALO));
+	}
+
+	@Test
+	void rajadaSemIntervaloMinimo() {
+		BaldeFichas balde = new BaldeFichas(INICIO);
+		assertEquals(0, balde.consumir(INICIO, INTERVALO, 0));
+		assertEquals(INTERVALO, balde.consumir(INICIO, INTERVALO, 0));
+	}
+
+	// Compare-and-set: threads simultâneas no mesmo instante dividem exatamente a rajada
+	@Test
+	void consumoConcorrenteNaoPassaDaRajada() throws Exception {
+		BaldeFichas balde = new BaldeFichas(INICIO);
+		ExecutorService threads = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<Long>> requisicoes = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				requisicoes.add(() -> balde.consumir(INICIO, INTERVALO, TOLERANCIA));
+			}
+			int aceitas = 0;
+			for (Future<Long> resultado : threads.invokeAll(requisicoes)) {
+				aceitas += resultado.get() == 0 ? 1 : 0;
+			}
+			assertEquals(RAJADA, aceitas);
+		} finally {
+			threads.shutdown();
+		}
+	}
+
+	private static int esvaziar(BaldeFichas balde, long agora) {
+		int aceitas = 0;
+		while (balde.consumir(agora, INTERVALO, TOLERANCIA) == 0) {
+			aceitas++;
+		}
+		return aceitas;
+	}
+
+}
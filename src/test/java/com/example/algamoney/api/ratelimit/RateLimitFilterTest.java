@@ -0,0 +1,57 @@
+package com.example.algamoney.api.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.example.algamoney.api.TesteIntegracao;
+
+/**
+ * Servidor real (o RemoteIpValve não passa pelo MockMvc): as requisições chegam do
+ * loopback, um proxy confiável, então o IP de cada cliente vem do X-Forwarded-For.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"algamoney.rate-limit.habilitado=true",
+		"algamoney.rate-limit.grupos.token.requisicoes-por-segundo=0.01",
+		"algamoney.rate-limit.grupos.token.rajada=1" })
+class RateLimitFilterTest extends TesteIntegracao {
+
+	private static final int TOO_MANY_REQUESTS = 429;
+
+	private final HttpClient cliente = HttpClient.newHttpClient();
+
+	@LocalServerPort
+	private int porta;
+
+	@Test
+	void clientesAtrasDoProxyTemBaldesProprios() throws Exception {
+		assertNotEquals(TOO_MANY_REQUESTS, token("203.0.113.10"));
+		assertNotEquals(TOO_MANY_REQUESTS, token("203.0.113.11"));
+		assertNotEquals(TOO_MANY_REQUESTS, token("203.0.113.12, 10.0.0.5"));
+	}
+
+	@Test
+	void mesmoClienteAtrasDoProxyDivideOBalde() throws Exception {
+		assertNotEquals(TOO_MANY_REQUESTS, token("198.51.100.7"));
+		assertEquals(TOO_MANY_REQUESTS, token("198.51.100.7"));
+	}
+
+	private int token(String encaminhadoPara) throws Exception {
+		HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + porta + "/oauth/token"))
+				.header("X-Forwarded-For", encaminhadoPara)
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString("grant_type=password&username=ninguem&password=errada"))
+				.build();
+		return cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.example.algamoney.api.repository.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.algamoney.api.model.TipoLancamento;
+
+class LancamentoFilterTest {
+
+	private static final LocalDate DE = LocalDate.of(2017, 1, 1);
+	private static final LocalDate ATE = LocalDate.of(2017, 1, 31);
+
+	// Percorre os campos, não os setters: um critério novo sem getter/setter também falha aqui
+	@Test
+	void copiaMantemTodosOsCriteriosMenosOVencimento() {
+		LancamentoFilter original = new LancamentoFilter();
+		for (Field campo : campos()) {
+			ReflectionTestUtils.setField(original, campo.getName(), exemplo(campo));
+		}
+
+		LancamentoFilter copia = original.comVencimentoEntre(DE, ATE);
+
+		for (Field campo : campos()) {
+			Object valor = ReflectionTestUtils.getField(copia, campo.getName());
+			switch (campo.getName()) {
+				case "dataVencimentoDe" -> assertEquals(DE, valor);
+				case "dataVencimentoAte" -> assertEquals(ATE, valor);
+				default -> {
+					assertNotNull(valor, campo.getName());
+					assertEquals(ReflectionTestUtils.getField(original, campo.getName()), valor, campo.getName());
+				}
+			}
+		}
+	}
+
+	@Test
+	void originalNaoMuda() {
+		LancamentoFilter original = new LancamentoFilter();
+		original.setDataVencimentoDe(LocalDate.of(2016, 1, 1));
+		original.setDescricao("luz");
+
+		original.comVencimentoEntre(DE, ATE);
+
+		assertEquals(LocalDate.of(2016, 1, 1), original.getDataVencimentoDe());
+		assertNull(original.getDataVencimentoAte());
+	}
+
+	private static Field[] campos() {
+		return Arrays.stream(LancamentoFilter.class.getDeclaredFields())
+				.filter(campo -> !Modifier.isStatic(campo.getModifiers()))
+				.toArray(Field[]::new);
+	}
+
+	private static Object exemplo(Field campo) {
+		Class<?> tipo = campo.getType();
+		if (tipo == String.class) {
+			return "conta de luz";
+		}
+		if (tipo == LocalDate.class) {
+			return LocalDate.of(2016, 6, campo.getName().length());
+		}
+		if (tipo == Long.class) {
+			return (long) campo.getName().length();
+		}
+		if (tipo == BigDecimal.class) {
+			return new BigDecimal(campo.getName().length());
+		}
+		if (tipo == TipoLancamento.class) {
+			return TipoLancamento.DESPESA;
+		}
+		if (tipo == Boolean.class) {
+			return Boolean.TRUE;
+		}
+		return fail("Sem valor de exemplo para " + campo.getName() + " (" + tipo.getSimpleName() + ")");
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.example.algamoney.api.repository.lancamento;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import com.example.algamoney.api.model.TipoLancamento;
+import com.example.algamoney.api.repository.filter.LancamentoFilter;
+import com.example.algamoney.api.repository.lancamento.LancamentoRepositoryImpl.Consulta;
+
+class LancamentoRepositoryImplTest {
+
+	@AfterEach
+	void limparProjecoes() {
+		LancamentoRepositoryImpl.PROJECOES.clear();
+	}
+
+	@Test
+	void cadaCampoDoFiltroTemSeuBit() {
+		Set<Integer> mascaras = new HashSet<>();
+		mascaras.add(LancamentoRepositoryImpl.mascara(new LancamentoFilter()));
+
+		LancamentoFilter filtro = new LancamentoFilter();
+		filtro.setDescricao("luz");
+		assertTrue(mascaras.add(LancamentoRepositoryImpl.mascara(filtro)));
+		filtro.setDataVencimentoDe(LocalDate.of(2017, 1, 1));
+		assertTrue(mascaras.add(LancamentoRepositoryImpl.mascara(filtro)));
+		filtro.setDataVencimentoAte(LocalDate.of(2017, 12, 31));
+		assertTrue(mascaras.add(LancamentoRepositoryImpl.mascara(filtro)));
+		filtro.setCodigoCategoria(1L);
+		assertTrue(mascaras.add(LancamentoRepositoryImpl.mascara(filtro)));
+		filtro.setCodigoPessoa(1L);
+		assertTrue(mascaras.add(LancamentoRepositoryImpl.mascara(filtro)));
+		filtro.setTipo(TipoLancamento.DESPESA);
+		assertTrue(mascaras.add(LancamentoRepositoryImpl.mascara(filtro)));
+		filtro.setValorDe(BigDecimal.ONE);
+		assertTrue(mascaras.add(LancamentoRepositoryImpl.mascara(filtro)));
+		filtro.setValorAte(BigDecimal.TEN);
+		assertTrue(mascaras.add(LancamentoRepositoryImpl.mascara(filtro)));
+		filtro.setDataPagamentoDe(LocalDate.of(2017, 1, 1));
+		assertTrue(mascaras.add(LancamentoRepositoryImpl.mascara(filtro)));
+		filtro.setDataPagamentoAte(LocalDate.of(2017, 12, 31));
+		assertTrue(mascaras.add(LancamentoRepositoryImpl.mascara(filtro)));
+
+		LancamentoFilter pendente = new LancamentoFilter();
+		pendente.setPendente(true);
+		LancamentoFilter pago = new LancamentoFilter();
+		pago.setPendente(false);
+		assertNotEquals(LancamentoRepositoryImpl.mascara(pendente), LancamentoRepositoryImpl.mascara(pago));
+	}
+
+	// Valores diferentes, mesma máscara: o mesmo JPQL (mesma instância) e nenhum valor no texto
+	@Test
+	void mesmaMascaraReaproveitaJpql() {
+		LancamentoFilter luz = new LancamentoFilter();
+		luz.setDescricao("luz");
+		luz.setValorDe(BigDecimal.ONE);
+		LancamentoFilter agua = new LancamentoFilter();
+		agua.setDescricao("água'; drop table lancamento; --");
+		agua.setValorDe(new BigDecimal("99.90"));
+
+		int mascara = LancamentoRepositoryImpl.mascara(luz);
+		assertEquals(mascara, LancamentoRepositoryImpl.mascara(agua));
+
+		for (Consulta consulta : Consulta.values()) {
+			String jpql = consulta.jpql(mascara);
+			assertSame(jpql, consulta.jpql(LancamentoRepositoryImpl.mascara(agua)));
+			assertTrue(jpql.contains(":descricao") && jpql.contains(":valorDe"), jpql);
+			assertFalse(jpql.contains("água") || jpql.contains("99.90"), jpql);
+		}
+	}
+
+	@Test
+	void projecaoReaproveitaJpqlPorMascaraCamposEOrdenacao() {
+		LancamentoFilter filtro = new LancamentoFilter();
+		filtro.setCodigoPessoa(1L);
+		int mascara = LancamentoRepositoryImpl.mascara(filtro);
+		CamposLancamento campos = CamposLancamento.de("codigo,descricao");
+
+		String jpql = LancamentoRepositoryImpl.jpqlProjecao(mascara, campos, Sort.by("valor"));
+		assertSame(jpql, LancamentoRepositoryImpl.jpqlProjecao(mascara, CamposLancamento.de("descricao, codigo"),
+				Sort.by("valor")));
+		assertEquals("select l.codigo, l.descricao from Lancamento l where l.pessoa.codigo = :codigoPessoa"
+				+ " order by l.valor asc, l.codigo asc", jpql);
+
+		// Chaves fora da lista permitida somem da ordenação e não criam outra entrada
+		assertSame(jpql, LancamentoRepositoryImpl.jpqlProjecao(mascara, campos, Sort.by("valor", "observacao")));
+
+		assertNotEquals(jpql, LancamentoRepositoryImpl.jpqlProjecao(mascara, campos, Sort.by(Sort.Direction.DESC, "valor")));
+		assertNotEquals(jpql, LancamentoRepositoryImpl.jpqlProjecao(0, campos, Sort.by("valor")));
+	}
+
+	@Test
+	void projecaoSoFazJoinQuandoPrecisa() {
+		CamposLancamento campos = CamposLancamento.de("codigo");
+		String semJoin = LancamentoRepositoryImpl.jpqlProjecao(0, campos, Sort.unsorted());
+		assertFalse(semJoin.contains(" join "), semJoin);
+
+		String ordenadoPorPessoa = LancamentoRepositoryImpl.jpqlProjecao(0, campos, Sort.by("pessoa.nome"));
+		assertTrue(ordenadoPorPessoa.contains(" join l.pessoa p"), ordenadoPorPessoa);
+		assertFalse(ordenadoPorPessoa.contains(" join l.categoria c"), ordenadoPorPessoa);
+
+		String comCategoria = LancamentoRepositoryImpl.jpqlProjecao(0, CamposLancamento.de("categoria.nome"), Sort.unsorted());
+		assertTrue(comCategoria.contains(" join l.categoria c"), comCategoria);
+	}
+
+	// Acima do limite o JPQL continua correto, só deixa de ser guardado
+	@Test
+	void projecoesAlemDoLimiteNaoSaoGuardadas() {
+		CamposLancamento campos = CamposLancamento.de("codigo,valor,tipo");
+		for (int mascara = 0; mascara <= LancamentoRepositoryImpl.MAXIMO_PROJECOES; mascara++) {
+			LancamentoRepositoryImpl.jpqlProjecao(mascara, campos, Sort.by("dataVencimento"));
+		}
+
+		CamposLancamento novos = CamposLancamento.de("codigo,observacao,dataPagamento");
+		String jpql = LancamentoRepositoryImpl.jpqlProjecao(1, novos, Sort.unsorted());
+		String deNovo = LancamentoRepositoryImpl.jpqlProjecao(1, novos, Sort.unsorted());
+		assertEquals(jpql, deNovo);
+		assertNotSame(jpql, deNovo);
+	}
+
+}
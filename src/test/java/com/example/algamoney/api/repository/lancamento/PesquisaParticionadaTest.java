@@ -0,0 +1,95 @@
+package com.example.algamoney.api.repository.lancamento;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.repository.filter.LancamentoFilter;
+
+class PesquisaParticionadaTest {
+
+	private PesquisaParticionada pesquisa;
+
+	@BeforeEach
+	void criar() {
+		AlgamoneyApiProperty propriedades = new AlgamoneyApiProperty();
+		propriedades.getParticionamento().setParticoes(4);
+		propriedades.getParticionamento().setDiasMinimosPorParticao(31);
+		propriedades.getParticionamento().setMaximoLinhasPorParticao(5000);
+		pesquisa = new PesquisaParticionada(null, null, null, propriedades);
+	}
+
+	// 365 dias em 4: três partições de 91 dias e a última com o resto (92)
+	@Test
+	void particoesContiguasEAUltimaLevaOResto() {
+		LancamentoFilter filtro = filtro(LocalDate.of(2017, 1, 1), LocalDate.of(2017, 12, 31));
+		List<LancamentoFilter> particoes = pesquisa.particionar(filtro, PageRequest.of(0, 20));
+
+		assertEquals(4, particoes.size());
+		assertEquals(LocalDate.of(2017, 1, 1), particoes.get(0).getDataVencimentoDe());
+		for (int i = 0; i < 3; i++) {
+			LancamentoFilter particao = particoes.get(i);
+			assertEquals(particao.getDataVencimentoDe().plusDays(90), particao.getDataVencimentoAte());
+			assertEquals(particao.getDataVencimentoAte().plusDays(1), particoes.get(i + 1).getDataVencimentoDe());
+		}
+		assertEquals(LocalDate.of(2017, 10, 1), particoes.get(3).getDataVencimentoDe());
+		assertEquals(LocalDate.of(2017, 12, 31), particoes.get(3).getDataVencimentoAte());
+	}
+
+	@Test
+	void periodoInvertidoAbertoOuCurtoVaiNumaConsulta() {
+		LancamentoFilter invertido = filtro(LocalDate.of(2017, 12, 31), LocalDate.of(2017, 1, 1));
+		assertSame(invertido, unica(pesquisa.particionar(invertido, PageRequest.of(0, 20))));
+
+		LancamentoFilter aberto = filtro(LocalDate.of(2017, 1, 1), null);
+		assertSame(aberto, unica(pesquisa.particionar(aberto, PageRequest.of(0, 20))));
+
+		// 61 dias: menos de duas partições de 31
+		LancamentoFilter curto = filtro(LocalDate.of(2017, 1, 1), LocalDate.of(2017, 3, 2));
+		assertSame(curto, unica(pesquisa.particionar(curto, PageRequest.of(0, 20))));
+	}
+
+	// offset + tamanho acima de maximo-linhas-por-particao: uma consulta; no limite ainda divide
+	@Test
+	void paginaFundaVaiNumaConsulta() {
+		LancamentoFilter filtro = filtro(LocalDate.of(2017, 1, 1), LocalDate.of(2017, 12, 31));
+		assertEquals(4, pesquisa.particionar(filtro, PageRequest.of(99, 50)).size());
+		assertSame(filtro, unica(pesquisa.particionar(filtro, PageRequest.of(100, 50))));
+		assertEquals(4, pesquisa.particionar(filtro, Pageable.unpaged()).size());
+	}
+
+	@Test
+	void ordenacaoPorTextoSoDivideComVencimentoNaFrente() {
+		LancamentoFilter filtro = filtro(LocalDate.of(2017, 1, 1), LocalDate.of(2017, 12, 31));
+
+		for (String texto : new String[] { "descricao", "categoria.nome", "pessoa.nome" }) {
+			assertSame(filtro, unica(pesquisa.particionar(filtro, PageRequest.of(0, 20, Sort.by(texto)))), texto);
+			assertSame(filtro, unica(pesquisa.particionar(filtro, PageRequest.of(0, 20, Sort.by("valor", texto)))), texto);
+			assertEquals(4, pesquisa.particionar(filtro, PageRequest.of(0, 20, Sort.by("dataVencimento", texto))).size(), texto);
+		}
+		assertEquals(4, pesquisa.particionar(filtro, PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "valor"))).size());
+		assertEquals(4, pesquisa.particionar(filtro, PageRequest.of(0, 20, Sort.by("valor", "dataVencimento"))).size());
+	}
+
+	private static LancamentoFilter filtro(LocalDate de, LocalDate ate) {
+		LancamentoFilter filtro = new LancamentoFilter();
+		filtro.setDataVencimentoDe(de);
+		filtro.setDataVencimentoAte(ate);
+		return filtro;
+	}
+
+	private static LancamentoFilter unica(List<LancamentoFilter> particoes) {
+		assertEquals(1, particoes.size());
+		return particoes.get(0);
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.example.algamoney.api.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Abertura de 1 minuto para ficar aberto durante o teste; de 0 para passar direto a
+ * meio aberto assim que abre.
+ */
+class CircuitoTest {
+
+	@Test
+	void abreDepoisDeFalhasSeguidas() {
+		Circuito circuito = new Circuito(3, 60000);
+
+		circuito.falha();
+		circuito.falha();
+		assertEquals(Circuito.Estado.FECHADO, circuito.getEstado());
+		assertTrue(circuito.permite());
+
+		circuito.falha();
+		assertEquals(Circuito.Estado.ABERTO, circuito.getEstado());
+		assertFalse(circuito.permite());
+	}
+
+	@Test
+	void sucessoZeraAsFalhas() {
+		Circuito circuito = new Circuito(3, 60000);
+
+		circuito.falha();
+		circuito.falha();
+		circuito.sucesso();
+		circuito.falha();
+		circuito.falha();
+
+		assertEquals(Circuito.Estado.FECHADO, circuito.getEstado());
+	}
+
+	@Test
+	void meioAbertoDeixaPassarUmTesteSo() {
+		Circuito circuito = new Circuito(1, 0);
+		circuito.falha();
+		assertEquals(Circuito.Estado.MEIO_ABERTO, circuito.getEstado());
+
+		assertTrue(circuito.permite());
+		assertFalse(circuito.permite());
+
+		circuito.sucesso();
+		assertEquals(Circuito.Estado.FECHADO, circuito.getEstado());
+		assertTrue(circuito.permite());
+		assertTrue(circuito.permite());
+	}
+
+	@Test
+	void testeQueFalhaReabre() {
+		Circuito circuito = new Circuito(1, 60000);
+		circuito.falha();
+		ReflectionTestUtils.setField(circuito, "abertoAte", System.nanoTime());
+		assertEquals(Circuito.Estado.MEIO_ABERTO, circuito.getEstado());
+		assertTrue(circuito.permite());
+
+		circuito.falha();
+		assertEquals(Circuito.Estado.ABERTO, circuito.getEstado());
+		assertFalse(circuito.permite());
+	}
+
+	// Erro que não é do banco: a vaga de teste volta sem decidir nada
+	@Test
+	void testeLiberadoDeixaOutroPassar() {
+		Circuito circuito = new Circuito(1, 0);
+		circuito.falha();
+		assertTrue(circuito.permite());
+
+		circuito.liberarTeste();
+		assertEquals(Circuito.Estado.MEIO_ABERTO, circuito.getEstado());
+		assertTrue(circuito.permite());
+	}
+
+}
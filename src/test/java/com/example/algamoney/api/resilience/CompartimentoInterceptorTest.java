@@ -0,0 +1,92 @@
+package com.example.algamoney.api.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Compartimento "lento" com 2 vagas.
+ */
+class CompartimentoInterceptorTest {
+
+	private SimpleMeterRegistry registry;
+	private CompartimentoInterceptor interceptor;
+	private HandlerMethod handler;
+
+	@BeforeEach
+	void preparar() throws Exception {
+		AlgamoneyApiProperty.Resiliencia configuracao = new AlgamoneyApiProperty().getResiliencia();
+		configuracao.getCompartimentos().put("lento", 2);
+		registry = new SimpleMeterRegistry();
+		interceptor = new CompartimentoInterceptor(configuracao, registry);
+		handler = new HandlerMethod(new Recurso(), Recurso.class.getMethod("consultar"));
+	}
+
+	@Test
+	void compartimentoCheioRecusaNaHora() {
+		MockHttpServletRequest primeira = requisicao();
+		assertTrue(interceptor.preHandle(primeira, new MockHttpServletResponse(), handler));
+		assertTrue(interceptor.preHandle(requisicao(), new MockHttpServletResponse(), handler));
+
+		MockHttpServletResponse recusada = new MockHttpServletResponse();
+		assertFalse(interceptor.preHandle(requisicao(), recusada, handler));
+		assertEquals(503, recusada.getStatus());
+		assertEquals("1", recusada.getHeader(HttpHeaders.RETRY_AFTER));
+		assertEquals(1.0, registry.get("algamoney.compartimento.rejeitadas").tag("compartimento", "lento").counter().count());
+		assertEquals(2.0, registry.get("algamoney.compartimento.em-uso").tag("compartimento", "lento").gauge().value());
+
+		interceptor.afterCompletion(primeira, new MockHttpServletResponse(), handler, null);
+		assertTrue(interceptor.preHandle(requisicao(), new MockHttpServletResponse(), handler));
+	}
+
+	@Test
+	void assincronaSeguraAVagaAteCompletar() {
+		MockHttpServletRequest requisicao = requisicao();
+		MockHttpServletResponse resposta = new MockHttpServletResponse();
+		interceptor.preHandle(requisicao, resposta, handler);
+		requisicao.startAsync();
+		interceptor.afterConcurrentHandlingStarted(requisicao, resposta, handler);
+		assertEquals(1.0, emUso());
+
+		requisicao.getAsyncContext().complete();
+		assertEquals(0.0, emUso());
+	}
+
+	@Test
+	void handlerSemCompartimentoNaoOcupaVaga() throws Exception {
+		HandlerMethod livre = new HandlerMethod(new Recurso(), Recurso.class.getMethod("toString"));
+		for (int i = 0; i < 3; i++) {
+			assertTrue(interceptor.preHandle(requisicao(), new MockHttpServletResponse(), livre));
+		}
+	}
+
+	private double emUso() {
+		return registry.get("algamoney.compartimento.em-uso").tag("compartimento", "lento").gauge().value();
+	}
+
+	private static MockHttpServletRequest requisicao() {
+		MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", "/lento");
+		requisicao.setAsyncSupported(true);
+		return requisicao;
+	}
+
+	static class Recurso {
+
+		@Compartimento("lento")
+		public void consultar() {
+		}
+
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.example.algamoney.api.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.service.exception.ServicoIndisponivelException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Circuito abre com 2 falhas e fica aberto o teste inteiro.
+ */
+class LeituraResilienteTest {
+
+	private SimpleMeterRegistry registry;
+	private LeituraResiliente leitura;
+	private final AtomicInteger consultas = new AtomicInteger();
+
+	@BeforeEach
+	void preparar() {
+		AlgamoneyApiProperty propriedades = new AlgamoneyApiProperty();
+		propriedades.getResiliencia().setFalhasParaAbrir(2);
+		propriedades.getResiliencia().setAberturaMs(60000);
+		registry = new SimpleMeterRegistry();
+		leitura = new LeituraResiliente(propriedades, registry);
+	}
+
+	@Test
+	void bancoForaRespondeComUltimoValorConhecido() {
+		ResultadoLeitura<String> lido = leitura.ler("categoria", 1, () -> "Lazer");
+		assertFalse(lido.isDesatualizado());
+
+		ResultadoLeitura<String> fallback = leitura.ler("categoria", 1, falhando());
+		assertEquals("Lazer", fallback.getValor());
+		assertTrue(fallback.isDesatualizado());
+
+		ResponseEntity<String> resposta = fallback.resposta();
+		assertEquals("Lazer", resposta.getBody());
+		assertEquals("0", resposta.getHeaders().getFirst(HttpHeaders.AGE));
+		assertTrue(resposta.getHeaders().getFirst(HttpHeaders.WARNING).startsWith("110"));
+		assertEquals(1.0, registry.get("algamoney.resiliencia.fallback").tag("grupo", "categoria").counter().count());
+	}
+
+	// Vira 503 no AlgamoneyExceptionHandler
+	@Test
+	void semValorConhecidoFicaIndisponivel() {
+		leitura.ler("categoria", 1, () -> "Lazer");
+
+		assertThrows(ServicoIndisponivelException.class, () -> leitura.ler("categoria", 2, falhando()));
+		assertThrows(ServicoIndisponivelException.class, () -> leitura.ler("pessoa", 1, falhando()));
+	}
+
+	@Test
+	void naoEncontradoNaoServeDeFallback() {
+		leitura.ler("pessoa", 1, () -> Optional.empty());
+
+		assertThrows(ServicoIndisponivelException.class, () -> leitura.ler("pessoa", 1, falhando()));
+	}
+
+	@Test
+	void circuitoAbertoNaoConsultaOBanco() {
+		leitura.ler("categoria", 1, () -> "Lazer");
+		leitura.ler("categoria", 1, falhando());
+		leitura.ler("categoria", 1, falhando());
+		assertEquals(2, consultas.get());
+
+		ResultadoLeitura<String> fallback = leitura.ler("categoria", 1, falhando());
+		assertEquals(2, consultas.get());
+		assertTrue(fallback.isDesatualizado());
+		assertEquals(1.0, registry.get("algamoney.resiliencia.circuito.aberto").tag("grupo", "categoria").gauge().value());
+
+		// O circuito é do grupo, não da chave
+		assertEquals("Ana", leitura.ler("pessoa", 1, () -> "Ana").getValor());
+	}
+
+	// Erro de programação não conta como falha do banco nem cai no fallback
+	@Test
+	void outrosErrosPassamDireto() {
+		leitura.ler("categoria", 1, () -> "Lazer");
+
+		for (int i = 0; i < 3; i++) {
+			assertThrows(IllegalStateException.class, () -> leitura.ler("categoria", 1, () -> {
+				throw new IllegalStateException();
+			}));
+		}
+		assertEquals(0.0, registry.get("algamoney.resiliencia.circuito.aberto").tag("grupo", "categoria").gauge().value());
+	}
+
+	private Supplier<String> falhando() {
+		return () -> {
+			consultas.incrementAndGet();
+			throw new QueryTimeoutException("timeout");
+		};
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.example.algamoney.api.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+class CategoriaResourceTest extends TesteResource {
+
+	@Test
+	void listarCabeNoOrcamento() throws Exception {
+		var medicao = orcamento.executar(get("/categorias").header(HttpHeaders.AUTHORIZATION, admin),
+				"CategoriaResource.listar").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+	}
+
+	@Test
+	void buscarPelosCodigosCabeNoOrcamento() throws Exception {
+		var medicao = orcamento.executar(get("/categorias").param("codigos", "1", "2", "99999")
+				.header(HttpHeaders.AUTHORIZATION, admin), "CategoriaResource.buscarPelosCodigos").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+	}
+
+	@Test
+	void buscarPeloCodigoCabeNoOrcamento() throws Exception {
+		var medicao = orcamento.executar(get("/categorias/1").header(HttpHeaders.AUTHORIZATION, admin),
+				"CategoriaResource.buscarPeloCodigo").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+	}
+
+	@Test
+	void criarCabeNoOrcamento() throws Exception {
+		var medicao = orcamento.executar(post("/categorias").header(HttpHeaders.AUTHORIZATION, admin)
+				.contentType(MediaType.APPLICATION_JSON).content("{\"nome\": \"Viagem\"}"),
+				"CategoriaResource.criar").dentroDoOrcamento();
+		assertEquals(201, medicao.status());
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.example.algamoney.api.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class DashboardResourceTest extends TesteResource {
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	// As seções rodam no executor do dashboard: nada entra no orçamento (zero) da requisição
+	@Test
+	void montarNaoGastaOrcamentoDaRequisicao() throws Exception {
+		var medicao = orcamento.executar(get("/dashboard").header(HttpHeaders.AUTHORIZATION, admin),
+				"DashboardResource.montar").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+		assertEquals(0, medicao.comandos());
+
+		JsonNode dashboard = objectMapper.readTree(medicao.resultado().getResponse().getContentAsString());
+		for (String secao : new String[] { "categorias", "pessoas", "totaisMensais", "recentes", "vencidos" }) {
+			assertEquals("OK", dashboard.get(secao).get("status").asText(), secao);
+		}
+	}
+
+	@Test
+	void secaoSemPermissaoNaoEConsultada() throws Exception {
+		String token = tokens.emitir("ROLE_PESQUISAR_LANCAMENTO", "ROLE_PESQUISAR_CATEGORIA");
+		var medicao = orcamento.executar(get("/dashboard").header(HttpHeaders.AUTHORIZATION, token),
+				"DashboardResource.montar").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+
+		JsonNode dashboard = objectMapper.readTree(medicao.resultado().getResponse().getContentAsString());
+		assertEquals("SEM_PERMISSAO", dashboard.get("pessoas").get("status").asText());
+		assertEquals("OK", dashboard.get("categorias").get("status").asText());
+	}
+
+}
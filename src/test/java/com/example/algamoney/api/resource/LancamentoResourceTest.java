@@ -0,0 +1,232 @@
+package com.example.algamoney.api.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.algamoney.api.model.Lancamento;
+import com.example.algamoney.api.model.TipoLancamento;
+import com.example.algamoney.api.query.ConsultasCancelaveis;
+import com.example.algamoney.api.repository.CategoriaRepository;
+import com.example.algamoney.api.repository.LancamentoRepository;
+import com.example.algamoney.api.repository.PessoaRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+class LancamentoResourceTest extends TesteResource {
+
+	private static final String LANCAMENTO = "{\"descricao\": \"%s\", \"dataVencimento\": \"2017-06-20\", "
+			+ "\"valor\": 35.50, \"tipo\": \"DESPESA\", \"categoria\": {\"codigo\": 1}, \"pessoa\": {\"codigo\": 1}}";
+
+	@Autowired
+	private LancamentoRepository lancamentoRepository;
+
+	@Autowired
+	private CategoriaRepository categoriaRepository;
+
+	@Autowired
+	private PessoaRepository pessoaRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ConsultasCancelaveis consultasCancelaveis;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	// A consulta roda no executor do ConsultasCancelaveis, com o orçamento da requisição
+	@Test
+	void pesquisarCabeNoOrcamentoEmOutraThread() throws Exception {
+		var medicao = orcamento.executar(get("/lancamentos").param("dataVencimentoDe", "2017-06-01")
+				.param("dataVencimentoAte", "2017-06-30").header(HttpHeaders.AUTHORIZATION, admin),
+				"LancamentoResource.pesquisar").dentroDoOrcamento().contouComandos();
+		assertEquals(200, medicao.status());
+	}
+
+	// Partições não contam no orçamento, mas a requisição fecha o seu uma única vez
+	@Test
+	void pesquisarParticionadoCabeNoOrcamento() throws Exception {
+		var medicao = orcamento.executar(get("/lancamentos").param("dataVencimentoDe", "2017-01-01")
+				.param("dataVencimentoAte", "2017-12-31").header(HttpHeaders.AUTHORIZATION, admin),
+				"LancamentoResource.pesquisar").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+	}
+
+	// Pool de consultas e fila cheios: 503 com Retry-After, como os demais casos de sobrecarga
+	@Test
+	void pesquisarComPoolDeConsultasCheioResponde503() throws Exception {
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(consultasCancelaveis, "executor");
+		CountDownLatch liberar = new CountDownLatch(1);
+		try {
+			Runnable presa = () -> {
+				try {
+					liberar.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			};
+			// Recusas são esperadas enquanto threads recém-criadas ainda não pegaram suas tarefas
+			while (executor.getQueue().remainingCapacity() > 0 || executor.getActiveCount() < executor.getMaximumPoolSize()) {
+				try {
+					executor.execute(presa);
+				} catch (RejectedExecutionException cheio) {
+					Thread.onSpinWait();
+				}
+			}
+
+			var medicao = orcamento.executar(get("/lancamentos").param("dataVencimentoDe", "2017-06-01")
+					.param("dataVencimentoAte", "2017-06-30").header(HttpHeaders.AUTHORIZATION, admin),
+					"LancamentoResource.pesquisar").dentroDoOrcamento();
+			assertEquals(503, medicao.status());
+			assertEquals("10", medicao.resultado().getResponse().getHeader(HttpHeaders.RETRY_AFTER));
+		} finally {
+			liberar.countDown();
+		}
+	}
+
+	@Test
+	void resumirCabeNoOrcamentoEmOutraThread() throws Exception {
+		var medicao = orcamento.executar(get("/lancamentos").param("resumo", "")
+				.param("descricao", UUID.randomUUID().toString()).header(HttpHeaders.AUTHORIZATION, admin),
+				"LancamentoResource.resumir").dentroDoOrcamento().contouComandos();
+		assertEquals(200, medicao.status());
+	}
+
+	@Test
+	void pesquisarCamposCabeNoOrcamento() throws Exception {
+		var medicao = orcamento.executar(get("/lancamentos").param("fields", "codigo,descricao,pessoa.nome")
+				.param("size", "2").header(HttpHeaders.AUTHORIZATION, admin),
+				"LancamentoResource.pesquisarCampos").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+	}
+
+	@Test
+	void buscarPelosCodigosCabeNoOrcamento() throws Exception {
+		var medicao = orcamento.executar(get("/lancamentos").param("codigos", "1", "2", "3", "99999")
+				.header(HttpHeaders.AUTHORIZATION, admin), "LancamentoResource.buscarPelosCodigos").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+	}
+
+	// SSE fecha o orçamento ao iniciar o stream
+	@Test
+	void acompanharCabeNoOrcamento() throws Exception {
+		var medicao = orcamento.executar(get("/lancamentos/eventos").accept(MediaType.TEXT_EVENT_STREAM)
+				.header(HttpHeaders.AUTHORIZATION, admin), "LancamentoResource.acompanhar").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+	}
+
+	@Test
+	void buscarPeloCodigoCabeNoOrcamento() throws Exception {
+		var medicao = orcamento.executar(get("/lancamentos/1").header(HttpHeaders.AUTHORIZATION, admin),
+				"LancamentoResource.buscarPeloCodigo").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+	}
+
+	@Test
+	void criarCabeNoOrcamento() throws Exception {
+		var medicao = orcamento.executar(post("/lancamentos").header(HttpHeaders.AUTHORIZATION, admin)
+				.contentType(MediaType.APPLICATION_JSON).content(LANCAMENTO.formatted("Estacionamento")),
+				"LancamentoResource.criar").dentroDoOrcamento();
+		assertEquals(201, medicao.status());
+	}
+
+	@Test
+	void atualizarCabeNoOrcamento() throws Exception {
+		Long codigo = criarLancamento("Antes").getCodigo();
+		var medicao = orcamento.executar(put("/lancamentos/" + codigo).header(HttpHeaders.AUTHORIZATION, admin)
+				.contentType(MediaType.APPLICATION_JSON).content(LANCAMENTO.formatted("Depois")),
+				"LancamentoResource.atualizar").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+	}
+
+	@Test
+	void removerCabeNoOrcamento() throws Exception {
+		Long codigo = criarLancamento("Remover").getCodigo();
+		var medicao = orcamento.executar(delete("/lancamentos/" + codigo).header(HttpHeaders.AUTHORIZATION, admin),
+				"LancamentoResource.remover").dentroDoOrcamento();
+		assertEquals(204, medicao.status());
+		assertFalse(lancamentoRepository.existsById(codigo));
+	}
+
+	@Test
+	void removerCodigoInexistenteNaoEErro() throws Exception {
+		var medicao = orcamento.executar(delete("/lancamentos/999999").header(HttpHeaders.AUTHORIZATION, admin),
+				"LancamentoResource.remover").dentroDoOrcamento();
+		assertEquals(204, medicao.status());
+	}
+
+	// Série de 24 lançamentos: os INSERTs vão num batch só
+	@Test
+	void serieCabeNoOrcamento() throws Exception {
+		String serie = "{\"lancamento\": " + LANCAMENTO.formatted("Aluguel") + ", \"quantidade\": 24, "
+				+ "\"periodicidade\": \"MENSAL\"}";
+		var criacao = orcamento.executar(post("/lancamentos/serie").header(HttpHeaders.AUTHORIZATION, admin)
+				.contentType(MediaType.APPLICATION_JSON).content(serie), "LancamentoResource.criarSerie")
+				.dentroDoOrcamento();
+		assertEquals(201, criacao.status());
+
+		JsonNode lancamentos = objectMapper.readTree(criacao.resultado().getResponse().getContentAsString());
+		assertEquals(24, lancamentos.size());
+		String codigoSerie = lancamentos.get(0).get("codigoSerie").asText();
+
+		var atualizacao = orcamento.executar(put("/lancamentos/serie/" + codigoSerie)
+				.header(HttpHeaders.AUTHORIZATION, admin).contentType(MediaType.APPLICATION_JSON)
+				.content(LANCAMENTO.formatted("Aluguel reajustado")), "LancamentoResource.atualizarSerie")
+				.dentroDoOrcamento();
+		assertEquals(200, atualizacao.status());
+
+		var remocao = orcamento.executar(delete("/lancamentos/serie/" + codigoSerie)
+				.header(HttpHeaders.AUTHORIZATION, admin), "LancamentoResource.removerSerie").dentroDoOrcamento();
+		assertEquals(204, remocao.status());
+	}
+
+	@Test
+	void removerPorFiltroFechaOrcamento() throws Exception {
+		String descricao = "Lote " + UUID.randomUUID();
+		for (int i = 0; i < 5; i++) {
+			criarLancamento(descricao);
+		}
+		double removidosAntes = meterRegistry.counter("algamoney.lancamentos.remocao.removidos").count();
+		double lotesAntes = meterRegistry.counter("algamoney.lancamentos.remocao.lotes").count();
+		var medicao = orcamento.executar(delete("/lancamentos").param("descricao", descricao)
+				.param("tamanhoLote", "2").header(HttpHeaders.AUTHORIZATION, admin),
+				"LancamentoResource.removerPorFiltro").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+		assertTrue(medicao.resultado().getResponse().getContentAsString().contains("5"));
+		assertEquals(5.0, meterRegistry.counter("algamoney.lancamentos.remocao.removidos").count() - removidosAntes);
+		assertEquals(3.0, meterRegistry.counter("algamoney.lancamentos.remocao.lotes").count() - lotesAntes);
+	}
+
+	private Lancamento criarLancamento(String descricao) {
+		Lancamento lancamento = new Lancamento();
+		lancamento.setDescricao(descricao);
+		lancamento.setDataVencimento(LocalDate.of(2017, 6, 20));
+		lancamento.setValor(new BigDecimal("10.00"));
+		lancamento.setTipo(TipoLancamento.DESPESA);
+		lancamento.setCategoria(categoriaRepository.getReferenceById(1L));
+		lancamento.setPessoa(pessoaRepository.getReferenceById(1L));
+		return lancamentoRepository.save(lancamento);
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.example.algamoney.api.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import com.example.algamoney.api.model.Pessoa;
+import com.example.algamoney.api.repository.PessoaRepository;
+
+class PessoaResourceTest extends TesteResource {
+
+	@Autowired
+	private PessoaRepository pessoaRepository;
+
+	@Test
+	void criarCabeNoOrcamento() throws Exception {
+		var medicao = orcamento.executar(post("/pessoas").header(HttpHeaders.AUTHORIZATION, admin)
+				.contentType(MediaType.APPLICATION_JSON).content("{\"nome\": \"Ana Souza\", \"ativo\": true}"),
+				"PessoaResource.criar").dentroDoOrcamento();
+		assertEquals(201, medicao.status());
+	}
+
+	@Test
+	void buscarPeloCodigoCabeNoOrcamento() throws Exception {
+		var medicao = orcamento.executar(get("/pessoas/1").header(HttpHeaders.AUTHORIZATION, admin),
+				"PessoaResource.buscarPeloCodigo").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+	}
+
+	@Test
+	void removerCabeNoOrcamento() throws Exception {
+		Long codigo = criarPessoa().getCodigo();
+		var medicao = orcamento.executar(delete("/pessoas/" + codigo).header(HttpHeaders.AUTHORIZATION, admin),
+				"PessoaResource.remover").dentroDoOrcamento();
+		assertEquals(204, medicao.status());
+		assertFalse(pessoaRepository.existsById(codigo));
+	}
+
+	@Test
+	void atualizarCabeNoOrcamento() throws Exception {
+		Long codigo = criarPessoa().getCodigo();
+		var medicao = orcamento.executar(put("/pessoas/" + codigo).header(HttpHeaders.AUTHORIZATION, admin)
+				.contentType(MediaType.APPLICATION_JSON).content("{\"nome\": \"Ana Lima\", \"ativo\": true}"),
+				"PessoaResource.atualizar").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+	}
+
+	@Test
+	void atualizarPropriedadeAtivoCabeNoOrcamento() throws Exception {
+		Long codigo = criarPessoa().getCodigo();
+		var medicao = orcamento.executar(put("/pessoas/" + codigo + "/ativo").header(HttpHeaders.AUTHORIZATION, admin)
+				.contentType(MediaType.APPLICATION_JSON).content("false"),
+				"PessoaResource.atualizarPropriedadeAtivo").dentroDoOrcamento();
+		assertEquals(204, medicao.status());
+	}
+
+	// O orçamento do lote não pode crescer com o número de pessoas
+	@Test
+	void atualizarEmLoteCabeNoOrcamento() throws Exception {
+		List<String> pessoas = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			pessoas.add("{\"codigo\": " + criarPessoa().getCodigo() + ", \"nome\": \"Lote " + i + "\", \"ativo\": true}");
+		}
+		var medicao = orcamento.executar(put("/pessoas").header(HttpHeaders.AUTHORIZATION, admin)
+				.contentType(MediaType.APPLICATION_JSON).content("[" + String.join(", ", pessoas) + "]"),
+				"PessoaResource.atualizarEmLote").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+	}
+
+	@Test
+	void atualizarPropriedadeAtivoEmLoteCabeNoOrcamento() throws Exception {
+		List<String> codigos = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			codigos.add(criarPessoa().getCodigo().toString());
+		}
+		var medicao = orcamento.executar(put("/pessoas/ativo").header(HttpHeaders.AUTHORIZATION, admin)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"codigos\": [" + String.join(", ", codigos) + "], \"ativo\": false}"),
+				"PessoaResource.atualizarPropriedadeAtivoEmLote").dentroDoOrcamento();
+		assertEquals(204, medicao.status());
+	}
+
+	@Test
+	void pesquisarCabeNoOrcamento() throws Exception {
+		var medicao = orcamento.executar(get("/pessoas").param("nome", "a").param("size", "3")
+				.header(HttpHeaders.AUTHORIZATION, admin), "PessoaResource.pesquisar").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+	}
+
+	@Test
+	void buscarPelosCodigosCabeNoOrcamento() throws Exception {
+		var medicao = orcamento.executar(get("/pessoas").param("codigos", "1", "2", "3", "99999")
+				.header(HttpHeaders.AUTHORIZATION, admin), "PessoaResource.buscarPelosCodigos").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+	}
+
+	@Test
+	void autocompletarCabeNoOrcamento() throws Exception {
+		var medicao = orcamento.executar(get("/pessoas/autocompletar").param("nome", "Pe")
+				.header(HttpHeaders.AUTHORIZATION, admin), "PessoaResource.autocompletar").dentroDoOrcamento();
+		assertEquals(200, medicao.status());
+	}
+
+	private Pessoa criarPessoa() {
+		Pessoa pessoa = new Pessoa();
+		pessoa.setNome("Pessoa de teste");
+		pessoa.setAtivo(true);
+		return pessoaRepository.save(pessoa);
+	}
+
+}
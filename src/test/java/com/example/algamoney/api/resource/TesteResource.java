@@ -0,0 +1,50 @@
+package com.example.algamoney.api.resource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.algamoney.api.TesteIntegracao;
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.query.MedidorOrcamento;
+import com.example.algamoney.api.security.CatalogoPermissoes;
+import com.example.algamoney.api.token.EmissorTokensTeste;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Base dos testes de resource: cada método é chamado com um token de administrador e
+ * tem os comandos SQL medidos contra o seu @QueryBudget.
+ */
+abstract class TesteResource extends TesteIntegracao {
+
+	@Autowired
+	protected MockMvc mvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private Environment environment;
+
+	@Autowired
+	private CatalogoPermissoes catalogoPermissoes;
+
+	@Autowired
+	private AlgamoneyApiProperty algamoneyApiProperty;
+
+	protected MedidorOrcamento orcamento;
+
+	protected EmissorTokensTeste tokens;
+
+	protected String admin;
+
+	@BeforeEach
+	void prepararResource() {
+		orcamento = new MedidorOrcamento(mvc, meterRegistry, algamoneyApiProperty.getQueryBudget().getDefaultMax());
+		tokens = new EmissorTokensTeste(environment, catalogoPermissoes);
+		admin = tokens.administrador();
+	}
+
+}
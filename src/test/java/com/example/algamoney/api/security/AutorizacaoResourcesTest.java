@@ -0,0 +1,147 @@
+package com.example.algamoney.api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.condition.NameValueExpression;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.example.algamoney.api.TesteIntegracao;
+import com.example.algamoney.api.token.EmissorTokensTeste;
+
+/**
+ * Cada método com {@link Autorizacao}, chamado pela URL que o mapeia: sem o bit da
+ * permissão ou sem um dos escopos dá 403; com exatamente a permissão e os escopos pedidos
+ * a requisição passa da autorização. Códigos nos caminhos não existem e os corpos vão
+ * vazios, então nenhuma chamada liberada altera dados.
+ */
+class AutorizacaoResourcesTest extends TesteIntegracao {
+
+	private static final String CODIGO_INEXISTENTE = "999999";
+
+	// Params exigidos pelos mapeamentos que não aceitam valor vazio
+	private static final Map<String, String> VALORES_PARAMS = Map.of("codigos", CODIGO_INEXISTENTE, "fields", "codigo");
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	@Qualifier("requestMappingHandlerMapping")
+	private RequestMappingHandlerMapping handlerMapping;
+
+	@Autowired
+	private Environment environment;
+
+	@Autowired
+	private CatalogoPermissoes catalogoPermissoes;
+
+	private EmissorTokensTeste tokens;
+
+	@BeforeEach
+	void prepararTokens() {
+		tokens = new EmissorTokensTeste(environment, catalogoPermissoes);
+	}
+
+	@Test
+	void semAPermissaoNega() throws Exception {
+		for (Map.Entry<RequestMappingInfo, Method> protegido : protegidos()) {
+			Autorizacao autorizacao = autorizacao(protegido.getValue());
+			List<String> outras = new ArrayList<>(EmissorTokensTeste.TODAS_PERMISSOES);
+			assertTrue(outras.remove(autorizacao.permissao()), autorizacao.permissao());
+
+			MvcResult resultado = chamar(protegido, tokens.emitir(outras, Escopo.values()));
+			assertEquals(403, resultado.getResponse().getStatus(), nome(protegido.getValue()));
+		}
+	}
+
+	@Test
+	void semUmDosEscoposNega() throws Exception {
+		int comEscopo = 0;
+		for (Map.Entry<RequestMappingInfo, Method> protegido : protegidos()) {
+			Autorizacao autorizacao = autorizacao(protegido.getValue());
+			for (Escopo exigido : autorizacao.escopo()) {
+				Escopo[] outros = Arrays.stream(Escopo.values()).filter(escopo -> escopo != exigido).toArray(Escopo[]::new);
+				MvcResult resultado = chamar(protegido, tokens.emitir(List.of(autorizacao.permissao()), outros));
+				assertEquals(403, resultado.getResponse().getStatus(), nome(protegido.getValue()) + " sem " + exigido);
+				comEscopo++;
+			}
+		}
+		assertTrue(comEscopo > 0);
+	}
+
+	@Test
+	void comAPermissaoEOsEscoposPermite() throws Exception {
+		for (Map.Entry<RequestMappingInfo, Method> protegido : protegidos()) {
+			Autorizacao autorizacao = autorizacao(protegido.getValue());
+			MvcResult resultado = chamar(protegido, tokens.emitir(List.of(autorizacao.permissao()), autorizacao.escopo()));
+
+			int status = resultado.getResponse().getStatus();
+			assertFalse(status == 401 || status == 403, nome(protegido.getValue()) + ": " + status);
+		}
+	}
+
+	private List<Map.Entry<RequestMappingInfo, Method>> protegidos() {
+		List<Map.Entry<RequestMappingInfo, Method>> protegidos = new ArrayList<>();
+		for (Map.Entry<RequestMappingInfo, HandlerMethod> mapeamento : handlerMapping.getHandlerMethods().entrySet()) {
+			Method method = mapeamento.getValue().getMethod();
+			if (autorizacao(method) != null) {
+				protegidos.add(Map.entry(mapeamento.getKey(), method));
+			}
+		}
+		assertFalse(protegidos.isEmpty());
+		return protegidos;
+	}
+
+	/**
+	 * Monta a requisição a partir do mapeamento (método HTTP, caminho, params e produces) e
+	 * confere que ela caiu no método esperado.
+	 */
+	private MvcResult chamar(Map.Entry<RequestMappingInfo, Method> protegido, String token) throws Exception {
+		RequestMappingInfo mapeamento = protegido.getKey();
+		String caminho = mapeamento.getPatternValues().iterator().next().replaceAll("\\{[^}]+\\}", CODIGO_INEXISTENTE);
+		HttpMethod metodo = HttpMethod.valueOf(mapeamento.getMethodsCondition().getMethods().iterator().next().name());
+
+		MockHttpServletRequestBuilder requisicao = request(metodo, caminho).header(HttpHeaders.AUTHORIZATION, token);
+		for (NameValueExpression<String> param : mapeamento.getParamsCondition().getExpressions()) {
+			if (!param.isNegated()) {
+				requisicao.param(param.getName(), param.getValue() != null ? param.getValue()
+						: VALORES_PARAMS.getOrDefault(param.getName(), ""));
+			}
+		}
+		mapeamento.getProducesCondition().getProducibleMediaTypes().stream().findFirst().ifPresent(requisicao::accept);
+
+		MvcResult resultado = mvc.perform(requisicao).andReturn();
+		assertEquals(protegido.getValue(), ((HandlerMethod) resultado.getHandler()).getMethod(), caminho);
+		return resultado;
+	}
+
+	private static Autorizacao autorizacao(Method method) {
+		return AnnotatedElementUtils.findMergedAnnotation(method, Autorizacao.class);
+	}
+
+	private static String nome(Method method) {
+		return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+	}
+
+}
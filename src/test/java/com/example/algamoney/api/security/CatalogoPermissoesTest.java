@@ -0,0 +1,73 @@
+package com.example.algamoney.api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.example.algamoney.api.model.Permissao;
+import com.example.algamoney.api.repository.PermissaoRepository;
+
+class CatalogoPermissoesTest {
+
+	@Test
+	void mesmoMapeamentoMesmaVersao() {
+		CatalogoPermissoes catalogo = catalogo(permissao(1, "ROLE_A"), permissao(2, "ROLE_B"));
+		CatalogoPermissoes reordenado = catalogo(permissao(2, "role_b"), permissao(1, "role_a"));
+
+		assertEquals(catalogo.getVersao(), reordenado.getVersao());
+	}
+
+	// Os bits de um token antigo passariam a significar outra permissão: a versão precisa mudar
+	@Test
+	void mapeamentoAlteradoMudaVersao() {
+		CatalogoPermissoes antes = catalogo(permissao(1, "ROLE_A"), permissao(2, "ROLE_B"));
+		CatalogoPermissoes trocado = catalogo(permissao(1, "ROLE_B"), permissao(2, "ROLE_A"));
+		CatalogoPermissoes ampliado = catalogo(permissao(1, "ROLE_A"), permissao(2, "ROLE_B"), permissao(3, "ROLE_C"));
+
+		assertNotEquals(antes.getVersao(), trocado.getVersao());
+		assertNotEquals(antes.getVersao(), ampliado.getVersao());
+
+		Permissoes doToken = Permissoes.decodificar(antes.permissoes(List.of("ROLE_A")).codificar());
+		assertEquals(List.of("ROLE_B"), nomes(trocado.authorities(doToken)));
+	}
+
+	@Test
+	void nomesDesconhecidosSaoIgnorados() {
+		CatalogoPermissoes catalogo = catalogo(permissao(1, "ROLE_A"), permissao(70, "ROLE_Z"));
+
+		Permissoes permissoes = catalogo.permissoes(List.of("role_a", "ROLE_INEXISTENTE", "ROLE_Z"));
+		assertTrue(permissoes.possui(1) && permissoes.possui(70));
+		assertEquals(-1, catalogo.codigo("ROLE_INEXISTENTE"));
+		assertEquals(List.of("ROLE_A", "ROLE_Z"), nomes(catalogo.authorities(permissoes)));
+	}
+
+	private static CatalogoPermissoes catalogo(Permissao... permissoes) {
+		PermissaoRepository repositorio = mock(PermissaoRepository.class);
+		when(repositorio.findAll()).thenReturn(List.of(permissoes));
+		return new CatalogoPermissoes(repositorio);
+	}
+
+	private static Permissao permissao(long codigo, String descricao) {
+		Permissao permissao = new Permissao();
+		permissao.setCodigo(codigo);
+		permissao.setDescricao(descricao);
+		return permissao;
+	}
+
+	private static List<String> nomes(List<GrantedAuthority> authorities) {
+		List<String> nomes = new ArrayList<>();
+		for (GrantedAuthority authority : authorities) {
+			nomes.add(authority.getAuthority());
+		}
+		return nomes;
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.example.algamoney.api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class FiltroBloomTest {
+
+	private static final int CAPACIDADE = 10000;
+	private static final double TAXA = 0.01;
+
+	@Test
+	void semFalsoNegativo() {
+		FiltroBloom filtro = new FiltroBloom(CAPACIDADE, TAXA);
+		List<String> valores = jtis(CAPACIDADE);
+		valores.forEach(filtro::adicionar);
+
+		for (String valor : valores) {
+			assertTrue(filtro.talvezContem(valor), valor);
+		}
+	}
+
+	@Test
+	void semFalsoNegativoComInclusaoConcorrente() throws Exception {
+		FiltroBloom filtro = new FiltroBloom(CAPACIDADE, TAXA);
+		List<String> valores = jtis(CAPACIDADE);
+
+		ExecutorService threads = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> inclusoes = new ArrayList<>();
+			for (int parte = 0; parte < 8; parte++) {
+				List<String> fatia = valores.subList(parte * CAPACIDADE / 8, (parte + 1) * CAPACIDADE / 8);
+				inclusoes.add(threads.submit(() -> fatia.forEach(filtro::adicionar)));
+			}
+			for (Future<?> inclusao : inclusoes) {
+				inclusao.get();
+			}
+		} finally {
+			threads.shutdown();
+		}
+
+		for (String valor : valores) {
+			assertTrue(filtro.talvezContem(valor), valor);
+		}
+	}
+
+	// Na capacidade a taxa fica perto da pedida; acima dela sobe, por isso o filtro é recriado
+	@Test
+	void taxaDeFalsoPositivoSobeAcimaDaCapacidade() {
+		FiltroBloom filtro = new FiltroBloom(CAPACIDADE, TAXA);
+		jtis(CAPACIDADE).forEach(filtro::adicionar);
+		List<String> ausentes = jtis(100000);
+
+		double naCapacidade = taxa(filtro, ausentes);
+		assertTrue(naCapacidade < TAXA * 2, "taxa na capacidade: " + naCapacidade);
+
+		jtis(CAPACIDADE * 2).forEach(filtro::adicionar);
+		double acima = taxa(filtro, ausentes);
+		assertTrue(acima > TAXA * 5, "taxa com o triplo da capacidade: " + acima);
+	}
+
+	@Test
+	void capacidadeMinima() {
+		assertEquals(64, new FiltroBloom(1, TAXA).getCapacidade());
+	}
+
+	private static double taxa(FiltroBloom filtro, List<String> ausentes) {
+		long falsos = ausentes.stream().filter(filtro::talvezContem).count();
+		return (double) falsos / ausentes.size();
+	}
+
+	private static List<String> jtis(int quantidade) {
+		List<String> jtis = new ArrayList<>(quantidade);
+		for (int i = 0; i < quantidade; i++) {
+			jtis.add(UUID.randomUUID().toString());
+		}
+		return jtis;
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.example.algamoney.api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+class PermissoesTest {
+
+	@Test
+	void codificacaoIdaEVolta() {
+		for (int[] codigos : new int[][] { {}, { 1 }, { 1, 2, 3, 4, 5, 6, 7, 8 }, { 0, 63, 64, 130 } }) {
+			BitSet bits = new BitSet();
+			for (int codigo : codigos) {
+				bits.set(codigo);
+			}
+
+			String codificado = Permissoes.de(bits).codificar();
+			Permissoes decodificadas = Permissoes.decodificar(codificado);
+
+			assertEquals(bits, decodificadas.paraBitSet(), codificado);
+			assertEquals(codificado, decodificadas.codificar());
+			for (int codigo = 0; codigo <= 140; codigo++) {
+				assertEquals(bits.get(codigo), decodificadas.possui(codigo), "código " + codigo);
+			}
+		}
+	}
+
+	// base64url sem padding: o valor vai direto no JSON do JWT
+	@Test
+	void codificacaoUsaAlfabetoUrl() {
+		BitSet bits = new BitSet();
+		bits.set(0, 24);
+		String codificado = Permissoes.de(bits).codificar();
+
+		assertEquals("____", codificado);
+		assertFalse(Permissoes.de(new BitSet()).codificar().contains("="));
+	}
+
+	@Test
+	void permissoesAtuaisCabemEmTresCaracteres() {
+		BitSet bits = new BitSet();
+		bits.set(1, 9);
+		assertEquals(3, Permissoes.de(bits).codificar().length());
+	}
+
+	@Test
+	void codigoForaDoBitsetNaoEPossuido() {
+		Permissoes permissoes = Permissoes.decodificar("Ag");
+
+		assertTrue(permissoes.possui(1));
+		assertFalse(permissoes.possui(-1));
+		assertFalse(permissoes.possui(64));
+		assertFalse(Permissoes.NENHUMA.possui(0));
+	}
+
+	@Test
+	void valorInvalidoNaoEDecodificado() {
+		assertThrows(IllegalArgumentException.class, () -> Permissoes.decodificar("a+b/"));
+	}
+
+}
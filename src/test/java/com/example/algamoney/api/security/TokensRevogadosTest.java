@@ -0,0 +1,80 @@
+package com.example.algamoney.api.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.model.TokenRevogado;
+import com.example.algamoney.api.repository.TokenRevogadoRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokensRevogadosTest {
+
+	private static final int CAPACIDADE = 100;
+
+	private final List<TokenRevogado> tabela = new ArrayList<>();
+
+	private TokensRevogados tokensRevogados;
+
+	@BeforeEach
+	void preparar() {
+		TokenRevogadoRepository repositorio = mock(TokenRevogadoRepository.class);
+		when(repositorio.findByExpiraEmAfter(any())).thenAnswer(i -> List.copyOf(tabela));
+		when(repositorio.save(any())).thenAnswer(i -> {
+			tabela.add(i.getArgument(0));
+			return i.getArgument(0);
+		});
+
+		AlgamoneyApiProperty propriedades = new AlgamoneyApiProperty();
+		propriedades.getRevogacao().setCapacidade(CAPACIDADE);
+		tokensRevogados = new TokensRevogados(repositorio, propriedades, new SimpleMeterRegistry());
+		tokensRevogados.carregar();
+	}
+
+	// Ao encher, o filtro é recriado com o dobro e nenhum revogado deixa de ser reconhecido
+	@Test
+	void filtroCresceSemPerderRevogados() {
+		List<String> revogados = new ArrayList<>();
+		for (int i = 0; i < CAPACIDADE * 3; i++) {
+			String jti = UUID.randomUUID().toString();
+			tokensRevogados.revogar(jti, Instant.now().plusSeconds(600));
+			revogados.add(jti);
+
+			for (String revogado : revogados) {
+				assertTrue(tokensRevogados.revogado(revogado), revogado);
+			}
+		}
+
+		assertEquals(CAPACIDADE * 4, tokensRevogados.getCapacidadeFiltro());
+		assertFalse(tokensRevogados.revogado(UUID.randomUUID().toString()));
+	}
+
+	// A recarga dimensiona o filtro pelo que está na tabela, com folga
+	@Test
+	void recargaDimensionaPelaTabela() {
+		for (int i = 0; i < CAPACIDADE * 2; i++) {
+			tabela.add(new TokenRevogado(UUID.randomUUID().toString(), LocalDateTime.now().plusMinutes(10)));
+		}
+		tokensRevogados.carregar();
+
+		assertEquals(CAPACIDADE * 4, tokensRevogados.getCapacidadeFiltro());
+		for (TokenRevogado token : tabela) {
+			assertTrue(tokensRevogados.revogado(token.getJti()));
+		}
+	}
+
+}
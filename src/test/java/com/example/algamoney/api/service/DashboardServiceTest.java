@@ -0,0 +1,224 @@
+package com.example.algamoney.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.dto.Dashboard;
+import com.example.algamoney.api.query.ControleConsultasDataSource;
+import com.example.algamoney.api.repository.CategoriaRepository;
+import com.example.algamoney.api.repository.LancamentoRepository;
+import com.example.algamoney.api.repository.PessoaRepository;
+import com.example.algamoney.api.resilience.LeituraResiliente;
+import com.example.algamoney.api.security.RegraAutorizacao;
+import com.example.algamoney.api.security.RegrasAutorizacao;
+import com.example.algamoney.api.service.exception.ServicoIndisponivelException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Repositórios falsos, executor de verdade: cada teste decide qual seção demora, falha
+ * ou não pode ser consultada.
+ */
+class DashboardServiceTest {
+
+	private final Authentication usuario = new TestingAuthenticationToken("admin", null);
+
+	private AlgamoneyApiProperty propriedades;
+	private SimpleMeterRegistry registry;
+	private CategoriaRepository categoriaRepository;
+	private PessoaRepository pessoaRepository;
+	private LancamentoRepository lancamentoRepository;
+	private RegrasAutorizacao regrasAutorizacao;
+	private DashboardService service;
+
+	// Solta as leituras presas no fim de cada teste
+	private final CountDownLatch liberar = new CountDownLatch(1);
+
+	@BeforeEach
+	void preparar() {
+		propriedades = new AlgamoneyApiProperty();
+		registry = new SimpleMeterRegistry();
+		categoriaRepository = mock(CategoriaRepository.class);
+		pessoaRepository = mock(PessoaRepository.class);
+		lancamentoRepository = mock(LancamentoRepository.class);
+		regrasAutorizacao = mock(RegrasAutorizacao.class);
+		when(regrasAutorizacao.regra(anyString(), any())).thenReturn(RegraAutorizacao.LIVRE);
+		when(lancamentoRepository.contarVencidos(any())).thenReturn(3L);
+	}
+
+	@AfterEach
+	void encerrar() {
+		liberar.countDown();
+		if (service != null) {
+			service.finalizar();
+		}
+	}
+
+	// O comando só termina quando cancelado, como um SELECT preso no banco
+	@Test
+	void secaoLentaSaiComTimeoutECancelaAsConsultas() throws Exception {
+		propriedades.getDashboard().getTimeouts().put("vencidos", 100L);
+		Statement comando = mock(Statement.class);
+		CountDownLatch cancelado = new CountDownLatch(1);
+		doAnswer(invocacao -> {
+			cancelado.countDown();
+			return null;
+		}).when(comando).cancel();
+		when(comando.executeQuery(anyString())).thenAnswer(invocacao -> {
+			cancelado.await(5, TimeUnit.SECONDS);
+			throw new SQLException("Query execution was interrupted");
+		});
+		Connection conexao = mock(Connection.class);
+		when(conexao.createStatement()).thenReturn(comando);
+		DataSource banco = mock(DataSource.class);
+		when(banco.getConnection()).thenReturn(conexao);
+		DataSource dataSource = new ControleConsultasDataSource(banco);
+		when(lancamentoRepository.contarVencidos(any())).thenAnswer(invocacao -> {
+			try (Statement statement = dataSource.getConnection().createStatement()) {
+				statement.executeQuery("SELECT count(*) FROM lancamento");
+			}
+			return 3L;
+		});
+
+		Dashboard dashboard = montar();
+
+		assertEquals(Dashboard.Status.TIMEOUT, dashboard.getVencidos().getStatus());
+		assertEquals(Dashboard.Status.OK, dashboard.getCategorias().getStatus());
+		assertEquals(Dashboard.Status.OK, dashboard.getRecentes().getStatus());
+		verify(comando, timeout(5000)).cancel();
+		assertEquals(1, registry.get("algamoney.dashboard.secao").tags("secao", "vencidos", "status", "timeout")
+				.timer().count());
+	}
+
+	@Test
+	void falhaDeUmaSecaoNaoDerrubaAsOutras() throws Exception {
+		when(lancamentoRepository.totaisMensais(any(LocalDate.class), any(LocalDate.class)))
+				.thenThrow(new IllegalStateException("falhou"));
+
+		Dashboard dashboard = montar();
+
+		assertEquals(Dashboard.Status.ERRO, dashboard.getTotaisMensais().getStatus());
+		assertEquals(Dashboard.Status.OK, dashboard.getVencidos().getStatus());
+		assertEquals(3L, dashboard.getVencidos().getDados());
+		assertEquals(Dashboard.Status.OK, dashboard.getPessoas().getStatus());
+	}
+
+	// 1 thread e fila de 4: as três seções de lançamentos da primeira montagem ocupam
+	// a thread e duas vagas da fila, e só duas seções da segunda cabem
+	@Test
+	void executorCheioDaErroNasSecoesQueNaoCouberam() throws Exception {
+		propriedades.getDashboard().setThreads(1);
+		when(lancamentoRepository.totaisMensais(any(LocalDate.class), any(LocalDate.class))).thenAnswer(invocacao -> {
+			liberar.await();
+			return List.of();
+		});
+		when(lancamentoRepository.buscarRecentes(any())).thenAnswer(invocacao -> {
+			liberar.await();
+			return List.of();
+		});
+		when(lancamentoRepository.contarVencidos(any())).thenAnswer(invocacao -> {
+			liberar.await();
+			return 3L;
+		});
+		negar("ROLE_PESQUISAR_CATEGORIA");
+		negar("ROLE_PESQUISAR_PESSOA");
+		criar().montar(usuario);
+
+		when(regrasAutorizacao.regra(anyString(), any())).thenReturn(RegraAutorizacao.LIVRE);
+		CompletableFuture<Dashboard> segunda = service.montar(usuario);
+		liberar.countDown();
+		Dashboard dashboard = segunda.get(5, TimeUnit.SECONDS);
+
+		assertEquals(Dashboard.Status.OK, dashboard.getCategorias().getStatus());
+		assertEquals(Dashboard.Status.OK, dashboard.getPessoas().getStatus());
+		assertEquals(Dashboard.Status.ERRO, dashboard.getTotaisMensais().getStatus());
+		assertEquals(Dashboard.Status.ERRO, dashboard.getRecentes().getStatus());
+		assertEquals(Dashboard.Status.ERRO, dashboard.getVencidos().getStatus());
+	}
+
+	@Test
+	void secaoSemPermissaoNaoEConsultada() throws Exception {
+		negar("ROLE_PESQUISAR_PESSOA");
+
+		Dashboard dashboard = montar();
+
+		assertEquals(Dashboard.Status.SEM_PERMISSAO, dashboard.getPessoas().getStatus());
+		assertEquals(Dashboard.Status.OK, dashboard.getCategorias().getStatus());
+		assertTrue(dashboard.isCompleto());
+		verify(pessoaRepository, never()).estatisticas();
+	}
+
+	@Test
+	void semDadosEmNenhumaSecaoFicaIndisponivel() {
+		negar("ROLE_PESQUISAR_CATEGORIA");
+		negar("ROLE_PESQUISAR_PESSOA");
+		IllegalStateException falha = new IllegalStateException("falhou");
+		when(lancamentoRepository.totaisMensais(any(LocalDate.class), any(LocalDate.class))).thenThrow(falha);
+		when(lancamentoRepository.buscarRecentes(any())).thenThrow(falha);
+		when(lancamentoRepository.contarVencidos(any())).thenThrow(falha);
+
+		ExecutionException erro = assertThrows(ExecutionException.class, this::montar);
+		assertInstanceOf(ServicoIndisponivelException.class, erro.getCause());
+	}
+
+	// Uma seção com dados basta, mesmo com as demais sem permissão ou com erro
+	@Test
+	void umaSecaoComDadosBasta() throws Exception {
+		negar("ROLE_PESQUISAR_PESSOA");
+		when(categoriaRepository.listarTodas()).thenThrow(new IllegalStateException("falhou"));
+		when(lancamentoRepository.totaisMensais(any(LocalDate.class), any(LocalDate.class)))
+				.thenThrow(new IllegalStateException("falhou"));
+		when(lancamentoRepository.buscarRecentes(any())).thenThrow(new IllegalStateException("falhou"));
+
+		Dashboard dashboard = montar();
+
+		assertEquals(Dashboard.Status.OK, dashboard.getVencidos().getStatus());
+		assertTrue(dashboard.possuiDados());
+	}
+
+	private Dashboard montar() throws Exception {
+		return criar().montar(usuario).get(5, TimeUnit.SECONDS);
+	}
+
+	private DashboardService criar() {
+		service = new DashboardService(categoriaRepository, pessoaRepository, lancamentoRepository,
+				new LeituraResiliente(propriedades, registry), regrasAutorizacao, registry, propriedades);
+		return service;
+	}
+
+	private void negar(String permissao) {
+		RegraAutorizacao regra = mock(RegraAutorizacao.class);
+		when(regrasAutorizacao.regra(eq(permissao), any())).thenReturn(regra);
+	}
+
+}
@@ -0,0 +1,20 @@
+package com.example.algamoney.api.service;
+
+import java.sql.Connection;
+import java.util.concurrent.Callable;
+
+import javax.sql.DataSource;
+
+/**
+ * Pede uma conexão de dentro do pacote service, onde o MonitorPoolDataSource procura a
+ * origem do empréstimo, e não devolve.
+ */
+public class EmprestimoConexaoTeste {
+
+	public static Connection segurar(DataSource dataSource) throws Exception {
+		// Lambda de propósito: a origem tem que sair como EmprestimoConexaoTeste.segurar
+		Callable<Connection> emprestimo = () -> dataSource.getConnection();
+		return emprestimo.call();
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.example.algamoney.api.token;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.core.env.Environment;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.example.algamoney.api.security.CatalogoPermissoes;
+import com.example.algamoney.api.security.Escopo;
+
+/**
+ * Emite tokens como o {@link TokenController}, mas com permissões e escopos escolhidos
+ * pelo teste, sem passar pelo login.
+ */
+public class EmissorTokensTeste {
+
+    public static final List<String> TODAS_PERMISSOES = List.of(
+            "ROLE_CADASTRAR_CATEGORIA", "ROLE_PESQUISAR_CATEGORIA",
+            "ROLE_CADASTRAR_PESSOA", "ROLE_REMOVER_PESSOA", "ROLE_PESQUISAR_PESSOA",
+            "ROLE_CADASTRAR_LANCAMENTO", "ROLE_REMOVER_LANCAMENTO", "ROLE_PESQUISAR_LANCAMENTO");
+
+    private final Algorithm algorithm;
+    private final String issuer;
+    private final String audience;
+    private final CatalogoPermissoes catalogoPermissoes;
+
+    public EmissorTokensTeste(Environment environment, CatalogoPermissoes catalogoPermissoes) {
+        this.algorithm = Algorithm.HMAC256(environment.getRequiredProperty("algamoney.jwt.secret"));
+        this.issuer = environment.getRequiredProperty("algamoney.jwt.issuer");
+        this.audience = environment.getRequiredProperty("algamoney.jwt.audience");
+        this.catalogoPermissoes = catalogoPermissoes;
+    }
+
+    public String administrador() {
+        return emitir(TODAS_PERMISSOES, Escopo.values());
+    }
+
+    public String emitir(Collection<String> permissoes, Escopo... escopos) {
+        return "Bearer " + JWT.create()
+            .withIssuer(issuer)
+            .withAudience(audience)
+            .withSubject("teste@algamoney.com")
+            .withJWTId(UUID.randomUUID().toString())
+            .withClaim(TokenController.CLAIM_PERMISSOES, catalogoPermissoes.permissoes(permissoes).codificar())
+            .withClaim(TokenController.CLAIM_VERSAO_PERMISSOES, catalogoPermissoes.getVersao())
+            .withClaim(TokenController.CLAIM_ESCOPO, Escopo.nomes(Escopo.mascara(escopos)))
+            .withIssuedAt(new Date())
+            .withExpiresAt(new Date(System.currentTimeMillis() + 600000))
+            .sign(algorithm);
+    }
+
+    public String emitir(String... permissoes) {
+        return emitir(Arrays.asList(permissoes), Escopo.values());
+    }
+
+}
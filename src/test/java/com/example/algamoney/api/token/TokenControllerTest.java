@@ -0,0 +1,53 @@
+package com.example.algamoney.api.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.algamoney.api.TesteIntegracao;
+import com.example.algamoney.api.config.property.AlgamoneyApiProperty;
+import com.example.algamoney.api.query.MedidorOrcamento;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+class TokenControllerTest extends TesteIntegracao {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AlgamoneyApiProperty algamoneyApiProperty;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MedidorOrcamento orcamento;
+
+    @BeforeEach
+    void prepararOrcamento() {
+        orcamento = new MedidorOrcamento(mvc, meterRegistry, algamoneyApiProperty.getQueryBudget().getDefaultMax());
+    }
+
+    @Test
+    void tokenERevogacaoCabemNoOrcamento() throws Exception {
+        var emissao = orcamento.executar(post("/oauth/token").param("username", "admin@algamoney.com")
+                .param("password", "admin").param("grant_type", "password"), "TokenController.token")
+                .dentroDoOrcamento();
+        assertEquals(200, emissao.status());
+
+        String token = objectMapper.readTree(emissao.resultado().getResponse().getContentAsString())
+                .get("access_token").asText();
+        var revogacao = orcamento.executar(post("/oauth/revoke").param("token", token), "TokenController.revoke")
+                .dentroDoOrcamento();
+        assertEquals(200, revogacao.status());
+    }
+
+}